@@ -0,0 +1,219 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.pojo.entity.WorkflowApprovalEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.pojo.entity.WorkflowNodeEntity;
+import com.adminplus.repository.WorkflowApprovalRepository;
+import com.adminplus.repository.WorkflowInboxRepository;
+import com.adminplus.service.workflow.WorkflowApproverResolver;
+import com.adminplus.service.workflow.impl.WorkflowApprovalServiceImpl;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 角色审批节点（默认 500 名成员）按人展开时请求线程上的耗时
+ * <p>
+ * 在真实 PostgreSQL 上调用生产代码 {@link WorkflowApprovalServiceImpl#recreateApprovalsForNode}
+ * （审批人去重、整批保存审批记录）与 {@link WorkflowInbox#refresh}（整批增加待办条目并累加计数），
+ * 每次调用在一个事务内执行，审批记录与收件箱语句的往返、批量写入和锁开销都计入结果。
+ * 只有审批人解析（角色成员查询）为桩实现，不属于展开与收件箱路径。
+ * </p>
+ * <p>
+ * 设置环境变量 JMH_DB_URL（及 JMH_DB_USERNAME、JMH_DB_PASSWORD）时连接该库，需为基准专用库，
+ * 表结构按实体 ddl-auto=update 创建，结束时删除本基准写入的行；
+ * 未设置时用 Testcontainers 启动 PostgreSQL（需要 Docker）。每次调用使用新的实例 ID，互不冲突。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApprovalFanoutBenchmark {
+
+    private static final DockerImageName POSTGRES_IMAGE = DockerImageName.parse("postgres:16-alpine");
+
+    /**
+     * 本基准写入的实例、用户 ID 前缀，用于结束时清理
+     */
+    private static final String ID_PREFIX = "jmh-fanout-";
+
+    @Param({"500"})
+    private int members;
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private WorkflowApprovalServiceImpl approvalService;
+    private WorkflowInbox inbox;
+    private WorkflowNodeEntity node;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        String url = System.getenv("JMH_DB_URL");
+        if (url != null && !url.isBlank()) {
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", System.getenv().getOrDefault("JMH_DB_USERNAME", "postgres"));
+            properties.put("spring.datasource.password", System.getenv().getOrDefault("JMH_DB_PASSWORD", ""));
+        } else {
+            container = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                    .withDatabaseName("adminplus_jmh")
+                    .withUsername("jmh")
+                    .withPassword("jmh");
+            container.start();
+            properties.put("spring.datasource.url", container.getJdbcUrl());
+            properties.put("spring.datasource.username", container.getUsername());
+            properties.put("spring.datasource.password", container.getPassword());
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", "update");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        WorkflowApprovalRepository approvalRepository = context.getBean(WorkflowApprovalRepository.class);
+        WorkflowInboxRepository inboxRepository = context.getBean(WorkflowInboxRepository.class);
+
+        // 角色与部门叠加展开时会出现少量重复成员
+        List<String> roleMembers = new ArrayList<>(members + members / 20);
+        Map<String, String> names = new HashMap<>();
+        for (int i = 0; i < members; i++) {
+            roleMembers.add(ID_PREFIX + "user-" + i);
+            names.put(ID_PREFIX + "user-" + i, "用户" + i);
+        }
+        for (int i = 0; i < members / 20; i++) {
+            roleMembers.add(ID_PREFIX + "user-" + i * 20);
+        }
+        WorkflowApproverResolver approverResolver = mock(WorkflowApproverResolver.class, withSettings().stubOnly());
+        when(approverResolver.resolveApprovers(any(), any())).thenReturn(roleMembers);
+        when(approverResolver.batchGetApproverNames(anyList())).thenReturn(names);
+
+        inbox = new WorkflowInbox(inboxRepository, approvalRepository, transactionTemplate);
+        // 展开路径用不到的依赖传 null
+        approvalService = new WorkflowApprovalServiceImpl(null, approvalRepository, null, null, null,
+                approverResolver, null, inbox, null, null, null);
+
+        node = new WorkflowNodeEntity();
+        node.setId(ID_PREFIX + "node");
+        node.setNodeName("部门审批");
+        node.setAutoPassSameUser(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            if (context != null && container == null) {
+                JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                jdbcTemplate.update("DELETE FROM sys_workflow_inbox WHERE instance_id LIKE ?", ID_PREFIX + "%");
+                jdbcTemplate.update("DELETE FROM sys_workflow_inbox_counter WHERE user_id LIKE ?", ID_PREFIX + "%");
+                jdbcTemplate.update("DELETE FROM sys_workflow_approval WHERE instance_id LIKE ?", ID_PREFIX + "%");
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+
+    @Benchmark
+    public WorkflowInstanceEntity createApprovals() {
+        WorkflowInstanceEntity instance = nextInstance();
+        transactionTemplate.executeWithoutResult(status -> approvalService.recreateApprovalsForNode(instance, node));
+        return instance;
+    }
+
+    @Benchmark
+    public WorkflowInstanceEntity createApprovalsAndRefreshInbox() {
+        WorkflowInstanceEntity instance = nextInstance();
+        transactionTemplate.executeWithoutResult(status -> {
+            approvalService.recreateApprovalsForNode(instance, node);
+            inbox.refresh(instance);
+        });
+        return instance;
+    }
+
+    /**
+     * 每次调用使用新的实例，避免与上一次写入的审批记录、待办条目冲突
+     */
+    private WorkflowInstanceEntity nextInstance() {
+        WorkflowInstanceEntity instance = new WorkflowInstanceEntity();
+        instance.setId(ID_PREFIX + "inst-" + sequence++);
+        instance.setUserId(ID_PREFIX + "initiator");
+        instance.setStatus("running");
+        instance.setSubmitTime(Instant.parse("2026-10-18T00:00:00Z"));
+        return instance;
+    }
+
+    /**
+     * 只装配数据源、JPA 与两个仓库，不扫描应用组件
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @AutoConfigurationPackage(basePackages = "com.adminplus.pojo.entity")
+    @EnableJpaRepositories(basePackageClasses = WorkflowInboxRepository.class, useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {WorkflowApprovalRepository.class, WorkflowInboxRepository.class}))
+    @EnableJpaAuditing(auditorAwareRef = "benchmarkAuditor")
+    static class PersistenceConfig {
+
+        @Bean
+        AuditorAware<String> benchmarkAuditor() {
+            return () -> Optional.of("benchmark");
+        }
+    }
+}
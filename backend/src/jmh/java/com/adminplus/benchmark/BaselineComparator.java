@@ -0,0 +1,132 @@
+package com.adminplus.benchmark;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JMH 结果与基线比较
+ * <p>
+ * 读取本次运行的 JSON 结果（-rf json）与已保存的基线，按“基准方法 + 参数”逐项对比主指标：
+ * 平均耗时类（avgt/sample/ss）分数变大、吞吐类（thrpt）分数变小，且变化超过阈值百分比
+ * 并超出两次结果误差之和时判定为退化，存在退化时以状态码 1 退出，便于在流水线中拦截。
+ * </p>
+ * <p>
+ * 用法: {@code BaselineComparator <result.json> <baseline.json> <threshold%> [compare|update]}，
+ * update 模式将本次结果保存为新基线。基线文件不存在时只输出提示，不判定失败。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class BaselineComparator {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("用法: BaselineComparator <result.json> <baseline.json> <threshold%> [compare|update]");
+            System.exit(2);
+        }
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100.0;
+        String mode = args.length > 3 ? args[3] : "compare";
+
+        if (!Files.exists(result)) {
+            System.err.println("未找到基准测试结果: " + result + "，请先运行基准测试");
+            System.exit(2);
+        }
+        if ("update".equalsIgnoreCase(mode)) {
+            Path parent = baseline.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("基线已更新: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("未找到基线文件: " + baseline + "，跳过比较（使用 -Djmh.compare.mode=update 保存当前结果为基线）");
+            return;
+        }
+
+        List<String> regressions = compare(read(result), read(baseline), threshold);
+        if (!regressions.isEmpty()) {
+            System.err.println("发现 " + regressions.size() + " 项性能退化（阈值 " + args[2] + "%）:");
+            regressions.forEach(line -> System.err.println("  " + line));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 比较两次结果并打印对照表
+     *
+     * @return 退化项描述，为空表示无退化
+     */
+    static List<String> compare(Map<String, Score> current, Map<String, Score> baseline, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+
+            double change = before.score() == 0 ? 0 : (now.score() - before.score()) / before.score();
+            // 吞吐类指标越大越好，其余（耗时类）越小越好
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            double delta = Math.abs(now.score() - before.score());
+            boolean regressed = worse > threshold && delta > now.error() + before.error();
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.score(), now.score(),
+                    change * 100, regressed ? " !" : "");
+            if (regressed) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)", entry.getKey(), before.score(),
+                        now.score(), now.unit(), change * 100));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * 读取 JMH JSON 结果，以“基准方法 + 参数”为键
+     */
+    static Map<String, Score> read(Path file) throws IOException {
+        return parse(MAPPER.readTree(Files.readString(file)));
+    }
+
+    static Map<String, Score> parse(JsonNode root) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.properties().forEach(param -> sorted.put(param.getKey(), param.getValue().asText()));
+                sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(run.path("mode").asText(), metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    record Score(String mode, double score, double error, String unit) {
+    }
+}
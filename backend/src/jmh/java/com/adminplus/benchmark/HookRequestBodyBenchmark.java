@@ -0,0 +1,74 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.workflow.hook.HookContext;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.pojo.entity.WorkflowNodeEntity;
+import com.adminplus.service.workflow.hook.impl.HttpHookExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP 钩子请求体构建开销（HttpHookExecutor#buildRequestBody，不含网络请求）
+ * <p>
+ * 该方法为私有方法，通过 MethodHandle 调用，调用本身的开销可忽略。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HookRequestBodyBenchmark {
+
+    private static final String TEMPLATE = "{\"instanceId\":\"#instance.id\",\"nodeId\":\"#node.id\","
+            + "\"operator\":{\"id\":\"#operatorId\",\"name\":\"#operatorName\"},\"form\":#formData}";
+
+    @Param({"20", "200"})
+    private int itemCount;
+
+    private HttpHookExecutor executor;
+    private MethodHandle buildRequestBody;
+    private HookContext context;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        executor = new HttpHookExecutor(RestClient.create(), JsonMapper.builder().build(), new AppProperties());
+        buildRequestBody = MethodHandles.privateLookupIn(HttpHookExecutor.class, MethodHandles.lookup())
+                .findVirtual(HttpHookExecutor.class, "buildRequestBody",
+                        MethodType.methodType(String.class, String.class, HookContext.class));
+
+        WorkflowInstanceEntity instance = new WorkflowInstanceEntity();
+        instance.setId("inst-0001");
+        WorkflowNodeEntity node = new WorkflowNodeEntity();
+        node.setId("node-0001");
+        context = new HookContext(instance, node, BenchmarkFixtures.formPayload(60, itemCount), "APPROVE",
+                "user-0001", "张三", Map.of());
+    }
+
+    @Benchmark
+    public String buildRequestBody() throws Throwable {
+        return (String) buildRequestBody.invokeExact(executor, TEMPLATE, context);
+    }
+}
@@ -0,0 +1,147 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.utils.IdUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花 ID 生成吞吐（单线程、4 线程争用、1000 个虚拟线程争用、批量）
+ * <p>
+ * 单节点每毫秒最多 4096 个 ID，吞吐达到上限后的数值反映的是等待下一毫秒的开销。
+ * 带 synchronized 后缀的方法为改造前的实现（监视器锁 + 忙等下一毫秒），作为基线；
+ * 虚拟线程场景下旧实现在持有监视器时忙等，会占住载体线程。
+ * virtualThreads* 与 nextIdsBatch 每次调用生成 {@link #VIRTUAL_THREAD_IDS} 个 ID，结果按单个 ID 计。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int VIRTUAL_THREADS = 1000;
+    private static final int IDS_PER_VIRTUAL_THREAD = 20;
+    private static final int VIRTUAL_THREAD_IDS = VIRTUAL_THREADS * IDS_PER_VIRTUAL_THREAD;
+
+    private final SynchronizedSnowflake synchronizedSnowflake = new SynchronizedSnowflake(1L);
+
+    @Benchmark
+    @Threads(1)
+    public long nextIdSingleThread() {
+        return IdUtils.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdContended() {
+        return IdUtils.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextIdContendedSynchronized() {
+        return synchronizedSnowflake.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextIdStr() {
+        return IdUtils.nextIdStr();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(VIRTUAL_THREAD_IDS)
+    public long virtualThreads() throws Exception {
+        return generateOnVirtualThreads(IdUtils::nextId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(VIRTUAL_THREAD_IDS)
+    public long virtualThreadsSynchronized() throws Exception {
+        return generateOnVirtualThreads(synchronizedSnowflake::nextId);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(VIRTUAL_THREAD_IDS)
+    public long[] nextIdsBatch() {
+        return IdUtils.nextIds(VIRTUAL_THREAD_IDS);
+    }
+
+    private static long generateOnVirtualThreads(LongSupplier generator) throws Exception {
+        Future<?>[] futures = new Future<?>[VIRTUAL_THREADS];
+        long[] last = new long[VIRTUAL_THREADS];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < VIRTUAL_THREADS; t++) {
+                int slot = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < IDS_PER_VIRTUAL_THREAD; i++) {
+                        last[slot] = generator.getAsLong();
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return last[VIRTUAL_THREADS - 1];
+    }
+
+    /**
+     * 改造前的雪花 ID 生成实现
+     */
+    private static final class SynchronizedSnowflake {
+
+        private static final long START_TIMESTAMP = 1735689600000L;
+        private static final long SEQUENCE_MASK = 4095L;
+
+        private final long workerBits;
+        private long sequence;
+        private long lastTimestamp = -1L;
+
+        private SynchronizedSnowflake(long workerId) {
+            this.workerBits = workerId << 12;
+        }
+
+        private synchronized long nextId() {
+            long timestamp = System.currentTimeMillis();
+            if (timestamp < lastTimestamp) {
+                throw new IllegalStateException("Clock moved backwards");
+            }
+            if (lastTimestamp == timestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    while (timestamp <= lastTimestamp) {
+                        timestamp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0;
+            }
+            lastTimestamp = timestamp;
+            return ((timestamp - START_TIMESTAMP) << 22) | workerBits | sequence;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.security.CachingJwtAuthenticationConverter;
+import com.adminplus.common.security.CachingJwtDecoder;
+import com.adminplus.common.security.VerifiedJwtCache;
+import com.adminplus.utils.TokenHashUtils;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已认证请求的 JWT 处理开销
+ * <p>
+ * 每次调用模拟一个携带有效 Token 的请求：黑名单过滤器计算 Token 摘要，再解码并转换为认证对象。
+ * Token 从 tokenCount 个用户的 Token 中随机选取，相邻请求通常不是同一 Token。
+ * verifyEveryRequest 为改造前的路径（NimbusJwtDecoder 每次做 RS256 验签与 claims 校验，再经 JwtAuthenticationConverter），
+ * verifiedCache 为改造后的 CachingJwtDecoder + CachingJwtAuthenticationConverter（预热后均为缓存命中）。
+ * 两者的权限来源相同，都是进程内的固定权限集合，差值即验签与转换的开销。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    @Param({"1000"})
+    private int tokenCount;
+
+    private static final int PERMISSION_COUNT = 60;
+
+    private String[] tokens;
+
+    private JwtDecoder nimbusDecoder;
+    private Converter<Jwt, AbstractAuthenticationToken> plainConverter;
+
+    private JwtDecoder cachingDecoder;
+    private Converter<Jwt, AbstractAuthenticationToken> cachingConverter;
+
+    @Setup
+    public void setUp() throws Exception {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("benchmark-key").generate();
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+        nimbusDecoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+
+        Instant now = Instant.now();
+        tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .issuer("adminplus")
+                    .issuedAt(now)
+                    .expiresAt(now.plus(2, ChronoUnit.HOURS))
+                    .subject("user" + i)
+                    .claim("userId", "user-" + i)
+                    .claim("scope", "ROLE_USER")
+                    .build();
+            tokens[i] = encoder.encode(JwtEncoderParameters.from(
+                    JwsHeader.with(SignatureAlgorithm.RS256).build(), claims)).getTokenValue();
+        }
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (int i = 0; i < PERMISSION_COUNT; i++) {
+            authorities.add(new SimpleGrantedAuthority("module" + (i / 10) + ":action" + (i % 10)));
+        }
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> authorities);
+        plainConverter = converter;
+
+        VerifiedJwtCache cache = new VerifiedJwtCache(new AppProperties(), new SimpleMeterRegistry());
+        cachingDecoder = new CachingJwtDecoder(nimbusDecoder, cache);
+        cachingConverter = new CachingJwtAuthenticationConverter(converter, cache, () -> 1L);
+        for (String token : tokens) {
+            cachingConverter.convert(cachingDecoder.decode(token));
+        }
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken verifyEveryRequest() {
+        String token = tokens[ThreadLocalRandom.current().nextInt(tokenCount)];
+        TokenHashUtils.hash(token);
+        return plainConverter.convert(nimbusDecoder.decode(token));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken verifiedCache() {
+        String token = tokens[ThreadLocalRandom.current().nextInt(tokenCount)];
+        TokenHashUtils.hash(token);
+        return cachingConverter.convert(cachingDecoder.decode(token));
+    }
+}
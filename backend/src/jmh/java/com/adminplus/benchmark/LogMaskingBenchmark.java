@@ -0,0 +1,79 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.utils.masking.CreditCardMasker;
+import com.adminplus.utils.masking.EmailMasker;
+import com.adminplus.utils.masking.IdCardMasker;
+import com.adminplus.utils.masking.LogMaskerChain;
+import com.adminplus.utils.masking.PasswordMasker;
+import com.adminplus.utils.masking.PatternMasker;
+import com.adminplus.utils.masking.PhoneMasker;
+import com.adminplus.utils.masking.SqlPasswordMasker;
+import com.adminplus.utils.masking.TokenMasker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+/**
+ * 日志脱敏开销（每次调用处理一行）
+ * <p>
+ * sequentialPasses 复现改造前的执行方式：按优先级对整行依次执行各规则的 replaceAll，每条规则一次扫描；
+ * maskLine 为改造后的 {@link LogMaskerChain#mask}：预判后一次组合正则扫描，无命中时返回原字符串。
+ * 两者使用相同的内置规则与日志行（其中 4/10 的行不含敏感信息）。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogMaskingBenchmark {
+
+    private static final int LINE_COUNT = 1024;
+
+    private LogMaskerChain chain;
+    private PatternMasker[] sequential;
+    private String[] lines;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        chain = LogMaskerChain.createDefault();
+        sequential = new PatternMasker[]{
+                new PasswordMasker(), new TokenMasker(), new IdCardMasker(), new PhoneMasker(),
+                new EmailMasker(), new SqlPasswordMasker(), new CreditCardMasker()
+        };
+        lines = BenchmarkFixtures.logLinesWithPii(LINE_COUNT);
+    }
+
+    @Benchmark
+    public void maskLine(Blackhole blackhole) {
+        cursor = (cursor + 1) & (LINE_COUNT - 1);
+        blackhole.consume(chain.mask(lines[cursor]));
+    }
+
+    @Benchmark
+    public void sequentialPasses(Blackhole blackhole) {
+        cursor = (cursor + 1) & (LINE_COUNT - 1);
+        String result = lines[cursor];
+        for (PatternMasker masker : sequential) {
+            result = masker.pattern().matcher(result)
+                    .replaceAll(mr -> Matcher.quoteReplacement(masker.replacement(mr)));
+        }
+        blackhole.consume(result);
+    }
+}
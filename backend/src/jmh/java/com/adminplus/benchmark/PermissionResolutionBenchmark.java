@@ -0,0 +1,118 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.security.PermissionSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 权限转换器的每请求开销
+ * <p>
+ * redisCacheHit 复现改造前的缓存命中路径：反序列化 Redis 中的 List&lt;String&gt;（与 CacheConfig 相同的 Jackson 默认类型配置）
+ * 并逐个构建 SimpleGrantedAuthority。该数值不含 Redis 网络往返，是改造前开销的下限。
+ * snapshotLookup 为改造后的进程内快照查询。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionResolutionBenchmark {
+
+    @Param({"10000"})
+    private int userCount;
+
+    @Param({"60"})
+    private int permissionsPerRole;
+
+    private static final int ROLE_COUNT = 20;
+    private static final int MENU_COUNT = 600;
+
+    private PermissionSnapshot snapshot;
+    private GenericJacksonJsonRedisSerializer serializer;
+    private byte[][] serializedPermissions;
+    private String[] userIds;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Map<String, String> menuPermKeys = new HashMap<>();
+        for (int i = 0; i < MENU_COUNT; i++) {
+            menuPermKeys.put("menu-" + i, "module" + (i / 10) + ":action" + (i % 10));
+        }
+
+        Map<String, List<String>> roleMenus = new HashMap<>();
+        for (int r = 0; r < ROLE_COUNT; r++) {
+            List<String> menus = new ArrayList<>();
+            for (int i = 0; i < permissionsPerRole; i++) {
+                menus.add("menu-" + random.nextInt(MENU_COUNT));
+            }
+            roleMenus.put("role-" + r, menus);
+        }
+
+        Map<String, List<String>> userRoles = new HashMap<>();
+        userIds = new String[userCount];
+        for (int u = 0; u < userCount; u++) {
+            userIds[u] = "user-" + u;
+            userRoles.put(userIds[u], List.of("role-" + random.nextInt(ROLE_COUNT), "role-" + random.nextInt(ROLE_COUNT)));
+        }
+        snapshot = PermissionSnapshot.build(1, menuPermKeys, roleMenus, userRoles);
+
+        serializer = new GenericJacksonJsonRedisSerializer(JsonMapper.builder()
+                .activateDefaultTyping(BasicPolymorphicTypeValidator.builder().allowIfBaseType(Object.class).build())
+                .build());
+        serializedPermissions = new byte[userCount][];
+        for (int u = 0; u < userCount; u++) {
+            List<String> permissions = snapshot.authoritiesOf(userIds[u]).stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList();
+            serializedPermissions[u] = serializer.serialize(new ArrayList<>(permissions));
+        }
+    }
+
+    @Benchmark
+    public Set<GrantedAuthority> redisCacheHit() {
+        int index = ThreadLocalRandom.current().nextInt(userCount);
+        @SuppressWarnings("unchecked")
+        List<String> permissions = (List<String>) serializer.deserialize(serializedPermissions[index]);
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (String permission : permissions) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+        return authorities;
+    }
+
+    @Benchmark
+    public Set<GrantedAuthority> snapshotLookup() {
+        int index = ThreadLocalRandom.current().nextInt(userCount);
+        return snapshot.authoritiesOf(userIds[index]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.interceptor.RateLimitInterceptor;
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.ratelimit.RedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流拦截器的每请求开销
+ * <p>
+ * Redis 由返回固定结果的桩替代，数值不含网络往返：
+ * localLease 为默认配置（容量 100 的规则每 10 个请求执行一次脚本），
+ * scriptPerRequest 将 local-lease-size 设为 1，每个请求都执行脚本。
+ * 实际部署中两者的差距还要加上 9/10 的 Redis 往返（通常 0.2~1ms）。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitInterceptorBenchmark {
+
+    @Param({"10", "1"})
+    private int localLeaseSize;
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getRateLimit().setLocalLeaseSize(localLeaseSize);
+        // 本地租约有效期放宽到整个测量周期，避免过期影响结果
+        appProperties.getRateLimit().setLocalLeaseMillis(TimeUnit.MINUTES.toMillis(10));
+        interceptor = new RateLimitInterceptor(new RedisRateLimiter(new StubRedisTemplate(), appProperties), appProperties);
+
+        request = new MockHttpServletRequest("POST", "/api/files/upload");
+        request.setContextPath("/api");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+
+    /**
+     * 总是发放所申请令牌数的 Redis 桩
+     */
+    private static final class StubRedisTemplate extends StringRedisTemplate {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            long requested = Long.parseLong(String.valueOf(args[2]));
+            return (T) List.of(requested, 50L, 0L, 30_000L);
+        }
+    }
+}
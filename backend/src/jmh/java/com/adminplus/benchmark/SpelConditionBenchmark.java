@@ -0,0 +1,74 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.expression.SpelExpressionEngine;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作流条件表达式的每次求值开销
+ * <p>
+ * parsePerCall 复现改造前的写法：每次新建解析器与 StandardEvaluationContext 并重新解析；
+ * engineCondition 为改造后经 {@link SpelExpressionEngine} 缓存、编译并使用只读上下文的求值。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpelConditionBenchmark {
+
+    @Param({
+            "#formData['amount'] > 5000",
+            "#instance.status == 'running' and #formData['amount'] > 5000 and #formData['dept'] == 'R&D'",
+            "#formData['days'] != null and #formData['days'] >= 3 or #operation == 'ROLLBACK'"
+    })
+    private String expression;
+
+    private SpelExpressionEngine engine;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        engine = new SpelExpressionEngine(new SimpleMeterRegistry());
+        WorkflowInstanceEntity instance = new WorkflowInstanceEntity();
+        instance.setStatus("running");
+        variables = Map.of(
+                "instance", instance,
+                "formData", Map.of("amount", 12_000, "dept", "R&D", "days", 5),
+                "operation", "APPROVE");
+    }
+
+    @Benchmark
+    public Boolean parsePerCall() {
+        SpelExpressionParser parser = new SpelExpressionParser();
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        variables.forEach(context::setVariable);
+        return parser.parseExpression(expression).getValue(context, Boolean.class);
+    }
+
+    @Benchmark
+    public Boolean engineCondition() {
+        return engine.evaluate(expression, engine.conditionContext(variables), Boolean.class);
+    }
+}
@@ -0,0 +1,167 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.statemachine.cache.WorkflowStateMachineCache;
+import com.adminplus.statemachine.config.WorkflowStatesConfig;
+import com.adminplus.statemachine.enums.WorkflowEvent;
+import com.adminplus.statemachine.enums.WorkflowState;
+import com.adminplus.statemachine.persist.WorkflowStateMachinePersister;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.StateMachineContext;
+import org.springframework.statemachine.config.StateMachineBuilder;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.support.DefaultExtendedState;
+import org.springframework.statemachine.support.DefaultStateMachineContext;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 审批操作中状态机部分的吞吐（8 线程、每线程操作各自的流程实例，不含数据库访问）
+ * <p>
+ * rebuildPerTransition: 原实现，每次新建状态机、反序列化旧格式快照恢复、发送事件，
+ * 再按"逐个变量序列化 + 整体序列化 + 实例字段再序列化一次"写出；
+ * cachedMachine: 从 {@link WorkflowStateMachineCache} 借出（快照一致直接复用）、发送事件、单次编码快照后归还。
+ * 拒绝操作使状态机进入终态不再缓存，其开销与 rebuildPerTransition 相同，不单独列出。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class StateMachineCacheBenchmark {
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private JsonMapper objectMapper;
+    private StateMachineBuilder.Builder<WorkflowState, WorkflowEvent> builder;
+    private WorkflowStateMachinePersister persister;
+    private WorkflowStateMachineCache cache;
+    private String legacySnapshot;
+
+    @State(Scope.Thread)
+    public static class Instance {
+        String instanceId;
+        String snapshot;
+
+        @Setup
+        public void setUp(StateMachineCacheBenchmark benchmark) {
+            instanceId = "inst-" + benchmark.threadIds.incrementAndGet();
+            StateMachine<WorkflowState, WorkflowEvent> sm = benchmark.running(benchmark.variables(instanceId));
+            snapshot = benchmark.persister.encode(sm);
+            benchmark.cache.release(instanceId, sm, snapshot);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder().build();
+        builder = StateMachineBuilder.builder();
+        new WorkflowStatesConfig().configure(builder.configureStates());
+        builder.configureTransitions()
+                .withExternal().source(WorkflowState.RUNNING).target(WorkflowState.RUNNING).event(WorkflowEvent.APPROVE)
+                .and()
+                .withExternal().source(WorkflowState.RUNNING).target(WorkflowState.REJECTED).event(WorkflowEvent.REJECT);
+
+        persister = new WorkflowStateMachinePersister(null, objectMapper);
+        cache = new WorkflowStateMachineCache(new BuilderFactory(), persister, new AppProperties(),
+                new SimpleMeterRegistry());
+
+        // 旧格式：每个变量值先单独序列化
+        Map<String, Object> legacy = new HashMap<>();
+        variables("inst-legacy").forEach((key, value) -> legacy.put(key, objectMapper.writeValueAsString(value)));
+        legacySnapshot = objectMapper.writeValueAsString(legacy);
+    }
+
+    @Benchmark
+    public String rebuildPerTransition(Instance instance) {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> stored = objectMapper.readValue(legacySnapshot, Map.class);
+        Map<String, Object> variables = new HashMap<>();
+        stored.forEach((key, value) -> variables.put(key, objectMapper.readValue((String) value, Object.class)));
+        StateMachine<WorkflowState, WorkflowEvent> sm = running(variables);
+
+        sm.sendEvent(WorkflowEvent.APPROVE);
+
+        Map<String, Object> perValue = new HashMap<>();
+        sm.getExtendedState().getVariables()
+                .forEach((key, value) -> perValue.put(key.toString(), objectMapper.writeValueAsString(value)));
+        objectMapper.writeValueAsString(perValue);
+        return objectMapper.writeValueAsString(sm.getExtendedState().getVariables());
+    }
+
+    @Benchmark
+    public String cachedMachine(Instance instance) {
+        StateMachine<WorkflowState, WorkflowEvent> sm = cache.acquire(instance.instanceId, instance.snapshot);
+        sm.sendEvent(WorkflowEvent.APPROVE);
+        instance.snapshot = persister.encode(sm);
+        cache.release(instance.instanceId, sm, instance.snapshot);
+        return instance.snapshot;
+    }
+
+    Map<String, Object> variables(String instanceId) {
+        List<String> nodePath = new ArrayList<>(List.of("node-1", "node-2", "node-3"));
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("instanceId", instanceId);
+        variables.put("currentNodeId", "node-3");
+        variables.put("nodePath", nodePath);
+        variables.put("businessData", BenchmarkFixtures.formPayload(20, 10));
+        return variables;
+    }
+
+    StateMachine<WorkflowState, WorkflowEvent> running(Map<String, Object> variables) {
+        StateMachine<WorkflowState, WorkflowEvent> sm = builder.build();
+        DefaultExtendedState extendedState = new DefaultExtendedState();
+        extendedState.getVariables().putAll(variables);
+        StateMachineContext<WorkflowState, WorkflowEvent> context =
+                new DefaultStateMachineContext<>(WorkflowState.RUNNING, null, null, extendedState);
+        sm.getStateMachineAccessor().doWithAllRegions(accessor -> accessor.resetStateMachine(context));
+        sm.startReactively().block();
+        return sm;
+    }
+
+    /**
+     * 以相同配置新建状态机的工厂，对应运行时的 StateMachineFactory
+     */
+    private final class BuilderFactory implements StateMachineFactory<WorkflowState, WorkflowEvent> {
+
+        @Override
+        public StateMachine<WorkflowState, WorkflowEvent> getStateMachine() {
+            return builder.build();
+        }
+
+        @Override
+        public StateMachine<WorkflowState, WorkflowEvent> getStateMachine(String machineId) {
+            return builder.build();
+        }
+
+        @Override
+        public StateMachine<WorkflowState, WorkflowEvent> getStateMachine(UUID uuid) {
+            return builder.build();
+        }
+    }
+}
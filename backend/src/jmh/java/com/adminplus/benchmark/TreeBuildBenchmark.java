@@ -0,0 +1,61 @@
+package com.adminplus.benchmark;
+
+import com.adminplus.pojo.dto.response.DeptResponse;
+import com.adminplus.pojo.dto.response.MenuResponse;
+import com.adminplus.utils.TreeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 菜单/部门树构建开销（{@link TreeUtils#buildTreeForRecord}）
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBuildBenchmark {
+
+    @Param({"5000"})
+    private int size;
+
+    private List<MenuResponse> menus;
+    private List<DeptResponse> depts;
+
+    @Setup
+    public void setUp() {
+        menus = BenchmarkFixtures.menus(size, 4);
+        depts = BenchmarkFixtures.depts(size);
+    }
+
+    @Benchmark
+    public List<MenuResponse> menuTree() {
+        return TreeUtils.buildTreeForRecord(menus, (menu, children) -> new MenuResponse(
+                menu.id(), menu.parentId(), menu.type(), menu.name(), menu.path(), menu.component(),
+                menu.permKey(), menu.icon(), menu.sortOrder(), menu.visible(), menu.status(),
+                children, menu.createTime(), menu.updateTime()));
+    }
+
+    @Benchmark
+    public List<DeptResponse> deptTree() {
+        return TreeUtils.buildTreeForRecord(depts, (dept, children) -> new DeptResponse(
+                dept.id(), dept.parentId(), dept.name(), dept.code(), dept.leader(), dept.phone(),
+                dept.email(), dept.sortOrder(), dept.status(), children, dept.createTime(), dept.updateTime()));
+    }
+}
@@ -2,6 +2,7 @@ package com.adminplus.common.aspect;
 
 import com.adminplus.common.annotation.LoginLog;
 import com.adminplus.common.annotation.OperationLog;
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.enums.LoginType;
 import com.adminplus.enums.OperationType;
 import com.adminplus.enums.OperationType;
@@ -19,8 +20,6 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.expression.common.TemplateParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -53,11 +52,12 @@ public class LogAspect {
 
     private final LogService logService;
     private final JsonMapper jsonMapper;
-    private final SpelExpressionParser spelParser = new SpelExpressionParser();
+    private final SpelExpressionEngine expressionEngine;
 
-    public LogAspect(LogService logService, JsonMapper jsonMapper) {
+    public LogAspect(LogService logService, JsonMapper jsonMapper, SpelExpressionEngine expressionEngine) {
         this.logService = logService;
         this.jsonMapper = jsonMapper;
+        this.expressionEngine = expressionEngine;
     }
 
     @Pointcut("@annotation(com.adminplus.common.annotation.OperationLog)")
@@ -243,7 +243,7 @@ public class LogAspect {
             return template;
         }
 
-        StandardEvaluationContext context = new StandardEvaluationContext();
+        StandardEvaluationContext context = expressionEngine.standardContext(null);
 
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         Method method = signature.getMethod();
@@ -259,8 +259,7 @@ public class LogAspect {
         }
 
         try {
-            return spelParser.parseExpression(template, new TemplateParserContext())
-                .getValue(context, String.class);
+            return expressionEngine.evaluateTemplate(template, context);
         } catch (Exception e) {
             log.warn("解析 SpEL 表达式失败: {}, 模板: {}", e.getMessage(), template);
             return template;
@@ -0,0 +1,362 @@
+package com.adminplus.common.buffer;
+
+import com.adminplus.common.properties.LogStorageProperties.OverflowPolicy;
+import com.adminplus.common.security.AuditorContext;
+import com.adminplus.pojo.entity.BaseEntity;
+import com.adminplus.utils.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 实体批量写入缓冲区
+ * <p>
+ * 调用方线程只做一次无锁入队；后台单线程按 batchSize 或 flushIntervalMs 将实体批量交给 {@link Sink#saveAll}
+ * （一个批次一个事务，配合 Hibernate JDBC 批量写入）。队列容量由原子计数器约束，满时按 {@link OverflowPolicy} 处理。
+ * 入队时记录调用方的当前用户，写入时通过 {@link AuditorContext} 还原，create_user / update_user 不会变成刷新线程的 system。
+ * </p>
+ * <p>
+ * 批量写入失败时逐条重试，仍失败的实体计入 failed。{@link #stop()} 时会把队列中剩余的实体全部写出。
+ * 指标以构造时传入的前缀命名：enqueued、flushed、dropped、failed、flush、latency、queue.size。
+ * </p>
+ *
+ * @param <T> 实体类型
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+public class BatchWriteBuffer<T extends BaseEntity> {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final String name;
+    private final Settings settings;
+    private final Sink<T> sink;
+
+    private final Queue<Pending<T>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Counter enqueuedCounter;
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final Timer latencyTimer;
+
+    private volatile boolean running;
+    private volatile Thread drainer;
+
+    /**
+     * @param name          名称，用作刷新线程名前缀与日志中的描述
+     * @param metricPrefix  指标名前缀
+     * @param settings      容量、批次与溢出策略
+     * @param sink          写入目标
+     * @param meterRegistry 指标注册表
+     */
+    public BatchWriteBuffer(String name, String metricPrefix, Settings settings, Sink<T> sink,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.sink = sink;
+
+        this.enqueuedCounter = Counter.builder(metricPrefix + ".enqueued")
+                .description("进入写入缓冲区的条目数")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder(metricPrefix + ".flushed")
+                .description("成功写入存储的条目数")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder(metricPrefix + ".dropped")
+                .description("因缓冲区已满被丢弃的条目数")
+                .tag("policy", settings.overflowPolicy().name())
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(metricPrefix + ".failed")
+                .description("写入存储失败的条目数")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(metricPrefix + ".flush")
+                .description("单批写入耗时")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder(metricPrefix + ".latency")
+                .description("条目从入队到写入存储的耗时")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".queue.size", size, AtomicInteger::get)
+                .description("缓冲区中待写入的条目数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动后台刷新线程；未调用时每个实体在调用方线程同步写入
+     */
+    public void start() {
+        if (drainer != null) {
+            return;
+        }
+        running = true;
+        drainer = Thread.ofPlatform()
+                .name(name + "-drainer")
+                .daemon(true)
+                .start(this::drainLoop);
+        log.info("写入缓冲区已启动: name={}, capacity={}, batchSize={}, flushIntervalMs={}, overflowPolicy={}",
+                name, settings.capacity(), settings.batchSize(), settings.flushIntervalMs(), settings.overflowPolicy());
+    }
+
+    /**
+     * 停止后台刷新线程并写出剩余实体
+     */
+    public void stop() {
+        Thread thread = drainer;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainer = null;
+        // 关闭过程中仍可能有实体入队
+        flushAll();
+        if (size.get() > 0) {
+            log.warn("写入缓冲区关闭超时: name={}, 剩余 {} 条未写入", name, size.get());
+        }
+    }
+
+    /**
+     * 提交一个实体，以调用方线程的当前用户作为审计用户
+     *
+     * @param entity 实体（依赖安全上下文的字段需已在调用方线程填充）
+     * @return 是否已被接收（入队或同步写入）；被丢弃时返回 false
+     */
+    public boolean submit(T entity) {
+        return submit(entity, SecurityUtils.getCurrentUserIdOrDefault());
+    }
+
+    /**
+     * 提交一个实体
+     *
+     * @param entity  实体
+     * @param auditor 写入 create_user / update_user 的用户ID
+     * @return 是否已被接收（入队或同步写入）；被丢弃时返回 false
+     */
+    public boolean submit(T entity, String auditor) {
+        if (!running) {
+            return writeDirectly(entity, auditor);
+        }
+
+        Pending<T> pending = new Pending<>(entity, auditor, System.nanoTime());
+        if (tryEnqueue(pending)) {
+            return true;
+        }
+
+        return switch (settings.overflowPolicy()) {
+            case DROP_NEWEST -> {
+                droppedCounter.increment();
+                yield false;
+            }
+            case DROP_OLDEST -> {
+                if (poll() != null) {
+                    droppedCounter.increment();
+                }
+                if (tryEnqueue(pending)) {
+                    yield true;
+                }
+                droppedCounter.increment();
+                yield false;
+            }
+            case BLOCK -> blockingEnqueue(pending);
+            case CALLER_RUNS -> writeDirectly(entity, auditor);
+        };
+    }
+
+    /**
+     * 当前缓冲区中待写入的实体数
+     */
+    public int pendingCount() {
+        return size.get();
+    }
+
+    /**
+     * 立即写出缓冲区中的全部实体（在调用方线程执行）
+     */
+    public void flushAll() {
+        List<Pending<T>> batch = new ArrayList<>(settings.batchSize());
+        while (drainTo(batch) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private boolean tryEnqueue(Pending<T> pending) {
+        int count = size.incrementAndGet();
+        if (count > settings.capacity()) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.offer(pending);
+        enqueuedCounter.increment();
+        if (count >= settings.batchSize()) {
+            Thread thread = drainer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    private boolean blockingEnqueue(Pending<T> pending) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.blockTimeoutMs());
+        while (System.nanoTime() < deadline) {
+            Thread thread = drainer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+            if (tryEnqueue(pending)) {
+                return true;
+            }
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private Pending<T> poll() {
+        Pending<T> pending = queue.poll();
+        if (pending != null) {
+            size.decrementAndGet();
+        }
+        return pending;
+    }
+
+    private int drainTo(List<Pending<T>> batch) {
+        int limit = settings.batchSize();
+        Pending<T> pending;
+        while (batch.size() < limit && (pending = poll()) != null) {
+            batch.add(pending);
+        }
+        return batch.size();
+    }
+
+    private void drainLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.flushIntervalMs());
+        List<Pending<T>> batch = new ArrayList<>(settings.batchSize());
+        long lastFlush = System.nanoTime();
+
+        while (running) {
+            long elapsed = System.nanoTime() - lastFlush;
+            if (size.get() >= settings.batchSize() || (elapsed >= intervalNanos && size.get() > 0)) {
+                if (drainTo(batch) > 0) {
+                    flush(batch);
+                    batch.clear();
+                }
+                lastFlush = System.nanoTime();
+                continue;
+            }
+            LockSupport.parkNanos(this, elapsed >= intervalNanos ? intervalNanos : intervalNanos - elapsed);
+            if (elapsed >= intervalNanos) {
+                lastFlush = System.nanoTime();
+            }
+        }
+
+        flushAll();
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        // 审计用户在持久化时写入，按入队时的用户分组写出
+        Map<String, List<T>> byAuditor = new LinkedHashMap<>();
+        for (Pending<T> pending : batch) {
+            byAuditor.computeIfAbsent(pending.auditor(), k -> new ArrayList<>()).add(pending.entity());
+        }
+
+        long start = System.nanoTime();
+        byAuditor.forEach((auditor, entities) -> {
+            try {
+                AuditorContext.callAs(auditor, () -> {
+                    sink.saveAll(entities);
+                    return null;
+                });
+                flushedCounter.increment(entities.size());
+            } catch (Exception e) {
+                log.warn("批量写入失败，改为逐条写入: name={}, size={}, error={}", name, entities.size(), e.getMessage());
+                for (T entity : entities) {
+                    // 回滚的批次中主键已生成，清空后按新实体写入
+                    entity.setId(null);
+                    writeDirectly(entity, auditor);
+                }
+            }
+        });
+        long end = System.nanoTime();
+        flushTimer.record(end - start, TimeUnit.NANOSECONDS);
+        for (Pending<T> pending : batch) {
+            latencyTimer.record(end - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean writeDirectly(T entity, String auditor) {
+        try {
+            AuditorContext.callAs(auditor, () -> {
+                sink.save(entity);
+                return null;
+            });
+            flushedCounter.increment();
+            return true;
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("写入失败: name={}, {}", name, sink.describe(entity), e);
+            return false;
+        }
+    }
+
+    /**
+     * 写入目标
+     *
+     * @param <T> 实体类型
+     */
+    public interface Sink<T> {
+
+        /**
+         * 在一个事务内写入一批实体
+         */
+        void saveAll(List<T> entities);
+
+        /**
+         * 写入单个实体
+         */
+        void save(T entity);
+
+        /**
+         * 写入失败时日志中的实体描述
+         */
+        default String describe(T entity) {
+            return "";
+        }
+    }
+
+    /**
+     * 缓冲区配置
+     *
+     * @param capacity        队列容量
+     * @param batchSize       单批条数
+     * @param flushIntervalMs 未满一批时的最长等待（毫秒）
+     * @param overflowPolicy  队列已满时的处理策略
+     * @param blockTimeoutMs  BLOCK 策略下的最长等待（毫秒）
+     */
+    public record Settings(int capacity, int batchSize, long flushIntervalMs,
+                           OverflowPolicy overflowPolicy, long blockTimeoutMs) {
+    }
+
+    private record Pending<T>(T entity, String auditor, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.adminplus.common.cache;
+
+/**
+ * 跨节点缓存失效消息
+ *
+ * @param nodeId    发送节点ID（用于忽略本节点自己发出的消息）
+ * @param cacheName 缓存名
+ * @param key       缓存键（为 null 时表示清空整个缓存）
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record CacheInvalidationMessage(
+        String nodeId,
+        String cacheName,
+        String key
+) {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
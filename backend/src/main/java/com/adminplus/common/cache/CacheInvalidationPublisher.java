@@ -0,0 +1,49 @@
+package com.adminplus.common.cache;
+
+import com.adminplus.constants.CacheConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * 缓存失效消息发布器
+ * <p>
+ * 通过 Redis Pub/Sub 广播 L1 失效通知。发布失败只记录日志，不影响业务操作；
+ * 其他节点的 L1 最迟在本地 TTL 到期后自然过期。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(CacheConstants.CACHE_INVALIDATION_CHANNEL, message);
+        } catch (Exception e) {
+            log.warn("发布缓存失效消息失败: cache={}, key={}, error={}",
+                    message.cacheName(), message.key(), e.getMessage());
+        }
+    }
+}
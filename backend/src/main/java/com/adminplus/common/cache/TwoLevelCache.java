@@ -0,0 +1,185 @@
+package com.adminplus.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 二级缓存
+ * <p>
+ * L1 为节点内 Caffeine 缓存，L2 为 Redis 缓存。读取时先查 L1，未命中再查 L2 并回填 L1；
+ * 写入和失效同时作用于两级，并通过 Redis Pub/Sub 通知其他节点丢弃各自的 L1 副本。
+ * </p>
+ * <p>
+ * 通过 {@link #get(Object, Callable)} 读穿回填时两级都没有该键，其他节点的 L1 中也不会有需要丢弃的副本，
+ * 因此不广播失效；{@code @Cacheable(sync = true, sync = true)} 走该路径。{@link #put} 无法区分回填与显式写入
+ * （{@code @CachePut}、带 unless 的 {@code @Cacheable}），一律广播。
+ * </p>
+ * <p>
+ * L1 的键统一转换为字符串，与 RedisCache 的键转换语义保持一致（1L 与 "1" 视为同一键），
+ * 同时保证跨节点失效消息中的键可以准确匹配。
+ * </p>
+ * <p>
+ * 注意：L1 直接持有对象引用，调用方不应修改从缓存取出的对象。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> localCache;
+    private final org.springframework.cache.Cache remoteCache;
+    private final CacheInvalidationPublisher publisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remoteInvalidations = new LongAdder();
+
+    public TwoLevelCache(String name,
+                         Cache<String, Object> localCache,
+                         org.springframework.cache.Cache remoteCache,
+                         CacheInvalidationPublisher publisher) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = toLocalKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+
+        Object storeValue = toStoreValue(wrapper.get());
+        localCache.put(localKey, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = localCache.get(toLocalKey(key), k -> {
+            ValueWrapper wrapper = remoteCache.get(key);
+            if (wrapper != null) {
+                remoteHits.increment();
+                return toStoreValue(wrapper.get());
+            }
+            remoteMisses.increment();
+
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            remoteCache.put(key, loaded);
+            return toStoreValue(loaded);
+        });
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = toLocalKey(key);
+        remoteCache.put(key, value);
+        localCache.put(localKey, toStoreValue(value));
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remoteCache.evictIfPresent(key);
+        String localKey = toLocalKey(key);
+        localCache.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        publisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = remoteCache.invalidate();
+        localCache.invalidateAll();
+        publisher.publishClear(name);
+        return notEmpty;
+    }
+
+    /**
+     * 仅清除本节点 L1 中的指定键（收到其他节点的失效通知时调用）
+     */
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+        remoteInvalidations.increment();
+        log.debug("收到远程失效通知: cache={}, key={}", name, localKey);
+    }
+
+    /**
+     * 仅清空本节点 L1（收到其他节点的清空通知时调用）
+     */
+    void clearLocal() {
+        localCache.invalidateAll();
+        remoteInvalidations.increment();
+        log.debug("收到远程清空通知: cache={}", name);
+    }
+
+    Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    long getRemoteInvalidations() {
+        return remoteInvalidations.sum();
+    }
+
+    private static String toLocalKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,177 @@
+package com.adminplus.common.cache;
+
+import com.adminplus.common.properties.MultiLevelCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 二级缓存管理器（Caffeine L1 + Redis L2）
+ * <p>
+ * 按缓存名懒创建 {@link TwoLevelCache}；对于配置中关闭 L1 的缓存直接返回 Redis 缓存。
+ * 同时作为 Redis Pub/Sub 监听器，接收其他节点的失效通知并清理本节点 L1。
+ * </p>
+ * <p>
+ * 指标（通过 actuator /actuator/metrics 查看）：
+ * <ul>
+ *   <li>cache.tier.gets{cache, tier=l1|l2, result=hit|miss}</li>
+ *   <li>cache.tier.evictions{cache, tier=l1}：容量/过期淘汰数</li>
+ *   <li>cache.tier.invalidations{cache, tier=l1}：收到的远程失效通知数</li>
+ *   <li>cache.tier.size{cache, tier=l1}：L1 估算条目数</li>
+ * </ul>
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final MultiLevelCacheProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final RedisSerializer<Object> messageSerializer;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                MultiLevelCacheProperties properties,
+                                CacheInvalidationPublisher publisher,
+                                RedisSerializer<Object> messageSerializer,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.messageSerializer = messageSerializer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+
+        MultiLevelCacheProperties.CacheSpec spec = properties.resolve(name);
+        if (!Boolean.TRUE.equals(spec.getLocalEnabled())) {
+            log.info("缓存 {} 未启用 L1，直接使用 Redis", name);
+            return remoteCache;
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getLocalMaximumSize())
+                .expireAfterWrite(spec.getLocalTtl())
+                .recordStats()
+                .build();
+
+        TwoLevelCache cache = new TwoLevelCache(name, localCache, remoteCache, publisher);
+        twoLevelCaches.put(name, cache);
+        bindMetrics(cache);
+
+        log.info("二级缓存已创建: name={}, l1MaxSize={}, l1Ttl={}, l2Ttl={}",
+                name, spec.getLocalMaximumSize(), spec.getLocalTtl(), spec.getRemoteTtl());
+        return cache;
+    }
+
+    /**
+     * 清空指定缓存在所有节点上的 L1（用于绕过 Spring Cache 直接删除 Redis 键的场景）
+     *
+     * @param cacheName 缓存名
+     */
+    public void clearLocal(String cacheName) {
+        TwoLevelCache cache = twoLevelCaches.get(cacheName);
+        if (cache != null) {
+            cache.getLocalCache().invalidateAll();
+        }
+        publisher.publishClear(cacheName);
+    }
+
+    /**
+     * 清空所有缓存在所有节点上的 L1
+     */
+    public void clearAllLocal() {
+        twoLevelCaches.keySet().forEach(this::clearLocal);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload;
+        try {
+            payload = messageSerializer.deserialize(message.getBody());
+        } catch (Exception e) {
+            log.warn("缓存失效消息反序列化失败: {}", e.getMessage());
+            return;
+        }
+        if (!(payload instanceof CacheInvalidationMessage invalidation)) {
+            return;
+        }
+        if (publisher.getNodeId().equals(invalidation.nodeId())) {
+            return;
+        }
+
+        TwoLevelCache cache = twoLevelCaches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private void bindMetrics(TwoLevelCache cache) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags l1 = Tags.of("cache", cache.getName(), "tier", "l1");
+        Tags l2 = Tags.of("cache", cache.getName(), "tier", "l2");
+
+        FunctionCounter.builder("cache.tier.gets", cache, c -> c.getLocalCache().stats().hitCount())
+                .tags(l1).tag("result", "hit")
+                .description("二级缓存各层命中/未命中次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> c.getLocalCache().stats().missCount())
+                .tags(l1).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getRemoteHits)
+                .tags(l2).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, TwoLevelCache::getRemoteMisses)
+                .tags(l2).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.evictions", cache, c -> c.getLocalCache().stats().evictionCount())
+                .tags(l1)
+                .description("L1 容量或过期淘汰次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.invalidations", cache, TwoLevelCache::getRemoteInvalidations)
+                .tags(l1)
+                .description("收到的跨节点失效通知次数")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.size", cache, c -> c.getLocalCache().estimatedSize())
+                .tags(l1)
+                .description("L1 估算条目数")
+                .register(meterRegistry);
+    }
+}
@@ -1,7 +1,12 @@
 package com.adminplus.common.config;
 
+import com.adminplus.common.cache.CacheInvalidationPublisher;
+import com.adminplus.common.cache.TwoLevelCacheManager;
+import com.adminplus.common.properties.MultiLevelCacheProperties;
+import com.adminplus.constants.CacheConstants;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +16,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -19,11 +26,13 @@ import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import tools.jackson.databind.jsontype.PolymorphicTypeValidator;
 import tools.jackson.databind.json.JsonMapper;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Redis 缓存配置
  *
+ * 缓存管理器为 Caffeine L1 + Redis L2 的二级结构，L1 通过 Redis Pub/Sub 跨节点失效。
  * 使用 Jackson 3 的 GenericJacksonJsonRedisSerializer 配置 Redis 序列化。
  * Spring Data Redis 4.0 已迁移到 Jackson 3 (tools.jackson)。
  *
@@ -77,25 +86,62 @@ public class CacheConfig {
     }
 
     /**
-     * 配置 Redis 缓存管理器
+     * 配置二级缓存管理器（Caffeine L1 + Redis L2）
+     *
+     * Redis 缓存管理器本身不开启事务感知，由外层 TwoLevelCacheManager 统一处理，
+     * 保证 @CacheEvict 在事务提交后才同时清理两级缓存并广播失效通知。
      */
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectMapper objectMapper,
+                                             RedisTemplate<String, Object> redisTemplate,
+                                             MultiLevelCacheProperties cacheProperties,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
         // 使用 Jackson 3 序列化器，注入 ObjectMapper
         GenericJacksonJsonRedisSerializer jsonSerializer = new GenericJacksonJsonRedisSerializer(objectMapper);
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
+                .entryTtl(cacheProperties.getDefaults().getRemoteTtl())
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(StringRedisSerializer.UTF_8))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
                 .disableCachingNullValues();
 
-        log.info("Redis 缓存管理器已初始化（使用 Jackson 3 序列化器）");
+        // 按缓存名覆盖 Redis TTL
+        Map<String, RedisCacheConfiguration> initialConfigs = new HashMap<>();
+        cacheProperties.getCaches().keySet().forEach(name ->
+                initialConfigs.put(name, config.entryTtl(cacheProperties.resolve(name).getRemoteTtl())));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
-                .transactionAware()
+                .withInitialCacheConfigurations(initialConfigs)
                 .build();
+        redisCacheManager.initializeCaches();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager,
+                cacheProperties,
+                new CacheInvalidationPublisher(redisTemplate),
+                jsonSerializer,
+                meterRegistry.getIfAvailable());
+        cacheManager.setTransactionAware(true);
+
+        log.info("二级缓存管理器已初始化（L1 Caffeine: {}，L2 Redis 使用 Jackson 3 序列化器）",
+                cacheProperties.isLocalEnabled() ? "启用" : "禁用");
+        return cacheManager;
+    }
+
+    /**
+     * Redis 消息监听容器
+     *
+     * 订阅缓存失效广播频道，其他基于 Pub/Sub 的组件也可复用此容器。
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheConstants.CACHE_INVALIDATION_CHANNEL));
+        return container;
     }
 }
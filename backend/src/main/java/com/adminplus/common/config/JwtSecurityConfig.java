@@ -2,7 +2,10 @@ package com.adminplus.common.config;
 
 import com.adminplus.common.properties.AppProperties;
 import com.adminplus.utils.EnvUtils;
-import com.adminplus.service.PermissionService;
+import com.adminplus.common.security.CachingJwtAuthenticationConverter;
+import com.adminplus.common.security.CachingJwtDecoder;
+import com.adminplus.common.security.PermissionSnapshotEngine;
+import com.adminplus.common.security.VerifiedJwtCache;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.jwk.JWKSet;
 import com.nimbusds.jose.jwk.RSAKey;
@@ -13,8 +16,8 @@ import com.nimbusds.jose.proc.SecurityContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -23,12 +26,9 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.authentication.AuthenticationManager;
 
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 /**
@@ -56,11 +56,15 @@ public class JwtSecurityConfig {
 
     private final AppProperties appProperties;
     private final boolean production;
-    private final PermissionService permissionService;
+    private final PermissionSnapshotEngine permissionSnapshotEngine;
+    private final VerifiedJwtCache verifiedJwtCache;
 
-    public JwtSecurityConfig(AppProperties appProperties, PermissionService permissionService) {
+    public JwtSecurityConfig(AppProperties appProperties,
+                             PermissionSnapshotEngine permissionSnapshotEngine,
+                             VerifiedJwtCache verifiedJwtCache) {
         this.appProperties = appProperties;
-        this.permissionService = permissionService;
+        this.permissionSnapshotEngine = permissionSnapshotEngine;
+        this.verifiedJwtCache = verifiedJwtCache;
         this.production = EnvUtils.isProduction(appProperties.getEnv());
     }
 
@@ -78,37 +82,39 @@ public class JwtSecurityConfig {
         return new NimbusJwtEncoder(jwkSource);
     }
 
+    /**
+     * JWT 解码器：已验签的 Token 在过期或被撤销前直接从 {@link VerifiedJwtCache} 返回，免去重复的 RS256 验签
+     */
     @Bean
     public JwtDecoder jwtDecoder(RSAKey rsaKey) {
         try {
-            return NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+            return new CachingJwtDecoder(
+                    NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build(), verifiedJwtCache);
         } catch (JOSEException e) {
             throw new IllegalStateException("创建 JWT 解码器失败", e);
         }
     }
 
+    /**
+     * 权限转换器：同一 Token 在权限快照版本不变时复用已转换的权限
+     */
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
         converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Set<GrantedAuthority> authorities = new HashSet<>();
-
-            // 从数据库加载用户的具体权限（如 workflow:form:view）
+            // 从进程内权限快照获取用户的具体权限（如 workflow:form:view），无需访问 Redis/数据库
             String userId = jwt.getClaimAsString("userId");
-            if (userId != null) {
-                try {
-                    List<String> permissions = permissionService.getUserPermissions(userId);
-                    for (String permission : permissions) {
-                        authorities.add(new SimpleGrantedAuthority(permission));
-                    }
-                } catch (Exception e) {
-                    log.warn("加载用户权限失败: userId={}, error={}", userId, e.getMessage());
-                }
+            if (userId == null) {
+                return Set.of();
+            }
+            try {
+                return permissionSnapshotEngine.getAuthorities(userId);
+            } catch (Exception e) {
+                log.warn("加载用户权限失败: userId={}, error={}", userId, e.getMessage());
+                return Set.of();
             }
-
-            return authorities;
         });
-        return converter;
+        return new CachingJwtAuthenticationConverter(converter, verifiedJwtCache, permissionSnapshotEngine::getVersion);
     }
 
     @Bean
@@ -0,0 +1,18 @@
+package com.adminplus.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * <p>
+ * 启用 {@code @Scheduled}；各定时任务通过各自的配置项控制是否执行
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,13 +2,16 @@ package com.adminplus.common.config;
 
 import com.adminplus.common.filter.XssFilter;
 import com.adminplus.common.interceptor.RateLimitInterceptor;
+import com.adminplus.common.properties.AppProperties;
 import com.adminplus.common.properties.FileStorageProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.web.servlet.config.annotation.ApiVersionConfigurer;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -25,6 +28,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
     private final RateLimitInterceptor rateLimitInterceptor;
     private final FileStorageProperties fileStorageProperties;
+    private final AppProperties appProperties;
 
     /**
      * 配置 API 版本管理（Spring Boot 4.0 原生支持）
@@ -55,23 +59,25 @@ public class WebMvcConfig implements WebMvcConfigurer {
         // configurer.useMediaTypeParameter("version");
     }
 
+    /**
+     * 异步请求执行器
+     * <p>
+     * StreamingResponseBody（如日志导出）在虚拟线程上写出响应，写出期间不占用 Tomcat 工作线程
+     * </p>
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // 注册限流拦截器 - 认证接口
+        // 注册限流拦截器 - 是否限流及限额由规则的路径匹配决定，默认规则只覆盖认证与敏感操作接口
         registry.addInterceptor(rateLimitInterceptor)
-                .addPathPatterns("/auth/**")
+                .addPathPatterns("/**")
                 .order(1);
-
-        // 限流拦截器 - 敏感操作接口
-        registry.addInterceptor(rateLimitInterceptor)
-                .addPathPatterns(
-                        "/sys/users/*/password",    // 密码重置
-                        "/files/upload",            // 文件上传
-                        "/workflow/**/approve",     // 工作流审批
-                        "/workflow/**/reject",      // 工作流驳回
-                        "/workflow/**/submit"       // 工作流提交
-                )
-                .order(2);
     }
 
     /**
@@ -80,7 +86,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Bean
     public FilterRegistrationBean<XssFilter> xssFilterRegistration() {
         FilterRegistrationBean<XssFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new XssFilter());
+        registration.setFilter(new XssFilter(appProperties.getXss()));
         registration.addUrlPatterns("/*");
         registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
         registration.setName("xssFilter");
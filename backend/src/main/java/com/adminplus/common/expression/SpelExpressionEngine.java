@@ -0,0 +1,214 @@
+package com.adminplus.common.expression;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.ReflectiveMethodResolver;
+import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 共享的 SpEL 表达式引擎
+ * <p>
+ * 钩子表达式、钩子触发条件、状态机守卫和日志描述模板统一经此解析，解析结果按源文本缓存（有界 LRU），
+ * 不再每次调用都解析 AST。表达式累计求值 {@value #HOT_THRESHOLD} 次后主动编译为字节码，
+ * 解析器以 {@link SpelCompilerMode#MIXED} 运行：编译代码因类型变化失败时自动回退解释执行。
+ * </p>
+ * <p>
+ * 求值上下文共享属性访问器与方法解析器（其中缓存了反射查找结果），每次调用只创建轻量的变量容器。
+ * 纯条件判断使用只读的 {@link SimpleEvaluationContext}（不允许类型引用、构造器和赋值），
+ * 需要完整能力的钩子执行表达式使用 {@link StandardEvaluationContext}。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class SpelExpressionEngine {
+
+    /**
+     * 缓存的表达式上限
+     */
+    private static final int MAX_EXPRESSIONS = 2048;
+
+    /**
+     * 求值达到该次数的表达式视为热点并编译
+     */
+    static final int HOT_THRESHOLD = 16;
+
+    private static final TemplateParserContext TEMPLATE_CONTEXT = new TemplateParserContext();
+
+    private static final List<PropertyAccessor> STANDARD_ACCESSORS = List.of(new ReflectivePropertyAccessor());
+    private static final List<MethodResolver> STANDARD_RESOLVERS = List.of(new ReflectiveMethodResolver());
+    private static final PropertyAccessor READ_ONLY_ACCESSOR = DataBindingPropertyAccessor.forReadOnlyAccess();
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelExpressionEngine.class.getClassLoader()));
+
+    private final Cache<ExpressionKey, CachedExpression> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_EXPRESSIONS)
+            .recordStats()
+            .build();
+
+    private final Counter compiledCounter;
+    private final Counter compileFailedCounter;
+
+    public SpelExpressionEngine(MeterRegistry meterRegistry) {
+        this.compiledCounter = Counter.builder("spel.expression.compilations")
+                .description("热点表达式编译次数")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.compileFailedCounter = Counter.builder("spel.expression.compilations")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        FunctionCounter.builder("spel.expression.cache.gets", cache, c -> c.stats().hitCount())
+                .description("表达式缓存命中/未命中次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("spel.expression.cache.gets", cache, c -> c.stats().missCount())
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("spel.expression.cache.hit_rate", cache, c -> c.stats().hitRate())
+                .description("表达式缓存命中率")
+                .register(meterRegistry);
+        Gauge.builder("spel.expression.cache.size", cache, Cache::estimatedSize)
+                .description("缓存的表达式数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 求值普通表达式
+     *
+     * @param source       表达式源文本
+     * @param context      求值上下文
+     * @param expectedType 期望结果类型，null 表示不转换
+     */
+    public <T> T evaluate(String source, EvaluationContext context, Class<T> expectedType) {
+        return get(source, false).getValue(context, expectedType);
+    }
+
+    /**
+     * 求值模板表达式（如 "删除用户 #{#username}"）
+     */
+    public String evaluateTemplate(String template, EvaluationContext context) {
+        return get(template, true).getValue(context, String.class);
+    }
+
+    /**
+     * 获取（必要时解析并缓存）表达式
+     *
+     * @throws org.springframework.expression.ParseException 表达式语法错误（不缓存）
+     */
+    public Expression parse(String source) {
+        return get(source, false).expression();
+    }
+
+    /**
+     * 创建完整能力的求值上下文（共享反射缓存）
+     */
+    public StandardEvaluationContext standardContext(Map<String, ?> variables) {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setPropertyAccessors(STANDARD_ACCESSORS);
+        context.setMethodResolvers(STANDARD_RESOLVERS);
+        setVariables(context, variables);
+        return context;
+    }
+
+    /**
+     * 创建只读条件求值上下文：可读取属性、调用实例方法，不可引用类型、构造对象或赋值
+     */
+    public EvaluationContext conditionContext(Map<String, ?> variables) {
+        SimpleEvaluationContext context = SimpleEvaluationContext.forPropertyAccessors(READ_ONLY_ACCESSOR)
+                .withInstanceMethods()
+                .build();
+        setVariables(context, variables);
+        return context;
+    }
+
+    /**
+     * 表达式缓存命中率
+     */
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * 已编译的表达式数
+     */
+    public long compiledCount() {
+        return (long) compiledCounter.count();
+    }
+
+    private CachedExpression get(String source, boolean template) {
+        CachedExpression cached = cache.get(new ExpressionKey(source, template), key -> new CachedExpression(
+                key.template() ? parser.parseExpression(key.source(), TEMPLATE_CONTEXT) : parser.parseExpression(key.source())));
+        cached.recordUse();
+        return cached;
+    }
+
+    private static void setVariables(EvaluationContext context, Map<String, ?> variables) {
+        if (variables != null) {
+            variables.forEach(context::setVariable);
+        }
+    }
+
+    private record ExpressionKey(String source, boolean template) {
+    }
+
+    /**
+     * 缓存条目：统计求值次数，达到热点阈值时编译一次
+     */
+    private final class CachedExpression {
+
+        private final Expression expression;
+        private final AtomicInteger uses = new AtomicInteger();
+
+        private CachedExpression(Expression expression) {
+            this.expression = expression;
+        }
+
+        private Expression expression() {
+            return expression;
+        }
+
+        private <T> T getValue(EvaluationContext context, Class<T> expectedType) {
+            return expression.getValue(context, expectedType);
+        }
+
+        private void recordUse() {
+            if (uses.get() > HOT_THRESHOLD || uses.incrementAndGet() != HOT_THRESHOLD) {
+                return;
+            }
+            // 模板表达式为 CompositeStringExpression，不支持编译
+            if (expression instanceof SpelExpression spelExpression) {
+                if (spelExpression.compileExpression()) {
+                    compiledCounter.increment();
+                } else {
+                    compileFailedCounter.increment();
+                    log.debug("表达式不可编译，继续解释执行: {}", spelExpression.getExpressionString());
+                }
+            }
+        }
+    }
+}
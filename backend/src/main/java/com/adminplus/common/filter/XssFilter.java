@@ -1,20 +1,36 @@
 package com.adminplus.common.filter;
 
 import com.adminplus.common.pojo.XssRequestWrapper;
+import com.adminplus.common.properties.AppProperties;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * XSS 过滤器
  * 对所有请求进行 XSS 过滤，防止跨站脚本攻击
+ * <p>
+ * 配置在 app.xss 中的请求头、参数（如 Authorization、Content-Type、分页参数）不可能承载标记内容，读取时不做清理
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-07
  */
 public class XssFilter implements Filter {
 
+    private final Set<String> skipHeaders;
+    private final Set<String> skipParameters;
+
+    public XssFilter(AppProperties.Xss config) {
+        this.skipHeaders = caseInsensitiveSet(config.getSkipHeaders());
+        this.skipParameters = caseInsensitiveSet(config.getSkipParameters());
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -29,7 +45,15 @@ public class XssFilter implements Filter {
         }
 
         // 对普通请求进行 XSS 过滤
-        XssRequestWrapper wrappedRequest = new XssRequestWrapper(httpRequest);
+        XssRequestWrapper wrappedRequest = new XssRequestWrapper(httpRequest, skipHeaders, skipParameters);
         chain.doFilter(wrappedRequest, response);
     }
-}
\ No newline at end of file
+
+    private static Set<String> caseInsensitiveSet(Collection<String> names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (names != null) {
+            set.addAll(names);
+        }
+        return Collections.unmodifiableSet(set);
+    }
+}
@@ -0,0 +1,62 @@
+package com.adminplus.common.id;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * 基于数据库的节点号租约
+ * <p>
+ * sys_snowflake_worker 预置 0 ~ 1023 共 1024 行，租用时以 FOR UPDATE SKIP LOCKED 选取一行空闲或租约已过期的节点号，
+ * 优先选择从未使用或过期最久的节点号。租期以数据库时钟计算，不受各实例时钟偏差影响。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+class JdbcWorkerIdLeaser implements WorkerIdLeaser {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    JdbcWorkerIdLeaser(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public OptionalInt acquire(String instanceId, Duration ttl) {
+        List<Integer> leased = jdbcTemplate.query("""
+                UPDATE sys_snowflake_worker w
+                SET instance_id = ?, lease_expire_time = now() + ? * INTERVAL '1 millisecond'
+                WHERE w.worker_id = (
+                    SELECT worker_id FROM sys_snowflake_worker
+                    WHERE lease_expire_time IS NULL OR lease_expire_time < now()
+                    ORDER BY lease_expire_time NULLS FIRST, worker_id
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING w.worker_id
+                """, (rs, rowNum) -> rs.getInt(1), instanceId, ttl.toMillis());
+        return leased.isEmpty() ? OptionalInt.empty() : OptionalInt.of(leased.get(0));
+    }
+
+    @Override
+    public boolean renew(int workerId, String instanceId, Duration ttl) {
+        int updated = jdbcTemplate.update("""
+                UPDATE sys_snowflake_worker
+                SET instance_id = ?, lease_expire_time = now() + ? * INTERVAL '1 millisecond'
+                WHERE worker_id = ?
+                  AND (instance_id = ? OR lease_expire_time IS NULL OR lease_expire_time < now())
+                """, instanceId, ttl.toMillis(), workerId, instanceId);
+        return updated > 0;
+    }
+
+    @Override
+    public void release(int workerId, String instanceId) {
+        jdbcTemplate.update("""
+                UPDATE sys_snowflake_worker SET lease_expire_time = now()
+                WHERE worker_id = ? AND instance_id = ?
+                """, workerId, instanceId);
+    }
+}
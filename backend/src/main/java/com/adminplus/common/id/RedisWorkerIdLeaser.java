@@ -0,0 +1,65 @@
+package com.adminplus.common.id;
+
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.utils.SnowflakeIdGenerator;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于 Redis 的节点号租约
+ * <p>
+ * 每个节点号一个键（snowflake:worker:{id}，值为实例标识，TTL 为租期），SET NX 租用。
+ * 从随机位置开始依次尝试，实例数远小于 1024 时通常一两次往返即可租到。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+class RedisWorkerIdLeaser implements WorkerIdLeaser {
+
+    private static final RedisScript<Long> RENEW_SCRIPT =
+            new DefaultRedisScript<>(new ClassPathResource("scripts/snowflake_worker_renew.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            new DefaultRedisScript<>(new ClassPathResource("scripts/snowflake_worker_release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    RedisWorkerIdLeaser(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public OptionalInt acquire(String instanceId, Duration ttl) {
+        int start = ThreadLocalRandom.current().nextInt(SnowflakeIdGenerator.MAX_WORKER_COUNT);
+        for (int i = 0; i < SnowflakeIdGenerator.MAX_WORKER_COUNT; i++) {
+            int workerId = (start + i) % SnowflakeIdGenerator.MAX_WORKER_COUNT;
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key(workerId), instanceId, ttl))) {
+                return OptionalInt.of(workerId);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    @Override
+    public boolean renew(int workerId, String instanceId, Duration ttl) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key(workerId)),
+                instanceId, String.valueOf(ttl.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    @Override
+    public void release(int workerId, String instanceId) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key(workerId)), instanceId);
+    }
+
+    private static String key(int workerId) {
+        return CacheConstants.SNOWFLAKE_WORKER_KEY_PREFIX + workerId;
+    }
+}
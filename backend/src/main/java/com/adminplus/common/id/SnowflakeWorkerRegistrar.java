@@ -0,0 +1,124 @@
+package com.adminplus.common.id;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.utils.IdUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 雪花节点号注册
+ * <p>
+ * 启动时按 app.snowflake.lease-mode 从 Redis 或数据库租用一个唯一节点号，切换 {@link IdUtils} 使用该节点号，
+ * 保证多个容器生成的 ID 不冲突；由 {@link com.adminplus.scheduler.SnowflakeWorkerLeaseScheduler} 定期续租，
+ * 续租时发现节点号已被其他实例占用（如本实例长时间停顿导致租约过期）则重新租用；停止时释放。
+ * 租用失败时启动失败，避免以可能冲突的节点号发号。
+ * 数据库模式的租约表由 {@link com.adminplus.common.schema.SchemaTransitionRunner} 创建，注册须在其之后执行。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@DependsOn("schemaTransitionRunner")
+public class SnowflakeWorkerRegistrar {
+
+    private final AppProperties.Snowflake config;
+    private final WorkerIdLeaser leaser;
+    private final String instanceId;
+
+    private volatile int workerId = -1;
+
+    @Autowired
+    public SnowflakeWorkerRegistrar(AppProperties appProperties, StringRedisTemplate redisTemplate,
+                                    JdbcTemplate jdbcTemplate) {
+        this(appProperties.getSnowflake(), switch (appProperties.getSnowflake().getLeaseMode()) {
+            case REDIS -> new RedisWorkerIdLeaser(redisTemplate);
+            case DATABASE -> new JdbcWorkerIdLeaser(jdbcTemplate);
+            case NONE -> null;
+        });
+    }
+
+    SnowflakeWorkerRegistrar(AppProperties.Snowflake config, WorkerIdLeaser leaser) {
+        this.config = config;
+        this.leaser = leaser;
+        this.instanceId = createInstanceId();
+    }
+
+    @PostConstruct
+    public void register() {
+        if (leaser == null) {
+            IdUtils.useWorkerId(IdUtils.getWorkerId(), config.getMaxClockDriftMs());
+            log.info("未启用雪花节点号租约，使用节点号: workerId={}", IdUtils.getWorkerId());
+            return;
+        }
+        acquire();
+    }
+
+    /**
+     * 续租，节点号已被其他实例占用时重新租用
+     */
+    public void renew() {
+        if (leaser == null || workerId < 0) {
+            return;
+        }
+        if (leaser.renew(workerId, instanceId, ttl())) {
+            return;
+        }
+        log.warn("雪花节点号已被其他实例占用，重新租用: workerId={}, instanceId={}", workerId, instanceId);
+        acquire();
+    }
+
+    @PreDestroy
+    public void release() {
+        if (leaser == null || workerId < 0) {
+            return;
+        }
+        try {
+            leaser.release(workerId, instanceId);
+            log.info("已释放雪花节点号: workerId={}", workerId);
+        } catch (Exception e) {
+            log.warn("释放雪花节点号失败，租约到期后自动释放: workerId={}", workerId, e);
+        }
+    }
+
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    private void acquire() {
+        int leased = leaser.acquire(instanceId, ttl())
+                .orElseThrow(() -> new IllegalStateException("没有可用的雪花节点号，0 ~ 1023 均已被租用"));
+        IdUtils.useWorkerId(leased, config.getMaxClockDriftMs());
+        workerId = leased;
+        log.info("已租用雪花节点号: workerId={}, instanceId={}", leased, instanceId);
+    }
+
+    private Duration ttl() {
+        return Duration.ofMillis(config.getLeaseTtlMs());
+    }
+
+    private static String createInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        // 主机名 + 进程名（pid@host）+ 随机后缀，同一主机上的多个进程、重启前后的进程均不相同
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getName() + ":"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,37 @@
+package com.adminplus.common.id;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+
+/**
+ * 雪花节点号租约
+ * <p>
+ * 每个实例租用一个唯一的节点号（0 ~ 1023），租期内定期续租；实例宕机未释放时租约到期后可被其他实例租用。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+interface WorkerIdLeaser {
+
+    /**
+     * 租用一个空闲节点号
+     *
+     * @param instanceId 实例标识
+     * @param ttl        租期
+     * @return 节点号，全部被占用时为空
+     */
+    OptionalInt acquire(String instanceId, Duration ttl);
+
+    /**
+     * 续租
+     *
+     * @return 续租成功为 true；节点号已被其他实例占用为 false
+     */
+    boolean renew(int workerId, String instanceId, Duration ttl);
+
+    /**
+     * 释放本实例持有的节点号
+     */
+    void release(int workerId, String instanceId);
+}
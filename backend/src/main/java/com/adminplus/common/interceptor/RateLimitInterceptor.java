@@ -1,84 +1,153 @@
 package com.adminplus.common.interceptor;
 
 import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.ratelimit.RateLimitDecision;
+import com.adminplus.common.ratelimit.RedisRateLimiter;
 import com.adminplus.constants.CacheConstants;
 import com.adminplus.constants.HttpConstants;
+import com.adminplus.enums.RateLimitDimension;
 import com.adminplus.utils.IpUtils;
+import com.adminplus.utils.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 限流拦截器
+ * <p>
+ * 拦截器注册在全部路径上，按 app.rate-limit.rules 的顺序匹配请求路径（不含 context-path），第一条匹配的规则生效，
+ * 没有匹配的规则时放行。未配置规则时使用默认规则：登录（/auth/login）单独计数，
+ * 其余认证接口与密码重置、文件上传、工作流提交/审批/驳回共用通用额度，其他接口不限流。
+ * 每条规则可按客户端 IP 或登录用户计数，响应携带 X-RateLimit-* 头。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-07
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final StringRedisTemplate redisTemplate;
-    private final AppProperties appProperties;
+    /**
+     * 未配置规则时共用通用额度的路径
+     */
+    private static final List<String> DEFAULT_GENERAL_PATTERNS = List.of(
+            "/auth/**",
+            "/sys/users/*/password",
+            "/files/upload",
+            "/workflow/instances/*/approve",
+            "/workflow/instances/*/reject",
+            "/workflow/instances/*/submit");
+
+    private final RedisRateLimiter rateLimiter;
+    private final List<CompiledRule> rules;
+
+    public RateLimitInterceptor(RedisRateLimiter rateLimiter, AppProperties appProperties) {
+        this.rateLimiter = rateLimiter;
+        this.rules = compile(appProperties.getRateLimit());
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String uri = request.getRequestURI();
-        String clientIp = IpUtils.getClientIp(request);
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        CompiledRule rule = match(path);
+        if (rule == null) {
+            return true;
+        }
 
-        AppProperties.RateLimit rateLimit = appProperties.getRateLimit();
+        String subject = resolveSubject(rule.dimension(), request);
+        String redisKey = CacheConstants.RATE_LIMIT_KEY_PREFIX + rule.name() + ":" + subject;
+        RateLimitDecision decision = rateLimiter.acquire(redisKey, rule.maxRequests(), rule.windowSeconds());
 
-        // 登录接口限流
-        if ("/auth/login".equals(uri)) {
-            return checkRateLimit(clientIp, "login",
-                    rateLimit.getLoginMaxRequests(),
-                    rateLimit.getLoginTimeWindow(),
-                    response);
+        if (decision.hasQuota()) {
+            response.setHeader(HttpConstants.RATE_LIMIT_LIMIT_HEADER, String.valueOf(decision.limit()));
+            response.setHeader(HttpConstants.RATE_LIMIT_REMAINING_HEADER, String.valueOf(decision.remaining()));
+            response.setHeader(HttpConstants.RATE_LIMIT_RESET_HEADER, String.valueOf(decision.resetSeconds()));
         }
+        if (!decision.allowed()) {
+            log.warn("限流触发: rule={}, subject={}, path={}", rule.name(), subject, path);
+            reject(response, decision);
+            return false;
+        }
+        return true;
+    }
 
-        // 通用接口限流
-        return checkRateLimit(clientIp, "general",
-                rateLimit.getGeneralMaxRequests(),
-                rateLimit.getGeneralTimeWindow(),
-                response);
+    private CompiledRule match(String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matches(pathContainer)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String resolveSubject(RateLimitDimension dimension, HttpServletRequest request) {
+        if (dimension == RateLimitDimension.USER && SecurityUtils.isAuthenticated()) {
+            return "user:" + SecurityUtils.getCurrentUserIdOrDefault();
+        }
+        return "ip:" + IpUtils.getClientIp(request);
+    }
+
+    private void reject(HttpServletResponse response, RateLimitDecision decision) throws IOException {
+        response.setStatus(HttpConstants.HTTP_TOO_MANY_REQUESTS);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(decision.retryAfterSeconds(), 1)));
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write("{\"code\":" + HttpConstants.HTTP_TOO_MANY_REQUESTS + ",\"message\":\"请求过于频繁，请稍后再试\",\"data\":null,\"timestamp\":" + System.currentTimeMillis() + "}");
     }
 
     /**
-     * 检查请求频率限制
-     *
-     * @param clientIp 客户端IP
-     * @param key 限流键
-     * @param maxRequests 最大请求数
-     * @param timeWindow 时间窗口（秒）
-     * @param response HTTP响应
-     * @return 是否允许通过
+     * 预解析规则路径，未配置规则时使用登录/通用默认规则
+     * <p>
+     * 通用默认规则同名，计入同一个计数键。
+     * </p>
      */
-    private boolean checkRateLimit(String clientIp, String key, int maxRequests, int timeWindow,
-                                   HttpServletResponse response) throws IOException {
-        String redisKey = CacheConstants.RATE_LIMIT_KEY_PREFIX + key + ":" + clientIp;
-
-        // 原子递增，首次请求时设置过期时间
-        Long count = redisTemplate.opsForValue().increment(redisKey);
-        if (count != null && count == 1) {
-            redisTemplate.expire(redisKey, timeWindow, TimeUnit.SECONDS);
+    private static List<CompiledRule> compile(AppProperties.RateLimit config) {
+        List<AppProperties.RateLimit.Rule> configured = config.getRules();
+        if (configured == null || configured.isEmpty()) {
+            configured = new ArrayList<>();
+            configured.add(rule("login", "/auth/login", config.getLoginMaxRequests(), config.getLoginTimeWindow()));
+            for (String pattern : DEFAULT_GENERAL_PATTERNS) {
+                configured.add(rule("general", pattern, config.getGeneralMaxRequests(), config.getGeneralTimeWindow()));
+            }
         }
 
-        if (count != null && count > maxRequests) {
-            log.warn("限流触发: IP={}, Key={}, Count={}", clientIp, key, count);
-            response.setStatus(HttpConstants.HTTP_TOO_MANY_REQUESTS);
-            response.setContentType("application/json;charset=UTF-8");
-            response.getWriter().write("{\"code\":" + HttpConstants.HTTP_TOO_MANY_REQUESTS + ",\"message\":\"请求过于频繁，请稍后再试\",\"data\":null,\"timestamp\":" + System.currentTimeMillis() + "}");
-            return false;
+        List<CompiledRule> compiled = new ArrayList<>(configured.size());
+        for (AppProperties.RateLimit.Rule rule : configured) {
+            if (rule.getMaxRequests() <= 0) {
+                log.warn("忽略无效的限流规则: name={}, maxRequests={}", rule.getName(), rule.getMaxRequests());
+                continue;
+            }
+            compiled.add(new CompiledRule(
+                    rule.getName() != null ? rule.getName() : rule.getPattern(),
+                    PathPatternParser.defaultInstance.parse(rule.getPattern()),
+                    rule.getDimension() != null ? rule.getDimension() : RateLimitDimension.IP,
+                    rule.getMaxRequests(),
+                    Math.max(rule.getWindowSeconds(), 1)));
         }
+        return List.copyOf(compiled);
+    }
 
-        return true;
+    private static AppProperties.RateLimit.Rule rule(String name, String pattern, int maxRequests, int windowSeconds) {
+        AppProperties.RateLimit.Rule rule = new AppProperties.RateLimit.Rule();
+        rule.setName(name);
+        rule.setPattern(pattern);
+        rule.setMaxRequests(maxRequests);
+        rule.setWindowSeconds(windowSeconds);
+        return rule;
+    }
+
+    private record CompiledRule(String name, PathPattern pattern, RateLimitDimension dimension,
+                                int maxRequests, int windowSeconds) {
     }
 }
@@ -4,22 +4,55 @@ import com.adminplus.utils.XssUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * XSS 请求包装器
  * 对请求参数、请求头进行 XSS 过滤，防止跨站脚本攻击
+ * <p>
+ * 清理结果按名称缓存在本次请求内，框架反复读取同一请求头或参数时只清理一次；
+ * 跳过列表中的名称直接返回原值。包装器只在处理请求的线程内使用，缓存无需同步。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-07
  */
 public class XssRequestWrapper extends HttpServletRequestWrapper {
 
+    /**
+     * 缓存中表示 null 的占位值
+     */
+    private static final String NULL_VALUE = new String();
+
+    private final Set<String> skipHeaders;
+    private final Set<String> skipParameters;
+
+    private Map<String, String> headerCache;
+    private Map<String, String> parameterCache;
+    private Map<String, String[]> parameterValuesCache;
+
     /**
      * 构造函数
      *
      * @param request 原始 HTTP 请求
      */
     public XssRequestWrapper(HttpServletRequest request) {
+        this(request, Set.of(), Set.of());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param request        原始 HTTP 请求
+     * @param skipHeaders    不做清理的请求头名称
+     * @param skipParameters 不做清理的参数名称
+     */
+    public XssRequestWrapper(HttpServletRequest request, Set<String> skipHeaders, Set<String> skipParameters) {
         super(request);
+        this.skipHeaders = skipHeaders;
+        this.skipParameters = skipParameters;
     }
 
     /**
@@ -30,8 +63,19 @@ public class XssRequestWrapper extends HttpServletRequestWrapper {
      */
     @Override
     public String getParameter(String name) {
-        String value = super.getParameter(name);
-        return XssUtils.sanitize(value);
+        if (skipParameters.contains(name)) {
+            return super.getParameter(name);
+        }
+        if (parameterCache == null) {
+            parameterCache = new HashMap<>();
+        }
+        String cached = parameterCache.get(name);
+        if (cached == null) {
+            String value = XssUtils.sanitize(super.getParameter(name));
+            parameterCache.put(name, value == null ? NULL_VALUE : value);
+            return value;
+        }
+        return cached == NULL_VALUE ? null : cached;
     }
 
     /**
@@ -42,14 +86,17 @@ public class XssRequestWrapper extends HttpServletRequestWrapper {
      */
     @Override
     public String[] getParameterValues(String name) {
-        String[] values = super.getParameterValues(name);
-        if (values == null) {
-            return null;
+        if (skipParameters.contains(name)) {
+            return super.getParameterValues(name);
         }
-        String[] sanitizedValues = new String[values.length];
-        for (int i = 0; i < values.length; i++) {
-            sanitizedValues[i] = XssUtils.sanitize(values[i]);
+        if (parameterValuesCache == null) {
+            parameterValuesCache = new HashMap<>();
         }
+        if (parameterValuesCache.containsKey(name)) {
+            return parameterValuesCache.get(name);
+        }
+        String[] sanitizedValues = sanitize(super.getParameterValues(name));
+        parameterValuesCache.put(name, sanitizedValues);
         return sanitizedValues;
     }
 
@@ -61,7 +108,38 @@ public class XssRequestWrapper extends HttpServletRequestWrapper {
      */
     @Override
     public String getHeader(String name) {
-        String value = super.getHeader(name);
-        return XssUtils.sanitize(value);
+        if (skipHeaders.contains(name)) {
+            return super.getHeader(name);
+        }
+        if (headerCache == null) {
+            headerCache = new HashMap<>();
+        }
+        String cached = headerCache.get(name);
+        if (cached == null) {
+            String value = XssUtils.sanitize(super.getHeader(name));
+            headerCache.put(name, value == null ? NULL_VALUE : value);
+            return value;
+        }
+        return cached == NULL_VALUE ? null : cached;
+    }
+
+    /**
+     * 清理参数值数组，没有任何值被修改时返回原数组
+     */
+    private static String[] sanitize(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        String[] sanitizedValues = null;
+        for (int i = 0; i < values.length; i++) {
+            String sanitized = XssUtils.sanitize(values[i]);
+            if (sanitized != values[i]) {
+                if (sanitizedValues == null) {
+                    sanitizedValues = values.clone();
+                }
+                sanitizedValues[i] = sanitized;
+            }
+        }
+        return sanitizedValues == null ? values : sanitizedValues;
     }
-}
\ No newline at end of file
+}
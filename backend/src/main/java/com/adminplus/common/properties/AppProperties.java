@@ -1,9 +1,13 @@
 package com.adminplus.common.properties;
 
+import com.adminplus.enums.RateLimitDimension;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "app")
@@ -14,7 +18,17 @@ public class AppProperties {
     private Virus virus = new Virus();
     private RateLimit rateLimit = new RateLimit();
     private WorkflowHook workflowHook = new WorkflowHook();
+    private WorkflowHookLog workflowHookLog = new WorkflowHookLog();
     private Elasticsearch elasticsearch = new Elasticsearch();
+    private PermissionCache permissionCache = new PermissionCache();
+    private DashboardMetrics dashboardMetrics = new DashboardMetrics();
+    private TokenBlacklist tokenBlacklist = new TokenBlacklist();
+    private WorkflowStateMachine workflowStateMachine = new WorkflowStateMachine();
+    private WorkflowFanout workflowFanout = new WorkflowFanout();
+    private WorkflowBulkApproval workflowBulkApproval = new WorkflowBulkApproval();
+    private WorkflowInbox workflowInbox = new WorkflowInbox();
+    private Xss xss = new Xss();
+    private Snowflake snowflake = new Snowflake();
 
     @Data
     public static class Jwt {
@@ -23,6 +37,11 @@ public class AppProperties {
         private int accessTokenExpirationHours = 2;
         private int refreshTokenExpirationDays = 7;
         private boolean useCookie = false;
+        private boolean decodeCacheEnabled = true;
+        private long decodeCacheMaximumSize = 10_000;
+        private boolean refreshTokenRedisEnabled = true;
+        private long refreshTokenCleanupIntervalMs = 3_600_000;
+        private int refreshTokenCleanupBatchSize = 1000;
     }
 
     @Data
@@ -54,12 +73,114 @@ public class AppProperties {
         private int loginTimeWindow = 60;
         private int generalMaxRequests = 100;
         private int generalTimeWindow = 60;
+        /**
+         * 按顺序匹配的限流规则，为空时使用上面的登录/通用两条默认规则
+         */
+        private List<Rule> rules = new ArrayList<>();
+        /**
+         * 单次从 Redis 预取到本地的最大令牌数（1 表示每个请求都访问 Redis）
+         */
+        private int localLeaseSize = 10;
+        /**
+         * 本地预取令牌的有效期（毫秒），过期未用完的令牌作废
+         */
+        private long localLeaseMillis = 1000;
+
+        @Data
+        public static class Rule {
+            private String name;
+            private String pattern;
+            private RateLimitDimension dimension = RateLimitDimension.IP;
+            private int maxRequests;
+            private int windowSeconds = 60;
+        }
     }
 
     @Data
     public static class WorkflowHook {
         private boolean allowInternalUrls = false;
         private String allowedUrlPatterns = "";
+        private long defaultTimeoutMs = 10_000;
+        private int bulkheadMaxConcurrent = 20;
+        private int circuitFailureThreshold = 5;
+        private long circuitOpenMs = 30_000;
+        private long attemptLeaseMs = 300_000;
+        private long recoveryIntervalMs = 60_000;
+        private int recoveryBatchSize = 200;
+    }
+
+    @Data
+    public static class WorkflowHookLog {
+        private boolean bufferEnabled = true;
+        private int capacity = 10_000;
+        private int batchSize = 200;
+        private long flushIntervalMs = 1000;
+        private double successSampleRate = 1.0;
+        private int partitionMonthsAhead = 2;
+        private String partitionCron = "0 0 1 * * ?";
+    }
+
+    @Data
+    public static class PermissionCache {
+        private boolean enabled = true;
+        private int maxAgeMinutes = 30;
+    }
+
+    @Data
+    public static class DashboardMetrics {
+        private String reconcileCron = "0 30 3 * * ?";
+        private int reconcileDays = 30;
+    }
+
+    @Data
+    public static class TokenBlacklist {
+        private boolean bloomEnabled = true;
+        private long expectedInsertions = 100_000;
+        private double falsePositiveRate = 0.01;
+        private long rebuildIntervalMs = 300_000;
+    }
+
+    @Data
+    public static class WorkflowStateMachine {
+        private boolean cacheEnabled = true;
+        private long cacheMaximumSize = 10_000;
+        private long cacheExpireMinutes = 30;
+    }
+
+    @Data
+    public static class WorkflowFanout {
+        private int notificationBatchSize = 200;
+    }
+
+    @Data
+    public static class WorkflowBulkApproval {
+        private int chunkSize = 100;
+    }
+
+    @Data
+    public static class WorkflowInbox {
+        private String reconcileCron = "0 45 3 * * ?";
+    }
+
+    @Data
+    public static class Xss {
+        private List<String> skipHeaders = new ArrayList<>(List.of(
+                "Authorization", "Content-Type", "Content-Length", "Accept", "Accept-Encoding",
+                "Accept-Language", "Host", "Connection", "Origin", "Cache-Control",
+                "If-None-Match", "If-Modified-Since", "X-Requested-With", "X-XSRF-TOKEN", "X-API-Version"));
+        private List<String> skipParameters = new ArrayList<>(List.of("page", "size", "sort", "current"));
+    }
+
+    @Data
+    public static class Snowflake {
+        private LeaseMode leaseMode = LeaseMode.REDIS;
+        private long leaseTtlMs = 60_000;
+        private long leaseRenewIntervalMs = 20_000;
+        private long maxClockDriftMs = 10;
+
+        public enum LeaseMode {
+            REDIS, DATABASE, NONE
+        }
     }
 
     @Data
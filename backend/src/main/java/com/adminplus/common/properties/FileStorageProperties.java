@@ -35,6 +35,11 @@ public class FileStorageProperties {
      */
     private MinioConfig minio = new MinioConfig();
 
+    /**
+     * 内容寻址去重配置
+     */
+    private DedupConfig dedup = new DedupConfig();
+
     @Data
     public static class LocalConfig {
         /**
@@ -90,4 +95,27 @@ public class FileStorageProperties {
          */
         private boolean secure = false;
     }
+
+    @Data
+    public static class DedupConfig {
+        /**
+         * 是否按内容摘要去重存储（关闭后每次上传写入新对象）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 无引用对象回收任务间隔（毫秒）
+         */
+        private long gcIntervalMs = 3_600_000;
+
+        /**
+         * 引用计数降为 0 后保留的时间（毫秒），期间再次上传相同内容可直接复用
+         */
+        private long gcGraceMs = 86_400_000;
+
+        /**
+         * 单次回收的最大对象数
+         */
+        private int gcBatchSize = 200;
+    }
 }
@@ -39,6 +39,16 @@ public class LogStorageProperties {
      */
     private CleanupConfig cleanup = new CleanupConfig();
 
+    /**
+     * 日志写入缓冲配置
+     */
+    private IngestionConfig ingestion = new IngestionConfig();
+
+    /**
+     * 日志统计配置
+     */
+    private StatisticsConfig statistics = new StatisticsConfig();
+
     /**
      * 存储模式枚举
      */
@@ -76,4 +86,85 @@ public class LogStorageProperties {
          */
         private int batchSize = 1000;
     }
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新日志 */
+        DROP_NEWEST,
+        /** 丢弃队列中最旧的日志 */
+        DROP_OLDEST,
+        /** 阻塞调用方直到有空位或超时（超时后丢弃） */
+        BLOCK,
+        /** 由调用方线程直接写入存储 */
+        CALLER_RUNS
+    }
+
+    /**
+     * 日志写入缓冲配置
+     * <p>
+     * 日志先进入有界队列，由后台线程按数量或时间批量写入存储
+     * </p>
+     */
+    @Data
+    public static class IngestionConfig {
+        /**
+         * 是否启用批量写入（禁用时每条日志同步写入存储）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 队列容量
+         */
+        private int capacity = 10000;
+
+        /**
+         * 单批最大条数
+         */
+        private int batchSize = 200;
+
+        /**
+         * 最长刷新间隔（毫秒），未攒满一批时按该间隔刷新
+         */
+        private long flushIntervalMs = 1000;
+
+        /**
+         * 缓冲区满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        /**
+         * BLOCK 策略下的最长等待时间（毫秒）
+         */
+        private long blockTimeoutMs = 100;
+    }
+
+    /**
+     * 日志统计配置
+     */
+    @Data
+    public static class StatisticsConfig {
+        /**
+         * 是否启用按日汇总表（sys_log_daily_stat）
+         * <p>
+         * 启用后统计查询读取汇总表；禁用时每次统计对日志表做一次分组扫描
+         * </p>
+         */
+        private boolean rollupEnabled = false;
+
+        /**
+         * 统计日期所用时区（IANA 名称，如 Asia/Shanghai、UTC）
+         * <p>
+         * 该名称会传给 PostgreSQL 的 AT TIME ZONE 按日分组，各节点须配置一致；
+         * 不支持 GMT+08:00、+08:00 等偏移量写法（PostgreSQL 按 POSIX 规则解析，正负号与 Java 相反）
+         * </p>
+         */
+        private String zone = "Asia/Shanghai";
+
+        /**
+         * 启动时从日志表重建最近多少天的汇总（0 表示启动时不重建）
+         */
+        private int rebuildDays = 2;
+    }
 }
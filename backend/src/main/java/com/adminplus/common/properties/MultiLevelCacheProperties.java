@@ -0,0 +1,95 @@
+package com.adminplus.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 多级缓存配置属性类
+ * <p>
+ * L1 为节点内 Caffeine 本地缓存，L2 为 Redis 共享缓存。
+ * 缓存名包含冒号时（如 dict:label），YAML 中需写成 "[dict:label]"。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class MultiLevelCacheProperties {
+
+    /**
+     * 是否启用 L1 本地缓存（关闭后所有缓存直接走 Redis）
+     */
+    private boolean localEnabled = true;
+
+    /**
+     * 默认缓存配置
+     */
+    private CacheSpec defaults = CacheSpec.defaults();
+
+    /**
+     * 按缓存名覆盖的配置，未设置的字段沿用 defaults
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * 解析指定缓存的最终配置
+     *
+     * @param cacheName 缓存名
+     * @return 合并默认值后的配置
+     */
+    public CacheSpec resolve(String cacheName) {
+        CacheSpec override = caches.get(cacheName);
+        CacheSpec resolved = new CacheSpec();
+        resolved.setLocalEnabled(localEnabled && pick(override == null ? null : override.getLocalEnabled(), defaults.getLocalEnabled()));
+        resolved.setLocalMaximumSize(pick(override == null ? null : override.getLocalMaximumSize(), defaults.getLocalMaximumSize()));
+        resolved.setLocalTtl(pick(override == null ? null : override.getLocalTtl(), defaults.getLocalTtl()));
+        resolved.setRemoteTtl(pick(override == null ? null : override.getRemoteTtl(), defaults.getRemoteTtl()));
+        return resolved;
+    }
+
+    private static <T> T pick(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    /**
+     * 单个缓存的配置（字段为 null 表示沿用默认值）
+     */
+    @Data
+    public static class CacheSpec {
+        /**
+         * 是否为该缓存启用 L1
+         */
+        private Boolean localEnabled;
+
+        /**
+         * L1 最大条目数
+         */
+        private Long localMaximumSize;
+
+        /**
+         * L1 写入后过期时间（应不大于 remoteTtl）
+         */
+        private Duration localTtl;
+
+        /**
+         * L2（Redis）过期时间
+         */
+        private Duration remoteTtl;
+
+        static CacheSpec defaults() {
+            CacheSpec spec = new CacheSpec();
+            spec.setLocalEnabled(true);
+            spec.setLocalMaximumSize(1000L);
+            spec.setLocalTtl(Duration.ofMinutes(5));
+            spec.setRemoteTtl(Duration.ofHours(1));
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.adminplus.common.ratelimit;
+
+/**
+ * 限流判定结果
+ *
+ * @param allowed           是否放行
+ * @param limit             窗口内允许的请求数
+ * @param remaining         剩余可用请求数（-1 表示限流存储不可用、未做判定）
+ * @param resetSeconds      令牌桶补满所需秒数
+ * @param retryAfterSeconds 被拒绝时建议的重试等待秒数
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record RateLimitDecision(boolean allowed, int limit, long remaining, long resetSeconds, long retryAfterSeconds) {
+
+    /**
+     * 限流存储不可用时放行
+     */
+    public static RateLimitDecision failOpen(int limit) {
+        return new RateLimitDecision(true, limit, -1, 0, 0);
+    }
+
+    /**
+     * 是否携带有效的配额信息
+     */
+    public boolean hasQuota() {
+        return remaining >= 0;
+    }
+}
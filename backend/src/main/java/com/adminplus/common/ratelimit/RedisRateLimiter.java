@@ -0,0 +1,150 @@
+package com.adminplus.common.ratelimit;
+
+import com.adminplus.common.properties.AppProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 Redis 令牌桶的分布式限流器
+ * <p>
+ * 补充、扣减和设置 TTL 在同一个 Lua 脚本内完成，每次判定只有一次往返，不会残留无 TTL 的计数键。
+ * 容量较大的规则在 Redis 余量充足时一次预取一批令牌到本地租约，租约内的请求不访问 Redis；
+ * 未用完的租约令牌过期作废，只会比全局限额更严格，不会超发。余量不足时逐个申请，保证临界附近的精度。
+ * </p>
+ * <p>
+ * Redis 不可用时放行并记录日志，避免限流组件故障导致全站不可用。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class RedisRateLimiter {
+
+    /**
+     * 仅当容量不小于 租约大小 × 该倍数 时才启用本地租约
+     */
+    private static final int LEASE_CAPACITY_FACTOR = 10;
+
+    private static final long LOCAL_LEASE_MAX_SIZE = 100_000;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            new DefaultRedisScript<>(new ClassPathResource("scripts/rate_limit_token_bucket.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties.RateLimit config;
+    private final Cache<String, LocalLease> leases;
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, AppProperties appProperties) {
+        this.redisTemplate = redisTemplate;
+        this.config = appProperties.getRateLimit();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(LOCAL_LEASE_MAX_SIZE)
+                .expireAfterWrite(Duration.ofMillis(Math.max(config.getLocalLeaseMillis(), 1)))
+                .build();
+    }
+
+    /**
+     * 申请一个令牌
+     *
+     * @param key           限流键（Redis 键）
+     * @param maxRequests   窗口内允许的请求数（桶容量）
+     * @param windowSeconds 窗口秒数（容量补满所需时间）
+     * @return 判定结果
+     */
+    public RateLimitDecision acquire(String key, int maxRequests, int windowSeconds) {
+        int leaseSize = leaseSize(maxRequests);
+        if (leaseSize > 1) {
+            LocalLease lease = leases.getIfPresent(key);
+            if (lease != null && lease.tryTake()) {
+                return new RateLimitDecision(true, maxRequests, lease.remaining(), lease.resetSeconds(), 0);
+            }
+        }
+
+        List<?> result;
+        try {
+            double tokensPerMilli = (double) maxRequests / (Math.max(windowSeconds, 1) * 1000L);
+            result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                    String.valueOf(maxRequests), String.valueOf(tokensPerMilli), String.valueOf(leaseSize));
+        } catch (Exception e) {
+            log.warn("限流判定失败，已放行: key={}, error={}", key, e.getMessage());
+            return RateLimitDecision.failOpen(maxRequests);
+        }
+        if (result == null || result.size() < 4) {
+            return RateLimitDecision.failOpen(maxRequests);
+        }
+
+        long granted = toLong(result.get(0));
+        long remaining = toLong(result.get(1));
+        long resetSeconds = toSeconds(toLong(result.get(3)));
+        if (granted <= 0) {
+            return new RateLimitDecision(false, maxRequests, 0, resetSeconds, toSeconds(toLong(result.get(2))));
+        }
+        if (granted > 1) {
+            leases.put(key, new LocalLease((int) granted - 1, remaining, resetSeconds));
+        }
+        return new RateLimitDecision(true, maxRequests, remaining + granted - 1, resetSeconds, 0);
+    }
+
+    /**
+     * 单次预取的令牌数：容量较小（如登录）的规则每次都访问 Redis
+     */
+    int leaseSize(int maxRequests) {
+        return Math.max(1, Math.min(config.getLocalLeaseSize(), maxRequests / LEASE_CAPACITY_FACTOR));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(0, (millis + 999) / 1000);
+    }
+
+    /**
+     * 本地令牌租约
+     */
+    private static final class LocalLease {
+
+        private final AtomicInteger tokens;
+        private final long redisRemaining;
+        private final long resetSeconds;
+
+        private LocalLease(int tokens, long redisRemaining, long resetSeconds) {
+            this.tokens = new AtomicInteger(tokens);
+            this.redisRemaining = redisRemaining;
+            this.resetSeconds = resetSeconds;
+        }
+
+        private boolean tryTake() {
+            int current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        private long remaining() {
+            return redisRemaining + tokens.get();
+        }
+
+        private long resetSeconds() {
+            return resetSeconds;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.adminplus.common.schema;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 表结构过渡
+ * <p>
+ * 当前环境未启用 Flyway，表结构由 ddl-auto: update 维护，它只会新增表、列与索引，
+ * 不会删除旧列、清理阻止唯一约束的数据或改写已存在的同名索引。
+ * 需要这类变更的迁移脚本登记在 {@link #TRANSITIONS} 中，启动时在 Hibernate 更新表结构之后、
+ * 对外提供服务之前，按顺序检查并执行仍未完成的过渡。
+ * 每个过渡在一个事务内执行，并持有事务级咨询锁，多个实例同时启动时只有一个实例执行。
+ * 脚本整体作为一条语句交给驱动执行，由数据库拆分语句，脚本中可以包含 DO $$ ... $$ 块。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SchemaTransitionRunner {
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('adminplus_schema_transition'))";
+
+    /**
+     * 已登记的过渡，按顺序执行
+     */
+    static final List<SchemaTransition> TRANSITIONS = List.of(
+            new SchemaTransition("workflow_hook_log_partition",
+                    """
+                    SELECT NOT EXISTS (
+                        SELECT 1 FROM pg_partitioned_table pt
+                        JOIN pg_class c ON c.oid = pt.partrelid
+                        JOIN pg_namespace n ON n.oid = c.relnamespace
+                        WHERE n.nspname = current_schema() AND c.relname = 'sys_workflow_hook_log'
+                    )
+                    """,
+                    "db/migration/V2026_10_18_05__workflow_hook_log_partition.sql"),
+            new SchemaTransition("refresh_token_hash",
+                    """
+                    SELECT EXISTS (
+                        SELECT 1 FROM information_schema.columns
+                        WHERE table_schema = current_schema() AND table_name = 'sys_refresh_token' AND column_name = 'token'
+                    )
+                    """,
+                    "db/migration/V2026_10_18_08__refresh_token_hash.sql"),
+            new SchemaTransition("snowflake_worker",
+                    "SELECT to_regclass('sys_snowflake_worker') IS NULL",
+                    "db/migration/V2026_10_18_09__snowflake_worker.sql"),
+            new SchemaTransition("workflow_inbox_cursor_covering",
+                    """
+                    SELECT NOT EXISTS (
+                        SELECT 1 FROM pg_index i
+                        JOIN pg_class c ON c.oid = i.indexrelid
+                        JOIN pg_namespace n ON n.oid = c.relnamespace
+                        WHERE n.nspname = current_schema() AND c.relname = 'idx_workflow_inbox_cursor'
+                          AND i.indnatts > i.indnkeyatts
+                    )
+                    """,
+                    "db/migration/V2026_10_18_10__workflow_inbox_cursor_covering.sql")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void run() {
+        for (SchemaTransition transition : TRANSITIONS) {
+            apply(transition);
+        }
+    }
+
+    /**
+     * 执行一个过渡
+     *
+     * @return 本次执行了迁移脚本时为 true，已完成（或由其他实例完成）时为 false
+     */
+    boolean apply(SchemaTransition transition) {
+        Boolean applied = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LOCK_SQL);
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(transition.pendingSql(), Boolean.class))) {
+                return false;
+            }
+            log.info("执行表结构过渡: name={}, script={}", transition.name(), transition.script());
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                ScriptUtils.executeSqlScript(connection,
+                        new EncodedResource(new ClassPathResource(transition.script()), StandardCharsets.UTF_8),
+                        false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                        ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+                return null;
+            });
+            return true;
+        });
+        return Boolean.TRUE.equals(applied);
+    }
+
+    /**
+     * 表结构过渡
+     *
+     * @param name       名称
+     * @param pendingSql 返回单个布尔值的查询，为 true 表示尚未完成
+     * @param script     类路径下的迁移脚本，在未完成过渡的结构上执行，执行后 pendingSql 应返回 false
+     */
+    record SchemaTransition(String name, String pendingSql, String script) {
+    }
+}
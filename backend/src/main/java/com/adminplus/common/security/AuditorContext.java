@@ -0,0 +1,52 @@
+package com.adminplus.common.security;
+
+import java.util.function.Supplier;
+
+/**
+ * 审计用户覆盖
+ * <p>
+ * 后台线程（如批量写入缓冲区的刷新线程）没有安全上下文，写入实体时 create_user / update_user 会退化为 system。
+ * 调用方线程在入队时记录当前用户，写入时通过 {@link #callAs} 指定，{@link JpaAuditorAware} 优先使用该值。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class AuditorContext {
+
+    private static final ThreadLocal<String> AUDITOR = new ThreadLocal<>();
+
+    private AuditorContext() {
+    }
+
+    /**
+     * 当前线程指定的审计用户，未指定时为 null
+     */
+    public static String current() {
+        return AUDITOR.get();
+    }
+
+    /**
+     * 以指定用户作为审计用户执行
+     *
+     * @param auditor 审计用户ID，为 null 时按安全上下文取值
+     * @param action  写入操作
+     */
+    public static <T> T callAs(String auditor, Supplier<T> action) {
+        String previous = AUDITOR.get();
+        if (auditor == null) {
+            AUDITOR.remove();
+        } else {
+            AUDITOR.set(auditor);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                AUDITOR.remove();
+            } else {
+                AUDITOR.set(previous);
+            }
+        }
+    }
+}
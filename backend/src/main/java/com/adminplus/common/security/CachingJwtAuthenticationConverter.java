@@ -0,0 +1,56 @@
+package com.adminplus.common.security;
+
+import com.adminplus.utils.TokenHashUtils;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 带权限缓存的 JWT 认证转换器
+ * <p>
+ * 同一 Token 在权限快照版本不变时复用已转换的权限与主体名称，每次请求只新建一个
+ * {@link JwtAuthenticationToken}（认证对象会被写入请求相关的 details，不能跨请求共享）。
+ * 权限版本取自 {@link PermissionSnapshotEngine#getVersion()}，快照未启用或尚未构建（版本为负）时不缓存，每次交给实际转换器。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public class CachingJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final Converter<Jwt, ? extends AbstractAuthenticationToken> delegate;
+    private final VerifiedJwtCache cache;
+    private final LongSupplier permissionVersion;
+
+    public CachingJwtAuthenticationConverter(Converter<Jwt, ? extends AbstractAuthenticationToken> delegate,
+                                             VerifiedJwtCache cache,
+                                             LongSupplier permissionVersion) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.permissionVersion = permissionVersion;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        long version = permissionVersion.getAsLong();
+        if (!cache.isEnabled() || version < 0) {
+            return delegate.convert(jwt);
+        }
+
+        String tokenHash = TokenHashUtils.hash(jwt.getTokenValue());
+        VerifiedJwtCache.CachedAuthentication cached = cache.getAuthentication(tokenHash, jwt, version);
+        if (cached != null) {
+            return new JwtAuthenticationToken(jwt, cached.authorities(), cached.name());
+        }
+
+        AbstractAuthenticationToken authentication = delegate.convert(jwt);
+        if (authentication != null) {
+            cache.putAuthentication(tokenHash,
+                    new VerifiedJwtCache.CachedAuthentication(version, authentication.getAuthorities(), authentication.getName()));
+        }
+        return authentication;
+    }
+}
@@ -0,0 +1,42 @@
+package com.adminplus.common.security;
+
+import com.adminplus.utils.TokenHashUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * 带已验签缓存的 JWT 解码器
+ * <p>
+ * 命中 {@link VerifiedJwtCache} 时直接返回缓存的 {@link Jwt}；未命中时交给实际解码器验签与校验，
+ * 成功后写入缓存。验签或校验失败的 Token 不缓存。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final VerifiedJwtCache cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, VerifiedJwtCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (!cache.isEnabled() || token == null) {
+            return delegate.decode(token);
+        }
+        String tokenHash = TokenHashUtils.hash(token);
+        Jwt cached = cache.getJwt(tokenHash, token);
+        if (cached != null) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        cache.putJwt(tokenHash, jwt);
+        return jwt;
+    }
+}
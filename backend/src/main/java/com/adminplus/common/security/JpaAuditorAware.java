@@ -11,6 +11,10 @@ public class JpaAuditorAware implements AuditorAware<String> {
 
     @Override
     public Optional<String> getCurrentAuditor() {
+        String auditor = AuditorContext.current();
+        if (auditor != null) {
+            return Optional.of(auditor);
+        }
         String currentUserId = SecurityUtils.getCurrentUserIdOrDefault();
         return Optional.of(currentUserId);
     }
@@ -0,0 +1,41 @@
+package com.adminplus.common.security;
+
+/**
+ * 权限数据变更事件
+ * <p>
+ * 由角色、用户角色、菜单的写操作发布，{@link PermissionSnapshotEngine} 在事务提交后据此增量刷新快照。
+ * </p>
+ *
+ * @param scope    变更范围
+ * @param targetId 用户ID或角色ID（MENU / ALL 范围时为 null）
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record PermissionChangedEvent(
+        Scope scope,
+        String targetId
+) {
+
+    public enum Scope {
+        /** 用户的角色分配变更 */
+        USER,
+        /** 角色的菜单分配变更或角色删除 */
+        ROLE,
+        /** 菜单权限标识变更 */
+        MENU,
+        /** 全量重建 */
+        ALL
+    }
+
+    public static PermissionChangedEvent user(String userId) {
+        return new PermissionChangedEvent(Scope.USER, userId);
+    }
+
+    public static PermissionChangedEvent role(String roleId) {
+        return new PermissionChangedEvent(Scope.ROLE, roleId);
+    }
+
+    public static PermissionChangedEvent menus() {
+        return new PermissionChangedEvent(Scope.MENU, null);
+    }
+}
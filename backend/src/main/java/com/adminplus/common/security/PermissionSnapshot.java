@@ -0,0 +1,205 @@
+package com.adminplus.common.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限快照（不可变）
+ * <p>
+ * 保存 menu→permKey、role→menu、user→role 三组映射，以及由此派生的 role→权限集合。
+ * 语义与 {@code MenuRepository.findPermKeysByUserId} 的三表关联查询一致。
+ * 每个权限字符串只对应一个共享的 {@link GrantedAuthority} 实例，用户权限集合按需构建并在本快照内复用。
+ * </p>
+ * <p>
+ * 所有 with* 方法返回新快照（版本号 +1），原快照不受影响，读取方无需加锁。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class PermissionSnapshot {
+
+    private final long version;
+    private final Instant builtAt;
+    private final Map<String, GrantedAuthority> menuAuthorities;
+    private final Map<String, Set<String>> roleMenus;
+    private final Map<String, Set<String>> userRoles;
+    private final Map<String, Set<GrantedAuthority>> roleAuthorities;
+    private final Map<String, Set<GrantedAuthority>> userAuthorities;
+
+    private PermissionSnapshot(long version,
+                               Instant builtAt,
+                               Map<String, GrantedAuthority> menuAuthorities,
+                               Map<String, Set<String>> roleMenus,
+                               Map<String, Set<String>> userRoles,
+                               Map<String, Set<GrantedAuthority>> roleAuthorities,
+                               Map<String, Set<GrantedAuthority>> userAuthorities) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.menuAuthorities = menuAuthorities;
+        this.roleMenus = roleMenus;
+        this.userRoles = userRoles;
+        this.roleAuthorities = roleAuthorities;
+        this.userAuthorities = userAuthorities;
+    }
+
+    /**
+     * 构建完整快照
+     *
+     * @param version      版本号
+     * @param menuPermKeys 菜单ID → 权限标识（仅包含非空权限标识）
+     * @param roleMenus    角色ID → 菜单ID集合
+     * @param userRoles    用户ID → 角色ID集合
+     */
+    public static PermissionSnapshot build(long version,
+                                           Map<String, String> menuPermKeys,
+                                           Map<String, ? extends Collection<String>> roleMenus,
+                                           Map<String, ? extends Collection<String>> userRoles) {
+        Map<String, GrantedAuthority> menuAuthorities = internAuthorities(menuPermKeys);
+        Map<String, Set<String>> roleMenuCopy = copyOf(roleMenus);
+        return new PermissionSnapshot(
+                version,
+                Instant.now(),
+                menuAuthorities,
+                roleMenuCopy,
+                copyOf(userRoles),
+                deriveRoleAuthorities(menuAuthorities, roleMenuCopy),
+                new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 获取用户的权限集合（不可变，调用方不应修改）
+     */
+    public Set<GrantedAuthority> authoritiesOf(String userId) {
+        Set<GrantedAuthority> cached = userAuthorities.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        return userAuthorities.computeIfAbsent(userId, this::computeUserAuthorities);
+    }
+
+    /**
+     * 替换单个用户的角色
+     */
+    public PermissionSnapshot withUserRoles(String userId, Collection<String> roleIds) {
+        Map<String, Set<String>> newUserRoles = new HashMap<>(userRoles);
+        if (roleIds == null || roleIds.isEmpty()) {
+            newUserRoles.remove(userId);
+        } else {
+            newUserRoles.put(userId, Set.copyOf(roleIds));
+        }
+
+        // 其他用户的已构建权限集合仍然有效
+        Map<String, Set<GrantedAuthority>> newUserAuthorities = new ConcurrentHashMap<>(userAuthorities);
+        newUserAuthorities.remove(userId);
+
+        return new PermissionSnapshot(version + 1, builtAt, menuAuthorities, roleMenus,
+                Map.copyOf(newUserRoles), roleAuthorities, newUserAuthorities);
+    }
+
+    /**
+     * 替换单个角色的菜单
+     */
+    public PermissionSnapshot withRoleMenus(String roleId, Collection<String> menuIds) {
+        Map<String, Set<String>> newRoleMenus = new HashMap<>(roleMenus);
+        Map<String, Set<GrantedAuthority>> newRoleAuthorities = new HashMap<>(roleAuthorities);
+        if (menuIds == null || menuIds.isEmpty()) {
+            newRoleMenus.remove(roleId);
+            newRoleAuthorities.remove(roleId);
+        } else {
+            Set<String> menus = Set.copyOf(menuIds);
+            newRoleMenus.put(roleId, menus);
+            newRoleAuthorities.put(roleId, resolveAuthorities(menuAuthorities, menus));
+        }
+
+        return new PermissionSnapshot(version + 1, builtAt, menuAuthorities, Map.copyOf(newRoleMenus),
+                userRoles, Map.copyOf(newRoleAuthorities), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 替换菜单权限标识（菜单增删改后调用）
+     */
+    public PermissionSnapshot withMenuPermKeys(Map<String, String> menuPermKeys) {
+        Map<String, GrantedAuthority> newMenuAuthorities = internAuthorities(menuPermKeys);
+        return new PermissionSnapshot(version + 1, builtAt, newMenuAuthorities, roleMenus, userRoles,
+                deriveRoleAuthorities(newMenuAuthorities, roleMenus), new ConcurrentHashMap<>());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 最近一次全量构建的时间（增量更新不会刷新该时间）
+     */
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public int userCount() {
+        return userRoles.size();
+    }
+
+    public int roleCount() {
+        return roleMenus.size();
+    }
+
+    private Set<GrantedAuthority> computeUserAuthorities(String userId) {
+        Set<String> roles = userRoles.get(userId);
+        if (roles == null || roles.isEmpty()) {
+            return Set.of();
+        }
+        if (roles.size() == 1) {
+            return roleAuthorities.getOrDefault(roles.iterator().next(), Set.of());
+        }
+        Set<GrantedAuthority> result = new HashSet<>();
+        for (String roleId : roles) {
+            result.addAll(roleAuthorities.getOrDefault(roleId, Set.of()));
+        }
+        return Set.copyOf(result);
+    }
+
+    private static Map<String, GrantedAuthority> internAuthorities(Map<String, String> menuPermKeys) {
+        Map<String, GrantedAuthority> pool = new HashMap<>();
+        Map<String, GrantedAuthority> result = new HashMap<>();
+        menuPermKeys.forEach((menuId, permKey) -> {
+            if (permKey != null && !permKey.isEmpty()) {
+                result.put(menuId, pool.computeIfAbsent(permKey.intern(), SimpleGrantedAuthority::new));
+            }
+        });
+        return Map.copyOf(result);
+    }
+
+    private static Map<String, Set<GrantedAuthority>> deriveRoleAuthorities(Map<String, GrantedAuthority> menuAuthorities,
+                                                                            Map<String, Set<String>> roleMenus) {
+        Map<String, Set<GrantedAuthority>> result = new HashMap<>();
+        roleMenus.forEach((roleId, menus) -> result.put(roleId, resolveAuthorities(menuAuthorities, menus)));
+        return Map.copyOf(result);
+    }
+
+    private static Set<GrantedAuthority> resolveAuthorities(Map<String, GrantedAuthority> menuAuthorities,
+                                                            Set<String> menuIds) {
+        Set<GrantedAuthority> result = new HashSet<>();
+        for (String menuId : menuIds) {
+            GrantedAuthority authority = menuAuthorities.get(menuId);
+            if (authority != null) {
+                result.add(authority);
+            }
+        }
+        return Set.copyOf(result);
+    }
+
+    private static Map<String, Set<String>> copyOf(Map<String, ? extends Collection<String>> source) {
+        Map<String, Set<String>> result = new HashMap<>();
+        source.forEach((key, values) -> result.put(key, Set.copyOf(values)));
+        return Map.copyOf(result);
+    }
+}
@@ -0,0 +1,272 @@
+package com.adminplus.common.security;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.pojo.entity.UserRoleEntity;
+import com.adminplus.repository.MenuRepository;
+import com.adminplus.repository.RoleMenuRepository;
+import com.adminplus.repository.UserRoleRepository;
+import com.adminplus.service.PermissionService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 权限解析引擎
+ * <p>
+ * 为 JWT 权限转换器提供进程内的用户权限，替代每个请求一次的 Redis GET（或三表关联查询）。
+ * 快照在应用就绪后全量构建，之后由 {@link PermissionChangedEvent} 在事务提交后增量刷新，
+ * 并通过 Redis Pub/Sub 通知其他节点执行相同的刷新。超过 maxAgeMinutes 的快照会在后台全量重建，用于修复漏收消息导致的偏差。
+ * </p>
+ * <p>
+ * 所有写操作串行执行（读库 + 替换快照在同一把锁内），避免旧数据覆盖新数据；读操作无锁。
+ * 通过 app.permission-cache.enabled=false 可回退到 {@link PermissionService#getUserPermissions}。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionSnapshotEngine implements MessageListener {
+
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final MenuRepository menuRepository;
+    private final RoleMenuRepository roleMenuRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final PermissionService permissionService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AppProperties appProperties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicReference<PermissionSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean backgroundRebuilding = new AtomicBoolean();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 最近一次丢弃的快照版本（受 writeLock 保护），保证重建后的版本号单调递增，
+     * 按版本缓存权限的调用方（如 {@link VerifiedJwtCache}）不会误用旧版本的结果
+     */
+    private long discardedVersion;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.PERMISSION_CHANGED_CHANNEL));
+    }
+
+    /**
+     * 应用就绪后（数据初始化器执行完毕）构建首个快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (isEnabled()) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * 获取用户权限
+     *
+     * @param userId 用户ID
+     * @return 不可变的权限集合
+     */
+    public Set<GrantedAuthority> getAuthorities(String userId) {
+        if (!isEnabled()) {
+            return loadFromService(userId);
+        }
+
+        PermissionSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            snapshot = rebuildAll();
+            if (snapshot == null) {
+                return loadFromService(userId);
+            }
+        } else if (isStale(snapshot)) {
+            rebuildInBackground();
+        }
+        return snapshot.authoritiesOf(userId);
+    }
+
+    /**
+     * 当前快照版本（未构建时为 -1）
+     */
+    public long getVersion() {
+        PermissionSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot.getVersion() : -1;
+    }
+
+    /**
+     * 事务提交后增量刷新本节点快照并广播给其他节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        apply(event);
+        broadcast(event);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!isEnabled()) {
+            return;
+        }
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", -1);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            PermissionChangedEvent.Scope scope = PermissionChangedEvent.Scope.valueOf(parts[1]);
+            apply(new PermissionChangedEvent(scope, parts[2].isEmpty() ? null : parts[2]));
+        } catch (Exception e) {
+            log.warn("处理远程权限变更消息失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建快照
+     *
+     * @return 新快照；构建失败时返回当前快照（可能为 null）
+     */
+    public PermissionSnapshot rebuildAll() {
+        writeLock.lock();
+        try {
+            long start = System.nanoTime();
+            PermissionSnapshot previous = current.get();
+            PermissionSnapshot snapshot = PermissionSnapshot.build(
+                    (previous != null ? previous.getVersion() : discardedVersion) + 1,
+                    loadMenuPermKeys(),
+                    groupPairs(roleMenuRepository.findAllRoleMenuPairs()),
+                    groupPairs(userRoleRepository.findAllUserRolePairs()));
+            current.set(snapshot);
+            log.info("权限快照已重建: version={}, users={}, roles={}, cost={}ms",
+                    snapshot.getVersion(), snapshot.userCount(), snapshot.roleCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } catch (Exception e) {
+            log.error("权限快照重建失败", e);
+            return current.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(PermissionChangedEvent event) {
+        writeLock.lock();
+        try {
+            PermissionSnapshot snapshot = current.get();
+            if (snapshot == null || event.scope() == PermissionChangedEvent.Scope.ALL) {
+                rebuildAll();
+                return;
+            }
+
+            PermissionSnapshot updated = switch (event.scope()) {
+                case USER -> snapshot.withUserRoles(event.targetId(),
+                        userRoleRepository.findByUserId(event.targetId()).stream()
+                                .map(UserRoleEntity::getRoleId)
+                                .toList());
+                case ROLE -> snapshot.withRoleMenus(event.targetId(),
+                        roleMenuRepository.findMenuIdByRoleId(event.targetId()));
+                case MENU -> snapshot.withMenuPermKeys(loadMenuPermKeys());
+                case ALL -> throw new IllegalStateException("unreachable");
+            };
+            current.set(updated);
+            log.debug("权限快照已增量更新: scope={}, target={}, version={}",
+                    event.scope(), event.targetId(), updated.getVersion());
+        } catch (Exception e) {
+            // 增量更新失败时丢弃快照，下一次读取触发全量重建
+            log.error("权限快照增量更新失败: scope={}, target={}", event.scope(), event.targetId(), e);
+            PermissionSnapshot discarded = current.getAndSet(null);
+            if (discarded != null) {
+                discardedVersion = discarded.getVersion();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void broadcast(PermissionChangedEvent event) {
+        try {
+            String payload = String.join(MESSAGE_SEPARATOR, nodeId, event.scope().name(),
+                    event.targetId() != null ? event.targetId() : "");
+            stringRedisTemplate.convertAndSend(CacheConstants.PERMISSION_CHANGED_CHANNEL, payload);
+        } catch (Exception e) {
+            log.warn("广播权限变更失败: scope={}, target={}, error={}",
+                    event.scope(), event.targetId(), e.getMessage());
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (backgroundRebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("permission-snapshot-rebuild").start(() -> {
+                try {
+                    rebuildAll();
+                } finally {
+                    backgroundRebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    private boolean isStale(PermissionSnapshot snapshot) {
+        Duration maxAge = Duration.ofMinutes(appProperties.getPermissionCache().getMaxAgeMinutes());
+        return snapshot.getBuiltAt().plus(maxAge).isBefore(Instant.now());
+    }
+
+    private boolean isEnabled() {
+        return appProperties.getPermissionCache().isEnabled();
+    }
+
+    private Set<GrantedAuthority> loadFromService(String userId) {
+        List<String> permissions = permissionService.getUserPermissions(userId);
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        for (String permission : permissions) {
+            authorities.add(new SimpleGrantedAuthority(permission));
+        }
+        return authorities;
+    }
+
+    private Map<String, String> loadMenuPermKeys() {
+        Map<String, String> result = new HashMap<>();
+        for (Object[] row : menuRepository.findAllMenuPermKeys()) {
+            result.put((String) row[0], (String) row[1]);
+        }
+        return result;
+    }
+
+    private static Map<String, Set<String>> groupPairs(List<Object[]> pairs) {
+        return pairs.stream().collect(Collectors.groupingBy(
+                row -> (String) row[0],
+                Collectors.mapping(row -> (String) row[1], Collectors.toSet())));
+    }
+}
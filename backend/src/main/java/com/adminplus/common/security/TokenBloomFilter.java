@@ -0,0 +1,115 @@
+package com.adminplus.common.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已撤销 Token 摘要的布隆过滤器
+ * <p>
+ * 位数组基于 {@link AtomicLongArray}，写入与查询均无锁、线程安全。
+ * 使用两个 64 位哈希的双重哈希（Kirsch-Mitzenmacher）派生 k 个位置。
+ * 不支持删除：过期的撤销记录需要通过重建过滤器清除。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class TokenBloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private TokenBloomFilter(long bitSize, int hashFunctions) {
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bitSize + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount << 6;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * 按预期元素数与目标误判率创建过滤器
+     *
+     * @param expectedInsertions 预期元素数
+     * @param falsePositiveRate  目标误判率（0~1）
+     */
+    public static TokenBloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(expectedInsertions, 1);
+        double p = Math.min(Math.max(falsePositiveRate, Double.MIN_NORMAL), 0.5);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new TokenBloomFilter(bits, k);
+    }
+
+    /**
+     * 加入一个 Token 摘要
+     */
+    public void put(String tokenHash) {
+        long h1 = hash(tokenHash, FNV_OFFSET);
+        long h2 = hash(tokenHash, h1) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * 是否可能包含该 Token 摘要（false 表示一定不包含）
+     */
+    public boolean mightContain(String tokenHash) {
+        long h1 = hash(tokenHash, FNV_OFFSET);
+        long h2 = hash(tokenHash, h1) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 已加入的元素数（含重复加入）
+     */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /**
+     * 按当前元素数估算的误判率
+     */
+    public double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) hashFunctions * insertions.get() / bitSize);
+        return Math.pow(fill, hashFunctions);
+    }
+
+    /**
+     * FNV-1a 后接 MurmurHash3 fmix64 混淆
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
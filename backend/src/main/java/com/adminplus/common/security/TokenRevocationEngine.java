@@ -0,0 +1,265 @@
+package com.adminplus.common.security;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.constants.CacheConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Token 撤销判定引擎
+ * <p>
+ * 在 Redis 黑名单前放置进程内布隆过滤器：绝大多数请求携带的是未撤销的 Token，
+ * 过滤器判定"一定不存在"时直接放行，不再访问 Redis；判定"可能存在"时才回查 Redis 确认。
+ * 本节点撤销 Token 时先写 Redis 再加入过滤器，并通过 Redis Pub/Sub 通知其他节点加入相同的摘要。
+ * </p>
+ * <p>
+ * 布隆过滤器不支持删除，应用就绪后及每隔 rebuild-interval-ms 通过 SCAN 黑名单键全量重建，
+ * 清除已过期的摘要并修复漏收的广播消息。重建期间新撤销的摘要同时写入新旧两个过滤器。
+ * 首次构建完成前或 app.token-blacklist.bloom-enabled=false 时每次均查询 Redis。
+ * </p>
+ * <p>
+ * 撤销（含其他节点广播的撤销）同时使 {@link VerifiedJwtCache} 中的对应条目失效，不受布隆过滤器开关影响。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class TokenRevocationEngine implements MessageListener {
+
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private static final String HASH_SEPARATOR = ",";
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AppProperties.TokenBlacklist config;
+    private final VerifiedJwtCache verifiedJwtCache;
+
+    private final Counter negativeCounter;
+    private final Counter truePositiveCounter;
+    private final Counter falsePositiveCounter;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile TokenBloomFilter active;
+    private volatile TokenBloomFilter building;
+
+    public TokenRevocationEngine(StringRedisTemplate stringRedisTemplate,
+                                 RedisMessageListenerContainer listenerContainer,
+                                 AppProperties appProperties,
+                                 VerifiedJwtCache verifiedJwtCache,
+                                 MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.config = appProperties.getTokenBlacklist();
+        this.verifiedJwtCache = verifiedJwtCache;
+
+        this.negativeCounter = Counter.builder("token.blacklist.filter.lookups")
+                .description("布隆过滤器判定未撤销、免于查询 Redis 的次数")
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.truePositiveCounter = Counter.builder("token.blacklist.filter.lookups")
+                .description("布隆过滤器命中且 Redis 确认已撤销的次数")
+                .tag("result", "true_positive")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("token.blacklist.filter.lookups")
+                .description("布隆过滤器命中但 Redis 中不存在（误判）的次数")
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        Gauge.builder("token.blacklist.filter.false_positive_rate", this, TokenRevocationEngine::observedFalsePositiveRate)
+                .description("未撤销 Token 中被过滤器误判、仍需查询 Redis 的比例")
+                .register(meterRegistry);
+        Gauge.builder("token.blacklist.filter.entries", this, engine -> {
+                    TokenBloomFilter filter = engine.active;
+                    return filter != null ? filter.insertions() : 0;
+                })
+                .description("当前过滤器中的撤销摘要数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.TOKEN_REVOKED_CHANNEL));
+    }
+
+    /**
+     * 应用就绪后构建首个过滤器
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (config.isBloomEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 判断 Token 是否已撤销
+     *
+     * @param tokenHash   Token 摘要
+     * @param storeLookup 权威存储（Redis）中的查询
+     * @return 是否已撤销
+     */
+    public boolean isRevoked(String tokenHash, Predicate<String> storeLookup) {
+        TokenBloomFilter filter = config.isBloomEnabled() ? active : null;
+        if (filter == null) {
+            return storeLookup.test(tokenHash);
+        }
+        if (!filter.mightContain(tokenHash)) {
+            negativeCounter.increment();
+            return false;
+        }
+        boolean revoked = storeLookup.test(tokenHash);
+        (revoked ? truePositiveCounter : falsePositiveCounter).increment();
+        return revoked;
+    }
+
+    /**
+     * 登记已写入 Redis 黑名单的摘要，并广播给其他节点
+     * <p>
+     * 必须在 Redis 写入成功后调用，保证重建时 SCAN 不会遗漏该摘要。
+     * </p>
+     */
+    public void revoked(Collection<String> tokenHashes) {
+        if (tokenHashes == null || tokenHashes.isEmpty()) {
+            return;
+        }
+        verifiedJwtCache.invalidate(tokenHashes);
+        if (config.isBloomEnabled()) {
+            tokenHashes.forEach(this::addLocal);
+        }
+        broadcast(tokenHashes);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        List<String> tokenHashes = new ArrayList<>();
+        for (String tokenHash : body.substring(separator + 1).split(HASH_SEPARATOR)) {
+            if (!tokenHash.isEmpty()) {
+                tokenHashes.add(tokenHash);
+            }
+        }
+        verifiedJwtCache.invalidate(tokenHashes);
+        if (config.isBloomEnabled()) {
+            tokenHashes.forEach(this::addLocal);
+        }
+    }
+
+    /**
+     * 通过 SCAN 黑名单键全量重建过滤器
+     * <p>
+     * 失败时保留当前过滤器（首次构建失败则继续直接查询 Redis）。
+     * </p>
+     *
+     * @return 重建后的摘要数；未执行或失败时返回 -1
+     */
+    public long rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return -1;
+        }
+        try {
+            long start = System.nanoTime();
+            TokenBloomFilter previous = active;
+            long expected = Math.max(config.getExpectedInsertions(),
+                    previous != null ? previous.insertions() * 2 : 0);
+            TokenBloomFilter next = TokenBloomFilter.create(expected, config.getFalsePositiveRate());
+            // 先公开新过滤器再开始扫描：扫描期间的并发撤销会同时写入新旧过滤器
+            building = next;
+
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + "*")
+                    .count(SCAN_BATCH_SIZE)
+                    .build();
+            int prefixLength = CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX.length();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    next.put(cursor.next().substring(prefixLength));
+                }
+            }
+
+            active = next;
+            log.info("Token 黑名单过滤器已重建: entries={}, expectedFpp={}, cost={}ms",
+                    next.insertions(), String.format("%.5f", next.expectedFalsePositiveRate()),
+                    (System.nanoTime() - start) / 1_000_000);
+            return next.insertions();
+        } catch (Exception e) {
+            log.error("Token 黑名单过滤器重建失败", e);
+            return -1;
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 过滤器是否已可用
+     */
+    public boolean isReady() {
+        return config.isBloomEnabled() && active != null;
+    }
+
+    /**
+     * 写入本地过滤器
+     * <p>
+     * 必须先读 building 再读 active：rebuild() 先发布 active = next 再清空 building，
+     * 反过来读可能拿到旧 active 和已清空的 building，撤销只写进被替换掉的旧过滤器。
+     * 先读 building 时，读到 null 说明重建尚未开始（扫描会从 Redis 读到该摘要）或已结束（随后读到的 active 即新过滤器）。
+     * </p>
+     */
+    private void addLocal(String tokenHash) {
+        TokenBloomFilter next = building;
+        if (next != null) {
+            next.put(tokenHash);
+        }
+        TokenBloomFilter filter = active;
+        if (filter != null && filter != next) {
+            filter.put(tokenHash);
+        }
+    }
+
+    private void broadcast(Collection<String> tokenHashes) {
+        try {
+            String payload = nodeId + MESSAGE_SEPARATOR + String.join(HASH_SEPARATOR, tokenHashes);
+            stringRedisTemplate.convertAndSend(CacheConstants.TOKEN_REVOKED_CHANNEL, payload);
+        } catch (Exception e) {
+            // 其他节点会在下一次重建时补齐
+            log.warn("广播 Token 撤销失败: count={}, error={}", tokenHashes.size(), e.getMessage());
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double falsePositives = falsePositiveCounter.count();
+        double total = falsePositives + negativeCounter.count();
+        return total > 0 ? falsePositives / total : 0;
+    }
+}
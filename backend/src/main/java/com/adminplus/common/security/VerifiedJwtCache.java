@@ -0,0 +1,148 @@
+package com.adminplus.common.security;
+
+import com.adminplus.common.properties.AppProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * 已验签 JWT 缓存
+ * <p>
+ * 以 Token 摘要（{@link com.adminplus.utils.TokenHashUtils}，与黑名单相同）为键，缓存验签并校验通过的 {@link Jwt}
+ * 及由它构建的权限，同一 Token 的后续请求免去 RS256 验签、claims 解析与权限转换。
+ * 条目在 Token 的 exp 到期时过期；Token 被撤销时由 {@link TokenRevocationEngine} 立即失效（含其他节点的广播）。
+ * 权限按权限快照版本缓存，快照变化后重新转换。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Component
+public class VerifiedJwtCache {
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public VerifiedJwtCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.Jwt config = appProperties.getJwt();
+        this.enabled = config.isDecodeCacheEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getDecodeCacheMaximumSize())
+                .expireAfter(Expiry.creating((String tokenHash, Entry entry) -> entry.timeToLive()))
+                .build();
+
+        this.hitCounter = Counter.builder("security.jwt.decode.cache")
+                .description("直接使用已验签 Token 的次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("security.jwt.decode.cache")
+                .description("需要验签的次数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("security.jwt.decode.cache.size", cache, Cache::estimatedSize)
+                .description("缓存的已验签 Token 数")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取已验签的 JWT
+     *
+     * @param tokenHash Token 摘要
+     * @param token     Token 原文（核对摘要对应的是同一 Token）
+     * @return 缓存的 JWT，不存在时为 null
+     */
+    public Jwt getJwt(String tokenHash, String token) {
+        Entry entry = cache.getIfPresent(tokenHash);
+        if (entry == null || !entry.jwt.getTokenValue().equals(token)) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.jwt;
+    }
+
+    /**
+     * 缓存验签通过的 JWT（没有 exp 的 Token 不缓存）
+     */
+    public void putJwt(String tokenHash, Jwt jwt) {
+        if (jwt.getExpiresAt() != null) {
+            cache.put(tokenHash, new Entry(jwt));
+        }
+    }
+
+    /**
+     * 获取按指定权限快照版本构建的权限
+     *
+     * @return 缓存的权限，不存在或版本不一致时为 null
+     */
+    public CachedAuthentication getAuthentication(String tokenHash, Jwt jwt, long permissionVersion) {
+        Entry entry = cache.getIfPresent(tokenHash);
+        if (entry == null || !entry.jwt.getTokenValue().equals(jwt.getTokenValue())) {
+            return null;
+        }
+        CachedAuthentication authentication = entry.authentication;
+        return authentication != null && authentication.permissionVersion() == permissionVersion
+                ? authentication : null;
+    }
+
+    /**
+     * 缓存由 JWT 构建的权限（JWT 未缓存时忽略）
+     */
+    public void putAuthentication(String tokenHash, CachedAuthentication authentication) {
+        Entry entry = cache.getIfPresent(tokenHash);
+        if (entry != null) {
+            entry.authentication = authentication;
+        }
+    }
+
+    /**
+     * 失效已撤销的 Token
+     */
+    public void invalidate(Collection<String> tokenHashes) {
+        cache.invalidateAll(tokenHashes);
+    }
+
+    /**
+     * 缓存的权限
+     *
+     * @param permissionVersion 构建时的权限快照版本
+     * @param authorities       权限集合
+     * @param name              认证主体名称
+     */
+    public record CachedAuthentication(long permissionVersion,
+                                       Collection<? extends GrantedAuthority> authorities,
+                                       String name) {
+    }
+
+    private static final class Entry {
+
+        private final Jwt jwt;
+        private volatile CachedAuthentication authentication;
+
+        private Entry(Jwt jwt) {
+            this.jwt = jwt;
+        }
+
+        private Duration timeToLive() {
+            Duration ttl = Duration.between(Instant.now(), jwt.getExpiresAt());
+            return ttl.isNegative() ? Duration.ZERO : ttl;
+        }
+    }
+}
@@ -29,10 +29,65 @@ public interface CacheConstants {
      */
     String USER_TOKENS_KEY_PREFIX = "user:tokens:";
 
+    /**
+     * Token 撤销广播频道（消息体为 节点ID|摘要1,摘要2）
+     */
+    String TOKEN_REVOKED_CHANNEL = "token:revoked";
+
+    /**
+     * Refresh Token 键前缀（后接 Token 摘要，值为 用户ID|过期时间戳毫秒）
+     */
+    String REFRESH_TOKEN_KEY_PREFIX = "refresh:token:";
+
+    /**
+     * 用户当前 Refresh Token 摘要键前缀
+     */
+    String USER_REFRESH_TOKEN_KEY_PREFIX = "refresh:user:";
+
+    // ==================== 在线用户相关 ====================
+
+    /**
+     * 在线用户有序集合键（member 为用户ID，score 为最后活跃时间戳毫秒）
+     */
+    String ONLINE_USERS_KEY = "online:users";
+
+    /**
+     * 在线会话信息哈希键前缀（username/ip/browser/os/loginTime）
+     */
+    String ONLINE_SESSION_KEY_PREFIX = "online:session:";
+
     // ==================== 限流相关 ====================
 
     /**
      * 限流计数键前缀
      */
     String RATE_LIMIT_KEY_PREFIX = "rate_limit:";
+
+    // ==================== 雪花 ID 相关 ====================
+
+    /**
+     * 雪花节点号租约键前缀（后接节点号，值为持有租约的实例标识）
+     */
+    String SNOWFLAKE_WORKER_KEY_PREFIX = "snowflake:worker:";
+
+    // ==================== 多级缓存相关 ====================
+
+    /**
+     * L1 缓存失效广播频道
+     */
+    String CACHE_INVALIDATION_CHANNEL = "cache:invalidation";
+
+    // ==================== 权限快照相关 ====================
+
+    /**
+     * 权限快照变更广播频道
+     */
+    String PERMISSION_CHANGED_CHANNEL = "permission:changed";
+
+    // ==================== 工作流定义相关 ====================
+
+    /**
+     * 工作流定义变更广播频道
+     */
+    String WORKFLOW_DEFINITION_CHANGED_CHANNEL = "workflow:definition:changed";
 }
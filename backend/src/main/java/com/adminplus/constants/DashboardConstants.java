@@ -15,6 +15,13 @@ public interface DashboardConstants {
      */
     int CHART_DAYS = 7;
 
+    // ==================== 在线用户 ====================
+
+    /**
+     * 在线用户默认每页数量
+     */
+    int ONLINE_USER_PAGE_SIZE = 100;
+
     // ==================== 数据库连接池 ====================
 
     /**
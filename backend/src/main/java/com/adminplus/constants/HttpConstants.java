@@ -15,6 +15,21 @@ public interface HttpConstants {
      */
     String AUTHORIZATION_HEADER = "Authorization";
 
+    /**
+     * 限流：窗口内允许的请求数
+     */
+    String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
+
+    /**
+     * 限流：剩余可用请求数
+     */
+    String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    /**
+     * 限流：配额完全恢复所需秒数
+     */
+    String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+
     // ==================== HTTP 状态码 ====================
 
     /**
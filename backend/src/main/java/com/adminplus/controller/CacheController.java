@@ -2,6 +2,7 @@ package com.adminplus.controller;
 import com.adminplus.enums.OperationType;
 
 import com.adminplus.common.annotation.OperationLog;
+import com.adminplus.common.cache.TwoLevelCacheManager;
 import com.adminplus.common.pojo.ApiResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +19,7 @@ import java.util.Set;
  *
  * Spring Cache 的 Redis key 格式为: cacheName::key
  * 例如: roles::all, dashboardStats::stats
+ * 直接删除 Redis 键后需同步清空各节点的 L1 本地缓存
  *
  * @author AdminPlus
  * @since 2026-04-03
@@ -30,6 +32,7 @@ import java.util.Set;
 public class CacheController {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TwoLevelCacheManager cacheManager;
 
     /**
      * 紧急清理端点 - 无需认证
@@ -43,6 +46,7 @@ public class CacheController {
             redisTemplate.delete(keys);
             log.info("紧急清理所有缓存: {} 个键", keys.size());
         }
+        cacheManager.clearAllLocal();
         return ApiResponse.ok();
     }
 
@@ -57,6 +61,7 @@ public class CacheController {
             redisTemplate.delete(keys);
             log.info("清除所有缓存: {} 个键", keys.size());
         }
+        cacheManager.clearAllLocal();
         return ApiResponse.ok();
     }
 
@@ -71,6 +76,7 @@ public class CacheController {
             redisTemplate.delete(keys);
             log.info("清除缓存 {}: {} 个键", cacheName, keys.size());
         }
+        cacheManager.clearLocal(cacheName);
         return ApiResponse.ok();
     }
 
@@ -93,6 +99,7 @@ public class CacheController {
             redisTemplate.delete(keys);
             log.info("清除角色缓存: {} 个键", keys.size());
         }
+        cacheManager.clearLocal("roles");
         return ApiResponse.ok();
     }
 }
\ No newline at end of file
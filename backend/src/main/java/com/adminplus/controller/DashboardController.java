@@ -1,6 +1,7 @@
 package com.adminplus.controller;
 
 import com.adminplus.common.pojo.ApiResponse;
+import com.adminplus.constants.DashboardConstants;
 import com.adminplus.pojo.dto.response.*;
 import com.adminplus.service.DashboardService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -66,10 +68,23 @@ public class DashboardController {
     }
 
     @GetMapping("/online-users")
-    @Operation(summary = "获取在线用户")
+    @Operation(summary = "获取在线用户（按最后活跃时间倒序）")
     @PreAuthorize("hasAuthority('user:query') or hasAuthority('*')")
-    public ApiResponse<List<OnlineUserResponse>> getOnlineUsers() {
-        return ApiResponse.ok(dashboardService.getOnlineUsers());
+    public ApiResponse<List<OnlineUserResponse>> getOnlineUsers(
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "" + DashboardConstants.ONLINE_USER_PAGE_SIZE) Integer size
+    ) {
+        return ApiResponse.ok(dashboardService.getOnlineUsers(page, size).records());
+    }
+
+    @GetMapping("/online-users/page")
+    @Operation(summary = "分页获取在线用户（含在线总数）")
+    @PreAuthorize("hasAuthority('user:query') or hasAuthority('*')")
+    public ApiResponse<PageResultResponse<OnlineUserResponse>> getOnlineUserPage(
+            @RequestParam(defaultValue = "1") Integer page,
+            @RequestParam(defaultValue = "" + DashboardConstants.ONLINE_USER_PAGE_SIZE) Integer size
+    ) {
+        return ApiResponse.ok(dashboardService.getOnlineUsers(page, size));
     }
 
     @GetMapping("/statistics")
@@ -17,8 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.util.List;
 
 /**
@@ -101,7 +101,7 @@ public class LogController {
     @Operation(summary = "导出日志为Excel")
     @OperationLog(module = "日志管理", type = OperationType.EXPORT, description = "导出日志为Excel")
     @PreAuthorize("hasAuthority('log:export')")
-    public ResponseEntity<byte[]> exportToExcel(LogQuery query) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportToExcel(LogQuery query) {
         return logExportService.exportToExcel(query);
     }
 
@@ -109,7 +109,7 @@ public class LogController {
     @Operation(summary = "导出日志为CSV")
     @OperationLog(module = "日志管理", type = OperationType.EXPORT, description = "导出日志为CSV")
     @PreAuthorize("hasAuthority('log:export')")
-    public ResponseEntity<byte[]> exportToCsv(LogQuery query) throws IOException {
+    public ResponseEntity<StreamingResponseBody> exportToCsv(LogQuery query) {
         return logExportService.exportToCsv(query);
     }
 }
@@ -5,9 +5,11 @@ import com.adminplus.common.annotation.OperationLog;
 import com.adminplus.common.pojo.ApiResponse;
 import com.adminplus.pojo.dto.request.AddSignRequest;
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
+import com.adminplus.pojo.dto.request.BulkApprovalRequest;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
 import com.adminplus.pojo.dto.response.*;
 import com.adminplus.service.WorkflowInstanceService;
+import com.adminplus.service.workflow.WorkflowBulkApprovalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,6 +35,7 @@ import java.util.List;
 public class WorkflowInstanceController {
 
     private final WorkflowInstanceService instanceService;
+    private final WorkflowBulkApprovalService bulkApprovalService;
 
     @PostMapping("/draft")
     @Operation(summary = "创建工作流草稿")
@@ -119,6 +122,15 @@ public class WorkflowInstanceController {
         return ApiResponse.ok(responses);
     }
 
+    @GetMapping("/pending/page")
+    @Operation(summary = "按游标分页查询待我审批的工作流")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<CursorPageResponse<WorkflowInstanceResponse>> getPendingApprovalPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.ok(instanceService.getPendingApprovalPage(cursor, size));
+    }
+
     @GetMapping("/pending/count")
     @Operation(summary = "统计待审批数量")
     @PreAuthorize("isAuthenticated()")
@@ -127,6 +139,13 @@ public class WorkflowInstanceController {
         return ApiResponse.ok(count);
     }
 
+    @GetMapping("/pending/unread-count")
+    @Operation(summary = "统计未读的待审批数量")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<Long> countUnreadApprovals() {
+        return ApiResponse.ok(instanceService.countUnreadApprovals());
+    }
+
     @PostMapping("/{instanceId}/approve")
     @Operation(summary = "同意审批")
     @ApiResponses({
@@ -157,6 +176,24 @@ public class WorkflowInstanceController {
         return ApiResponse.ok(response);
     }
 
+    @PostMapping("/bulk-approve")
+    @Operation(summary = "批量同意审批")
+    @OperationLog(module = "工作流管理", type = OperationType.UPDATE, description = "批量同意审批 {#request.instanceIds.size()} 条")
+    @PreAuthorize("hasAnyAuthority('workflow:approve')")
+    public ApiResponse<BulkApprovalResultResponse> bulkApprove(@Valid @RequestBody BulkApprovalRequest request) {
+        log.info("批量同意审批: count={}", request.instanceIds().size());
+        return ApiResponse.ok(bulkApprovalService.approve(request));
+    }
+
+    @PostMapping("/bulk-reject")
+    @Operation(summary = "批量拒绝审批")
+    @OperationLog(module = "工作流管理", type = OperationType.UPDATE, description = "批量拒绝审批 {#request.instanceIds.size()} 条")
+    @PreAuthorize("hasAnyAuthority('workflow:reject', 'workflow:approve')")
+    public ApiResponse<BulkApprovalResultResponse> bulkReject(@Valid @RequestBody BulkApprovalRequest request) {
+        log.info("批量拒绝审批: count={}", request.instanceIds().size());
+        return ApiResponse.ok(bulkApprovalService.reject(request));
+    }
+
     @PostMapping("/{instanceId}/cancel")
     @Operation(summary = "取消工作流")
     @OperationLog(module = "工作流管理", type = OperationType.DELETE, description = "取消工作流 {#instanceId}")
@@ -24,6 +24,7 @@ public class WorkflowNodeHookConverter implements Converter<WorkflowNodeHookEnti
                 source.getConditionExpression(),
                 source.getRetryCount(),
                 source.getRetryInterval(),
+                source.getTimeoutMs(),
                 source.getHookName(),
                 source.getDescription(),
                 source.getCreateUser(),
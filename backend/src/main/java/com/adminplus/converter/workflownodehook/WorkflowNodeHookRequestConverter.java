@@ -23,6 +23,7 @@ public class WorkflowNodeHookRequestConverter implements Converter<WorkflowNodeH
         entity.setConditionExpression(source.conditionExpression());
         entity.setRetryCount(source.retryCount());
         entity.setRetryInterval(source.retryInterval() != null ? source.retryInterval() : 1000);
+        entity.setTimeoutMs(source.timeoutMs());
         entity.setHookName(source.hookName());
         entity.setDescription(source.description());
         return entity;
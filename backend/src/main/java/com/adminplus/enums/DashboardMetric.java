@@ -0,0 +1,27 @@
+package com.adminplus.enums;
+
+/**
+ * 仪表盘汇总指标枚举
+ * <p>
+ * 以名称存储于 sys_dashboard_metric.metric
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public enum DashboardMetric {
+    USER_NEW("每日新增用户"),
+    VISIT("每日访问量"),
+    ACTIVE_USER("每日活跃用户"),
+    ROLE_MEMBER("角色成员数");
+
+    private final String description;
+
+    DashboardMetric(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
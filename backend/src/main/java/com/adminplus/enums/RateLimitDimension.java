@@ -0,0 +1,22 @@
+package com.adminplus.enums;
+
+/**
+ * 限流维度枚举
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public enum RateLimitDimension {
+    IP("客户端IP"),
+    USER("登录用户（未登录时按客户端IP）");
+
+    private final String description;
+
+    RateLimitDimension(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
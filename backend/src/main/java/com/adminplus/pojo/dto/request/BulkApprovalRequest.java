@@ -0,0 +1,26 @@
+package com.adminplus.pojo.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 批量审批请求 DTO
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record BulkApprovalRequest(
+
+        @NotEmpty(message = "工作流实例ID列表不能为空")
+        @Size(max = 1000, message = "单次最多批量审批1000条")
+        List<String> instanceIds,
+
+        @NotBlank(message = "审批意见不能为空")
+        String comment,
+
+        String attachments
+) {
+}
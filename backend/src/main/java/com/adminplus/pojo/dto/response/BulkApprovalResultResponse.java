@@ -0,0 +1,33 @@
+package com.adminplus.pojo.dto.response;
+
+import java.util.List;
+
+/**
+ * 批量审批结果视图对象
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record BulkApprovalResultResponse(
+        Integer total,
+        Integer success,
+        Integer failed,
+        List<ItemResult> details
+) {
+
+    /**
+     * 单个实例的审批结果
+     */
+    public record ItemResult(
+            String instanceId,
+            /**
+             * success / failed
+             */
+            String status,
+            /**
+             * 审批后的实例状态（失败时为 null）
+             */
+            String instanceStatus,
+            String reason
+    ) {}
+}
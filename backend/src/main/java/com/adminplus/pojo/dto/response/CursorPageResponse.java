@@ -0,0 +1,28 @@
+package com.adminplus.pojo.dto.response;
+
+import java.util.List;
+
+/**
+ * 游标分页结果视图对象
+ *
+ * @param <T> 数据类型
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record CursorPageResponse<T>(
+        /**
+         * 数据列表
+         */
+        List<T> records,
+
+        /**
+         * 下一页游标（没有下一页时为 null）
+         */
+        String nextCursor,
+
+        /**
+         * 是否还有下一页
+         */
+        Boolean hasMore
+) {
+}
@@ -21,6 +21,7 @@ public record WorkflowNodeHookResponse(
         String conditionExpression,
         Integer retryCount,
         Integer retryInterval,
+        Integer timeoutMs,
         String hookName,
         String description,
         String createUser,
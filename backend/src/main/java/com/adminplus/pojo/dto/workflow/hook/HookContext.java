@@ -3,6 +3,7 @@ package com.adminplus.pojo.dto.workflow.hook;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -30,4 +31,19 @@ public record HookContext(
     String operatorName,
     Map<String, Object> extraParams
 ) {
+
+    /**
+     * 转换为 SpEL 变量（#instance、#node、#formData、#operation、#operatorId、#operatorName、#extraParams）
+     */
+    public Map<String, Object> toVariables() {
+        Map<String, Object> variables = new HashMap<>(8);
+        variables.put("instance", instance);
+        variables.put("node", node);
+        variables.put("formData", formData);
+        variables.put("operation", operation);
+        variables.put("operatorId", operatorId);
+        variables.put("operatorName", operatorName);
+        variables.put("extraParams", extraParams);
+        return variables;
+    }
 }
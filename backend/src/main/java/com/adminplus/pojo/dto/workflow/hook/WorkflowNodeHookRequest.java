@@ -2,6 +2,7 @@ package com.adminplus.pojo.dto.workflow.hook;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 /**
  * 工作流节点钩子配置请求DTO
@@ -42,6 +43,9 @@ public record WorkflowNodeHookRequest(
 
         Integer retryInterval,
 
+        @Positive(message = "超时时间必须大于0")
+        Integer timeoutMs,
+
         String hookName,
 
         String description
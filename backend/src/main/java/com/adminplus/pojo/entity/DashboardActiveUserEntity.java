@@ -0,0 +1,41 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * 仪表盘每日活跃用户实体
+ * <p>
+ * 记录某用户在某天是否有过操作，用于对每日活跃用户数做精确去重；仅保留最近的校正窗口。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_dashboard_active_user",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_dashboard_active_user", columnNames = {"stat_date", "user_id"})
+       })
+public class DashboardActiveUserEntity extends BaseEntity {
+
+    /**
+     * 统计日期（系统时区）
+     */
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false, length = 64)
+    private String userId;
+}
@@ -0,0 +1,69 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * 仪表盘汇总指标实体
+ * <p>
+ * 每行为某个指标在某一天、某个维度上的计数，由业务写入增量维护、定时任务校正。
+ * 按日指标的维度为 {@link #NO_DIMENSION}；不区分日期的指标（如角色成员数）日期固定为 {@link #ALL_TIME}。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_dashboard_metric",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_dashboard_metric",
+                   columnNames = {"metric", "stat_date", "dimension"})
+       },
+       indexes = {
+           @Index(name = "idx_dashboard_metric_date", columnList = "stat_date")
+       })
+public class DashboardMetricEntity extends BaseEntity {
+
+    /**
+     * 无维度占位值
+     */
+    public static final String NO_DIMENSION = "";
+
+    /**
+     * 不区分日期的指标所用日期
+     */
+    public static final LocalDate ALL_TIME = LocalDate.EPOCH;
+
+    /**
+     * 指标名称（{@link com.adminplus.enums.DashboardMetric}）
+     */
+    @Column(name = "metric", nullable = false, length = 32)
+    private String metric;
+
+    /**
+     * 统计日期（系统时区）
+     */
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * 维度值（如角色ID）
+     */
+    @Column(name = "dimension", nullable = false, length = 64)
+    private String dimension;
+
+    /**
+     * 指标值
+     */
+    @Column(name = "metric_value", nullable = false)
+    private Long metricValue;
+}
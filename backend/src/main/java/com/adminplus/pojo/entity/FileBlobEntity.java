@@ -0,0 +1,69 @@
+package com.adminplus.pojo.entity;
+
+import com.adminplus.enums.StorageType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * 内容寻址文件对象实体
+ * <p>
+ * 每行对应存储后端中的一个按 SHA-256 命名的对象，sys_file 通过 content_hash 引用。
+ * ref_count 为引用该对象的未删除文件记录数，降为 0 时记录 released_time，
+ * 超过回收宽限期后由定时任务删除对象与本行。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_file_blob",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_file_blob_hash", columnNames = {"content_hash", "storage_type"})
+       },
+       indexes = {
+           @Index(name = "idx_file_blob_released", columnList = "ref_count, released_time")
+       })
+public class FileBlobEntity extends BaseEntity {
+
+    /**
+     * 内容 SHA-256（小写十六进制）
+     */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    /**
+     * 存储类型
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_type", nullable = false, length = 20)
+    private StorageType storageType;
+
+    /**
+     * 对象访问URL
+     */
+    @Column(name = "file_url", nullable = false)
+    private String fileUrl;
+
+    /**
+     * 文件大小（字节）
+     */
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    /**
+     * 引用计数
+     */
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    /**
+     * 引用计数降为 0 的时间
+     */
+    @Column(name = "released_time")
+    private Instant releasedTime;
+}
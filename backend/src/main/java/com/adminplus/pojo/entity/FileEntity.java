@@ -21,7 +21,8 @@ import org.hibernate.annotations.SQLRestriction;
            @Index(name = "idx_file_directory", columnList = "directory"),
            @Index(name = "idx_file_storage_type", columnList = "storage_type"),
            @Index(name = "idx_file_status", columnList = "status"),
-           @Index(name = "idx_file_deleted", columnList = "deleted")
+           @Index(name = "idx_file_deleted", columnList = "deleted"),
+           @Index(name = "idx_file_content_hash", columnList = "content_hash")
        })
 @SQLDelete(sql = "UPDATE sys_file SET deleted = true WHERE id = ?")
 @SQLRestriction("deleted = false")
@@ -76,6 +77,12 @@ public class FileEntity extends BaseEntity {
     @Column(name = "directory")
     private String directory;
 
+    /**
+     * 文件内容 SHA-256（小写十六进制），上传时随存储一次读取计算
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * 文件状态（1=正常，0=禁用）
      */
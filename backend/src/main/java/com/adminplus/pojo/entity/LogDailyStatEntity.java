@@ -0,0 +1,70 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+
+/**
+ * 日志按日汇总实体
+ * <p>
+ * 每行为某一天某个 (日志类型, 操作类型, 状态) 组合的日志数，由日志写入/删除增量维护。
+ * 维度为空时存储 {@link #NONE}，以便唯一约束和 ON CONFLICT 生效。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_log_daily_stat",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_log_daily_stat",
+                   columnNames = {"stat_date", "log_type", "operation_type", "status"})
+       },
+       indexes = {
+           @Index(name = "idx_log_daily_stat_date", columnList = "stat_date")
+       })
+public class LogDailyStatEntity extends BaseEntity {
+
+    /**
+     * 空维度占位值
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 统计日期（系统时区）
+     */
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * 日志类型
+     */
+    @Column(name = "log_type", nullable = false)
+    private Integer logType;
+
+    /**
+     * 操作类型
+     */
+    @Column(name = "operation_type", nullable = false)
+    private Integer operationType;
+
+    /**
+     * 状态
+     */
+    @Column(name = "status", nullable = false)
+    private Integer status;
+
+    /**
+     * 日志数
+     */
+    @Column(name = "log_count", nullable = false)
+    private Long logCount;
+}
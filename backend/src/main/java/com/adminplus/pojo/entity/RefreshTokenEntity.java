@@ -16,6 +16,10 @@ import java.time.Instant;
 
 /**
  * Refresh Token 实体
+ * <p>
+ * 只保存 Token 摘要（{@link com.adminplus.utils.TokenHashUtils}），不保存原文；每个用户一行，重新登录时原地覆盖。
+ * 旧表（含 token 原文列、同一用户多行）由 {@link com.adminplus.common.schema.SchemaTransitionRunner} 在启动时迁移。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-08
@@ -27,11 +31,10 @@ import java.time.Instant;
 @Entity
 @Table(name = "sys_refresh_token",
        uniqueConstraints = {
-           @UniqueConstraint(name = "uk_refresh_token_token", columnNames = "token")
+           @UniqueConstraint(name = "uk_refresh_token_token_hash", columnNames = "token_hash"),
+           @UniqueConstraint(name = "uk_refresh_token_user_id", columnNames = "user_id")
        },
        indexes = {
-           @Index(name = "idx_refresh_token_user_id", columnList = "user_id"),
-           @Index(name = "idx_refresh_token_token", columnList = "token"),
            @Index(name = "idx_refresh_token_expiry_date", columnList = "expiry_date"),
            @Index(name = "idx_refresh_token_deleted", columnList = "deleted")
        })
@@ -43,8 +46,8 @@ public class RefreshTokenEntity extends BaseEntity {
     @Column(name = "user_id", nullable = false)
     private String userId;
 
-    @Column(name = "token", nullable = false, columnDefinition = "TEXT")
-    private String token;
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private String tokenHash;
 
     @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
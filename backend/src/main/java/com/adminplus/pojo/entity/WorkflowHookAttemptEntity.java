@@ -0,0 +1,112 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * 待执行的异步钩子实体
+ * <p>
+ * 异步钩子在业务事务内写入一行，执行结束（成功或重试耗尽）后物理删除；
+ * owner/lease_until 标记当前负责调度的节点，租约过期的记录可被其他节点接管，
+ * 使排队中和等待重试的钩子在重启后不丢失。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "sys_workflow_hook_attempt",
+       indexes = {
+           @Index(name = "idx_wf_hook_attempt_lease", columnList = "lease_until")
+       })
+public class WorkflowHookAttemptEntity extends BaseEntity {
+
+    /**
+     * 钩子配置ID
+     */
+    @Column(name = "hook_id", nullable = false, length = 64)
+    private String hookId;
+
+    /**
+     * 执行方式
+     */
+    @Column(name = "executor_type", length = 20)
+    private String executorType;
+
+    /**
+     * 工作流实例ID
+     */
+    @Column(name = "instance_id", nullable = false, length = 64)
+    private String instanceId;
+
+    /**
+     * 节点ID
+     */
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    /**
+     * 操作类型
+     */
+    @Column(name = "operation", length = 30)
+    private String operation;
+
+    /**
+     * 操作人ID
+     */
+    @Column(name = "operator_id", length = 50)
+    private String operatorId;
+
+    /**
+     * 操作人姓名
+     */
+    @Column(name = "operator_name", length = 100)
+    private String operatorName;
+
+    /**
+     * 表单数据快照（JSON）
+     */
+    @Column(name = "form_data", columnDefinition = "TEXT")
+    private String formData;
+
+    /**
+     * 额外参数快照（JSON）
+     */
+    @Column(name = "extra_params", columnDefinition = "TEXT")
+    private String extraParams;
+
+    /**
+     * 已执行次数
+     */
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * 下次执行时间
+     */
+    @Column(name = "next_attempt_time", nullable = false)
+    private Instant nextAttemptTime;
+
+    /**
+     * 负责调度的节点
+     */
+    @Column(name = "owner", length = 64)
+    private String owner;
+
+    /**
+     * 租约到期时间
+     */
+    @Column(name = "lease_until", nullable = false)
+    private Instant leaseUntil;
+
+    /**
+     * 最近一次失败原因
+     */
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -11,6 +11,10 @@ import org.hibernate.annotations.SQLRestriction;
  * <p>
  * 记录工作流钩子的执行结果，用于调试和审计
  * </p>
+ * <p>
+ * 由 {@link com.adminplus.service.workflow.hook.WorkflowHookLogWriter} 批量写入；
+ * 表按 create_time 按月分区（主键为 id + create_time），过期数据按分区整块删除
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-04-02
@@ -0,0 +1,45 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 工作流待办计数实体
+ * <p>
+ * 每个用户一行，与 {@link WorkflowInboxEntity} 在同一事务内增减，待办角标按主键读取。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_workflow_inbox_counter",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_workflow_inbox_counter_user", columnNames = {"user_id"})
+       })
+public class WorkflowInboxCounterEntity extends BaseEntity {
+
+    /**
+     * 用户ID
+     */
+    @Column(name = "user_id", nullable = false, length = 64)
+    private String userId;
+
+    /**
+     * 待审批实例数
+     */
+    @Column(name = "pending_count", nullable = false)
+    private Long pendingCount;
+
+    /**
+     * 未读待审批实例数
+     */
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount;
+}
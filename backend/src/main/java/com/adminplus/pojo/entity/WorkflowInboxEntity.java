@@ -0,0 +1,60 @@
+package com.adminplus.pojo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * 工作流待办收件箱实体
+ * <p>
+ * 每行表示某用户在某个进行中的工作流实例上至少有一条待审批记录，
+ * 由审批记录的写入事务同步维护，待办列表按 (submit_time, id) 游标分页读取，不再联表扫描实例与审批记录。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "sys_workflow_inbox",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_workflow_inbox_user_instance", columnNames = {"user_id", "instance_id"})
+       },
+       indexes = {
+           // 游标分页覆盖索引 idx_workflow_inbox_cursor (user_id, submit_time DESC, id DESC) INCLUDE (instance_id, is_read)
+           // 无法用 @Index 表达，由 SchemaTransitionRunner 在启动时创建
+           @Index(name = "idx_workflow_inbox_instance", columnList = "instance_id")
+       })
+public class WorkflowInboxEntity extends BaseEntity {
+
+    /**
+     * 待审批用户ID
+     */
+    @Column(name = "user_id", nullable = false, length = 64)
+    private String userId;
+
+    /**
+     * 工作流实例ID
+     */
+    @Column(name = "instance_id", nullable = false, length = 64)
+    private String instanceId;
+
+    /**
+     * 实例提交时间（排序键）
+     */
+    @Column(name = "submit_time", nullable = false)
+    private Instant submitTime;
+
+    /**
+     * 是否已读
+     */
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead = false;
+}
@@ -103,6 +103,12 @@ public class WorkflowNodeHookEntity extends BaseEntity {
     @Column(name = "retry_interval")
     private Integer retryInterval = 1000;
 
+    /**
+     * 单次执行超时（毫秒，为空时使用 app.workflow-hook.default-timeout-ms）
+     */
+    @Column(name = "timeout_ms")
+    private Integer timeoutMs;
+
     /**
      * 钩子名称
      */
@@ -0,0 +1,195 @@
+package com.adminplus.repository;
+
+import com.adminplus.pojo.entity.DashboardMetricEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 仪表盘汇总指标 Repository
+ * <p>
+ * 写入使用 PostgreSQL 原生语句（ON CONFLICT 累加、INSERT ... SELECT 校正），
+ * 活跃用户去重表 sys_dashboard_active_user 的维护也集中在这里，便于与指标在同一把表锁下校正。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Repository
+public interface DashboardMetricRepository extends JpaRepository<DashboardMetricEntity, String> {
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 累加某个指标单元（不存在时插入）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_metric (id, metric, stat_date, dimension, metric_value,
+                                              create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :metric, :statDate, :dimension, :delta,
+                    now(), now(), 'system', 'system', false)
+            ON CONFLICT (metric, stat_date, dimension)
+            DO UPDATE SET metric_value = sys_dashboard_metric.metric_value + EXCLUDED.metric_value,
+                          update_time = now()
+            """, nativeQuery = true)
+    int increment(String id, String metric, LocalDate statDate, String dimension, long delta);
+
+    /**
+     * 登记某用户当天活跃
+     *
+     * @return 1 表示当天首次活跃，0 表示已登记过
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_active_user (id, stat_date, user_id,
+                                                   create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :statDate, :userId, now(), now(), 'system', 'system', false)
+            ON CONFLICT (stat_date, user_id) DO NOTHING
+            """, nativeQuery = true)
+    int markActive(String id, LocalDate statDate, String userId);
+
+    // ==================== 校正 ====================
+
+    /**
+     * 尝试获取校正的事务级咨询锁，已被其他节点持有时立即返回 false
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('adminplus_dashboard_metric_reconcile'))", nativeQuery = true)
+    boolean tryLockReconcile();
+
+    /**
+     * 汇总表中是否已有指标
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM sys_dashboard_metric)", nativeQuery = true)
+    boolean hasMetrics();
+
+    /**
+     * 校正前锁表：等待进行中的增量写入提交，并阻塞新的增量写入直到校正事务结束
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sys_dashboard_metric, sys_dashboard_active_user IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconcile();
+
+    /**
+     * 删除校正窗口内的按日指标及全部不区分日期的指标
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM sys_dashboard_metric
+            WHERE (metric IN ('USER_NEW', 'VISIT', 'ACTIVE_USER') AND stat_date >= :from)
+               OR metric = 'ROLE_MEMBER'
+            """, nativeQuery = true)
+    int deleteForReconcile(LocalDate from);
+
+    /**
+     * 清空活跃用户去重表（窗口外的旧数据一并清理）
+     */
+    @Modifying
+    @Query(value = "DELETE FROM sys_dashboard_active_user", nativeQuery = true)
+    int deleteAllActiveUsers();
+
+    /**
+     * 从用户表重建每日新增用户
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_metric (id, metric, stat_date, dimension, metric_value,
+                                              create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, 'USER_NEW', t.stat_date, '', t.cnt,
+                   now(), now(), 'system', 'system', false
+            FROM (SELECT CAST(create_time AT TIME ZONE :zone AS date) AS stat_date, COUNT(*) AS cnt
+                  FROM sys_user
+                  WHERE deleted = false AND create_time >= :from
+                  GROUP BY 1) t
+            """, nativeQuery = true)
+    int rebuildUserNew(Instant from, String zone);
+
+    /**
+     * 从日志表重建每日访问量
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_metric (id, metric, stat_date, dimension, metric_value,
+                                              create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, 'VISIT', t.stat_date, '', t.cnt,
+                   now(), now(), 'system', 'system', false
+            FROM (SELECT CAST(create_time AT TIME ZONE :zone AS date) AS stat_date, COUNT(*) AS cnt
+                  FROM sys_log
+                  WHERE deleted = false AND create_time >= :from
+                  GROUP BY 1) t
+            """, nativeQuery = true)
+    int rebuildVisit(Instant from, String zone);
+
+    /**
+     * 从日志表重建活跃用户去重表
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_active_user (id, stat_date, user_id,
+                                                   create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, t.stat_date, t.user_id,
+                   now(), now(), 'system', 'system', false
+            FROM (SELECT DISTINCT CAST(create_time AT TIME ZONE :zone AS date) AS stat_date, user_id
+                  FROM sys_log
+                  WHERE deleted = false AND user_id IS NOT NULL AND create_time >= :from) t
+            """, nativeQuery = true)
+    int rebuildActiveUsers(Instant from, String zone);
+
+    /**
+     * 从活跃用户去重表重建每日活跃用户数
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_metric (id, metric, stat_date, dimension, metric_value,
+                                              create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, 'ACTIVE_USER', stat_date, '', COUNT(*),
+                   now(), now(), 'system', 'system', false
+            FROM sys_dashboard_active_user
+            GROUP BY stat_date
+            """, nativeQuery = true)
+    int rebuildActiveUserCount();
+
+    /**
+     * 从用户-角色关联表重建角色成员数
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_dashboard_metric (id, metric, stat_date, dimension, metric_value,
+                                              create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, 'ROLE_MEMBER', DATE '1970-01-01', role_id, COUNT(*),
+                   now(), now(), 'system', 'system', false
+            FROM sys_user_role
+            GROUP BY role_id
+            """, nativeQuery = true)
+    int rebuildRoleMembers();
+
+    // ==================== 查询 ====================
+
+    /**
+     * 查询若干按日指标在某日期之后的值：[metric, statDate, metricValue]
+     */
+    @Query("""
+            SELECT m.metric, m.statDate, m.metricValue FROM DashboardMetricEntity m
+            WHERE m.metric IN :metrics AND m.statDate >= :from
+            """)
+    List<Object[]> findDailyValues(Collection<String> metrics, LocalDate from);
+
+    /**
+     * 查询未删除角色及其成员数：[roleName, memberCount]
+     */
+    @Query(value = """
+            SELECT r.name, COALESCE(m.metric_value, 0)
+            FROM sys_role r
+            LEFT JOIN sys_dashboard_metric m
+                   ON m.metric = 'ROLE_MEMBER' AND m.stat_date = DATE '1970-01-01' AND m.dimension = r.id
+            WHERE r.deleted = false
+            ORDER BY r.sort_order NULLS LAST, r.create_time
+            """, nativeQuery = true)
+    List<Object[]> findRoleMemberCounts();
+}
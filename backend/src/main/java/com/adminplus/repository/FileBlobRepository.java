@@ -0,0 +1,95 @@
+package com.adminplus.repository;
+
+import com.adminplus.enums.StorageType;
+import com.adminplus.pojo.entity.FileBlobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 内容寻址文件对象 Repository
+ * <p>
+ * 引用计数只通过条件 UPDATE/DELETE 修改：回收时删除行需要 ref_count = 0，
+ * 与并发的引用（持有行锁直到上传事务提交）互斥，不会删除正在被重新引用的对象。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Repository
+public interface FileBlobRepository extends JpaRepository<FileBlobEntity, String> {
+
+    Optional<FileBlobEntity> findByContentHashAndStorageType(String contentHash, StorageType storageType);
+
+    /**
+     * 引用已存在的对象（包括引用计数已为 0、尚未回收的对象）
+     *
+     * @return 1 表示对象存在并已引用，0 表示不存在
+     */
+    @Modifying
+    @Query("""
+            UPDATE FileBlobEntity b SET b.refCount = b.refCount + 1, b.releasedTime = null, b.updateTime = :now
+            WHERE b.contentHash = :contentHash AND b.storageType = :storageType
+            """)
+    int acquire(String contentHash, StorageType storageType, Instant now);
+
+    /**
+     * 登记新写入的对象并引用一次（并发上传了相同内容时改为累加引用）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_file_blob (id, content_hash, storage_type, file_url, file_size, ref_count,
+                                       create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :contentHash, :storageType, :fileUrl, :fileSize, 1,
+                    now(), now(), 'system', 'system', false)
+            ON CONFLICT (content_hash, storage_type)
+            DO UPDATE SET ref_count = sys_file_blob.ref_count + 1,
+                          released_time = NULL,
+                          update_time = now()
+            """, nativeQuery = true)
+    int register(String id, String contentHash, String storageType, String fileUrl, long fileSize);
+
+    /**
+     * 释放一次引用，降为 0 时记录释放时间
+     * <p>
+     * 只匹配访问URL相同的对象：未经去重存储的文件（未启用去重或启用前上传）也有内容摘要，
+     * 不能据此释放同一内容的去重对象。
+     * </p>
+     *
+     * @return 1 表示已释放，0 表示该文件不引用去重对象
+     */
+    @Modifying
+    @Query("""
+            UPDATE FileBlobEntity b SET b.refCount = b.refCount - 1,
+                b.releasedTime = CASE WHEN b.refCount = 1 THEN :now ELSE b.releasedTime END,
+                b.updateTime = :now
+            WHERE b.contentHash = :contentHash AND b.storageType = :storageType AND b.fileUrl = :fileUrl
+              AND b.refCount > 0
+            """)
+    int release(String contentHash, StorageType storageType, String fileUrl, Instant now);
+
+    /**
+     * 查询释放时间早于 before 的无引用对象
+     */
+    @Query("""
+            SELECT b FROM FileBlobEntity b
+            WHERE b.storageType = :storageType AND b.refCount = 0 AND b.releasedTime < :before
+            ORDER BY b.releasedTime
+            """)
+    List<FileBlobEntity> findReleased(StorageType storageType, Instant before, Pageable pageable);
+
+    /**
+     * 删除仍无引用的对象记录
+     *
+     * @return 1 表示已删除，0 表示已被重新引用或已删除
+     */
+    @Modifying
+    @Query("DELETE FROM FileBlobEntity b WHERE b.id = :id AND b.refCount = 0")
+    int deleteIfUnreferenced(String id);
+}
@@ -0,0 +1,94 @@
+package com.adminplus.repository;
+
+import com.adminplus.pojo.entity.LogDailyStatEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 日志按日汇总 Repository
+ * <p>
+ * 写入使用 PostgreSQL 原生语句（ON CONFLICT 累加、INSERT ... SELECT 重建）
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Repository
+public interface LogDailyStatRepository extends JpaRepository<LogDailyStatEntity, String> {
+
+    /**
+     * 累加某个汇总单元的日志数（不存在时插入）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_log_daily_stat (id, stat_date, log_type, operation_type, status, log_count,
+                                            create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :statDate, :logType, :operationType, :status, :delta,
+                    now(), now(), 'system', 'system', false)
+            ON CONFLICT (stat_date, log_type, operation_type, status)
+            DO UPDATE SET log_count = sys_log_daily_stat.log_count + EXCLUDED.log_count,
+                          update_time = now()
+            """, nativeQuery = true)
+    int increment(String id, LocalDate statDate, int logType, int operationType, int status, long delta);
+
+    /**
+     * 尝试获取重建汇总的事务级咨询锁（多节点只有一个节点执行重建）
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('adminplus_log_daily_stat_rebuild'))", nativeQuery = true)
+    boolean tryLockRebuild();
+
+    /**
+     * 重建前锁表：等待进行中的增量写入提交，并阻塞新的增量写入直到重建事务结束
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sys_log_daily_stat IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * 删除 from（含）之后的汇总行
+     */
+    @Modifying
+    @Query(value = "DELETE FROM sys_log_daily_stat WHERE stat_date >= :from", nativeQuery = true)
+    int deleteRowsSince(LocalDate from);
+
+    /**
+     * 从日志表一次分组扫描重建 fromTime 之后的汇总
+     *
+     * @param zone     统计日期所用时区（IANA 名称）
+     * @param fromTime 起始时间，应为某个统计日在 zone 下的零点
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_log_daily_stat (id, stat_date, log_type, operation_type, status, log_count,
+                                            create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, t.stat_date, t.log_type, t.operation_type, t.status, t.log_count,
+                   now(), now(), 'system', 'system', false
+            FROM (SELECT CAST(create_time AT TIME ZONE :zone AS date) AS stat_date,
+                         COALESCE(log_type, -1) AS log_type,
+                         COALESCE(operation_type, -1) AS operation_type,
+                         COALESCE(status, -1) AS status,
+                         COUNT(*) AS log_count
+                  FROM sys_log
+                  WHERE deleted = false AND create_time >= :fromTime
+                  GROUP BY 1, 2, 3, 4) t
+            """, nativeQuery = true)
+    int rebuildFromLogs(String zone, Instant fromTime);
+
+    /**
+     * 查询全部汇总单元：[statDate, logType, operationType, status, logCount]
+     */
+    @Query("SELECT s.statDate, s.logType, s.operationType, s.status, s.logCount FROM LogDailyStatEntity s")
+    List<Object[]> findAllCells();
+
+    /**
+     * 按日期汇总：[statDate, logCount]
+     */
+    @Query("SELECT s.statDate, SUM(s.logCount) FROM LogDailyStatEntity s WHERE s.statDate >= :from GROUP BY s.statDate")
+    List<Object[]> sumByDateSince(LocalDate from);
+}
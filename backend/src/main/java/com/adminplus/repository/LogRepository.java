@@ -87,4 +87,30 @@ public interface LogRepository extends JpaRepository<LogEntity, String>, JpaSpec
      */
     @Query("SELECT COUNT(DISTINCT FUNCTION('DATE', log.createTime)) FROM LogEntity log WHERE log.userId = :userId AND log.deleted = false")
     long countDistinctDaysByUserId(String userId);
-}
\ No newline at end of file
+
+    /**
+     * 日志统计：一次分组扫描得到 [statDate, logType, operationType, status, count]
+     * <p>
+     * recentFrom 之后的日志按 zone 时区取日期，更早的日志 statDate 为 null（只参与总数和各维度统计）
+     * </p>
+     */
+    @Query(value = """
+            SELECT CASE WHEN create_time >= :recentFrom THEN CAST(create_time AT TIME ZONE :zone AS date) END AS stat_date,
+                   log_type, operation_type, status, COUNT(*) AS log_count
+            FROM sys_log
+            WHERE deleted = false
+            GROUP BY 1, 2, 3, 4
+            """, nativeQuery = true)
+    List<Object[]> aggregateStatistics(Instant recentFrom, String zone);
+
+    /**
+     * 按日期统计日志数：[statDate, count]
+     */
+    @Query(value = """
+            SELECT CAST(create_time AT TIME ZONE :zone AS date) AS stat_date, COUNT(*) AS log_count
+            FROM sys_log
+            WHERE deleted = false AND create_time >= :from
+            GROUP BY 1
+            """, nativeQuery = true)
+    List<Object[]> countByDateSince(Instant from, String zone);
+}
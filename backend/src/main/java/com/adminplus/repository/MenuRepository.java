@@ -84,4 +84,10 @@ public interface MenuRepository extends JpaRepository<MenuEntity, String> {
            "INNER JOIN UserRoleEntity ur ON rm.roleId = ur.roleId " +
            "WHERE ur.userId = :userId")
     List<String> findMenuIdsByUserId(@Param("userId") String userId);
+
+    /**
+     * 查询所有带权限标识的菜单（菜单ID, 权限标识），用于构建权限快照
+     */
+    @Query("SELECT m.id, m.permKey FROM MenuEntity m WHERE m.permKey IS NOT NULL AND m.permKey != ''")
+    List<Object[]> findAllMenuPermKeys();
 }
@@ -2,8 +2,10 @@ package com.adminplus.repository;
 
 import com.adminplus.pojo.entity.RefreshTokenEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -18,13 +20,50 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, String> {
 
-    Optional<RefreshTokenEntity> findByToken(String token);
+    /**
+     * 按 Token 摘要查询（唯一索引 uk_refresh_token_token_hash）
+     */
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
 
     List<RefreshTokenEntity> findByUserIdAndRevokedFalse(String userId);
 
-    void deleteByExpiryDateBefore(Instant date);
+    /**
+     * 写入用户的 Refresh Token（已存在时原地覆盖，替代先删后插）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_refresh_token (id, user_id, token_hash, expiry_date, revoked,
+                                           create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :userId, :tokenHash, :expiryDate, false,
+                    now(), now(), 'system', 'system', false)
+            ON CONFLICT (user_id)
+            DO UPDATE SET token_hash = EXCLUDED.token_hash,
+                          expiry_date = EXCLUDED.expiry_date,
+                          revoked = false,
+                          deleted = false,
+                          update_time = now()
+            """, nativeQuery = true)
+    int upsert(String id, String userId, String tokenHash, Instant expiryDate);
 
-    void deleteByUserId(String userId);
+    /**
+     * 撤销用户的 Refresh Token
+     */
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity rt SET rt.revoked = true, rt.updateTime = :now WHERE rt.userId = :userId AND rt.revoked = false")
+    int revokeByUserId(String userId, Instant now);
+
+    /**
+     * 物理删除一批过期的 Refresh Token
+     *
+     * @return 删除的行数，小于 limit 表示已删完
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM sys_refresh_token
+            WHERE id IN (SELECT id FROM sys_refresh_token WHERE expiry_date < :before LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(Instant before, int limit);
 
     /**
      * 查询有效的（未过期且未撤销）Refresh Token
@@ -38,4 +77,4 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity
      */
     @Query("SELECT COUNT(rt) FROM RefreshTokenEntity rt WHERE rt.userId = :userId AND rt.revoked = false AND rt.expiryDate > :now AND rt.deleted = false")
     long countValidTokensByUserId(String userId, Instant now);
-}
\ No newline at end of file
+}
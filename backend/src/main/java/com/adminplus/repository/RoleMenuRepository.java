@@ -50,4 +50,10 @@ public interface RoleMenuRepository extends JpaRepository<RoleMenuEntity, String
      */
     @Query("SELECT rm.menuId FROM RoleMenuEntity rm WHERE rm.roleId IN :roleIds")
     List<String> findMenuIdsByRoleIds(@Param("roleIds") Collection<String> roleIds);
+
+    /**
+     * 查询所有角色-菜单关联（角色ID, 菜单ID），用于构建权限快照
+     */
+    @Query("SELECT rm.roleId, rm.menuId FROM RoleMenuEntity rm")
+    List<Object[]> findAllRoleMenuPairs();
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.adminplus.repository;
 
 import com.adminplus.pojo.entity.UserRoleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -31,6 +32,11 @@ public interface UserRoleRepository extends JpaRepository<UserRoleEntity, String
      */
     List<UserRoleEntity> findByRoleId(String roleId);
 
+    /**
+     * 根据角色ID列表查询用户关联列表（批量查询）
+     */
+    List<UserRoleEntity> findByRoleIdIn(Collection<String> roleIds);
+
     /**
      * 精准删除：删除指定用户的指定角色
      */
@@ -50,4 +56,10 @@ public interface UserRoleRepository extends JpaRepository<UserRoleEntity, String
      * 检查角色是否已分配给用户
      */
     boolean existsByRoleId(String roleId);
+
+    /**
+     * 查询所有用户-角色关联（用户ID, 角色ID），用于构建权限快照
+     */
+    @Query("SELECT ur.userId, ur.roleId FROM UserRoleEntity ur")
+    List<Object[]> findAllUserRolePairs();
 }
\ No newline at end of file
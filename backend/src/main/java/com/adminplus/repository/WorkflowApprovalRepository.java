@@ -4,6 +4,7 @@ import com.adminplus.pojo.entity.WorkflowApprovalEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,6 +42,17 @@ public interface WorkflowApprovalRepository extends JpaRepository<WorkflowApprov
      */
     List<WorkflowApprovalEntity> findByInstanceIdAndApproverIdAndDeletedFalse(String instanceId, String approverId);
 
+    /**
+     * 批量查询多个实例的审批记录（批量审批使用）
+     */
+    List<WorkflowApprovalEntity> findByInstanceIdInAndDeletedFalse(Collection<String> instanceIds);
+
+    /**
+     * 批量查询多个实例指定状态的审批记录（批量同步收件箱使用）
+     */
+    List<WorkflowApprovalEntity> findByInstanceIdInAndApprovalStatusAndDeletedFalse(
+            Collection<String> instanceIds, String status);
+
     /**
      * 统计实例的待审批数量
      */
@@ -0,0 +1,71 @@
+package com.adminplus.repository;
+
+import com.adminplus.pojo.entity.WorkflowHookAttemptEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 待执行的异步钩子 Repository
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Repository
+public interface WorkflowHookAttemptRepository extends JpaRepository<WorkflowHookAttemptEntity, String> {
+
+    /**
+     * 查询租约已过期的记录（按下次执行时间排序）
+     */
+    @Query("SELECT a FROM WorkflowHookAttemptEntity a WHERE a.leaseUntil < :now ORDER BY a.nextAttemptTime")
+    List<WorkflowHookAttemptEntity> findLeaseExpired(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * 接管租约已过期的记录，返回 0 表示已被其他节点接管
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WorkflowHookAttemptEntity a SET a.owner = :owner, a.leaseUntil = :leaseUntil
+            WHERE a.id = :id AND a.leaseUntil < :now
+            """)
+    int claim(@Param("id") String id, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * 续约本节点持有的记录，返回 0 表示记录已删除或已被其他节点接管
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WorkflowHookAttemptEntity a SET a.leaseUntil = :leaseUntil WHERE a.id = :id AND a.owner = :owner")
+    int renew(@Param("id") String id, @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * 记录失败并安排下次执行
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE WorkflowHookAttemptEntity a SET a.attempts = :attempts, a.nextAttemptTime = :nextAttemptTime,
+                a.leaseUntil = :leaseUntil, a.lastError = :lastError
+            WHERE a.id = :id AND a.owner = :owner
+            """)
+    int reschedule(@Param("id") String id, @Param("owner") String owner, @Param("attempts") int attempts,
+                   @Param("nextAttemptTime") Instant nextAttemptTime, @Param("leaseUntil") Instant leaseUntil,
+                   @Param("lastError") String lastError);
+
+    /**
+     * 执行结束后物理删除
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WorkflowHookAttemptEntity a WHERE a.id = :id")
+    int deleteAttempt(@Param("id") String id);
+}
@@ -0,0 +1,234 @@
+package com.adminplus.repository;
+
+import com.adminplus.pojo.entity.WorkflowInboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 工作流待办收件箱 Repository
+ * <p>
+ * 写入使用 PostgreSQL 原生语句（unnest 数组参数整批增删、ON CONFLICT 插入/累加、INSERT ... SELECT 校正），
+ * 一次同步无论涉及多少用户，条目与计数各只有一条语句。待办计数表 sys_workflow_inbox_counter 的维护也集中在这里，便于与收件箱在同一把表锁下校正。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Repository
+public interface WorkflowInboxRepository extends JpaRepository<WorkflowInboxEntity, String> {
+
+    // ==================== 增量维护 ====================
+
+    /**
+     * 查询某实例当前的所有收件箱条目
+     */
+    List<WorkflowInboxEntity> findByInstanceId(String instanceId);
+
+    /**
+     * 批量查询多个实例当前的收件箱条目
+     */
+    List<WorkflowInboxEntity> findByInstanceIdIn(Collection<String> instanceIds);
+
+    /**
+     * 整批新增收件箱条目（各数组按下标对应一行，排序时间为 ISO-8601 字符串）
+     *
+     * @return 实际新增条目的用户ID，已存在的条目不返回
+     */
+    @Query(value = """
+            INSERT INTO sys_workflow_inbox (id, user_id, instance_id, submit_time, is_read,
+                                            create_time, update_time, create_user, update_user, deleted)
+            SELECT t.id, t.user_id, t.instance_id, CAST(t.submit_time AS timestamptz), false,
+                   now(), now(), 'system', 'system', false
+            FROM unnest(CAST(:ids AS text[]), CAST(:userIds AS text[]), CAST(:instanceIds AS text[]),
+                        CAST(:submitTimes AS text[])) AS t(id, user_id, instance_id, submit_time)
+            ON CONFLICT (user_id, instance_id) DO NOTHING
+            RETURNING user_id
+            """, nativeQuery = true)
+    List<String> insertEntries(String[] ids, String[] userIds, String[] instanceIds, String[] submitTimes);
+
+    /**
+     * 整批删除收件箱条目（instanceIds 与 userIds 按下标对应一行）
+     * <p>
+     * 返回被删除行在删除时的 is_read：与并发的 {@link #markRead} 按行锁串行，
+     * 已读标记先提交时返回 true，删除先提交时标记已读不再命中，未读数只会被扣减一次。
+     * </p>
+     *
+     * @return 被删除条目的 [userId, isRead]，已不存在的条目不返回
+     */
+    @Query(value = """
+            DELETE FROM sys_workflow_inbox b
+            USING unnest(CAST(:instanceIds AS text[]), CAST(:userIds AS text[])) AS t(instance_id, user_id)
+            WHERE b.instance_id = t.instance_id AND b.user_id = t.user_id
+            RETURNING b.user_id, b.is_read
+            """, nativeQuery = true)
+    List<Object[]> deleteEntries(String[] instanceIds, String[] userIds);
+
+    /**
+     * 更新某实例所有条目的排序时间（重新提交时）
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE sys_workflow_inbox SET submit_time = :submitTime, update_time = now()
+            WHERE instance_id = :instanceId AND submit_time <> :submitTime
+            """, nativeQuery = true)
+    int updateSubmitTime(String instanceId, Instant submitTime);
+
+    /**
+     * 标记已读
+     *
+     * @return 1 表示由未读变为已读
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE sys_workflow_inbox SET is_read = true, update_time = now()
+            WHERE user_id = :userId AND instance_id = :instanceId AND is_read = false
+            """, nativeQuery = true)
+    int markRead(String userId, String instanceId);
+
+    /**
+     * 累加用户的待审批数、未读数（不存在时插入）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_workflow_inbox_counter (id, user_id, pending_count, unread_count,
+                                                    create_time, update_time, create_user, update_user, deleted)
+            VALUES (:id, :userId, :pendingDelta, :unreadDelta, now(), now(), 'system', 'system', false)
+            ON CONFLICT (user_id)
+            DO UPDATE SET pending_count = sys_workflow_inbox_counter.pending_count + EXCLUDED.pending_count,
+                          unread_count = sys_workflow_inbox_counter.unread_count + EXCLUDED.unread_count,
+                          update_time = now()
+            """, nativeQuery = true)
+    int adjustCounter(String id, String userId, long pendingDelta, long unreadDelta);
+
+    /**
+     * 整批累加多个用户的待审批数、未读数（各数组按下标对应一个用户）
+     * <p>
+     * 按用户ID顺序写入，并发事务以相同顺序对计数行加锁，避免交叉加锁导致死锁。
+     * </p>
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_workflow_inbox_counter (id, user_id, pending_count, unread_count,
+                                                    create_time, update_time, create_user, update_user, deleted)
+            SELECT t.id, t.user_id, t.pending_delta, t.unread_delta, now(), now(), 'system', 'system', false
+            FROM unnest(CAST(:ids AS text[]), CAST(:userIds AS text[]), CAST(:pendingDeltas AS bigint[]),
+                        CAST(:unreadDeltas AS bigint[])) AS t(id, user_id, pending_delta, unread_delta)
+            ORDER BY t.user_id
+            ON CONFLICT (user_id)
+            DO UPDATE SET pending_count = sys_workflow_inbox_counter.pending_count + EXCLUDED.pending_count,
+                          unread_count = sys_workflow_inbox_counter.unread_count + EXCLUDED.unread_count,
+                          update_time = now()
+            """, nativeQuery = true)
+    int adjustCounters(String[] ids, String[] userIds, Long[] pendingDeltas, Long[] unreadDeltas);
+
+    // ==================== 校正 ====================
+
+    /**
+     * 尝试获取校正的事务级咨询锁，已被其他节点持有时立即返回 false
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('adminplus_workflow_inbox_reconcile'))", nativeQuery = true)
+    boolean tryLockReconcile();
+
+    /**
+     * 校正前锁表：等待进行中的增量写入提交，并阻塞新的增量写入直到校正事务结束
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sys_workflow_inbox, sys_workflow_inbox_counter IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconcile();
+
+    /**
+     * 删除已不存在待审批记录（或实例已结束）的条目
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM sys_workflow_inbox b
+            WHERE NOT EXISTS (SELECT 1 FROM sys_workflow_approval a
+                              JOIN sys_workflow_instance i ON i.id = a.instance_id
+                              WHERE a.instance_id = b.instance_id AND a.approver_id = b.user_id
+                                AND a.approval_status = 'pending' AND a.deleted = false
+                                AND i.status = 'running' AND i.deleted = false)
+            """, nativeQuery = true)
+    int deleteStaleEntries();
+
+    /**
+     * 补齐缺失的条目（保留已有条目的已读状态）
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_workflow_inbox (id, user_id, instance_id, submit_time, is_read,
+                                            create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, t.approver_id, t.instance_id, t.submit_time, false,
+                   now(), now(), 'system', 'system', false
+            FROM (SELECT DISTINCT a.approver_id, i.id AS instance_id,
+                         COALESCE(i.submit_time, i.create_time) AS submit_time
+                  FROM sys_workflow_instance i
+                  JOIN sys_workflow_approval a ON a.instance_id = i.id
+                  WHERE i.status = 'running' AND i.deleted = false
+                    AND a.approval_status = 'pending' AND a.deleted = false) t
+            ON CONFLICT (user_id, instance_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertMissingEntries();
+
+    /**
+     * 清空待办计数表
+     */
+    @Modifying
+    @Query(value = "DELETE FROM sys_workflow_inbox_counter", nativeQuery = true)
+    int deleteAllCounters();
+
+    /**
+     * 从收件箱重建待办计数
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sys_workflow_inbox_counter (id, user_id, pending_count, unread_count,
+                                                    create_time, update_time, create_user, update_user, deleted)
+            SELECT gen_random_uuid()::text, user_id, COUNT(*), COUNT(*) FILTER (WHERE NOT is_read),
+                   now(), now(), 'system', 'system', false
+            FROM sys_workflow_inbox
+            GROUP BY user_id
+            """, nativeQuery = true)
+    int rebuildCounters();
+
+    // ==================== 查询 ====================
+
+    /**
+     * 待办第一页：[id, instanceId, submitTime]（仅访问覆盖索引）
+     */
+    @Query(value = """
+            SELECT id, instance_id, submit_time FROM sys_workflow_inbox
+            WHERE user_id = :userId
+            ORDER BY submit_time DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findFirstPage(String userId, int limit);
+
+    /**
+     * 游标 (submitTime, id) 之后的待办：[id, instanceId, submitTime]（仅访问覆盖索引）
+     */
+    @Query(value = """
+            SELECT id, instance_id, submit_time FROM sys_workflow_inbox
+            WHERE user_id = :userId AND (submit_time, id) < (:submitTime, :id)
+            ORDER BY submit_time DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findPageAfter(String userId, Instant submitTime, String id, int limit);
+
+    /**
+     * 用户的待审批实例数
+     */
+    @Query("SELECT c.pendingCount FROM WorkflowInboxCounterEntity c WHERE c.userId = :userId")
+    Long findPendingCount(String userId);
+
+    /**
+     * 用户的未读待审批实例数
+     */
+    @Query("SELECT c.unreadCount FROM WorkflowInboxCounterEntity c WHERE c.userId = :userId")
+    Long findUnreadCount(String userId);
+}
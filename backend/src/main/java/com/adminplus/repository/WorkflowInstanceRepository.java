@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +73,17 @@ public interface WorkflowInstanceRepository extends JpaRepository<WorkflowInstan
     @Query("SELECT i FROM WorkflowInstanceEntity i WHERE i.id = :instanceId")
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<WorkflowInstanceEntity> findByIdForUpdate(String instanceId);
+
+    /**
+     * 按ID顺序悲观锁查询多个工作流实例（用于批量审批）
+     * <p>
+     * 所有批量调用方都按ID升序加锁，并发的批量请求不会交叉等待形成死锁
+     * </p>
+     *
+     * @param instanceIds 工作流实例ID
+     * @return 工作流实例（悲观锁，按ID升序）
+     */
+    @Query("SELECT i FROM WorkflowInstanceEntity i WHERE i.id IN :instanceIds ORDER BY i.id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<WorkflowInstanceEntity> findAllByIdForUpdate(Collection<String> instanceIds);
 }
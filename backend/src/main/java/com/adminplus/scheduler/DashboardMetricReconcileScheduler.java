@@ -0,0 +1,34 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.impl.DashboardMetricRollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 仪表盘汇总指标校正定时任务
+ *
+ * 每晚从源表重建最近的按日指标和角色成员数，修复增量维护产生的偏差
+ * Cron 表达式由 app.dashboard-metrics.reconcile-cron 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardMetricReconcileScheduler {
+
+    private final DashboardMetricRollup dashboardMetricRollup;
+
+    @Scheduled(cron = "${app.dashboard-metrics.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        log.info("开始执行仪表盘汇总指标校正任务");
+        try {
+            dashboardMetricRollup.reconcile();
+        } catch (Exception e) {
+            log.error("仪表盘汇总指标校正任务执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.file.FileBlobStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文件对象回收定时任务
+ *
+ * 删除引用计数为 0 且超过宽限期的去重存储对象
+ * 间隔由 app.file-storage.dedup.gc-interval-ms 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileBlobGcScheduler {
+
+    private final FileBlobStorage fileBlobStorage;
+
+    @Scheduled(fixedDelayString = "${app.file-storage.dedup.gc-interval-ms:3600000}",
+            initialDelayString = "${app.file-storage.dedup.gc-interval-ms:3600000}")
+    public void collectGarbage() {
+        try {
+            int collected = fileBlobStorage.collectGarbage();
+            if (collected > 0) {
+                log.info("已回收无引用的文件对象: {} 个", collected);
+            }
+        } catch (Exception e) {
+            log.error("文件对象回收任务执行失败", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.adminplus.scheduler;
 import com.adminplus.common.properties.LogStorageProperties;
 import com.adminplus.repository.WorkflowHookLogRepository;
 import com.adminplus.service.LogService;
+import com.adminplus.service.workflow.hook.WorkflowHookLogPartitionManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -30,6 +31,7 @@ public class LogCleanupScheduler {
     private final LogService logService;
     private final LogStorageProperties logStorageProperties;
     private final WorkflowHookLogRepository hookLogRepository;
+    private final WorkflowHookLogPartitionManager hookLogPartitionManager;
 
     /**
      * 定时清理过期日志
@@ -57,6 +59,7 @@ public class LogCleanupScheduler {
     /**
      * 定时清理过期的工作流钩子执行日志
      * 使用独立的 Cron 表达式，默认每天凌晨3点执行
+     * 日志表已按月分区时整块删除过期分区并按行清理 DEFAULT 分区，否则按行删除
      */
     @Scheduled(cron = "${app.workflow.hook.cleanup.cron:0 0 3 * * ?}")
     public void cleanupExpiredHookLogs() {
@@ -72,6 +75,12 @@ public class LogCleanupScheduler {
 
         try {
             Instant beforeTime = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+            if (hookLogPartitionManager.isPartitioned()) {
+                int droppedCount = hookLogPartitionManager.dropPartitionsBefore(beforeTime);
+                int defaultDeleted = hookLogPartitionManager.deleteDefaultPartitionBefore(beforeTime);
+                log.info("钩子日志清理任务完成，共删除 {} 个过期分区，DEFAULT 分区 {} 条过期日志", droppedCount, defaultDeleted);
+                return;
+            }
             int deletedCount = hookLogRepository.deleteByCreateTimeBeforeAndDeletedFalse(beforeTime);
             log.info("钩子日志清理任务完成，共删除 {} 条过期日志", deletedCount);
         } catch (Exception e) {
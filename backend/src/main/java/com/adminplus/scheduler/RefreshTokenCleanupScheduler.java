@@ -0,0 +1,34 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 过期 Refresh Token 清理定时任务
+ *
+ * 分批物理删除已过期的 Refresh Token（含已撤销的记录）
+ * 间隔由 app.jwt.refresh-token-cleanup-interval-ms 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenCleanupScheduler {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-token-cleanup-interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-token-cleanup-interval-ms:3600000}")
+    public void cleanupExpiredTokens() {
+        try {
+            refreshTokenService.cleanupExpiredTokens();
+        } catch (Exception e) {
+            log.error("Refresh Token 清理任务执行失败", e);
+        }
+    }
+}
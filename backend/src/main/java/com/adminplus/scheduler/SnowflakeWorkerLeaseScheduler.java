@@ -0,0 +1,33 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.common.id.SnowflakeWorkerRegistrar;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 雪花节点号续租定时任务
+ *
+ * 间隔由 app.snowflake.lease-renew-interval-ms 指定，应明显短于租期 app.snowflake.lease-ttl-ms
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnowflakeWorkerLeaseScheduler {
+
+    private final SnowflakeWorkerRegistrar snowflakeWorkerRegistrar;
+
+    @Scheduled(fixedDelayString = "${app.snowflake.lease-renew-interval-ms:20000}",
+            initialDelayString = "${app.snowflake.lease-renew-interval-ms:20000}")
+    public void renew() {
+        try {
+            snowflakeWorkerRegistrar.renew();
+        } catch (Exception e) {
+            log.error("雪花节点号续租失败", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.security.TokenRevocationEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token 黑名单布隆过滤器重建定时任务
+ *
+ * 定期从 Redis 黑名单重建过滤器，清除已过期的撤销记录并修复漏收的广播消息
+ * 间隔由 app.token-blacklist.rebuild-interval-ms 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenBlacklistFilterRebuildScheduler {
+
+    private final TokenRevocationEngine tokenRevocationEngine;
+    private final AppProperties appProperties;
+
+    @Scheduled(fixedDelayString = "${app.token-blacklist.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.token-blacklist.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (!appProperties.getTokenBlacklist().isBloomEnabled()) {
+            return;
+        }
+        log.debug("开始执行 Token 黑名单过滤器重建任务");
+        tokenRevocationEngine.rebuild();
+    }
+}
@@ -0,0 +1,34 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.workflow.hook.engine.HookExecutionEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 异步钩子接管定时任务
+ *
+ * 定期接管租约已过期的待执行异步钩子（所属节点已重启或宕机）
+ * 间隔由 app.workflow-hook.recovery-interval-ms 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowHookAttemptRecoveryScheduler {
+
+    private final HookExecutionEngine hookExecutionEngine;
+
+    @Scheduled(fixedDelayString = "${app.workflow-hook.recovery-interval-ms:60000}",
+            initialDelayString = "${app.workflow-hook.recovery-interval-ms:60000}")
+    public void recover() {
+        try {
+            hookExecutionEngine.recover();
+        } catch (Exception e) {
+            log.error("异步钩子接管任务执行失败", e);
+        }
+    }
+}
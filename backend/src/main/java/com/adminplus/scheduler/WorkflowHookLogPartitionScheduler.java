@@ -0,0 +1,40 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.workflow.hook.WorkflowHookLogPartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流钩子日志分区创建定时任务
+ *
+ * 启动时及每天提前创建后续月份的日志分区，避免新日志落入 DEFAULT 分区
+ * Cron 表达式由 app.workflow-hook-log.partition-cron 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowHookLogPartitionScheduler {
+
+    private final WorkflowHookLogPartitionManager partitionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.workflow-hook-log.partition-cron:0 0 1 * * ?}")
+    public void ensurePartitions() {
+        try {
+            partitionManager.ensurePartitions();
+        } catch (Exception e) {
+            log.error("钩子日志分区创建任务执行失败", e);
+        }
+    }
+}
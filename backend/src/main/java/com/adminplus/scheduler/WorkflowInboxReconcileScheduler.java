@@ -0,0 +1,34 @@
+package com.adminplus.scheduler;
+
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流待办收件箱校正定时任务
+ *
+ * 每晚从审批记录重建收件箱条目与待办计数，修复增量维护之外的写入造成的偏差
+ * 校正由咨询锁保证只在一个节点执行，Cron 表达式由 app.workflow-inbox.reconcile-cron 指定
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowInboxReconcileScheduler {
+
+    private final WorkflowInbox workflowInbox;
+
+    @Scheduled(cron = "${app.workflow-inbox.reconcile-cron:0 45 3 * * ?}")
+    public void reconcile() {
+        log.info("开始执行工作流待办收件箱校正任务");
+        try {
+            workflowInbox.reconcile();
+        } catch (Exception e) {
+            log.error("工作流待办收件箱校正任务执行失败，待办列表可能不准确", e);
+        }
+    }
+}
@@ -60,11 +60,13 @@ public interface DashboardService {
     SystemInfoResponse getSystemInfo();
 
     /**
-     * 获取在线用户列表
+     * 按最后活跃时间倒序分页获取在线用户
      *
-     * @return 在线用户列表
+     * @param page 页码（从 1 开始）
+     * @param size 每页大小
+     * @return 在线用户分页结果
      */
-    List<OnlineUserResponse> getOnlineUsers();
+    PageResultResponse<OnlineUserResponse> getOnlineUsers(int page, int size);
 
     /**
      * 获取统计数据（用于 Statistics 页面）
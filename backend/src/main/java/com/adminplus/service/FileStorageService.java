@@ -3,6 +3,9 @@ package com.adminplus.service;
 import com.adminplus.enums.StorageType;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * 文件存储服务接口
  *
@@ -17,7 +20,39 @@ public interface FileStorageService {
      * @param directory 子目录(如 avatars, files 等)
      * @return 访问URL
      */
-    String uploadFile(MultipartFile file, String directory);
+    default String uploadFile(MultipartFile file, String directory) {
+        try (InputStream content = file.getInputStream()) {
+            return uploadFile(content, file.getSize(), file.getOriginalFilename(), file.getContentType(), directory);
+        } catch (IOException e) {
+            throw new RuntimeException("文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以流方式上传文件
+     * <p>
+     * 实现只顺序读取一次 content，且不把内容完整加载到内存；content 由调用方关闭。
+     * </p>
+     *
+     * @param content          文件内容
+     * @param size             文件大小（字节）
+     * @param originalFilename 原始文件名
+     * @param contentType      MIME 类型
+     * @param directory        子目录(如 avatars, files 等)
+     * @return 访问URL
+     */
+    String uploadFile(InputStream content, long size, String originalFilename, String contentType, String directory);
+
+    /**
+     * 以流方式写入指定名称的对象（去重存储使用，对象名由调用方决定），已存在时覆盖
+     *
+     * @param content     文件内容，由调用方关闭
+     * @param size        文件大小（字节）
+     * @param objectName  对象名称/文件路径
+     * @param contentType MIME 类型
+     * @return 访问URL
+     */
+    String putObject(InputStream content, long size, String objectName, String contentType);
 
     /**
      * 删除文件
@@ -2,8 +2,7 @@ package com.adminplus.service;
 
 import com.adminplus.pojo.dto.query.LogQuery;
 import org.springframework.http.ResponseEntity;
-
-import java.io.IOException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * 日志导出服务接口
@@ -15,19 +14,23 @@ public interface LogExportService {
 
     /**
      * 导出日志为 Excel
+     * <p>
+     * 导出全部匹配记录（忽略分页参数），响应体在写出时逐行读取数据库
+     * </p>
      *
      * @param query 查询条件
-     * @return Excel 文件响应
-     * @throws IOException IO异常
+     * @return Excel 文件流式响应
      */
-    ResponseEntity<byte[]> exportToExcel(LogQuery query) throws IOException;
+    ResponseEntity<StreamingResponseBody> exportToExcel(LogQuery query);
 
     /**
      * 导出日志为 CSV
+     * <p>
+     * 导出全部匹配记录（忽略分页参数），响应体在写出时逐行读取数据库
+     * </p>
      *
      * @param query 查询条件
-     * @return CSV 文件响应
-     * @throws IOException IO异常
+     * @return CSV 文件流式响应
      */
-    ResponseEntity<byte[]> exportToCsv(LogQuery query) throws IOException;
+    ResponseEntity<StreamingResponseBody> exportToCsv(LogQuery query);
 }
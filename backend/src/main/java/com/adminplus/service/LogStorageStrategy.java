@@ -6,6 +6,7 @@ import com.adminplus.pojo.dto.response.PageResultResponse;
 import com.adminplus.pojo.entity.LogEntity;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 日志存储策略接口
@@ -63,6 +64,18 @@ public interface LogStorageStrategy {
      */
     Long countByCondition(LogQuery query);
 
+    /**
+     * 按条件逐条遍历日志（按创建时间倒序，忽略分页参数）
+     * <p>
+     * 用于导出等需要读取全部匹配记录的场景，实现方应保证内存占用不随结果集大小增长
+     * </p>
+     *
+     * @param query  查询条件
+     * @param action 逐条处理回调
+     * @return 遍历的记录数
+     */
+    long forEachMatching(LogQuery query, Consumer<LogEntity> action);
+
     /**
      * 删除日志
      *
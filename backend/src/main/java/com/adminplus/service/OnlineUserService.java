@@ -0,0 +1,51 @@
+package com.adminplus.service;
+
+import com.adminplus.pojo.dto.response.OnlineUserResponse;
+import com.adminplus.pojo.dto.response.PageResultResponse;
+
+/**
+ * 在线用户会话登记服务接口
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public interface OnlineUserService {
+
+    /**
+     * 登记用户登录
+     *
+     * @param userId    用户ID
+     * @param username  用户名
+     * @param ip        客户端 IP
+     * @param userAgent User-Agent 请求头
+     */
+    void recordLogin(String userId, String username, String ip, String userAgent);
+
+    /**
+     * 刷新用户最后活跃时间（仅对已登记的用户生效）
+     *
+     * @param userId 用户ID
+     */
+    void touch(String userId);
+
+    /**
+     * 移除用户在线状态（用户登出时）
+     *
+     * @param userId 用户ID
+     */
+    void remove(String userId);
+
+    /**
+     * 按最后活跃时间倒序分页查询在线用户
+     *
+     * @param page 页码（从 1 开始）
+     * @param size 每页大小
+     * @return 在线用户分页结果
+     */
+    PageResultResponse<OnlineUserResponse> getOnlineUsers(int page, int size);
+
+    /**
+     * 在线用户数
+     */
+    long countOnlineUsers();
+}
@@ -19,10 +19,46 @@ public interface VirusScanService {
      */
     boolean scanFile(MultipartFile file);
 
+    /**
+     * 打开流式扫描会话
+     * <p>
+     * 调用方边读取上传内容边写入数据块，读取完毕后调用 {@link ScanSession#finish()} 获取结果，
+     * 扫描与存储共用同一次读取，不需要把文件完整加载到内存。扫描被禁用或服务不可用时返回直接放行的会话。
+     * </p>
+     *
+     * @param filename 文件名（仅用于日志）
+     * @return 扫描会话
+     */
+    ScanSession openSession(String filename);
+
     /**
      * 检查病毒扫描服务是否可用
      *
      * @return true 如果服务可用，false 如果服务不可用
      */
     boolean isServiceAvailable();
-}
\ No newline at end of file
+
+    /**
+     * 流式扫描会话
+     */
+    interface ScanSession extends AutoCloseable {
+
+        /**
+         * 写入一段文件内容
+         */
+        void write(byte[] buffer, int offset, int length);
+
+        /**
+         * 结束写入并获取扫描结果
+         *
+         * @return true 如果文件安全，false 如果包含病毒或扫描失败
+         */
+        boolean finish();
+
+        /**
+         * 释放连接
+         */
+        @Override
+        void close();
+    }
+}
@@ -3,6 +3,7 @@ package com.adminplus.service;
 import com.adminplus.pojo.dto.request.AddSignRequest;
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
+import com.adminplus.pojo.dto.response.CursorPageResponse;
 import com.adminplus.pojo.dto.response.WorkflowAddSignResponse;
 import com.adminplus.pojo.dto.response.WorkflowApprovalResponse;
 import com.adminplus.pojo.dto.response.WorkflowDetailResponse;
@@ -99,6 +100,15 @@ public interface WorkflowInstanceService {
      */
     List<WorkflowInstanceResponse> getPendingApprovals();
 
+    /**
+     * 按游标分页查询待我审批的工作流
+     *
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param size   每页条数
+     * @return 待审批工作流（按提交时间倒序）
+     */
+    CursorPageResponse<WorkflowInstanceResponse> getPendingApprovalPage(String cursor, int size);
+
     /**
      * 统计待审批数量
      *
@@ -106,6 +116,13 @@ public interface WorkflowInstanceService {
      */
     long countPendingApprovals();
 
+    /**
+     * 统计未读的待审批数量
+     *
+     * @return 未读待审批工作流数量
+     */
+    long countUnreadApprovals();
+
     /**
      * 同意审批
      *
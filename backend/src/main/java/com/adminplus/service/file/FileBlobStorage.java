@@ -0,0 +1,144 @@
+package com.adminplus.service.file;
+
+import com.adminplus.common.properties.FileStorageProperties;
+import com.adminplus.pojo.entity.FileBlobEntity;
+import com.adminplus.repository.FileBlobRepository;
+import com.adminplus.service.FileStorageService;
+import com.adminplus.utils.IdUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 内容去重文件存储
+ * <p>
+ * 位于 {@link FileStorageService} 之上：sys_file_blob 记录内容 SHA-256 到存储对象的映射及引用计数。
+ * 上传先在已接收的上传内容上计算摘要，相同内容已存储时直接 {@link #acquire 引用}，不写入存储也不再扫描；
+ * 未命中时才边写入边病毒扫描，对象名每次写入唯一（blobs/&lt;id&gt;.ext），扫描通过后 {@link #register 登记}。
+ * 文件删除只释放引用，引用计数为 0 且超过宽限期的对象由 {@link #collectGarbage()} 删除。
+ * </p>
+ * <p>
+ * 引用（{@link #acquire}、{@link #register}）在上传事务内执行并持有行锁直到提交，
+ * 回收在独立事务中先按 ref_count = 0 条件删除行、再删除对象，二者互斥。
+ * 本次写入的对象名不与其他上传共享，扫描失败或事务回滚时可直接删除。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileBlobStorage {
+
+    private static final String BLOB_DIRECTORY = "blobs";
+
+    private final FileBlobRepository fileBlobRepository;
+    private final FileStorageService fileStorageService;
+    private final FileStorageProperties fileStorageConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 是否启用去重存储
+     */
+    public boolean isEnabled() {
+        return fileStorageConfig.getDedup().isEnabled();
+    }
+
+    /**
+     * 引用已存储的相同内容
+     *
+     * @return 已存在时返回访问URL（引用计数已加一），否则为空
+     */
+    public Optional<String> acquire(String contentHash) {
+        if (fileBlobRepository.acquire(contentHash, fileStorageService.getStorageType(), Instant.now()) == 0) {
+            return Optional.empty();
+        }
+        return fileBlobRepository.findByContentHashAndStorageType(contentHash, fileStorageService.getStorageType())
+                .map(FileBlobEntity::getFileUrl);
+    }
+
+    /**
+     * 写入对象（尚未登记引用），对象名每次唯一
+     *
+     * @return 访问URL
+     */
+    public String store(String extension, InputStream content, long size, String contentType) {
+        return fileStorageService.putObject(content, size, objectName(IdUtils.nextIdStr(), extension), contentType);
+    }
+
+    /**
+     * 登记已写入的对象并引用一次
+     * <p>
+     * 并发上传相同内容（扩展名不同）时以先登记的对象为准，删除本次写入的对象。
+     * </p>
+     *
+     * @return 引用对象的访问URL
+     */
+    public String register(String contentHash, String fileUrl, long size) {
+        fileBlobRepository.register(IdUtils.nextIdStr(), contentHash,
+                fileStorageService.getStorageType().name(), fileUrl, size);
+        String registeredUrl = fileBlobRepository
+                .findByContentHashAndStorageType(contentHash, fileStorageService.getStorageType())
+                .map(FileBlobEntity::getFileUrl)
+                .orElse(fileUrl);
+        if (!registeredUrl.equals(fileUrl)) {
+            fileStorageService.deleteFile(fileUrl);
+        }
+        return registeredUrl;
+    }
+
+    /**
+     * 释放一次引用
+     *
+     * @param contentHash 文件的内容摘要
+     * @param fileUrl     文件的访问URL（必须与去重对象相同）
+     * @return true 表示已释放，false 表示该文件不引用去重对象（由调用方直接删除文件）
+     */
+    public boolean release(String contentHash, String fileUrl) {
+        return fileBlobRepository.release(contentHash, fileStorageService.getStorageType(), fileUrl, Instant.now()) > 0;
+    }
+
+    /**
+     * 回收无引用且超过宽限期的对象
+     *
+     * @return 回收的对象数
+     */
+    public int collectGarbage() {
+        FileStorageProperties.DedupConfig config = fileStorageConfig.getDedup();
+        Instant before = Instant.now().minusMillis(config.getGcGraceMs());
+        List<FileBlobEntity> candidates = fileBlobRepository.findReleased(
+                fileStorageService.getStorageType(), before, PageRequest.of(0, config.getGcBatchSize()));
+
+        int collected = 0;
+        for (FileBlobEntity blob : candidates) {
+            Boolean deleted = transactionTemplate.execute(status -> {
+                if (fileBlobRepository.deleteIfUnreferenced(blob.getId()) == 0) {
+                    return false;
+                }
+                // 行删除未提交前并发的引用会等待行锁，提交后看到对象已不存在并重新写入
+                if (!fileStorageService.deleteFile(blob.getFileUrl())) {
+                    log.warn("回收文件对象失败或对象已不存在: {}", blob.getFileUrl());
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(deleted)) {
+                collected++;
+            }
+        }
+        return collected;
+    }
+
+    static String objectName(String objectId, String extension) {
+        String ext = extension == null ? "" : extension.toLowerCase(Locale.ROOT);
+        return BLOB_DIRECTORY + "/" + objectId + ext;
+    }
+}
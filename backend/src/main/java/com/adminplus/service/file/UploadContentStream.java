@@ -0,0 +1,129 @@
+package com.adminplus.service.file;
+
+import com.adminplus.service.VirusScanService;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 上传内容分流输入流
+ * <p>
+ * 包装上传文件的输入流，存储后端读取的每一段数据同时计算 SHA-256 并写入病毒扫描会话，
+ * 一次读取完成类型检测之外的全部处理。已用于类型检测的文件头会先于剩余内容重新输出，无需再次打开上传流。
+ * 内存占用只与调用方的读缓冲有关，与文件大小无关。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public class UploadContentStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private final VirusScanService.ScanSession scanSession;
+    private long bytesRead;
+
+    /**
+     * 只计算摘要、不做病毒扫描
+     *
+     * @param prefix    已读取的文件头
+     * @param remaining 上传流中文件头之后的内容
+     */
+    public UploadContentStream(byte[] prefix, InputStream remaining) {
+        this(prefix, remaining, null);
+    }
+
+    /**
+     * @param prefix      已读取的文件头
+     * @param remaining   上传流中文件头之后的内容
+     * @param scanSession 病毒扫描会话
+     */
+    public UploadContentStream(byte[] prefix, InputStream remaining, VirusScanService.ScanSession scanSession) {
+        super(new SequenceInputStream(new ByteArrayInputStream(prefix), remaining));
+        this.digest = newSha256();
+        this.scanSession = scanSession;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            update(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            update(buffer, offset, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) {
+        // 跳过的内容无法计入摘要与扫描
+        return 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * 读取剩余内容直至结束（存储后端按声明大小读取后可能未读到 EOF）
+     */
+    public void drain() throws IOException {
+        byte[] buffer = new byte[8192];
+        while (read(buffer, 0, buffer.length) != -1) {
+            // 仅用于更新摘要与扫描
+        }
+    }
+
+    /**
+     * 已读取的字节数
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * 内容的 SHA-256（小写十六进制），需在内容读取完毕后调用
+     */
+    public String sha256Hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void update(byte[] buffer, int offset, int length) {
+        bytesRead += length;
+        digest.update(buffer, offset, length);
+        if (scanSession != null) {
+            scanSession.write(buffer, offset, length);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
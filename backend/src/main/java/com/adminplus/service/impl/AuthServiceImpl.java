@@ -18,6 +18,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -49,6 +50,7 @@ public class AuthServiceImpl implements AuthService {
     private final TokenBlacklistService tokenBlacklistService;
     private final RefreshTokenService refreshTokenService;
     private final ConversionService conversionService;
+    private final OnlineUserService onlineUserService;
 
     @Override
     @Transactional
@@ -71,6 +73,8 @@ public class AuthServiceImpl implements AuthService {
                     .filter(auth -> !auth.startsWith("ROLE_"))
                     .collect(Collectors.toList());
             String refreshToken = refreshTokenService.createRefreshToken(userDetails.getId());
+            onlineUserService.recordLogin(userDetails.getId(), userDetails.getUsername(),
+                    WebUtils.getClientIp(), WebUtils.getHeader(HttpHeaders.USER_AGENT));
 
             return new LoginResponse(token, refreshToken, SecurityConfigConstants.BEARER_PREFIX, userResponse, permissions);
 
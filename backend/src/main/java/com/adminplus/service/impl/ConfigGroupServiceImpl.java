@@ -67,7 +67,7 @@ public class ConfigGroupServiceImpl implements ConfigGroupService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "configGroup", key = "'id:' + #id")
+    @Cacheable(value = "configGroup", key = "'id:' + #id", sync = true)
     public ConfigGroupResponse getConfigGroupById(String id) {
         ConfigGroupEntity group = EntityHelper.findByIdOrThrow(
                 configGroupRepository::findById, id, "配置组不存在"
@@ -77,7 +77,7 @@ public class ConfigGroupServiceImpl implements ConfigGroupService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "configGroup", key = "'code:' + #code")
+    @Cacheable(value = "configGroup", key = "'code:' + #code", sync = true)
     public ConfigGroupResponse getConfigGroupByCode(String code) {
         ConfigGroupEntity group = configGroupRepository.findByCode(code)
                 .orElseThrow(() -> new BizException("配置组不存在"));
@@ -159,7 +159,7 @@ public class ConfigGroupServiceImpl implements ConfigGroupService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "configGroup", key = "'active'")
+    @Cacheable(value = "configGroup", key = "'active'", sync = true)
     public List<ConfigGroupResponse> getActiveConfigGroups() {
         return configGroupRepository.findByStatusOrderBySortOrderAsc(1).stream()
                 .map(this::toResponseWithConfigCount)
@@ -168,7 +168,7 @@ public class ConfigGroupServiceImpl implements ConfigGroupService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "configGroup", key = "'all'")
+    @Cacheable(value = "configGroup", key = "'all'", sync = true)
     public List<ConfigGroupResponse> getAllConfigGroups() {
         return configGroupRepository.findAll(Sort.by(Sort.Direction.ASC, "sortOrder")).stream()
                 .map(this::toResponseWithConfigCount)
@@ -110,7 +110,7 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "config", key = "'id:' + #id")
+    @Cacheable(value = "config", key = "'id:' + #id", sync = true)
     public ConfigResponse getConfigById(String id) {
         ConfigEntity config = EntityHelper.findByIdOrThrow(
                 configRepository::findById, id, "配置不存在"
@@ -120,7 +120,7 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "config", key = "'key:' + #key")
+    @Cacheable(value = "config", key = "'key:' + #key", sync = true)
     public ConfigResponse getConfigByKey(String key) {
         ConfigEntity config = configRepository.findByKey(key)
                 .orElseThrow(() -> new BizException("配置不存在"));
@@ -142,7 +142,7 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "config", key = "'groupCode:' + #groupCode")
+    @Cacheable(value = "config", key = "'groupCode:' + #groupCode", sync = true)
     public List<ConfigResponse> getConfigsByGroupCode(String groupCode) {
         // 根据编码查找配置组
         ConfigGroupEntity group = configGroupRepository.findByCode(groupCode)
@@ -0,0 +1,210 @@
+package com.adminplus.service.impl;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.enums.DashboardMetric;
+import com.adminplus.pojo.entity.DashboardMetricEntity;
+import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.pojo.entity.UserEntity;
+import com.adminplus.repository.DashboardMetricRepository;
+import com.adminplus.utils.IdUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 仪表盘汇总指标维护
+ * <p>
+ * 用户、用户-角色关联、日志写入时在同一事务内累加 sys_dashboard_metric（每日新增用户、访问量、活跃用户、角色成员数），
+ * 仪表盘图表只需读取汇总表。每晚定时从源表校正最近 reconcile-days 天的按日指标和全部角色成员数，
+ * 修复初始化脚本直接写表、日志删除等未经增量维护的路径造成的偏差。
+ * 校正期间锁表会阻塞用户与日志写入，以咨询锁保证只有一个节点执行；应用启动时仅在汇总表为空（首次部署）时校正。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardMetricRollup {
+
+    /**
+     * 按固定顺序更新汇总行，避免并发事务交叉加锁导致死锁
+     */
+    private static final Comparator<CellKey> CELL_ORDER = Comparator.comparing(CellKey::metric)
+            .thenComparing(CellKey::statDate)
+            .thenComparing(CellKey::dimension);
+
+    private static final Comparator<ActiveKey> ACTIVE_ORDER = Comparator.comparing(ActiveKey::statDate)
+            .thenComparing(ActiveKey::userId);
+
+    private final DashboardMetricRepository dashboardMetricRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * 统计日期时区取自日志汇总，两者保持一致
+     */
+    private final LogDailyRollup logDailyRollup;
+
+    /**
+     * 记录新增用户（需在写入用户的事务内调用）
+     */
+    public void recordUserCreated(UserEntity user) {
+        increment(DashboardMetric.USER_NEW, statDate(user.getCreateTime()), DashboardMetricEntity.NO_DIMENSION, 1);
+    }
+
+    /**
+     * 记录删除用户（需在删除用户的事务内调用）
+     */
+    public void recordUserDeleted(UserEntity user) {
+        increment(DashboardMetric.USER_NEW, statDate(user.getCreateTime()), DashboardMetricEntity.NO_DIMENSION, -1);
+    }
+
+    /**
+     * 记录角色成员变化（需在写入用户-角色关联的事务内调用）
+     *
+     * @param roleIds 发生变化的角色ID
+     * @param delta   每个角色的成员数变化量
+     */
+    public void recordRoleMembers(Collection<String> roleIds, long delta) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return;
+        }
+        for (String roleId : new TreeSet<>(roleIds)) {
+            increment(DashboardMetric.ROLE_MEMBER, DashboardMetricEntity.ALL_TIME, roleId, delta);
+        }
+    }
+
+    /**
+     * 记录新增日志：累加访问量，并登记当天首次出现的活跃用户（需在写入日志的事务内调用）
+     */
+    public void recordVisits(Collection<LogEntity> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+
+        Map<CellKey, Long> deltas = new TreeMap<>(CELL_ORDER);
+        TreeSet<ActiveKey> actives = new TreeSet<>(ACTIVE_ORDER);
+        for (LogEntity entity : logs) {
+            LocalDate date = statDate(entity.getCreateTime());
+            deltas.merge(new CellKey(DashboardMetric.VISIT.name(), date, DashboardMetricEntity.NO_DIMENSION),
+                    1L, Long::sum);
+            if (entity.getUserId() != null) {
+                actives.add(new ActiveKey(date, entity.getUserId()));
+            }
+        }
+
+        // 先登记去重表再累加指标，所有事务按同一表顺序加锁
+        for (ActiveKey active : actives) {
+            if (dashboardMetricRepository.markActive(IdUtils.nextIdStr(), active.statDate(), active.userId()) > 0) {
+                deltas.merge(new CellKey(DashboardMetric.ACTIVE_USER.name(), active.statDate(),
+                        DashboardMetricEntity.NO_DIMENSION), 1L, Long::sum);
+            }
+        }
+        deltas.forEach((key, delta) -> dashboardMetricRepository.increment(IdUtils.nextIdStr(),
+                key.metric(), key.statDate(), key.dimension(), delta));
+    }
+
+    /**
+     * 记录删除日志：扣减访问量（需在删除日志的事务内调用）
+     * <p>
+     * 活跃用户数不在此扣减，由定时校正修复
+     * </p>
+     */
+    public void recordVisitsDeleted(Collection<LogEntity> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, Long> deltas = new TreeMap<>();
+        for (LogEntity entity : logs) {
+            deltas.merge(statDate(entity.getCreateTime()), -1L, Long::sum);
+        }
+        deltas.forEach((date, delta) ->
+                increment(DashboardMetric.VISIT, date, DashboardMetricEntity.NO_DIMENSION, delta));
+    }
+
+    /**
+     * 从源表校正最近 reconcile-days 天的按日指标及全部角色成员数
+     *
+     * @return 重建的指标行数，其他节点正在校正时为 -1
+     */
+    public int reconcile() {
+        return reconcile(false);
+    }
+
+    /**
+     * 校正
+     *
+     * @param onlyIfEmpty 为 true 时仅在汇总表为空时校正
+     * @return 重建的指标行数，跳过时为 -1
+     */
+    private int reconcile(boolean onlyIfEmpty) {
+        long start = System.nanoTime();
+        int days = Math.max(appProperties.getDashboardMetrics().getReconcileDays(), 1);
+        ZoneId statZone = logDailyRollup.statZone();
+        LocalDate from = LocalDate.now(statZone).minusDays(days - 1L);
+        Instant fromInstant = from.atStartOfDay(statZone).toInstant();
+        String zone = statZone.getId();
+
+        Integer rows = transactionTemplate.execute(status -> {
+            if (!dashboardMetricRepository.tryLockReconcile()
+                    || (onlyIfEmpty && dashboardMetricRepository.hasMetrics())) {
+                return -1;
+            }
+            dashboardMetricRepository.lockForReconcile();
+            dashboardMetricRepository.deleteForReconcile(from);
+            dashboardMetricRepository.deleteAllActiveUsers();
+            int count = dashboardMetricRepository.rebuildUserNew(fromInstant, zone);
+            count += dashboardMetricRepository.rebuildVisit(fromInstant, zone);
+            dashboardMetricRepository.rebuildActiveUsers(fromInstant, zone);
+            count += dashboardMetricRepository.rebuildActiveUserCount();
+            count += dashboardMetricRepository.rebuildRoleMembers();
+            return count;
+        });
+        if (rows != null && rows < 0) {
+            log.debug("仪表盘汇总指标校正已跳过: onlyIfEmpty={}", onlyIfEmpty);
+            return -1;
+        }
+        log.info("仪表盘汇总指标已校正: from={}, rows={}, cost={}ms", from, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 首次部署时汇总表为空，启动后立即校正一次，不必等到夜间任务；已有数据时不在启动时锁表
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile(true);
+        } catch (Exception e) {
+            log.error("仪表盘汇总指标校正失败，仪表盘数据可能不准确", e);
+        }
+    }
+
+    private void increment(DashboardMetric metric, LocalDate statDate, String dimension, long delta) {
+        dashboardMetricRepository.increment(IdUtils.nextIdStr(), metric.name(), statDate, dimension, delta);
+    }
+
+    private LocalDate statDate(Instant time) {
+        return LocalDate.ofInstant(time != null ? time : Instant.now(), logDailyRollup.statZone());
+    }
+
+    private record CellKey(String metric, LocalDate statDate, String dimension) {
+    }
+
+    private record ActiveKey(LocalDate statDate, String userId) {
+    }
+}
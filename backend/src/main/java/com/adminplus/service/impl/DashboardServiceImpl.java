@@ -2,13 +2,12 @@ package com.adminplus.service.impl;
 
 import com.adminplus.constants.DateTimeConstants;
 import com.adminplus.constants.DashboardConstants;
+import com.adminplus.enums.DashboardMetric;
 import com.adminplus.pojo.dto.response.*;
 import com.adminplus.pojo.entity.LogEntity;
-import com.adminplus.pojo.entity.RefreshTokenEntity;
-import com.adminplus.pojo.entity.RoleEntity;
-import com.adminplus.pojo.entity.UserRoleEntity;
 import com.adminplus.repository.*;
 import com.adminplus.service.DashboardService;
+import com.adminplus.service.OnlineUserService;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,9 +21,7 @@ import javax.sql.DataSource;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -32,6 +29,8 @@ import java.util.stream.Collectors;
  * Dashboard 服务实现
  * <p>
  * 提供系统仪表板统计数据、图表数据、系统信息、在线用户等功能
+ * <p>
+ * 新增用户、访问量、活跃用户和角色成员数读取 {@link DashboardMetricRollup} 维护的汇总表，每个图表一次查询
  *
  * @author AdminPlus
  * @since 2026-02-07
@@ -41,19 +40,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
-    // ==================== 常量定义 ====================
-
-    private static final ZoneId SYSTEM_ZONE = ZoneId.systemDefault();
-
     // ==================== 依赖注入 ====================
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final MenuRepository menuRepository;
     private final LogRepository logRepository;
-    private final UserRoleRepository userRoleRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final DashboardMetricRepository dashboardMetricRepository;
+    private final OnlineUserService onlineUserService;
     private final DataSource dataSource;
+    private final LogDailyRollup logDailyRollup;
 
     @Value("${info.app.version:1.0.0}")
     private String appVersion;
@@ -62,7 +58,7 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dashboardStats", key = "'stats'")
+    @Cacheable(value = "dashboardStats", key = "'stats'", sync = true)
     public DashboardStatsResponse getStats() {
         log.debug("获取 Dashboard 统计数据");
 
@@ -71,10 +67,10 @@ public class DashboardServiceImpl implements DashboardService {
         long menuCount = menuRepository.countByDeletedFalse();
 
         // 统计今天的日志数量
-        LocalDate today = LocalDate.now();
-        Instant startOfToday = today.atStartOfDay(SYSTEM_ZONE).toInstant();
-        Instant endOfToday = today.plusDays(1).atStartOfDay(SYSTEM_ZONE).toInstant();
-        long logCount = logRepository.countByCreateTimeBetweenAndDeletedFalse(startOfToday, endOfToday);
+        LocalDate today = LocalDate.now(logDailyRollup.statZone());
+        long logCount = loadDailyMetrics(today, DashboardMetric.VISIT)
+                .get(DashboardMetric.VISIT)
+                .getOrDefault(today, 0L);
 
         return new DashboardStatsResponse(userCount, roleCount, menuCount, logCount);
     }
@@ -92,22 +88,13 @@ public class DashboardServiceImpl implements DashboardService {
     public ChartDataResponse getUserGrowthData() {
         log.debug("获取用户增长趋势数据");
 
-        LocalDate today = LocalDate.now();
-        List<LocalDate> dates = generateRecentDates(today, DashboardConstants.CHART_DAYS);
-        List<String> dateLabels = dates.stream()
-                .map(DateTimeConstants.SHORT_DATE::format)
-                .collect(Collectors.toList());
-        List<Long> values = new ArrayList<>();
+        List<LocalDate> dates = generateRecentDates(LocalDate.now(logDailyRollup.statZone()), DashboardConstants.CHART_DAYS);
+        Map<LocalDate, Long> daily = loadDailyMetrics(dates.get(0), DashboardMetric.USER_NEW)
+                .get(DashboardMetric.USER_NEW);
+        ChartDataResponse chart = toDailyChart(dates, daily);
 
-        for (LocalDate date : dates) {
-            Instant startOfDay = date.atStartOfDay(SYSTEM_ZONE).toInstant();
-            Instant endOfDay = date.plusDays(1).atStartOfDay(SYSTEM_ZONE).toInstant();
-            long count = userRepository.countByCreateTimeBetweenAndDeletedFalse(startOfDay, endOfDay);
-            values.add(count);
-        }
-
-        log.debug("用户增长趋势数据: dates={}, values={}", dateLabels, values);
-        return new ChartDataResponse(dateLabels, values);
+        log.debug("用户增长趋势数据: dates={}, values={}", chart.labels(), chart.values());
+        return chart;
     }
 
     @Override
@@ -115,21 +102,14 @@ public class DashboardServiceImpl implements DashboardService {
     public ChartDataResponse getRoleDistributionData() {
         log.debug("获取角色分布数据");
 
-        // 获取所有角色
-        List<RoleEntity> roles = roleRepository.findByDeletedFalse();
-
-        // 批量查询用户角色关系，避免 N+1 问题
-        List<UserRoleEntity> allUserRoles = userRoleRepository.findAll();
-        Map<String, Long> roleUserCountMap = allUserRoles.stream()
-                .collect(Collectors.groupingBy(UserRoleEntity::getRoleId, Collectors.counting()));
-
-        List<String> roleNames = roles.stream()
-                .map(RoleEntity::getName)
-                .collect(Collectors.toList());
-
-        List<Long> userCounts = roles.stream()
-                .map(role -> roleUserCountMap.getOrDefault(role.getId(), 0L))
-                .collect(Collectors.toList());
+        // 角色与成员数在汇总表中一次关联查询
+        List<Object[]> rows = dashboardMetricRepository.findRoleMemberCounts();
+        List<String> roleNames = new ArrayList<>(rows.size());
+        List<Long> userCounts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            roleNames.add((String) row[0]);
+            userCounts.add(((Number) row[1]).longValue());
+        }
 
         log.debug("角色分布数据: roles={}, counts={}", roleNames, userCounts);
         return new ChartDataResponse(roleNames, userCounts);
@@ -156,22 +136,13 @@ public class DashboardServiceImpl implements DashboardService {
     public ChartDataResponse getVisitTrendData() {
         log.debug("获取访问量趋势数据");
 
-        LocalDate today = LocalDate.now();
-        List<LocalDate> dates = generateRecentDates(today, DashboardConstants.CHART_DAYS);
-        List<String> dateLabels = dates.stream()
-                .map(DateTimeConstants.SHORT_DATE::format)
-                .collect(Collectors.toList());
-        List<Long> values = new ArrayList<>();
-
-        for (LocalDate date : dates) {
-            Instant startOfDay = date.atStartOfDay(SYSTEM_ZONE).toInstant();
-            Instant endOfDay = date.plusDays(1).atStartOfDay(SYSTEM_ZONE).toInstant();
-            long count = logRepository.countByCreateTimeBetweenAndDeletedFalse(startOfDay, endOfDay);
-            values.add(count);
-        }
+        List<LocalDate> dates = generateRecentDates(LocalDate.now(logDailyRollup.statZone()), DashboardConstants.CHART_DAYS);
+        Map<LocalDate, Long> daily = loadDailyMetrics(dates.get(0), DashboardMetric.VISIT)
+                .get(DashboardMetric.VISIT);
+        ChartDataResponse chart = toDailyChart(dates, daily);
 
-        log.debug("访问量趋势数据: dates={}, values={}", dateLabels, values);
-        return new ChartDataResponse(dateLabels, values);
+        log.debug("访问量趋势数据: dates={}, values={}", chart.labels(), chart.values());
+        return chart;
     }
 
     // ==================== 操作日志 ====================
@@ -305,58 +276,13 @@ public class DashboardServiceImpl implements DashboardService {
     // ==================== 在线用户 ====================
 
     @Override
-    @Transactional(readOnly = true)
-    public List<OnlineUserResponse> getOnlineUsers() {
-        log.debug("获取在线用户列表");
-
-        // 基于有效的 Refresh Token 获取真正的在线用户
-        Instant now = Instant.now();
-        List<RefreshTokenEntity> validTokens = refreshTokenRepository.findValidTokens(now);
-
-        // 去重并获取用户信息
-        Map<String, RefreshTokenEntity> latestTokenByUser = new HashMap<>();
-        for (RefreshTokenEntity token : validTokens) {
-            RefreshTokenEntity existing = latestTokenByUser.get(token.getUserId());
-            if (existing == null || token.getExpiryDate().isAfter(existing.getExpiryDate())) {
-                latestTokenByUser.put(token.getUserId(), token);
-            }
-        }
+    public PageResultResponse<OnlineUserResponse> getOnlineUsers(int page, int size) {
+        log.debug("获取在线用户列表: page={}, size={}", page, size);
 
-        // 获取用户登录信息（从最近的登录日志）
-        List<OnlineUserResponse> result = new ArrayList<>();
-        for (RefreshTokenEntity token : latestTokenByUser.values()) {
-            userRepository.findById(token.getUserId()).ifPresent(user -> {
-                // 获取该用户最近的登录日志
-                List<LogEntity> userLogs = logRepository.findTop5ByUserIdAndDeletedFalseOrderByCreateTimeDesc(token.getUserId());
-                LogEntity lastLoginLog = userLogs.stream()
-                        .filter(log -> log.getLogType() == 2 && log.getStatus() == 1)  // 登录类型且成功
-                        .findFirst()
-                        .orElse(null);
-
-                if (lastLoginLog != null) {
-                    result.add(new OnlineUserResponse(
-                            user.getId(),
-                            user.getUsername(),
-                            lastLoginLog.getIp(),
-                            lastLoginLog.getCreateTime(),
-                            lastLoginLog.getBrowser(),
-                            lastLoginLog.getOs()
-                    ));
-                } else {
-                    // 如果没有登录日志，使用默认值
-                    result.add(new OnlineUserResponse(
-                            user.getId(),
-                            user.getUsername(),
-                            "-",
-                            token.getCreateTime(),
-                            "-",
-                            "-"
-                    ));
-                }
-            });
-        }
+        // 在线会话登记在 Redis 有序集合中，不再扫描 Refresh Token 表
+        PageResultResponse<OnlineUserResponse> result = onlineUserService.getOnlineUsers(page, size);
 
-        log.debug("在线用户数量: {}", result.size());
+        log.debug("在线用户数量: {}", result.total());
         return result;
     }
 
@@ -367,27 +293,32 @@ public class DashboardServiceImpl implements DashboardService {
     public StatisticsResponse getStatistics() {
         log.debug("获取 Statistics 页面统计数据");
 
-        LocalDate today = LocalDate.now();
-        Instant startOfToday = today.atStartOfDay(SYSTEM_ZONE).toInstant();
-        Instant endOfToday = today.plusDays(1).atStartOfDay(SYSTEM_ZONE).toInstant();
+        LocalDate today = LocalDate.now(logDailyRollup.statZone());
+        List<LocalDate> dates = generateRecentDates(today, DashboardConstants.CHART_DAYS);
+
+        // 趋势与今日指标一次读取
+        Map<DashboardMetric, Map<LocalDate, Long>> daily = loadDailyMetrics(dates.get(0),
+                DashboardMetric.USER_NEW, DashboardMetric.VISIT, DashboardMetric.ACTIVE_USER);
+        Map<LocalDate, Long> userNew = daily.get(DashboardMetric.USER_NEW);
+        Map<LocalDate, Long> visits = daily.get(DashboardMetric.VISIT);
 
         // 总用户数
         long totalUsers = userRepository.countByDeletedFalse();
 
         // 今日访问量
-        long todayVisits = logRepository.countByCreateTimeBetweenAndDeletedFalse(startOfToday, endOfToday);
+        long todayVisits = visits.getOrDefault(today, 0L);
 
         // 活跃用户数（今日有操作的用户）
-        long activeUsers = logRepository.countDistinctUsersByTimeRange(startOfToday, endOfToday);
+        long activeUsers = daily.get(DashboardMetric.ACTIVE_USER).getOrDefault(today, 0L);
 
         // 今日新增注册
-        long todayNewUsers = userRepository.countByCreateTimeBetweenAndDeletedFalse(startOfToday, endOfToday);
+        long todayNewUsers = userNew.getOrDefault(today, 0L);
 
         // 用户增长趋势数据
-        ChartDataResponse userGrowthData = getUserGrowthData();
+        ChartDataResponse userGrowthData = toDailyChart(dates, userNew);
 
         // 访问量趋势数据
-        ChartDataResponse visitTrendData = getVisitTrendData();
+        ChartDataResponse visitTrendData = toDailyChart(dates, visits);
 
         return new StatisticsResponse(
                 totalUsers,
@@ -401,6 +332,41 @@ public class DashboardServiceImpl implements DashboardService {
 
     // ==================== 私有辅助方法 ====================
 
+    /**
+     * 一次查询读取若干按日指标
+     *
+     * @param from    起始日期（含）
+     * @param metrics 指标
+     * @return 指标 → (日期 → 值)，每个指标都有映射（可能为空）
+     */
+    private Map<DashboardMetric, Map<LocalDate, Long>> loadDailyMetrics(LocalDate from, DashboardMetric... metrics) {
+        Map<DashboardMetric, Map<LocalDate, Long>> result = new EnumMap<>(DashboardMetric.class);
+        List<String> names = new ArrayList<>(metrics.length);
+        for (DashboardMetric metric : metrics) {
+            result.put(metric, new HashMap<>());
+            names.add(metric.name());
+        }
+
+        for (Object[] row : dashboardMetricRepository.findDailyValues(names, from)) {
+            DashboardMetric metric = DashboardMetric.valueOf((String) row[0]);
+            result.get(metric).put((LocalDate) row[1], ((Number) row[2]).longValue());
+        }
+        return result;
+    }
+
+    /**
+     * 按日期列表生成图表数据，缺失的日期记为 0
+     */
+    private ChartDataResponse toDailyChart(List<LocalDate> dates, Map<LocalDate, Long> daily) {
+        List<String> labels = new ArrayList<>(dates.size());
+        List<Long> values = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            labels.add(DateTimeConstants.SHORT_DATE.format(date));
+            values.add(daily.getOrDefault(date, 0L));
+        }
+        return new ChartDataResponse(labels, values);
+    }
+
     /**
      * 生成最近 N 天的日期列表
      *
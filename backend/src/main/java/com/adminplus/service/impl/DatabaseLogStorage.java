@@ -8,9 +8,14 @@ import com.adminplus.pojo.entity.LogEntity;
 import com.adminplus.repository.LogRepository;
 import com.adminplus.service.LogStorageStrategy;
 import com.adminplus.utils.PageUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -22,7 +27,10 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * 数据库日志存储策略实现
@@ -35,18 +43,32 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DatabaseLogStorage implements LogStorageStrategy {
 
+    /**
+     * 流式遍历时每次从数据库游标拉取的行数
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final LogRepository logRepository;
+    private final EntityManager entityManager;
+    private final LogDailyRollup logDailyRollup;
+    private final DashboardMetricRollup dashboardMetricRollup;
 
     @Override
     @Transactional
     public LogEntity save(LogEntity log) {
-        return logRepository.save(log);
+        LogEntity saved = logRepository.save(log);
+        logDailyRollup.recordInserted(List.of(saved));
+        dashboardMetricRollup.recordVisits(List.of(saved));
+        return saved;
     }
 
     @Override
     @Transactional
     public List<LogEntity> saveAll(List<LogEntity> logs) {
-        return logRepository.saveAll(logs);
+        List<LogEntity> saved = logRepository.saveAll(logs);
+        logDailyRollup.recordInserted(saved);
+        dashboardMetricRollup.recordVisits(saved);
+        return saved;
     }
 
     @Override
@@ -79,10 +101,43 @@ public class DatabaseLogStorage implements LogStorageStrategy {
         return logRepository.count(spec);
     }
 
+    /**
+     * 只读事务内使用服务端游标逐批拉取，处理完的实体立即从持久化上下文分离，内存占用与结果集大小无关
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachMatching(LogQuery query, Consumer<LogEntity> action) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LogEntity> criteriaQuery = criteriaBuilder.createQuery(LogEntity.class);
+        Root<LogEntity> root = criteriaQuery.from(LogEntity.class);
+        criteriaQuery.select(root)
+                .where(buildSpecification(query).toPredicate(root, criteriaQuery, criteriaBuilder))
+                .orderBy(criteriaBuilder.desc(root.get("createTime")));
+
+        long count = 0;
+        try (Stream<LogEntity> stream = entityManager.createQuery(criteriaQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<LogEntity> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                LogEntity logEntity = iterator.next();
+                action.accept(logEntity);
+                entityManager.detach(logEntity);
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     @Transactional
     public void deleteById(String id) {
-        logRepository.deleteById(id);
+        logRepository.findById(id).ifPresent(logEntity -> {
+            logRepository.delete(logEntity);
+            logDailyRollup.recordDeleted(List.of(logEntity));
+            dashboardMetricRollup.recordVisitsDeleted(List.of(logEntity));
+        });
     }
 
     @Override
@@ -90,6 +145,8 @@ public class DatabaseLogStorage implements LogStorageStrategy {
     public Integer deleteByIds(List<String> ids) {
         List<LogEntity> logs = logRepository.findAllById(ids);
         logRepository.deleteAll(logs);
+        logDailyRollup.recordDeleted(logs);
+        dashboardMetricRollup.recordVisitsDeleted(logs);
         return logs.size();
     }
 
@@ -99,6 +156,8 @@ public class DatabaseLogStorage implements LogStorageStrategy {
         Specification<LogEntity> spec = buildSpecification(query);
         List<LogEntity> logs = logRepository.findAll(spec);
         logRepository.deleteAll(logs);
+        logDailyRollup.recordDeleted(logs);
+        dashboardMetricRollup.recordVisitsDeleted(logs);
         return logs.size();
     }
 
@@ -123,6 +182,8 @@ public class DatabaseLogStorage implements LogStorageStrategy {
 
             if (!batch.isEmpty()) {
                 logRepository.deleteAll(batch);
+                logDailyRollup.recordDeleted(batch);
+                dashboardMetricRollup.recordVisitsDeleted(batch);
                 totalDeleted += batch.size();
                 log.info("清理过期日志批次完成，本批次删除 {} 条", batch.size());
             }
@@ -38,7 +38,7 @@ public class DictItemServiceImpl implements DictItemService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dictItem", key = "'dictId:' + #dictId")
+    @Cacheable(value = "dictItem", key = "'dictId:' + #dictId", sync = true)
     public List<DictItemResponse> getDictItemsByDictId(String dictId) {
         DictEntity dict = dictRepository.findById(dictId).orElse(null);
         String dictType = dict != null ? dict.getDictType() : null;
@@ -50,7 +50,7 @@ public class DictItemServiceImpl implements DictItemService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dictItem", key = "'tree:dictId:' + #dictId")
+    @Cacheable(value = "dictItem", key = "'tree:dictId:' + #dictId", sync = true)
     public List<DictItemResponse> getDictItemTreeByDictId(String dictId) {
         List<DictItemEntity> items = dictItemRepository.findByDictIdOrderBySortOrderAsc(dictId);
 
@@ -63,7 +63,7 @@ public class DictItemServiceImpl implements DictItemService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dictItem", key = "'type:' + #dictType")
+    @Cacheable(value = "dictItem", key = "'type:' + #dictType", sync = true)
     public List<DictItemResponse> getDictItemsByType(String dictType) {
         DictEntity dict = dictRepository.findByDictType(dictType)
                 .orElseThrow(() -> new BizException("字典不存在"));
@@ -75,7 +75,7 @@ public class DictItemServiceImpl implements DictItemService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dictItem", key = "'id:' + #id")
+    @Cacheable(value = "dictItem", key = "'id:' + #id", sync = true)
     public DictItemResponse getDictItemById(String id) {
         DictItemEntity item = dictItemRepository.findById(id)
                 .orElseThrow(() -> new BizException("字典项不存在"));
@@ -70,7 +70,7 @@ public class DictServiceImpl implements DictService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dict", key = "'id:' + #id")
+    @Cacheable(value = "dict", key = "'id:' + #id", sync = true)
     public DictResponse getDictById(String id) {
         DictEntity dict = EntityHelper.findByIdOrThrow(dictRepository::findById, id, "字典不存在");
         return conversionService.convert(dict, DictResponse.class);
@@ -78,7 +78,7 @@ public class DictServiceImpl implements DictService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dict", key = "'type:' + #dictType")
+    @Cacheable(value = "dict", key = "'type:' + #dictType", sync = true)
     public DictResponse getDictByType(String dictType) {
         DictEntity dict = dictRepository.findByDictType(dictType)
                 .orElseThrow(() -> new BizException("字典不存在"));
@@ -139,7 +139,7 @@ public class DictServiceImpl implements DictService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "dict", key = "'items:' + #dictType")
+    @Cacheable(value = "dict", key = "'items:' + #dictType", sync = true)
     public List<DictItemResponse> getDictItemsByType(String dictType) {
         DictEntity dict = dictRepository.findByDictType(dictType)
                 .orElseThrow(() -> new BizException("字典不存在"));
@@ -7,17 +7,26 @@ import com.adminplus.pojo.entity.FileEntity;
 import com.adminplus.repository.FileRepository;
 import com.adminplus.service.FileService;
 import com.adminplus.service.FileStorageService;
+import com.adminplus.service.VirusScanService;
+import com.adminplus.service.file.FileBlobStorage;
+import com.adminplus.service.file.UploadContentStream;
 import com.adminplus.utils.FileContentValidator;
 import com.adminplus.utils.ServiceAssert;
 import com.adminplus.utils.SecurityUtils;
+import com.adminplus.utils.XssUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 文件服务实现
@@ -33,6 +42,8 @@ public class FileServiceImpl implements FileService {
     private final FileStorageService fileStorageService;
     private final FileStorageProperties fileStorageConfig;
     private final ConversionService conversionService;
+    private final VirusScanService virusScanService;
+    private final FileBlobStorage fileBlobStorage;
 
     @Override
     @Transactional
@@ -41,9 +52,35 @@ public class FileServiceImpl implements FileService {
         long maxSizeBytes = maxSizeMB * 1024L * 1024L;
         ServiceAssert.isTrue(file.getSize() <= maxSizeBytes, 400, "文件大小超过限制，最大允许 " + maxSizeMB + "MB");
 
-        ServiceAssert.isTrue(FileContentValidator.isAllowedFileType(file, file.getContentType()), "不支持的文件类型");
+        String originalFilename = file.getOriginalFilename();
+        String fileUrl;
+        String contentHash;
+        try (InputStream in = file.getInputStream()) {
+            // 文件头用于类型检测，随后与剩余内容一起处理，不重复打开上传流
+            byte[] prefix = in.readNBytes(FileContentValidator.SNIFF_LENGTH);
+            String detectedType = FileContentValidator.detectMimeType(prefix, originalFilename);
+            ServiceAssert.isTrue(FileContentValidator.isAllowedFileType(detectedType, originalFilename), "不支持的文件类型");
 
-        String fileUrl = fileStorageService.uploadFile(file, directory);
+            if (!fileBlobStorage.isEnabled()) {
+                StoredContent stored = scanAndStore(prefix, in, originalFilename, content ->
+                        fileStorageService.uploadFile(content, file.getSize(), originalFilename,
+                                file.getContentType(), directory));
+                fileUrl = stored.fileUrl();
+                contentHash = stored.contentHash();
+            } else {
+                validateFilename(originalFilename);
+                // 先在已接收的上传内容（内存或临时文件）上计算摘要：相同内容已存储时直接引用，跳过病毒扫描与存储写入
+                UploadContentStream hashing = new UploadContentStream(prefix, in);
+                hashing.drain();
+                contentHash = hashing.sha256Hex();
+                String hash = contentHash;
+                fileUrl = fileBlobStorage.acquire(hash)
+                        .orElseGet(() -> storeBlob(file, hash));
+            }
+        } catch (IOException e) {
+            log.error("读取上传文件失败: {}", originalFilename, e);
+            throw new BizException("文件读取失败", e);
+        }
 
         FileEntity fileEntity = new FileEntity();
         fileEntity.setOriginalName(file.getOriginalFilename());
@@ -52,6 +89,7 @@ public class FileServiceImpl implements FileService {
         fileEntity.setFileSize(file.getSize());
         fileEntity.setContentType(file.getContentType());
         fileEntity.setFileUrl(fileUrl);
+        fileEntity.setContentHash(contentHash);
         fileEntity.setStorageType(fileStorageService.getStorageType());
         fileEntity.setDirectory(directory);
         fileEntity.setStatus(0);
@@ -68,7 +106,7 @@ public class FileServiceImpl implements FileService {
         FileEntity fileEntity = fileRepository.findByIdAndDeletedFalse(fileId)
                 .orElseThrow(() -> new BizException("文件不存在"));
 
-        boolean deleted = fileStorageService.deleteFile(fileEntity.getFileUrl());
+        boolean deleted = deleteContent(fileEntity);
 
         fileEntity.setDeleted(true);
         fileRepository.save(fileEntity);
@@ -87,7 +125,7 @@ public class FileServiceImpl implements FileService {
         boolean isAdmin = SecurityUtils.isAdmin();
         ServiceAssert.isTrue(isAdmin || fileEntity.getCreateUser().equals(currentUserId), "无权删除此文件");
 
-        boolean deleted = fileStorageService.deleteFile(fileEntity.getFileUrl());
+        boolean deleted = deleteContent(fileEntity);
 
         fileEntity.setDeleted(true);
         fileRepository.save(fileEntity);
@@ -136,6 +174,84 @@ public class FileServiceImpl implements FileService {
                 .toList();
     }
 
+    /**
+     * 写入新内容：重新打开上传内容，边写入唯一对象名边病毒扫描，扫描通过后登记引用
+     */
+    private String storeBlob(MultipartFile file, String contentHash) {
+        String originalFilename = file.getOriginalFilename();
+        try (InputStream in = file.getInputStream()) {
+            StoredContent stored = scanAndStore(new byte[0], in, originalFilename, content ->
+                    fileBlobStorage.store(extractExtension(originalFilename), content,
+                            file.getSize(), file.getContentType()));
+            return fileBlobStorage.register(contentHash, stored.fileUrl(), file.getSize());
+        } catch (IOException e) {
+            log.error("读取上传文件失败: {}", originalFilename, e);
+            throw new BizException("文件读取失败", e);
+        }
+    }
+
+    /**
+     * 同一次读取中写入存储、计算摘要并病毒扫描；扫描结果要在内容全部发送后才能得到，未通过时删除已写入的文件。
+     * 写入的对象名由本次上传独占，上传事务回滚时同样删除，避免留下没有记录引用的对象。
+     */
+    private StoredContent scanAndStore(byte[] prefix, InputStream remaining, String filename,
+                                       Function<InputStream, String> writer) throws IOException {
+        try (VirusScanService.ScanSession scanSession = virusScanService.openSession(filename)) {
+            UploadContentStream content = new UploadContentStream(prefix, remaining, scanSession);
+            String fileUrl = writer.apply(content);
+            boolean clean;
+            try {
+                content.drain();
+                clean = scanSession.finish();
+            } catch (IOException | RuntimeException e) {
+                fileStorageService.deleteFile(fileUrl);
+                throw e;
+            }
+
+            if (!clean) {
+                fileStorageService.deleteFile(fileUrl);
+                throw new BizException("文件包含病毒，上传被拒绝");
+            }
+            deleteOnRollback(fileUrl);
+            return new StoredContent(fileUrl, content.sha256Hex());
+        }
+    }
+
+    private void deleteOnRollback(String fileUrl) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    fileStorageService.deleteFile(fileUrl);
+                }
+            }
+        });
+    }
+
+    /**
+     * 去重存储的对象名不含原始文件名，在此完成存储服务原本负责的文件名校验
+     */
+    private void validateFilename(String originalFilename) {
+        ServiceAssert.isTrue(originalFilename != null && !originalFilename.isEmpty(), "文件名不能为空");
+        ServiceAssert.isTrue(originalFilename.equals(XssUtils.sanitizeFilename(originalFilename)), "文件名包含非法字符");
+        ServiceAssert.isTrue(XssUtils.isAllowedExtension(originalFilename, FileContentValidator.ALLOWED_EXTENSIONS),
+                "不支持的文件格式");
+    }
+
+    /**
+     * 删除文件内容：引用去重对象（访问URL相同）的文件只释放引用，由回收任务删除；其余文件直接删除自己的对象
+     */
+    private boolean deleteContent(FileEntity fileEntity) {
+        if (fileEntity.getContentHash() != null
+                && fileBlobStorage.release(fileEntity.getContentHash(), fileEntity.getFileUrl())) {
+            return true;
+        }
+        return fileStorageService.deleteFile(fileEntity.getFileUrl());
+    }
+
     private String extractFileName(String originalName) {
         if (originalName == null || !originalName.contains(".")) {
             return originalName;
@@ -149,4 +265,7 @@ public class FileServiceImpl implements FileService {
         }
         return originalName.substring(originalName.lastIndexOf("."));
     }
-}
\ No newline at end of file
+
+    private record StoredContent(String fileUrl, String contentHash) {
+    }
+}
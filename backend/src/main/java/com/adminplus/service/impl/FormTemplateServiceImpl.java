@@ -33,7 +33,7 @@ public class FormTemplateServiceImpl implements FormTemplateService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "formTemplates", key = "'all'")
+    @Cacheable(value = "formTemplates", key = "'all'", sync = true)
     public List<FormTemplateResponse> getAllTemplates() {
         return templateRepository.findAll().stream()
                 .map(t -> conversionService.convert(t, FormTemplateResponse.class))
@@ -42,7 +42,7 @@ public class FormTemplateServiceImpl implements FormTemplateService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "formTemplates", key = "'enabled'")
+    @Cacheable(value = "formTemplates", key = "'enabled'", sync = true)
     public List<FormTemplateResponse> getEnabledTemplates() {
         return templateRepository.findByStatusOrderByCreateTimeDesc(1).stream()
                 .map(t -> conversionService.convert(t, FormTemplateResponse.class))
@@ -51,7 +51,7 @@ public class FormTemplateServiceImpl implements FormTemplateService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "formTemplates", key = "'category:' + #category")
+    @Cacheable(value = "formTemplates", key = "'category:' + #category", sync = true)
     public List<FormTemplateResponse> getTemplatesByCategory(String category) {
         return templateRepository.findByCategoryAndStatusOrderByCreateTimeDesc(category, 1).stream()
                 .map(t -> conversionService.convert(t, FormTemplateResponse.class))
@@ -60,7 +60,7 @@ public class FormTemplateServiceImpl implements FormTemplateService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "formTemplate", key = "#id")
+    @Cacheable(value = "formTemplate", key = "#id", sync = true)
     public FormTemplateResponse getTemplateById(String id) {
         return templateRepository.findById(id)
                 .map(t -> conversionService.convert(t, FormTemplateResponse.class))
@@ -69,7 +69,7 @@ public class FormTemplateServiceImpl implements FormTemplateService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "formTemplate", key = "'code:' + #templateCode")
+    @Cacheable(value = "formTemplate", key = "'code:' + #templateCode", sync = true)
     public FormTemplateResponse getTemplateByCode(String templateCode) {
         return templateRepository.findByTemplateCode(templateCode)
                 .map(t -> conversionService.convert(t, FormTemplateResponse.class))
@@ -9,13 +9,16 @@ import com.adminplus.utils.XssUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -29,18 +32,24 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class LocalFileStorageServiceImpl implements FileStorageService {
 
+    /**
+     * 单次 transferFrom 的最大字节数
+     */
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
     private final FileStorageProperties config;
 
     @Override
-    public String uploadFile(MultipartFile file, String directory) {
+    public String uploadFile(InputStream content, long size, String originalFilename,
+                             String contentType, String directory) {
+        Path filePath = null;
         try {
             // 验证目录参数安全性（防止路径遍历）
             if (!XssUtils.isSafePath(directory)) {
                 throw new IllegalArgumentException("目录参数包含非法字符");
             }
 
-            // 获取并验证原始文件名
-            String originalFilename = file.getOriginalFilename();
+            // 验证原始文件名
             if (originalFilename == null || originalFilename.isEmpty()) {
                 throw new IllegalArgumentException("文件名不能为空");
             }
@@ -83,14 +92,14 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
             }
 
             // 保存文件
-            Path filePath = uploadPath.resolve(filename).normalize();
+            filePath = uploadPath.resolve(filename).normalize();
 
             // 再次验证文件路径
             if (!filePath.startsWith(uploadPath)) {
                 throw new IllegalArgumentException("非法的文件路径");
             }
 
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            writeContent(content, filePath);
 
             // 返回访问URL（相对路径）
             String objectName = directory + "/" + datePath + "/" + filename;
@@ -100,11 +109,67 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
             return fileUrl;
 
         } catch (IOException e) {
+            deletePartialFile(filePath);
             log.error("文件上传失败(本地)", e);
             throw new RuntimeException("文件上传失败: " + e.getMessage());
         }
     }
 
+    @Override
+    public String putObject(InputStream content, long size, String objectName, String contentType) {
+        Path filePath = null;
+        try {
+            // 验证对象名称安全性（防止路径遍历）
+            if (!XssUtils.isSafePath(objectName)) {
+                throw new IllegalArgumentException("对象名称包含非法字符");
+            }
+
+            Path uploadRoot = Paths.get(config.getLocal().getBasePath()).toAbsolutePath().normalize();
+            filePath = uploadRoot.resolve(objectName).normalize();
+            if (!filePath.startsWith(uploadRoot)) {
+                throw new IllegalArgumentException("非法的文件路径");
+            }
+            Files.createDirectories(filePath.getParent());
+
+            writeContent(content, filePath);
+
+            String fileUrl = getAccessUrl(objectName);
+            log.info("对象写入成功(本地): {}", fileUrl);
+            return fileUrl;
+
+        } catch (IOException e) {
+            deletePartialFile(filePath);
+            log.error("对象写入失败(本地): {}", objectName, e);
+            throw new RuntimeException("文件上传失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 通过 FileChannel 分段写入，读缓冲由通道实现管理，不随文件大小增长
+     */
+    private void writeContent(InputStream content, Path filePath) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel target = FileChannel.open(filePath,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+
+    private void deletePartialFile(Path filePath) {
+        if (filePath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            log.warn("清理未完成的上传文件失败: {}", filePath);
+        }
+    }
+
     @Override
     public boolean deleteFile(String fileUrl) {
         try {
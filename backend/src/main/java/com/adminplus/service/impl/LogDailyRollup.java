@@ -0,0 +1,173 @@
+package com.adminplus.service.impl;
+
+import com.adminplus.common.properties.LogStorageProperties;
+import com.adminplus.pojo.entity.LogDailyStatEntity;
+import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.repository.LogDailyStatRepository;
+import com.adminplus.utils.IdUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * 日志按日汇总维护
+ * <p>
+ * 启用 app.logging.storage.statistics.rollup-enabled 后，{@link DatabaseLogStorage} 在写入/删除日志的同一事务内
+ * 调用本类累加 sys_log_daily_stat，统计查询只需读取汇总表（行数与天数成正比，与日志总量无关）。
+ * 应用启动时从日志表重建最近 rebuild-days 天的汇总，用于修复停用期间或异常中断造成的偏差；
+ * 重建由咨询锁保证多节点同时启动时只有一个节点执行。
+ * 统计日期时区取自 app.logging.storage.statistics.zone，须为 PostgreSQL 可识别的 IANA 名称。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class LogDailyRollup {
+
+    /**
+     * 偏移量写法的时区 ID（如 +08:00、GMT+08:00、UTC-5），PostgreSQL 对其正负号的解释与 Java 相反
+     */
+    private static final Pattern OFFSET_ZONE_ID = Pattern.compile("^(?:GMT|UTC|UT)?[+-].*");
+
+    /**
+     * 按固定顺序更新汇总行，避免并发批次交叉加锁导致死锁
+     */
+    private static final Comparator<CellKey> CELL_ORDER = Comparator.comparing(CellKey::statDate)
+            .thenComparingInt(CellKey::logType)
+            .thenComparingInt(CellKey::operationType)
+            .thenComparingInt(CellKey::status);
+
+    private final LogDailyStatRepository logDailyStatRepository;
+    private final LogStorageProperties logStorageProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId statZone;
+
+    public LogDailyRollup(LogDailyStatRepository logDailyStatRepository,
+                          LogStorageProperties logStorageProperties,
+                          TransactionTemplate transactionTemplate) {
+        this.logDailyStatRepository = logDailyStatRepository;
+        this.logStorageProperties = logStorageProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.statZone = resolveZone(logStorageProperties.getStatistics().getZone());
+    }
+
+    /**
+     * 统计日期所用时区，日志统计与仪表盘共用
+     */
+    public ZoneId statZone() {
+        return statZone;
+    }
+
+    /**
+     * 是否启用汇总表
+     */
+    public boolean isEnabled() {
+        return logStorageProperties.getStatistics().isRollupEnabled();
+    }
+
+    /**
+     * 记录新增日志（需在写入日志的事务内调用）
+     */
+    public void recordInserted(Collection<LogEntity> logs) {
+        apply(logs, 1);
+    }
+
+    /**
+     * 记录删除日志（需在删除日志的事务内调用）
+     */
+    public void recordDeleted(Collection<LogEntity> logs) {
+        apply(logs, -1);
+    }
+
+    /**
+     * 从日志表重建最近 days 天（含今天）的汇总
+     *
+     * @return 汇总行数，其他节点正在重建时返回 -1
+     */
+    public int rebuild(int days) {
+        long start = System.nanoTime();
+        LocalDate from = LocalDate.now(statZone).minusDays(Math.max(days, 1) - 1L);
+        Integer rows = transactionTemplate.execute(status -> {
+            if (!logDailyStatRepository.tryLockRebuild()) {
+                return -1;
+            }
+            logDailyStatRepository.lockForRebuild();
+            logDailyStatRepository.deleteRowsSince(from);
+            return logDailyStatRepository.rebuildFromLogs(statZone.getId(), from.atStartOfDay(statZone).toInstant());
+        });
+        if (rows == null || rows < 0) {
+            log.info("其他节点正在重建日志按日汇总，跳过");
+            return -1;
+        }
+        log.info("日志按日汇总已重建: from={}, rows={}, cost={}ms", from, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int days = logStorageProperties.getStatistics().getRebuildDays();
+        if (!isEnabled() || days <= 0) {
+            return;
+        }
+        try {
+            rebuild(days);
+        } catch (Exception e) {
+            log.error("日志按日汇总重建失败，统计数据可能不准确", e);
+        }
+    }
+
+    private void apply(Collection<LogEntity> logs, int sign) {
+        if (!isEnabled() || logs == null || logs.isEmpty()) {
+            return;
+        }
+
+        Map<CellKey, Long> deltas = new TreeMap<>(CELL_ORDER);
+        for (LogEntity entity : logs) {
+            Instant createTime = entity.getCreateTime() != null ? entity.getCreateTime() : Instant.now();
+            CellKey key = new CellKey(
+                    LocalDate.ofInstant(createTime, statZone),
+                    orNone(entity.getLogType()),
+                    orNone(entity.getOperationType()),
+                    orNone(entity.getStatus()));
+            deltas.merge(key, (long) sign, Long::sum);
+        }
+
+        deltas.forEach((key, delta) -> logDailyStatRepository.increment(IdUtils.nextIdStr(),
+                key.statDate(), key.logType(), key.operationType(), key.status(), delta));
+    }
+
+    /**
+     * 解析统计时区，拒绝 PostgreSQL 会按 POSIX 规则反向解释的偏移量写法
+     */
+    static ZoneId resolveZone(String id) {
+        ZoneId zone = ZoneId.of(id);
+        if (ZoneOffset.UTC.equals(zone)) {
+            return ZoneId.of("UTC");
+        }
+        if (zone instanceof ZoneOffset || OFFSET_ZONE_ID.matcher(zone.getId()).matches()) {
+            throw new IllegalStateException("日志统计时区须为 IANA 名称（如 Asia/Shanghai），不支持偏移量写法: " + id);
+        }
+        return zone;
+    }
+
+    private static int orNone(Integer value) {
+        return value != null ? value : LogDailyStatEntity.NONE;
+    }
+
+    private record CellKey(LocalDate statDate, int logType, int operationType, int status) {
+    }
+}
@@ -3,30 +3,38 @@ package com.adminplus.service.impl;
 import com.adminplus.constants.DateTimeConstants;
 import com.adminplus.enums.LogStatus;
 import com.adminplus.pojo.dto.query.LogQuery;
-import com.adminplus.pojo.dto.response.LogPageResponse;
-import com.adminplus.pojo.dto.response.PageResultResponse;
 import com.adminplus.service.LogExportService;
-import com.adminplus.service.LogService;
 import com.adminplus.utils.DictUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 日志导出服务实现
+ * <p>
+ * 导出不设行数上限：响应体在写出时通过 {@link com.adminplus.service.LogStorageStrategy#forEachMatching} 逐行读取，
+ * Excel 使用 SXSSF 滑动窗口（超出窗口的行写入临时文件），CSV 直接写入响应流，内存占用与导出行数无关。
+ * 字典标签在每次导出开始时解析一次。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-03-04
@@ -36,107 +44,126 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LogExportServiceImpl implements LogExportService {
 
-    private final LogService logService;
-    private final DictUtils dictUtils;
+    private static final String[] COLUMN_NAMES = {"日志ID", "用户名", "模块", "日志类型", "操作类型", "描述",
+            "请求方法", "IP地址", "执行时长(ms)", "状态", "操作时间"};
 
-    @Override
-    public ResponseEntity<byte[]> exportToExcel(LogQuery query) throws IOException {
-        // 重置分页参数，确保导出从第一条开始，最多 10000 条
-        PageResultResponse<LogPageResponse> result = logService.getLogList(query.withPagination(1, 10000));
-        List<LogPageResponse> logs = result.records();
+    /**
+     * 列宽（字符数）。SXSSF 只保留窗口内的行，无法使用 autoSizeColumn
+     */
+    private static final int[] COLUMN_WIDTHS = {22, 16, 16, 12, 12, 40, 40, 18, 14, 8, 28};
 
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("日志数据");
+    /**
+     * SXSSF 内存中保留的行数
+     */
+    private static final int ROW_ACCESS_WINDOW = 200;
 
-            // 创建标题行
-            Row headerRow = sheet.createRow(0);
-            String[] columnNames = {"日志ID", "用户名", "模块", "日志类型", "操作类型", "描述",
-                    "请求方法", "IP地址", "执行时长(ms)", "状态", "操作时间"};
-            for (int i = 0; i < columnNames.length; i++) {
-                headerRow.createCell(i).setCellValue(columnNames[i]);
-            }
+    private static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
 
-            // 填充数据
-            for (int i = 0; i < logs.size(); i++) {
-                LogPageResponse log = logs.get(i);
-                Row row = sheet.createRow(i + 1);
-                int col = 0;
-                row.createCell(col++).setCellValue(log.id());
-                row.createCell(col++).setCellValue(log.username());
-                row.createCell(col++).setCellValue(log.module());
-                row.createCell(col++).setCellValue(getLogTypeDesc(log.logType()));
-                row.createCell(col++).setCellValue(getOperationTypeDesc(log.operationType()));
-                row.createCell(col++).setCellValue(log.description());
-                row.createCell(col++).setCellValue(log.method() != null ? log.method() : "");
-                row.createCell(col++).setCellValue(log.ip() != null ? log.ip() : "");
-                row.createCell(col++).setCellValue(log.costTime() != null ? log.costTime() : 0);
-                row.createCell(col++).setCellValue(LogStatus.SUCCESS.getCode() == log.status() ? "成功" : "失败");
-                row.createCell(col++).setCellValue(formatDate(log.createTime()));
-            }
-
-            // 自动调整列宽
-            for (int i = 0; i < columnNames.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
+    private final LogStorageStrategySelector storageStrategySelector;
+    private final DictUtils dictUtils;
 
-            // 写入字节数组
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportToExcel(LogQuery query) {
+        DictLabels labels = resolveLabels();
+        StreamingResponseBody body = outputStream -> writeExcel(query, labels, outputStream);
+        return ResponseEntity.ok()
+                .headers(attachmentHeaders(MediaType.APPLICATION_OCTET_STREAM, "xlsx"))
+                .body(body);
+    }
 
-            String filename = "logs_" + System.currentTimeMillis() + ".xlsx";
-            HttpHeaders httpHeaders = new HttpHeaders();
-            httpHeaders.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            httpHeaders.setContentDispositionFormData("attachment", filename);
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportToCsv(LogQuery query) {
+        DictLabels labels = resolveLabels();
+        StreamingResponseBody body = outputStream -> writeCsv(query, labels, outputStream);
+        return ResponseEntity.ok()
+                .headers(attachmentHeaders(MediaType.parseMediaType("text/csv; charset=UTF-8"), "csv"))
+                .body(body);
+    }
 
-            return ResponseEntity.ok()
-                    .headers(httpHeaders)
-                    .body(outputStream.toByteArray());
+    private void writeExcel(LogQuery query, DictLabels labels, OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
+            ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook);
+            long total = storageStrategySelector.getStrategy().forEachMatching(query, entity -> {
+                Row row = sheetWriter.nextRow();
+                int col = 0;
+                row.createCell(col++).setCellValue(entity.getId());
+                row.createCell(col++).setCellValue(entity.getUsername());
+                row.createCell(col++).setCellValue(entity.getModule());
+                row.createCell(col++).setCellValue(labels.logType(entity.getLogType()));
+                row.createCell(col++).setCellValue(labels.operationType(entity.getOperationType()));
+                row.createCell(col++).setCellValue(entity.getDescription());
+                row.createCell(col++).setCellValue(entity.getMethod() != null ? entity.getMethod() : "");
+                row.createCell(col++).setCellValue(entity.getIp() != null ? entity.getIp() : "");
+                row.createCell(col++).setCellValue(entity.getCostTime() != null ? entity.getCostTime() : 0);
+                row.createCell(col++).setCellValue(statusDesc(entity.getStatus()));
+                row.createCell(col++).setCellValue(formatDate(entity.getCreateTime()));
+            });
+            workbook.write(outputStream);
+            log.info("日志导出完成: format=xlsx, rows={}", total);
+        } finally {
+            // 删除 SXSSF 临时文件
+            workbook.dispose();
         }
     }
 
-    @Override
-    public ResponseEntity<byte[]> exportToCsv(LogQuery query) throws IOException {
-        // 重置分页参数，确保导出从第一条开始，最多 10000 条
-        PageResultResponse<LogPageResponse> result = logService.getLogList(query.withPagination(1, 10000));
-        List<LogPageResponse> logs = result.records();
-
-        StringBuilder csv = new StringBuilder();
-        // CSV 头部
-        csv.append("日志ID,用户名,模块,日志类型,操作类型,描述,请求方法,IP地址,执行时长(ms),状态,操作时间\n");
-
-        // CSV 数据
-        for (LogPageResponse log : logs) {
-            csv.append(escapeCsv(log.id())).append(",");
-            csv.append(escapeCsv(log.username())).append(",");
-            csv.append(escapeCsv(log.module())).append(",");
-            csv.append(escapeCsv(getLogTypeDesc(log.logType()))).append(",");
-            csv.append(escapeCsv(getOperationTypeDesc(log.operationType()))).append(",");
-            csv.append(escapeCsv(log.description())).append(",");
-            csv.append(escapeCsv(log.method() != null ? log.method() : "")).append(",");
-            csv.append(escapeCsv(log.ip() != null ? log.ip() : "")).append(",");
-            csv.append(log.costTime() != null ? log.costTime() : 0).append(",");
-            csv.append(LogStatus.SUCCESS.getCode() == log.status() ? "成功" : "失败").append(",");
-            csv.append(escapeCsv(formatDate(log.createTime()))).append("\n");
+    private void writeCsv(LogQuery query, DictLabels labels, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMN_NAMES));
+        writer.write('\n');
+
+        long total;
+        try {
+            total = storageStrategySelector.getStrategy().forEachMatching(query, entity -> {
+                try {
+                    writer.write(escapeCsv(entity.getId()));
+                    writer.write(',');
+                    writer.write(escapeCsv(entity.getUsername()));
+                    writer.write(',');
+                    writer.write(escapeCsv(entity.getModule()));
+                    writer.write(',');
+                    writer.write(escapeCsv(labels.logType(entity.getLogType())));
+                    writer.write(',');
+                    writer.write(escapeCsv(labels.operationType(entity.getOperationType())));
+                    writer.write(',');
+                    writer.write(escapeCsv(entity.getDescription()));
+                    writer.write(',');
+                    writer.write(escapeCsv(entity.getMethod()));
+                    writer.write(',');
+                    writer.write(escapeCsv(entity.getIp()));
+                    writer.write(',');
+                    writer.write(String.valueOf(entity.getCostTime() != null ? entity.getCostTime() : 0));
+                    writer.write(',');
+                    writer.write(statusDesc(entity.getStatus()));
+                    writer.write(',');
+                    writer.write(escapeCsv(formatDate(entity.getCreateTime())));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 通常是客户端中断了下载
+            throw e.getCause();
         }
+        writer.flush();
+        log.info("日志导出完成: format=csv, rows={}", total);
+    }
 
-        String filename = "logs_" + System.currentTimeMillis() + ".csv";
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentType(MediaType.parseMediaType("text/csv; charset=UTF-8"));
-        httpHeaders.setContentDispositionFormData("attachment", filename);
-
-        return ResponseEntity.ok()
-                .headers(httpHeaders)
-                .body(csv.toString().getBytes(StandardCharsets.UTF_8));
+    private DictLabels resolveLabels() {
+        return new DictLabels(dictUtils.getDictMap("log_type"), dictUtils.getDictMap("operation_type"));
     }
 
-    private String getLogTypeDesc(Integer type) {
-        if (type == null) return "未知";
-        return dictUtils.getDictLabel("log_type", String.valueOf(type));
+    private HttpHeaders attachmentHeaders(MediaType contentType, String extension) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentType(contentType);
+        httpHeaders.setContentDispositionFormData("attachment", "logs_" + System.currentTimeMillis() + "." + extension);
+        return httpHeaders;
     }
 
-    private String getOperationTypeDesc(Integer type) {
-        if (type == null) return "未知";
-        return dictUtils.getDictLabel("operation_type", String.valueOf(type));
+    private String statusDesc(Integer status) {
+        return Objects.equals(LogStatus.SUCCESS.getCode(), status) ? "成功" : "失败";
     }
 
     private String formatDate(Instant instant) {
@@ -146,9 +173,62 @@ public class LogExportServiceImpl implements LogExportService {
 
     private String escapeCsv(String value) {
         if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
             return "\"" + value.replace("\"", "\"\"") + "\"";
         }
         return value;
     }
+
+    /**
+     * 单次导出内使用的字典标签（value → label），未找到时返回原值
+     */
+    private record DictLabels(Map<String, String> logTypes, Map<String, String> operationTypes) {
+
+        String logType(Integer type) {
+            return label(logTypes, type);
+        }
+
+        String operationType(Integer type) {
+            return label(operationTypes, type);
+        }
+
+        private static String label(Map<String, String> labels, Integer type) {
+            if (type == null) return "未知";
+            String value = String.valueOf(type);
+            return labels.getOrDefault(value, value);
+        }
+    }
+
+    /**
+     * 按行写入工作表，超过 Excel 单表行数上限时自动新建工作表
+     */
+    private static final class ExcelSheetWriter {
+
+        private final SXSSFWorkbook workbook;
+        private Sheet sheet;
+        private int rowIndex;
+
+        ExcelSheetWriter(SXSSFWorkbook workbook) {
+            this.workbook = workbook;
+            newSheet();
+        }
+
+        Row nextRow() {
+            if (rowIndex >= MAX_ROWS_PER_SHEET) {
+                newSheet();
+            }
+            return sheet.createRow(rowIndex++);
+        }
+
+        private void newSheet() {
+            int sheetNumber = workbook.getNumberOfSheets();
+            sheet = workbook.createSheet(sheetNumber == 0 ? "日志数据" : "日志数据" + (sheetNumber + 1));
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < COLUMN_NAMES.length; i++) {
+                headerRow.createCell(i).setCellValue(COLUMN_NAMES[i]);
+                sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+            }
+            rowIndex = 1;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package com.adminplus.service.impl;
+
+import com.adminplus.common.buffer.BatchWriteBuffer;
+import com.adminplus.common.properties.LogStorageProperties;
+import com.adminplus.common.properties.LogStorageProperties.IngestionConfig;
+import com.adminplus.pojo.entity.LogEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 操作日志写入缓冲区
+ * <p>
+ * 基于 {@link BatchWriteBuffer}：调用方线程只做一次无锁入队，后台单线程按 batchSize 或 flushIntervalMs 将日志批量交给
+ * {@link com.adminplus.service.LogStorageStrategy#saveAll}，队列满时按 {@link LogStorageProperties.OverflowPolicy} 处理。
+ * 指标前缀为 log.ingestion。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class LogIngestionBuffer {
+
+    private final IngestionConfig config;
+    private final BatchWriteBuffer<LogEntity> buffer;
+
+    public LogIngestionBuffer(LogStorageStrategySelector storageStrategySelector,
+                              LogStorageProperties logStorageProperties,
+                              MeterRegistry meterRegistry) {
+        this.config = logStorageProperties.getIngestion();
+        this.buffer = new BatchWriteBuffer<>("log-ingestion", "log.ingestion",
+                new BatchWriteBuffer.Settings(config.getCapacity(), config.getBatchSize(), config.getFlushIntervalMs(),
+                        config.getOverflowPolicy(), config.getBlockTimeoutMs()),
+                new BatchWriteBuffer.Sink<>() {
+                    @Override
+                    public void saveAll(List<LogEntity> entities) {
+                        storageStrategySelector.getStrategy().saveAll(entities);
+                    }
+
+                    @Override
+                    public void save(LogEntity entity) {
+                        storageStrategySelector.getStrategy().save(entity);
+                    }
+
+                    @Override
+                    public String describe(LogEntity entity) {
+                        return "module=" + entity.getModule() + ", description=" + entity.getDescription();
+                    }
+                },
+                meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("日志批量写入已禁用，日志将同步写入存储");
+            return;
+        }
+        buffer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        buffer.stop();
+    }
+
+    /**
+     * 提交一条日志
+     *
+     * @param entity 日志实体（用户信息需已在调用方线程填充）
+     * @return 是否已被接收（入队或同步写入）；被丢弃时返回 false
+     */
+    public boolean submit(LogEntity entity) {
+        return buffer.submit(entity);
+    }
+
+    /**
+     * 当前缓冲区中待写入的日志数
+     */
+    public int pendingCount() {
+        return buffer.pendingCount();
+    }
+
+    /**
+     * 立即写出缓冲区中的全部日志（在调用方线程执行）
+     */
+    public void flushAll() {
+        buffer.flushAll();
+    }
+}
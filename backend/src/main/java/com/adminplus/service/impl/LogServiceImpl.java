@@ -15,7 +15,6 @@ import com.adminplus.utils.ServiceAssert;
 import com.adminplus.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,9 +34,15 @@ public class LogServiceImpl implements LogService {
     private final LogStorageStrategySelector storageStrategySelector;
     private final LogStorageProperties logStorageProperties;
     private final LogStatisticsService logStatisticsService;
+    private final LogIngestionBuffer logIngestionBuffer;
 
+    /**
+     * 记录日志
+     * <p>
+     * 在调用方线程读取当前用户并构建实体（此时安全上下文仍可用），随后交给写入缓冲区批量落库
+     * </p>
+     */
     @Override
-    @Async
     public void log(LogEntry entry) {
         try {
             // 需要认证检查时，验证用户状态
@@ -47,7 +52,9 @@ public class LogServiceImpl implements LogService {
             }
 
             LogEntity entity = buildEntity(entry);
-            getStorageStrategy().save(entity);
+            if (!logIngestionBuffer.submit(entity)) {
+                log.debug("日志写入缓冲区已满，日志被丢弃: module={}, description={}", entry.module(), entry.description());
+            }
         } catch (Exception e) {
             log.error("保存日志失败: module={}, description={}", entry.module(), entry.description(), e);
         }
@@ -1,23 +1,31 @@
 package com.adminplus.service.impl;
 
 import com.adminplus.constants.DateTimeConstants;
-import com.adminplus.pojo.dto.query.LogQuery;
+import com.adminplus.enums.LogStatus;
+import com.adminplus.enums.LogType;
 import com.adminplus.pojo.dto.response.LogStatisticsResponse;
+import com.adminplus.pojo.entity.LogDailyStatEntity;
+import com.adminplus.repository.LogDailyStatRepository;
+import com.adminplus.repository.LogRepository;
 import com.adminplus.service.LogStatisticsService;
-import com.adminplus.service.LogStorageStrategy;
-import com.adminplus.enums.LogType;
-import com.adminplus.enums.LogStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * 日志统计服务实现
+ * <p>
+ * 所有维度由同一组汇总单元 [日期, 日志类型, 操作类型, 状态, 数量] 一次累加得出：
+ * 启用按日汇总表时读取 sys_log_daily_stat，否则对 sys_log 做一次 GROUP BY 扫描。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-03-04
@@ -27,41 +35,70 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class LogStatisticsServiceImpl implements LogStatisticsService {
 
-    private final LogStorageStrategySelector storageStrategySelector;
+    /**
+     * 概览中按日期统计的天数
+     */
+    private static final int RECENT_DAYS = 7;
+
+    /**
+     * 概览中统计的操作类型范围（1..7）
+     */
+    private static final int MAX_OPERATION_TYPE = 7;
+
+    private final LogRepository logRepository;
+    private final LogDailyStatRepository logDailyStatRepository;
+    private final LogDailyRollup logDailyRollup;
 
     @Override
     @Transactional(readOnly = true)
     public LogStatisticsResponse getStatistics() {
-        LogStorageStrategy strategy = storageStrategySelector.getStrategy();
+        ZoneId zone = logDailyRollup.statZone();
+        LocalDate today = LocalDate.now(zone);
+        LocalDate recentFrom = today.minusDays(RECENT_DAYS - 1);
 
-        // 总数统计
-        long totalCount = strategy.count();
+        List<Object[]> cells = logDailyRollup.isEnabled()
+                ? logDailyStatRepository.findAllCells()
+                : logRepository.aggregateStatistics(recentFrom.atStartOfDay(zone).toInstant(), zone.getId());
 
-        // 按类型统计
         Map<Integer, Long> countByType = new HashMap<>();
-        countByType.put(LogType.OPERATION.getCode(), countByTypeInternal(strategy, LogType.OPERATION.getCode()));
-        countByType.put(LogType.LOGIN.getCode(), countByTypeInternal(strategy, LogType.LOGIN.getCode()));
-        countByType.put(LogType.SYSTEM.getCode(), countByTypeInternal(strategy, LogType.SYSTEM.getCode()));
-
-        // 按状态统计
+        for (LogType type : LogType.values()) {
+            countByType.put(type.getCode(), 0L);
+        }
         Map<Integer, Long> countByStatus = new HashMap<>();
-        countByStatus.put(LogStatus.SUCCESS.getCode(), countByStatusInternal(strategy, LogStatus.SUCCESS.getCode()));
-        countByStatus.put(LogStatus.FAILED.getCode(), countByStatusInternal(strategy, LogStatus.FAILED.getCode()));
-
-        // 今日统计
-        long todayCount = countTodayInternal(strategy);
-
-        // 按日期统计（最近7天）
-        Map<String, Long> countByDate = new HashMap<>();
-        for (int i = 6; i >= 0; i--) {
-            String date = getDateDaysAgo(i);
-            countByDate.put(date, countByDateInternal(strategy, date));
+        for (LogStatus status : LogStatus.values()) {
+            countByStatus.put(status.getCode(), 0L);
         }
-
-        // 按操作类型统计
         Map<Integer, Long> countByOperationType = new HashMap<>();
-        for (int opType = 1; opType <= 7; opType++) {
-            countByOperationType.put(opType, countByOperationTypeInternal(strategy, opType));
+        for (int opType = 1; opType <= MAX_OPERATION_TYPE; opType++) {
+            countByOperationType.put(opType, 0L);
+        }
+        Map<String, Long> countByDate = emptyDateBuckets(recentFrom, today);
+
+        long totalCount = 0;
+        long todayCount = 0;
+        for (Object[] cell : cells) {
+            LocalDate date = toLocalDate(cell[0]);
+            Integer logType = toDimension(cell[1]);
+            Integer operationType = toDimension(cell[2]);
+            Integer status = toDimension(cell[3]);
+            long count = ((Number) cell[4]).longValue();
+
+            totalCount += count;
+            if (logType != null) {
+                countByType.computeIfPresent(logType, (key, value) -> value + count);
+            }
+            if (status != null) {
+                countByStatus.computeIfPresent(status, (key, value) -> value + count);
+            }
+            if (operationType != null) {
+                countByOperationType.computeIfPresent(operationType, (key, value) -> value + count);
+            }
+            if (date != null) {
+                if (date.equals(today)) {
+                    todayCount += count;
+                }
+                countByDate.computeIfPresent(formatDate(date), (key, value) -> value + count);
+            }
         }
 
         return new LogStatisticsResponse(
@@ -82,13 +119,23 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
     @Override
     @Transactional(readOnly = true)
     public LogStatisticsResponse getTrendData(int days) {
-        LogStorageStrategy strategy = storageStrategySelector.getStrategy();
-
-        // 按日期统计
-        Map<String, Long> countByDate = new HashMap<>();
-        for (int i = days - 1; i >= 0; i--) {
-            String date = getDateDaysAgo(i);
-            countByDate.put(date, countByDateInternal(strategy, date));
+        Map<String, Long> countByDate = new LinkedHashMap<>();
+        if (days > 0) {
+            ZoneId zone = logDailyRollup.statZone();
+            LocalDate today = LocalDate.now(zone);
+            LocalDate from = today.minusDays(days - 1);
+            countByDate = emptyDateBuckets(from, today);
+
+            List<Object[]> rows = logDailyRollup.isEnabled()
+                    ? logDailyStatRepository.sumByDateSince(from)
+                    : logRepository.countByDateSince(from.atStartOfDay(zone).toInstant(), zone.getId());
+            for (Object[] row : rows) {
+                LocalDate date = toLocalDate(row[0]);
+                long count = ((Number) row[1]).longValue();
+                if (date != null) {
+                    countByDate.computeIfPresent(formatDate(date), (key, value) -> value + count);
+                }
+            }
         }
 
         // 计算总数
@@ -105,45 +152,42 @@ public class LogStatisticsServiceImpl implements LogStatisticsService {
         );
     }
 
-    private Long countByTypeInternal(LogStorageStrategy strategy, int logType) {
-        LogQuery query = new LogQuery(1, 1, null, null, logType, null, null, null, null);
-        return strategy.countByCondition(query);
-    }
-
-    private Long countByStatusInternal(LogStorageStrategy strategy, int status) {
-        LogQuery query = new LogQuery(1, 1, null, null, null, null, status, null, null);
-        return strategy.countByCondition(query);
-    }
-
-    private Long countTodayInternal(LogStorageStrategy strategy) {
-        String todayStart = getTodayStart();
-        LogQuery query = new LogQuery(1, 1, null, null, null, null, null, todayStart, null);
-        return strategy.countByCondition(query);
-    }
-
-    private Long countByDateInternal(LogStorageStrategy strategy, String date) {
-        String startTime = date + " 00:00:00";
-        String endTime = date + " 23:59:59";
-        LogQuery query = new LogQuery(1, 1, null, null, null, null, null, startTime, endTime);
-        return strategy.countByCondition(query);
+    /**
+     * 生成 [from, to] 内每天计数为 0 的有序映射
+     */
+    private Map<String, Long> emptyDateBuckets(LocalDate from, LocalDate to) {
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            buckets.put(formatDate(date), 0L);
+        }
+        return buckets;
     }
 
-    private Long countByOperationTypeInternal(LogStorageStrategy strategy, int operationType) {
-        LogQuery query = new LogQuery(1, 1, null, null, null, operationType, null, null, null);
-        return strategy.countByCondition(query);
+    private String formatDate(LocalDate date) {
+        return date.format(DateTimeConstants.STANDARD_DATE);
     }
 
-    private String getTodayStart() {
-        return LocalDateTime.now()
-                .withHour(0)
-                .withMinute(0)
-                .withSecond(0)
-                .format(DateTimeConstants.STANDARD_DATE_TIME);
+    /**
+     * 原生查询的 DATE 列可能映射为 LocalDate 或 java.sql.Date
+     */
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate localDate) {
+            return localDate;
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return null;
     }
 
-    private String getDateDaysAgo(int days) {
-        return LocalDateTime.now()
-                .minusDays(days)
-                .format(DateTimeConstants.STANDARD_DATE);
+    /**
+     * 汇总表中的空维度占位值还原为 null
+     */
+    private static Integer toDimension(Object value) {
+        if (value == null) {
+            return null;
+        }
+        int dimension = ((Number) value).intValue();
+        return dimension == LogDailyStatEntity.NONE ? null : dimension;
     }
 }
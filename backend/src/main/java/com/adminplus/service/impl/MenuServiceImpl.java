@@ -1,5 +1,6 @@
 package com.adminplus.service.impl;
 
+import com.adminplus.common.security.PermissionChangedEvent;
 import com.adminplus.constants.HierarchyConstants;
 import com.adminplus.pojo.dto.request.MenuBatchDeleteRequest;
 import com.adminplus.pojo.dto.request.MenuBatchStatusRequest;
@@ -15,6 +16,7 @@ import com.adminplus.utils.ServiceAssert;
 import com.adminplus.utils.TreeUtils;
 import com.adminplus.utils.XssUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -37,6 +39,7 @@ public class MenuServiceImpl implements MenuService {
 
     private final MenuRepository menuRepository;
     private final ConversionService conversionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -108,6 +111,8 @@ public class MenuServiceImpl implements MenuService {
 
         menu = menuRepository.save(menu);
 
+        eventPublisher.publishEvent(PermissionChangedEvent.menus());
+
         return conversionService.convert(menu, MenuResponse.class);
     }
 
@@ -156,6 +161,10 @@ public class MenuServiceImpl implements MenuService {
 
         var savedMenu = menuRepository.save(menu);
 
+        if (request.permKey().isPresent()) {
+            eventPublisher.publishEvent(PermissionChangedEvent.menus());
+        }
+
         return conversionService.convert(savedMenu, MenuResponse.class);
     }
 
@@ -169,6 +178,8 @@ public class MenuServiceImpl implements MenuService {
         ServiceAssert.isTrue(menu.getChildren().isEmpty(), "该菜单下存在子菜单，无法删除");
 
         menuRepository.delete(menu);
+
+        eventPublisher.publishEvent(PermissionChangedEvent.menus());
     }
 
     @Override
@@ -185,6 +196,7 @@ public class MenuServiceImpl implements MenuService {
         if (!menusToUpdate.isEmpty()) {
             menusToUpdate.forEach(menu -> menu.setStatus(request.status()));
             menuRepository.saveAll(menusToUpdate);
+            eventPublisher.publishEvent(PermissionChangedEvent.menus());
         }
     }
 
@@ -202,11 +214,13 @@ public class MenuServiceImpl implements MenuService {
         }
 
         menuRepository.deleteAll(menus);
+
+        eventPublisher.publishEvent(PermissionChangedEvent.menus());
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "userMenus", key = "#userId")
+    @Cacheable(value = "userMenus", key = "#userId", sync = true)
     public List<MenuResponse> getUserMenuTree(String userId) {
         // 1. 直接通过 userId 查询用户的菜单ID列表（三表关联查询优化）
         List<String> menuIds = menuRepository.findMenuIdsByUserId(userId);
@@ -337,6 +351,8 @@ public class MenuServiceImpl implements MenuService {
 
         copiedMenu = menuRepository.save(copiedMenu);
 
+        eventPublisher.publishEvent(PermissionChangedEvent.menus());
+
         return conversionService.convert(copiedMenu, MenuResponse.class);
     }
 }
@@ -7,16 +7,16 @@ import com.adminplus.service.FileStorageService;
 import com.adminplus.utils.FileContentValidator;
 import com.adminplus.utils.XssUtils;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteArgs;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -30,19 +30,26 @@ import java.util.UUID;
 @ConditionalOnProperty(name = "app.file-storage.type", havingValue = "MINIO")
 public class MinioFileStorageServiceImpl implements FileStorageService {
 
+    /**
+     * 分片上传的分片大小，单次上传占用的内存不超过一个分片
+     */
+    private static final long PART_SIZE = ObjectWriteArgs.MIN_MULTIPART_SIZE;
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
     private final MinioClient minioClient;
     private final FileStorageProperties config;
 
     @Override
-    public String uploadFile(MultipartFile file, String directory) {
+    public String uploadFile(InputStream content, long size, String originalFilename,
+                             String contentType, String directory) {
         try {
             // 验证目录参数安全性（防止路径遍历）
             if (!XssUtils.isSafePath(directory)) {
                 throw new IllegalArgumentException("目录参数包含非法字符");
             }
 
-            // 获取并验证原始文件名
-            String originalFilename = file.getOriginalFilename();
+            // 验证原始文件名
             if (originalFilename == null || originalFilename.isEmpty()) {
                 throw new IllegalArgumentException("文件名不能为空");
             }
@@ -68,13 +75,13 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
             // 构建对象名称
             String objectName = directory + "/" + datePath + "/" + filename;
 
-            // 上传到 MinIO
+            // 上传到 MinIO（超过一个分片时按分片流式上传）
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(config.getMinio().getBucketName())
                             .object(objectName)
-                            .stream(file.getInputStream(), file.getSize(), -1L)
-                            .contentType(Objects.requireNonNull(file.getContentType()))
+                            .stream(content, size, PART_SIZE)
+                            .contentType(contentType != null ? contentType : DEFAULT_CONTENT_TYPE)
                             .build()
             );
 
@@ -90,6 +97,33 @@ public class MinioFileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    @Override
+    public String putObject(InputStream content, long size, String objectName, String contentType) {
+        try {
+            // 验证对象名称安全性（防止路径遍历）
+            if (!XssUtils.isSafePath(objectName)) {
+                throw new IllegalArgumentException("对象名称包含非法字符");
+            }
+
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(config.getMinio().getBucketName())
+                            .object(objectName)
+                            .stream(content, size, PART_SIZE)
+                            .contentType(contentType != null ? contentType : DEFAULT_CONTENT_TYPE)
+                            .build()
+            );
+
+            String fileUrl = getAccessUrl(objectName);
+            log.info("对象写入成功(MinIO): {}", fileUrl);
+            return fileUrl;
+
+        } catch (Exception e) {
+            log.error("对象写入失败(MinIO): {}", objectName, e);
+            throw new RuntimeException("文件上传失败: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean deleteFile(String fileUrl) {
         try {
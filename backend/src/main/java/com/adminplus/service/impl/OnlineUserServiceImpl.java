@@ -0,0 +1,194 @@
+package com.adminplus.service.impl;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.pojo.dto.response.OnlineUserResponse;
+import com.adminplus.pojo.dto.response.PageResultResponse;
+import com.adminplus.service.OnlineUserService;
+import com.adminplus.utils.UserAgentUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在线用户会话登记服务实现（基于 Redis 有序集合）
+ * <p>
+ * {@link CacheConstants#ONLINE_USERS_KEY} 以最后活跃时间为分值记录在线用户，
+ * {@link CacheConstants#ONLINE_SESSION_KEY_PREFIX} 哈希保存登录时的 IP、浏览器和操作系统。
+ * 超过 Access Token 有效期未刷新的用户视为离线，在读取时按分值区间清理。
+ * 分页查询为 ZREMRANGEBYSCORE + ZCARD + ZREVRANGE（O(log N + 页大小)）加一次流水线 HGETALL，不访问数据库。
+ * </p>
+ * <p>
+ * 在线状态只用于展示，Redis 异常时只记录日志，不影响登录、刷新与登出。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OnlineUserServiceImpl implements OnlineUserService {
+
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_IP = "ip";
+    private static final String FIELD_BROWSER = "browser";
+    private static final String FIELD_OS = "os";
+    private static final String FIELD_LOGIN_TIME = "loginTime";
+
+    private static final String UNKNOWN = "-";
+
+    private final StringRedisTemplate redisTemplate;
+    private final AppProperties appProperties;
+
+    @Override
+    public void recordLogin(String userId, String username, String ip, String userAgent) {
+        if (userId == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, String> session = Map.of(
+                FIELD_USERNAME, username != null ? username : UNKNOWN,
+                FIELD_IP, ip != null ? ip : UNKNOWN,
+                FIELD_BROWSER, UserAgentUtils.parseBrowser(userAgent),
+                FIELD_OS, UserAgentUtils.parseOs(userAgent),
+                FIELD_LOGIN_TIME, String.valueOf(now)
+        );
+        String sessionKey = sessionKey(userId);
+        long ttlSeconds = onlineWindow().toSeconds();
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                conn.hMSet(sessionKey, session);
+                conn.expire(sessionKey, ttlSeconds);
+                conn.zAdd(CacheConstants.ONLINE_USERS_KEY, now, userId);
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("登记在线用户失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void touch(String userId) {
+        if (userId == null) {
+            return;
+        }
+
+        try {
+            // 会话信息已过期的用户不重新加入，等待下次登录
+            if (redisTemplate.opsForZSet().score(CacheConstants.ONLINE_USERS_KEY, userId) == null) {
+                return;
+            }
+            redisTemplate.opsForZSet().add(CacheConstants.ONLINE_USERS_KEY, userId, System.currentTimeMillis());
+            redisTemplate.expire(sessionKey(userId), onlineWindow());
+        } catch (Exception e) {
+            log.warn("刷新在线用户失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void remove(String userId) {
+        if (userId == null) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForZSet().remove(CacheConstants.ONLINE_USERS_KEY, userId);
+            redisTemplate.delete(sessionKey(userId));
+        } catch (Exception e) {
+            log.warn("移除在线用户失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public PageResultResponse<OnlineUserResponse> getOnlineUsers(int page, int size) {
+        int safePage = Math.max(page, 1);
+        int safeSize = Math.max(size, 1);
+
+        long total = countOnlineUsers();
+        long start = (long) (safePage - 1) * safeSize;
+        if (start >= total) {
+            return new PageResultResponse<>(List.of(), total, safePage, safeSize);
+        }
+
+        Set<TypedTuple<String>> entries = redisTemplate.opsForZSet()
+                .reverseRangeWithScores(CacheConstants.ONLINE_USERS_KEY, start, start + safeSize - 1);
+        if (entries == null || entries.isEmpty()) {
+            return new PageResultResponse<>(List.of(), total, safePage, safeSize);
+        }
+
+        List<String> userIds = new ArrayList<>(entries.size());
+        for (TypedTuple<String> entry : entries) {
+            userIds.add(entry.getValue());
+        }
+        List<Object> sessions = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (String userId : userIds) {
+                conn.hGetAll(sessionKey(userId));
+            }
+            return null;
+        });
+
+        List<OnlineUserResponse> records = new ArrayList<>(userIds.size());
+        int index = 0;
+        for (TypedTuple<String> entry : entries) {
+            Object session = index < sessions.size() ? sessions.get(index) : null;
+            index++;
+            records.add(toResponse(entry, session instanceof Map<?, ?> map ? map : Map.of()));
+        }
+        return new PageResultResponse<>(records, total, safePage, safeSize);
+    }
+
+    @Override
+    public long countOnlineUsers() {
+        long cutoff = System.currentTimeMillis() - onlineWindow().toMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(CacheConstants.ONLINE_USERS_KEY, Double.NEGATIVE_INFINITY, cutoff);
+        Long total = redisTemplate.opsForZSet().zCard(CacheConstants.ONLINE_USERS_KEY);
+        return total != null ? total : 0L;
+    }
+
+    private OnlineUserResponse toResponse(TypedTuple<String> entry, Map<?, ?> session) {
+        Object loginTime = session.get(FIELD_LOGIN_TIME);
+        Instant time = loginTime != null
+                ? Instant.ofEpochMilli(Long.parseLong(loginTime.toString()))
+                : Instant.ofEpochMilli(entry.getScore() != null ? entry.getScore().longValue() : 0L);
+        return new OnlineUserResponse(
+                entry.getValue(),
+                field(session, FIELD_USERNAME),
+                field(session, FIELD_IP),
+                time,
+                field(session, FIELD_BROWSER),
+                field(session, FIELD_OS)
+        );
+    }
+
+    private static String field(Map<?, ?> session, String name) {
+        Object value = session.get(name);
+        return value != null ? value.toString() : UNKNOWN;
+    }
+
+    /**
+     * 在线判定窗口：超过 Access Token 有效期未刷新即视为离线
+     */
+    private Duration onlineWindow() {
+        return Duration.ofHours(appProperties.getJwt().getAccessTokenExpirationHours());
+    }
+
+    private static String sessionKey(String userId) {
+        return CacheConstants.ONLINE_SESSION_KEY_PREFIX + userId;
+    }
+}
@@ -18,7 +18,6 @@ import com.adminplus.repository.LogRepository;
 import com.adminplus.repository.ProfileRepository;
 import com.adminplus.service.FileService;
 import com.adminplus.service.ProfileService;
-import com.adminplus.service.VirusScanService;
 import com.adminplus.utils.LogMaskingUtils;
 import com.adminplus.utils.PasswordUtils;
 import com.adminplus.utils.SecurityUtils;
@@ -51,7 +50,6 @@ public class ProfileServiceImpl implements ProfileService {
 
     private final ProfileRepository profileRepository;
     private final PasswordEncoder passwordEncoder;
-    private final VirusScanService virusScanService;
     private final FileService fileService;
     private final LogRepository logRepository;
     private final DictUtils dictUtils;
@@ -126,10 +124,7 @@ public class ProfileServiceImpl implements ProfileService {
         // 验证文件
         validateImageFile(file);
 
-        // 病毒扫描
-        ServiceAssert.isTrue(virusScanService.scanFile(file), "文件包含病毒，上传被拒绝");
-
-        // 使用统一的文件服务上传（包含数据库记录）
+        // 使用统一的文件服务上传（包含类型检测、病毒扫描与数据库记录）
         String avatarUrl = fileService.uploadFile(file, "avatars").fileUrl();
 
         return avatarUrl;
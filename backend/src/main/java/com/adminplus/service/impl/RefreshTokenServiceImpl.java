@@ -3,20 +3,32 @@ package com.adminplus.service.impl;
 import com.adminplus.common.exception.BizException;
 import com.adminplus.common.properties.AppProperties;
 import com.adminplus.common.security.JwtTokenProvider;
+import com.adminplus.constants.CacheConstants;
 import com.adminplus.pojo.entity.RefreshTokenEntity;
 import com.adminplus.repository.RefreshTokenRepository;
+import com.adminplus.service.OnlineUserService;
 import com.adminplus.service.RefreshTokenService;
+import com.adminplus.utils.IdUtils;
 import com.adminplus.utils.ServiceAssert;
+import com.adminplus.utils.TokenHashUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 
 /**
  * Refresh Token 服务实现
+ * <p>
+ * 数据库只保存 Token 摘要（唯一索引），每个用户一行，登录时原地覆盖。
+ * 启用 app.jwt.refresh-token-redis-enabled 时签发的 Token 同时写入 Redis（TTL 为剩余有效期），
+ * 刷新时先按摘要查 Redis，未命中（Redis 数据丢失或启用前签发的 Token）再查询数据库；
+ * 撤销时删除 Redis 中的记录，因此 Redis 中存在即表示有效。
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-08
@@ -26,36 +38,34 @@ import java.time.temporal.ChronoUnit;
 @RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
+    private static final String VALUE_SEPARATOR = "|";
+
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtTokenProvider jwtTokenProvider;
     private final AppProperties appProperties;
+    private final OnlineUserService onlineUserService;
+    private final StringRedisTemplate redisTemplate;
 
     @Override
     @Transactional
     public String createRefreshToken(String userId) {
-        refreshTokenRepository.deleteByUserId(userId);
-
         String token = jwtTokenProvider.generateRefreshToken(userId);
+        String tokenHash = TokenHashUtils.hash(token);
         Instant expiryDate = Instant.now().plus(
                 appProperties.getJwt().getRefreshTokenExpirationDays(), ChronoUnit.DAYS);
 
-        refreshTokenRepository.save(RefreshTokenEntity.builder()
-                .userId(userId)
-                .token(token)
-                .expiryDate(expiryDate)
-                .revoked(false)
-                .build());
+        refreshTokenRepository.upsert(IdUtils.nextIdStr(), userId, tokenHash, expiryDate);
+        cacheToken(userId, tokenHash, expiryDate);
 
         log.info("创建 Refresh Token: userId={}", userId);
         return token;
     }
 
     @Override
-    @Transactional
     public String refreshAccessToken(String token) {
-        RefreshTokenEntity tokenEntity = findAndValidateToken(token);
+        String userId = resolveUserId(TokenHashUtils.hash(token));
 
-        String userId = tokenEntity.getUserId();
+        onlineUserService.touch(userId);
         log.info("刷新 Access Token: userId={}", userId);
         return jwtTokenProvider.generateAccessToken(userId);
     }
@@ -63,28 +73,60 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Override
     @Transactional
     public void revokeRefreshToken(String token) {
-        RefreshTokenEntity tokenEntity = findAndValidateToken(token);
+        String tokenHash = TokenHashUtils.hash(token);
+        RefreshTokenEntity tokenEntity = findAndValidateToken(tokenHash);
         tokenEntity.setRevoked(true);
         refreshTokenRepository.save(tokenEntity);
+        if (isRedisEnabled()) {
+            redisTemplate.delete(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + tokenHash);
+        }
         log.info("撤销 Refresh Token: userId={}", tokenEntity.getUserId());
     }
 
     @Override
     @Transactional
     public void revokeAllUserTokens(String userId) {
-        refreshTokenRepository.deleteByUserId(userId);
+        refreshTokenRepository.revokeByUserId(userId, Instant.now());
+        evictUserToken(userId);
+        onlineUserService.remove(userId);
         log.info("撤销用户所有 Refresh Token: userId={}", userId);
     }
 
     @Override
-    @Transactional
     public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
-        log.info("清理过期的 Refresh Token");
+        int batchSize = appProperties.getJwt().getRefreshTokenCleanupBatchSize();
+        Instant now = Instant.now();
+        long total = 0;
+        int deleted;
+        do {
+            // 每批在独立事务中删除，避免长事务与大范围锁
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted >= batchSize);
+
+        if (total > 0) {
+            log.info("清理过期的 Refresh Token: {} 条", total);
+        }
     }
 
-    private RefreshTokenEntity findAndValidateToken(String token) {
-        RefreshTokenEntity tokenEntity = refreshTokenRepository.findByToken(token)
+    /**
+     * 校验 Token 并返回所属用户：Redis 命中时不访问数据库
+     */
+    private String resolveUserId(String tokenHash) {
+        if (isRedisEnabled()) {
+            String cached = redisTemplate.opsForValue().get(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + tokenHash);
+            if (cached != null) {
+                int separator = cached.lastIndexOf(VALUE_SEPARATOR);
+                if (Long.parseLong(cached.substring(separator + 1)) > System.currentTimeMillis()) {
+                    return cached.substring(0, separator);
+                }
+            }
+        }
+        return findAndValidateToken(tokenHash).getUserId();
+    }
+
+    private RefreshTokenEntity findAndValidateToken(String tokenHash) {
+        RefreshTokenEntity tokenEntity = refreshTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> new BizException("无效的 Refresh Token"));
 
         if (tokenEntity.getRevoked()) {
@@ -97,4 +139,36 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
         return tokenEntity;
     }
-}
\ No newline at end of file
+
+    /**
+     * 写入新 Token，并删除该用户上一次签发的 Token（数据库中已被覆盖）
+     */
+    private void cacheToken(String userId, String tokenHash, Instant expiryDate) {
+        if (!isRedisEnabled()) {
+            return;
+        }
+        Duration ttl = Duration.between(Instant.now(), expiryDate);
+        redisTemplate.opsForValue().set(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + tokenHash,
+                userId + VALUE_SEPARATOR + expiryDate.toEpochMilli(), ttl);
+        String previousHash = redisTemplate.opsForValue()
+                .getAndSet(CacheConstants.USER_REFRESH_TOKEN_KEY_PREFIX + userId, tokenHash);
+        redisTemplate.expire(CacheConstants.USER_REFRESH_TOKEN_KEY_PREFIX + userId, ttl);
+        if (previousHash != null && !previousHash.equals(tokenHash)) {
+            redisTemplate.delete(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + previousHash);
+        }
+    }
+
+    private void evictUserToken(String userId) {
+        if (!isRedisEnabled()) {
+            return;
+        }
+        String tokenHash = redisTemplate.opsForValue().getAndDelete(CacheConstants.USER_REFRESH_TOKEN_KEY_PREFIX + userId);
+        if (tokenHash != null) {
+            redisTemplate.delete(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + tokenHash);
+        }
+    }
+
+    private boolean isRedisEnabled() {
+        return appProperties.getJwt().isRefreshTokenRedisEnabled();
+    }
+}
@@ -1,5 +1,6 @@
 package com.adminplus.service.impl;
 
+import com.adminplus.common.security.PermissionChangedEvent;
 import com.adminplus.pojo.dto.query.RoleQuery;
 import com.adminplus.pojo.dto.request.RoleCreateRequest;
 import com.adminplus.pojo.dto.request.RoleUpdateRequest;
@@ -19,6 +20,7 @@ import com.adminplus.utils.ServiceAssert;
 import com.adminplus.utils.XssUtils;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -46,6 +48,7 @@ public class RoleServiceImpl implements RoleService {
     private final RoleMenuRepository roleMenuRepository;
     private final UserRoleRepository userRoleRepository;
     private final ConversionService conversionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -173,6 +176,8 @@ public class RoleServiceImpl implements RoleService {
 
         // 逻辑删除（Entity 配置了 @SQLDelete，JPA delete 会触发 UPDATE SET deleted=true）
         roleRepository.delete(role);
+
+        eventPublisher.publishEvent(PermissionChangedEvent.role(id));
     }
 
     @Override
@@ -200,6 +205,8 @@ public class RoleServiceImpl implements RoleService {
                     roleMenuRepository.saveAll(list);
                 }
         );
+
+        eventPublisher.publishEvent(PermissionChangedEvent.role(roleId));
     }
 
     @Override
@@ -1,19 +1,23 @@
 package com.adminplus.service.impl;
 
+import com.adminplus.common.security.TokenRevocationEngine;
 import com.adminplus.constants.CacheConstants;
 import com.adminplus.constants.TokenConstants;
 import com.adminplus.service.TokenBlacklistService;
+import com.adminplus.utils.TokenHashUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
-import java.util.Base64;
+import java.util.List;
 import java.util.Set;
 
 /**
  * JWT Token 撤销服务实现（基于 Redis 黑名单）
+ * <p>
+ * 查询先经过 {@link TokenRevocationEngine} 的布隆过滤器，只有可能已撤销的 Token 才访问 Redis
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-02-07
@@ -24,6 +28,7 @@ import java.util.Set;
 public class TokenBlacklistServiceImpl implements TokenBlacklistService {
 
     private final StringRedisTemplate redisTemplate;
+    private final TokenRevocationEngine tokenRevocationEngine;
 
     @Override
     public void blacklistToken(String token, String userId) {
@@ -32,7 +37,7 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
         }
 
         // 生成 Token 的哈希值作为键
-        String tokenHash = hashToken(token);
+        String tokenHash = TokenHashUtils.hash(token);
         String blacklistKey = CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + tokenHash;
 
         // 将 Token 加入黑名单，设置过期时间为 2 小时
@@ -42,6 +47,9 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
         String userTokensKey = CacheConstants.USER_TOKENS_KEY_PREFIX + userId;
         redisTemplate.opsForSet().add(userTokensKey, tokenHash);
 
+        // Redis 写入成功后再登记到过滤器
+        tokenRevocationEngine.revoked(List.of(tokenHash));
+
         log.info("Token 已加入黑名单: userId={}, tokenHash={}", userId, tokenHash);
     }
 
@@ -51,10 +59,8 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
             return false;
         }
 
-        String tokenHash = hashToken(token);
-        String blacklistKey = CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + tokenHash;
-
-        return redisTemplate.hasKey(blacklistKey);
+        return tokenRevocationEngine.isRevoked(TokenHashUtils.hash(token),
+                tokenHash -> Boolean.TRUE.equals(redisTemplate.hasKey(CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + tokenHash)));
     }
 
     @Override
@@ -73,6 +79,7 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
                 String blacklistKey = CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + tokenHash;
                 redisTemplate.opsForValue().set(blacklistKey, String.valueOf(userId), TokenConstants.ACCESS_TOKEN_EXPIRATION);
             }
+            tokenRevocationEngine.revoked(tokenHashes);
         }
 
         log.info("用户的所有 Token 已加入黑名单: userId={}, count={}", userId, tokenHashes != null ? tokenHashes.size() : 0);
@@ -83,21 +90,4 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
         // Redis 会自动清理过期的键，这里主要用于日志记录
         log.debug("Token 黑名单清理任务执行（Redis 自动处理过期键）");
     }
-
-    /**
-     * 对 Token 进行哈希处理
-     *
-     * @param token Token 字符串
-     * @return 哈希值
-     */
-    private String hashToken(String token) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(token.getBytes());
-            return Base64.getEncoder().encodeToString(hash).substring(0, 32);
-        } catch (Exception e) {
-            log.error("Token 哈希失败", e);
-            return token;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.adminplus.service.impl;
 
 import com.adminplus.common.exception.BizException;
+import com.adminplus.common.security.PermissionChangedEvent;
 import com.adminplus.enums.CommonStatus;
 import com.adminplus.enums.UserStatus;
 import com.adminplus.pojo.dto.query.UserQuery;
@@ -25,6 +26,8 @@ import com.adminplus.utils.SecurityUtils;
 import com.adminplus.utils.ServiceAssert;
 import com.adminplus.utils.XssUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -54,6 +57,8 @@ public class UserServiceImpl implements UserService {
     private final DeptService deptService;
     private final PasswordEncoder passwordEncoder;
     private final ConversionService conversionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardMetricRollup dashboardMetricRollup;
 
     @Override
     @Transactional(readOnly = true)
@@ -252,6 +257,7 @@ public class UserServiceImpl implements UserService {
         user.setStatus(UserStatus.ENABLED.getCode());
 
         user = userRepository.save(user);
+        dashboardMetricRollup.recordUserCreated(user);
 
         return conversionService.convert(user, UserResponse.class);
     }
@@ -299,6 +305,7 @@ public class UserServiceImpl implements UserService {
 
         // 逻辑删除（Entity 配置了 @SQLDelete，delete() 会触发 UPDATE SET deleted=true）
         userRepository.delete(user);
+        dashboardMetricRollup.recordUserDeleted(user);
     }
 
     @Override
@@ -332,6 +339,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
+    @CacheEvict(value = {"userPermissions", "userRoles", "userMenus"}, key = "#userId")
     public void assignRoles(String userId, List<String> roleIds) {
         // 检查用户是否存在
         ServiceAssert.exists(userRepository.existsById(userId), "用户不存在");
@@ -358,7 +366,10 @@ public class UserServiceImpl implements UserService {
                 uid -> userRoleRepository.findByUserId(uid).stream()
                         .map(UserRoleEntity::getRoleId)
                         .collect(Collectors.toSet()),
-                userRoleRepository::deleteByUserIdAndRoleIdIn,
+                (uid, toRemove) -> {
+                    userRoleRepository.deleteByUserIdAndRoleIdIn(uid, toRemove);
+                    dashboardMetricRollup.recordRoleMembers(toRemove, -1);
+                },
                 (uid, toAdd) -> {
                     List<UserRoleEntity> list = toAdd.stream().map(roleId -> {
                         var e = new UserRoleEntity();
@@ -367,8 +378,11 @@ public class UserServiceImpl implements UserService {
                         return e;
                     }).toList();
                     userRoleRepository.saveAll(list);
+                    dashboardMetricRollup.recordRoleMembers(toAdd, 1);
                 }
         );
+
+        eventPublisher.publishEvent(PermissionChangedEvent.user(userId));
     }
 
     @Override
@@ -6,9 +6,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
 
@@ -22,6 +25,29 @@ import java.nio.charset.StandardCharsets;
 @Service
 public class VirusScanServiceImpl implements VirusScanService {
 
+    /**
+     * INSTREAM 单个数据块大小
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * 扫描被禁用或服务不可用时使用的会话：丢弃数据并直接放行
+     */
+    private static final ScanSession PASS_THROUGH = new ScanSession() {
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public boolean finish() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
     private final AppProperties appProperties;
 
     public VirusScanServiceImpl(AppProperties appProperties) {
@@ -30,35 +56,49 @@ public class VirusScanServiceImpl implements VirusScanService {
 
     @Override
     public boolean scanFile(MultipartFile file) {
+        try (ScanSession session = openSession(file.getOriginalFilename());
+             InputStream in = file.getInputStream()) {
+            // 分块读取并写入扫描会话，不把文件完整加载到内存
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                session.write(buffer, 0, read);
+            }
+            return session.finish();
+        } catch (IOException e) {
+            log.error("读取文件失败: {}", file.getOriginalFilename(), e);
+            // 扫描失败时拒绝文件上传
+            return false;
+        }
+    }
+
+    @Override
+    public ScanSession openSession(String filename) {
         boolean scanEnabled = appProperties.getVirus().getScan().isEnabled();
 
-        // 如果病毒扫描被禁用，直接返回 true
+        // 如果病毒扫描被禁用，直接放行
         if (!scanEnabled) {
-            log.warn("病毒扫描已禁用，跳过文件扫描: {}", file.getOriginalFilename());
-            return true;
+            log.warn("病毒扫描已禁用，跳过文件扫描: {}", filename);
+            return PASS_THROUGH;
         }
 
-        // 检查 ClamAV 服务是否可用
-        if (!isServiceAvailable()) {
-            log.warn("ClamAV 服务不可用，跳过病毒扫描: {}", file.getOriginalFilename());
-            // 根据安全策略，可以选择：
-            // 1. 返回 true（允许文件上传，可能有安全风险）
-            // 2. 返回 false（拒绝文件上传，更安全）
-            // 这里选择返回 true 以避免影响用户体验，但记录警告日志
-            return true;
-        }
+        String clamavHost = appProperties.getVirus().getScan().getClamav().getHost();
+        int clamavPort = appProperties.getVirus().getScan().getClamav().getPort();
+        int scanTimeout = appProperties.getVirus().getScan().getTimeout();
 
+        Socket socket = new Socket();
         try {
-            // 将文件内容读取到字节数组
-            byte[] fileBytes = file.getBytes();
-
-            // 使用 ClamAV 扫描文件
-            return scanWithClamAV(fileBytes, file.getOriginalFilename());
-
-        } catch (IOException e) {
-            log.error("读取文件失败: {}", file.getOriginalFilename(), e);
-            // 扫描失败时拒绝文件上传
-            return false;
+            socket.connect(new InetSocketAddress(clamavHost, clamavPort), scanTimeout);
+            socket.setSoTimeout(scanTimeout);
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), CHUNK_SIZE + 4);
+            // 发送扫描指令
+            out.write("zINSTREAM\0".getBytes(StandardCharsets.ISO_8859_1));
+            return new ClamavScanSession(socket, out, filename);
+        } catch (Exception e) {
+            closeQuietly(socket);
+            // 与 ClamAV 不可用时的策略一致：允许文件上传，但记录警告日志
+            log.warn("ClamAV 服务不可用，跳过病毒扫描: {} ({}:{})", filename, clamavHost, clamavPort);
+            return PASS_THROUGH;
         }
     }
 
@@ -83,57 +123,72 @@ public class VirusScanServiceImpl implements VirusScanService {
     }
 
     /**
-     * 使用 ClamAV 扫描文件
-     *
-     * @param fileBytes 文件字节数组
-     * @param filename 文件名
-     * @return true 如果文件安全，false 如果包含病毒
+     * ClamAV INSTREAM 扫描会话
+     * <p>
+     * 每次写入作为一个数据块发送（4 字节 Big Endian 长度 + 内容），以长度为 0 的块结束。
+     * 发送失败（如超过 clamd 的 StreamMaxLength 被断开）后不再发送，结果按扫描失败处理。
+     * </p>
      */
-    private boolean scanWithClamAV(byte[] fileBytes, String filename) {
-        String clamavHost = appProperties.getVirus().getScan().getClamav().getHost();
-        int clamavPort = appProperties.getVirus().getScan().getClamav().getPort();
-        int scanTimeout = appProperties.getVirus().getScan().getTimeout();
-
-        try (Socket socket = new Socket(clamavHost, clamavPort)) {
-            socket.setSoTimeout(scanTimeout);
+    private class ClamavScanSession implements ScanSession {
 
-            // 发送扫描指令
-            String command = "zINSTREAM\0";
-            socket.getOutputStream().write(command.getBytes());
-
-            // 发送文件内容（分块发送，每个块以 4 字节的长度开头）
-            int chunkSize = 4096;
-            int offset = 0;
-            while (offset < fileBytes.length) {
-                int length = Math.min(chunkSize, fileBytes.length - offset);
-                byte[] lengthBytes = intToBigEndianBytes(length);
-                socket.getOutputStream().write(lengthBytes);
-                socket.getOutputStream().write(fileBytes, offset, length);
-                offset += length;
-            }
+        private final Socket socket;
+        private final OutputStream out;
+        private final String filename;
+        private boolean failed;
 
-            // 发送结束标记（长度为 0 的块）
-            socket.getOutputStream().write(new byte[4]);
-            socket.getOutputStream().flush();
+        ClamavScanSession(Socket socket, OutputStream out, String filename) {
+            this.socket = socket;
+            this.out = out;
+            this.filename = filename;
+        }
 
-            // 读取响应
-            String response = readResponse(socket);
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            if (failed || length <= 0) {
+                return;
+            }
+            try {
+                out.write(intToBigEndianBytes(length));
+                out.write(buffer, offset, length);
+            } catch (IOException e) {
+                failed = true;
+                log.error("发送扫描数据失败: {} - {}", filename, e.getMessage());
+            }
+        }
 
-            // 检查响应
-            if (response.startsWith("OK")) {
-                log.info("文件扫描通过: {}", filename);
-                return true;
-            } else if (response.startsWith("FOUND")) {
-                log.warn("文件包含病毒: {} - {}", filename, response);
+        @Override
+        public boolean finish() {
+            if (failed) {
                 return false;
-            } else {
-                log.error("文件扫描失败: {} - {}", filename, response);
+            }
+            try {
+                // 发送结束标记（长度为 0 的块）
+                out.write(new byte[4]);
+                out.flush();
+
+                // 读取响应
+                String response = readResponse(socket);
+
+                // 检查响应（格式为 "stream: OK" / "stream: <病毒名> FOUND"）
+                if (response.endsWith("OK")) {
+                    log.info("文件扫描通过: {}", filename);
+                    return true;
+                } else if (response.endsWith("FOUND")) {
+                    log.warn("文件包含病毒: {} - {}", filename, response);
+                    return false;
+                } else {
+                    log.error("文件扫描失败: {} - {}", filename, response);
+                    return false;
+                }
+            } catch (Exception e) {
+                log.error("ClamAV 扫描失败: {}", filename, e);
                 return false;
             }
+        }
 
-        } catch (Exception e) {
-            log.error("ClamAV 扫描失败: {}", filename, e);
-            return false;
+        @Override
+        public void close() {
+            closeQuietly(socket);
         }
     }
 
@@ -160,6 +215,14 @@ public class VirusScanServiceImpl implements VirusScanService {
         return result.trim();
     }
 
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 连接已不可用
+        }
+    }
+
     /**
      * 将整数转换为 Big Endian 字节数组（4 字节）
      */
@@ -9,10 +9,12 @@ import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.repository.WorkflowDefinitionRepository;
 import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.WorkflowDefinitionService;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionChangedEvent;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.ServiceAssert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -37,6 +39,7 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
     private final WorkflowDefinitionRepository definitionRepository;
     private final WorkflowNodeRepository nodeRepository;
     private final ConversionService conversionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @CacheEvict(value = "workflowEnabledDefinitions", allEntries = true)
@@ -85,6 +88,7 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
         entity.setFormConfig(request.formConfig());
 
         entity = definitionRepository.save(entity);
+        eventPublisher.publishEvent(new WorkflowDefinitionChangedEvent(id));
 
         long nodeCount = nodeRepository.countByDefinitionIdAndDeletedFalse(entity.getId());
         return toResponseWithNodeCount(entity, (int) nodeCount);
@@ -102,6 +106,7 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
         });
 
         definitionRepository.deleteById(id);
+        eventPublisher.publishEvent(new WorkflowDefinitionChangedEvent(id));
     }
 
     @Override
@@ -179,6 +184,7 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
         entity.setDescription(request.description());
 
         entity = nodeRepository.save(entity);
+        eventPublisher.publishEvent(new WorkflowDefinitionChangedEvent(entity.getDefinitionId()));
 
         return conversionService.convert(entity, WorkflowNodeResponse.class);
     }
@@ -200,6 +206,7 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
         entity.setDescription(request.description());
 
         entity = nodeRepository.save(entity);
+        eventPublisher.publishEvent(new WorkflowDefinitionChangedEvent(entity.getDefinitionId()));
 
         return conversionService.convert(entity, WorkflowNodeResponse.class);
     }
@@ -207,6 +214,8 @@ public class WorkflowDefinitionServiceImpl implements WorkflowDefinitionService
     @Override
     @Transactional
     public void deleteNode(String nodeId) {
+        nodeRepository.findById(nodeId).ifPresent(node ->
+                eventPublisher.publishEvent(new WorkflowDefinitionChangedEvent(node.getDefinitionId())));
         nodeRepository.deleteById(nodeId);
     }
 
@@ -6,6 +6,7 @@ import tools.jackson.databind.json.JsonMapper;
 import com.adminplus.pojo.dto.request.AddSignRequest;
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
+import com.adminplus.pojo.dto.response.CursorPageResponse;
 import com.adminplus.pojo.dto.response.WorkflowAddSignResponse;
 import com.adminplus.pojo.dto.response.WorkflowApprovalResponse;
 import com.adminplus.pojo.dto.response.WorkflowDetailResponse;
@@ -24,12 +25,14 @@ import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowCcRepository;
 import com.adminplus.repository.WorkflowDefinitionRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.WorkflowInstanceService;
 import com.adminplus.service.workflow.WorkflowAddSignService;
 import com.adminplus.service.workflow.WorkflowApprovalService;
 import com.adminplus.service.workflow.WorkflowDraftService;
 import com.adminplus.service.workflow.WorkflowRollbackService;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.service.workflow.impl.WorkflowPermissionChecker;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.SecurityUtils;
@@ -43,6 +46,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -70,11 +75,12 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
     private final WorkflowRollbackService rollbackService;
     private final WorkflowAddSignService addSignService;
     private final WorkflowPermissionChecker permissionChecker;
+    private final WorkflowInbox inbox;
 
     // ==================== 数据访问依赖 ====================
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
     private final WorkflowDefinitionRepository definitionRepository;
     private final WorkflowCcRepository ccRepository;
     private final WorkflowAddSignRepository addSignRepository;
@@ -209,8 +215,8 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
                 .collect(Collectors.toList());
 
         // 查询所有节点
-        List<WorkflowNodeResponse> nodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(instance.getDefinitionId())
+        WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
+        List<WorkflowNodeResponse> nodes = graph.nodes()
                 .stream()
                 .map(n -> conversionService.convert(n, WorkflowNodeResponse.class))
                 .collect(Collectors.toList());
@@ -218,7 +224,7 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
         // 查询当前节点
         WorkflowNodeResponse currentNode = null;
         if (instance.getCurrentNodeId() != null) {
-            WorkflowNodeEntity nodeEntity = nodeRepository.findById(instance.getCurrentNodeId()).orElse(null);
+            WorkflowNodeEntity nodeEntity = graph.node(instance.getCurrentNodeId()).orElse(null);
             if (nodeEntity != null) {
                 currentNode = conversionService.convert(nodeEntity, WorkflowNodeResponse.class);
             }
@@ -226,6 +232,9 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
 
         // 判断当前用户是否可以审批
         boolean canApprove = permissionChecker.canUserApprove(instance, userId);
+        if (canApprove) {
+            inbox.markRead(userId, instanceId);
+        }
 
         WorkflowDefinitionEntity definition = EntityHelper.findByIdOrThrow(
             definitionRepository::findById, instance.getDefinitionId(), "工作流定义不存在");
@@ -306,6 +315,31 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 按游标分页查询待我审批的工作流（读取待办收件箱，每页只按主键加载实例）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<WorkflowInstanceResponse> getPendingApprovalPage(String cursor, int size) {
+        String userId = getCurrentUserId();
+        WorkflowInbox.Page page = inbox.page(userId, cursor, size);
+
+        Map<String, WorkflowInstanceEntity> instanceMap = instanceRepository.findAllById(page.instanceIds()).stream()
+                .collect(Collectors.toMap(WorkflowInstanceEntity::getId, Function.identity()));
+        List<WorkflowInstanceEntity> instances = page.instanceIds().stream()
+                .map(instanceMap::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        // Batch fetch dept names to avoid N+1 queries
+        Map<String, String> deptNameMap = batchGetDeptNames(instances);
+
+        List<WorkflowInstanceResponse> records = instances.stream()
+                .map(i -> toInstanceResponseWithDeptName(i, deptNameMap.get(i.getDeptId()), true, true))
+                .toList();
+        return new CursorPageResponse<>(records, page.nextCursor(), page.nextCursor() != null);
+    }
+
     /**
      * 统计待审批数量
      */
@@ -313,7 +347,16 @@ public class WorkflowInstanceServiceImpl implements WorkflowInstanceService {
     @Transactional(readOnly = true)
     public long countPendingApprovals() {
         String userId = getCurrentUserId();
-        return instanceRepository.countPendingApprovalsByUser(userId);
+        return inbox.pendingCount(userId);
+    }
+
+    /**
+     * 统计未读的待审批数量
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long countUnreadApprovals() {
+        return inbox.unreadCount(getCurrentUserId());
     }
 
     /**
@@ -8,11 +8,15 @@ import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
+import com.adminplus.statemachine.cache.WorkflowStateMachineCache;
 import com.adminplus.statemachine.enums.WorkflowEvent;
 import com.adminplus.statemachine.enums.WorkflowState;
 import com.adminplus.statemachine.extendedstate.WorkflowExtendedState;
+import com.adminplus.statemachine.persist.WorkflowStateMachinePersister;
 import com.adminplus.service.WorkflowStateMachineService;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.utils.EntityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,21 +25,17 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.statemachine.StateMachine;
-import org.springframework.statemachine.config.StateMachineFactory;
-import org.springframework.statemachine.persist.StateMachinePersister;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import tools.jackson.databind.json.JsonMapper;
-
 /**
  * 工作流状态机服务实现
  * <p>
- * 使用Spring State Machine管理工作流状态转换
+ * 使用Spring State Machine管理工作流状态转换。状态机从 {@link WorkflowStateMachineCache} 借出，
+ * 每次转换后编码一次快照，同时写入状态机持久化表和流程实例，事务提交后归还缓存。
  * </p>
  *
  * @author AdminPlus
@@ -46,12 +46,12 @@ import tools.jackson.databind.json.JsonMapper;
 @RequiredArgsConstructor
 public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineService {
 
-    private final StateMachineFactory<WorkflowState, WorkflowEvent> stateMachineFactory;
-    private final StateMachinePersister<WorkflowState, WorkflowEvent, String> persister;
+    private final WorkflowStateMachineCache machineCache;
+    private final WorkflowStateMachinePersister persister;
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
-    private final JsonMapper objectMapper;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
+    private final WorkflowInbox inbox;
     private final ConversionService conversionService;
 
     @Override
@@ -77,16 +77,16 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
                         instanceId, instance.getCurrentNodeId(), userId, "pending")
                 .orElseThrow(() -> new BizException("无权限审批该工作流"));
 
-        // 获取当前节点
+        // 获取当前节点及下一节点（按 nodeOrder 顺序）
+        WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
         WorkflowNodeEntity currentNode = EntityHelper.findByIdOrThrow(
-                nodeRepository::findById, instance.getCurrentNodeId(), "当前节点不存在");
-
-        // 查找下一节点
-        WorkflowNodeEntity nextNode = findNextNode(instance, currentNode)
+                graph::node, instance.getCurrentNodeId(), "当前节点不存在");
+        WorkflowNodeEntity nextNode = graph.next(currentNode.getId())
                 .orElseThrow(() -> new BizException("无法找到下一节点"));
 
-        // 获取或恢复状态机
-        StateMachine<WorkflowState, WorkflowEvent> sm = getStateMachine(instanceId);
+        // 借出或恢复状态机
+        StateMachine<WorkflowState, WorkflowEvent> sm =
+                machineCache.acquire(instanceId, instance.getStateMachineContext());
 
         // 构建消息头
         Map<String, Object> headers = new HashMap<>();
@@ -108,12 +108,7 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         // 持久化状态机
-        try {
-            persister.persist(sm, instanceId);
-        } catch (Exception e) {
-            log.error("Failed to persist state machine for instance: {}", instanceId, e);
-            throw new RuntimeException("状态机持久化失败", e);
-        }
+        String snapshot = persistSnapshot(sm, instanceId);
 
         // 更新审批记录
         approval.setApprovalStatus("approved");
@@ -125,8 +120,10 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         // 更新实例状态
         instance.setCurrentNodeId(nextNode.getId());
         instance.setCurrentNodeName(nextNode.getNodeName());
-        instance.setStateMachineContext(serializeExtendedState(sm));
+        instance.setStateMachineContext(snapshot);
         instanceRepository.save(instance);
+        inbox.refresh(instance);
+        machineCache.release(instanceId, sm, snapshot);
 
         // 返回更新后的实例
         return convertToResp(instance);
@@ -154,7 +151,8 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
                 .orElseThrow(() -> new BizException("无权限审批该工作流"));
 
         // 获取状态机
-        StateMachine<WorkflowState, WorkflowEvent> sm = getStateMachine(instanceId);
+        StateMachine<WorkflowState, WorkflowEvent> sm =
+                machineCache.acquire(instanceId, instance.getStateMachineContext());
 
         // 构建消息
         Map<String, Object> headers = new HashMap<>();
@@ -174,12 +172,7 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         // 持久化
-        try {
-            persister.persist(sm, instanceId);
-        } catch (Exception e) {
-            log.error("Failed to persist state machine for instance: {}", instanceId, e);
-            throw new RuntimeException("状态机持久化失败", e);
-        }
+        String snapshot = persistSnapshot(sm, instanceId);
 
         // 更新审批记录
         approval.setApprovalStatus("rejected");
@@ -191,8 +184,10 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         // 更新实例状态
         instance.setStatus("rejected");
         instance.setFinishTime(java.time.Instant.now());
-        instance.setStateMachineContext(serializeExtendedState(sm));
+        instance.setStateMachineContext(snapshot);
         instanceRepository.save(instance);
+        inbox.refresh(instance);
+        machineCache.release(instanceId, sm, snapshot);
 
         return convertToResp(instance);
     }
@@ -218,7 +213,8 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         // 获取状态机
-        StateMachine<WorkflowState, WorkflowEvent> sm = getStateMachine(instanceId);
+        StateMachine<WorkflowState, WorkflowEvent> sm =
+                machineCache.acquire(instanceId, instance.getStateMachineContext());
 
         // 发送CANCEL事件
         boolean accepted = sm.sendEvent(WorkflowEvent.CANCEL);
@@ -227,18 +223,15 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         // 持久化
-        try {
-            persister.persist(sm, instanceId);
-        } catch (Exception e) {
-            log.error("Failed to persist state machine for instance: {}", instanceId, e);
-            throw new RuntimeException("状态机持久化失败", e);
-        }
+        String snapshot = persistSnapshot(sm, instanceId);
 
         // 更新实例状态
         instance.setStatus("cancelled");
         instance.setFinishTime(java.time.Instant.now());
-        instance.setStateMachineContext(serializeExtendedState(sm));
+        instance.setStateMachineContext(snapshot);
         instanceRepository.save(instance);
+        inbox.refresh(instance);
+        machineCache.release(instanceId, sm, snapshot);
 
         return convertToResp(instance);
     }
@@ -265,7 +258,8 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
                 .orElseThrow(() -> new BizException("无权限审批该工作流"));
 
         // 获取状态机
-        StateMachine<WorkflowState, WorkflowEvent> sm = getStateMachine(instanceId);
+        StateMachine<WorkflowState, WorkflowEvent> sm =
+                machineCache.acquire(instanceId, instance.getStateMachineContext());
 
         // 获取上一节点
         String previousNodeId = WorkflowExtendedState.getPreviousNodeId(sm);
@@ -274,7 +268,7 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         WorkflowNodeEntity previousNode = EntityHelper.findByIdOrThrow(
-                nodeRepository::findById, previousNodeId, "上一节点不存在");
+                definitionGraphCache.get(instance.getDefinitionId())::node, previousNodeId, "上一节点不存在");
 
         // 构建消息
         Map<String, Object> headers = new HashMap<>();
@@ -296,12 +290,7 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         }
 
         // 持久化
-        try {
-            persister.persist(sm, instanceId);
-        } catch (Exception e) {
-            log.error("Failed to persist state machine for instance: {}", instanceId, e);
-            throw new RuntimeException("状态机持久化失败", e);
-        }
+        String snapshot = persistSnapshot(sm, instanceId);
 
         // 更新审批记录
         approval.setApprovalStatus("rejected");
@@ -315,63 +304,23 @@ public class WorkflowStateMachineServiceImpl implements WorkflowStateMachineServ
         // 更新实例状态
         instance.setCurrentNodeId(previousNodeId);
         instance.setCurrentNodeName(previousNode.getNodeName());
-        instance.setStateMachineContext(serializeExtendedState(sm));
+        instance.setStateMachineContext(snapshot);
         instanceRepository.save(instance);
+        inbox.refresh(instance);
+        machineCache.release(instanceId, sm, snapshot);
 
         return convertToResp(instance);
     }
 
     /**
-     * 获取状态机实例（如果存在则恢复，否则创建新的）
+     * 持久化状态机，返回写入的快照
      */
-    private StateMachine<WorkflowState, WorkflowEvent> getStateMachine(String instanceId) {
-        StateMachine<WorkflowState, WorkflowEvent> sm = stateMachineFactory.getStateMachine(instanceId);
-
+    private String persistSnapshot(StateMachine<WorkflowState, WorkflowEvent> sm, String instanceId) {
         try {
-            // 尝试从数据库恢复状态机状态
-            persister.restore(sm, instanceId);
-            log.debug("Restored state machine for instance: {}", instanceId);
+            return persister.persistSnapshot(sm, instanceId);
         } catch (Exception e) {
-            log.debug("No existing state machine for instance {}, creating new one: {}",
-                    instanceId, e.getMessage());
-            // 新状态机，初始化扩展状态
-            WorkflowExtendedState.setInstanceId(sm, instanceId);
-        }
-
-        return sm;
-    }
-
-    /**
-     * 查找下一节点
-     */
-    private java.util.Optional<WorkflowNodeEntity> findNextNode(
-            WorkflowInstanceEntity instance,
-            WorkflowNodeEntity currentNode) {
-
-        // 简单实现：根据nodeOrder查找下一节点
-        List<WorkflowNodeEntity> nodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrder(instance.getDefinitionId());
-
-        for (int i = 0; i < nodes.size(); i++) {
-            if (nodes.get(i).getId().equals(currentNode.getId()) && i + 1 < nodes.size()) {
-                return java.util.Optional.of(nodes.get(i + 1));
-            }
-        }
-
-        return java.util.Optional.empty();
-    }
-
-    /**
-     * 序列化扩展状态为JSON字符串
-     */
-    @SuppressWarnings("unchecked")
-    private String serializeExtendedState(StateMachine<WorkflowState, WorkflowEvent> sm) {
-        try {
-            Map<Object, Object> variables = sm.getExtendedState().getVariables();
-            return objectMapper.writeValueAsString(variables);
-        } catch (Exception e) {
-            log.warn("Failed to serialize extended state, falling back to toString()", e);
-            return sm.getExtendedState().getVariables().toString();
+            log.error("Failed to persist state machine for instance: {}", instanceId, e);
+            throw new RuntimeException("状态机持久化失败", e);
         }
     }
 
@@ -6,16 +6,22 @@ import com.adminplus.pojo.dto.response.WorkflowUrgeResponse;
 import com.adminplus.pojo.entity.*;
 import com.adminplus.repository.*;
 import com.adminplus.service.WorkflowUrgeService;
+import com.adminplus.service.workflow.fanout.WorkflowNotificationEvent;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.SecurityUtils;
 import com.adminplus.utils.ServiceAssert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -32,9 +38,10 @@ public class WorkflowUrgeServiceImpl implements WorkflowUrgeService {
     private final WorkflowUrgeRepository urgeRepository;
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
     private final UserRepository userRepository;
     private final ConversionService conversionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -53,7 +60,7 @@ public class WorkflowUrgeServiceImpl implements WorkflowUrgeService {
 
         // 获取当前节点
         WorkflowNodeEntity currentNode = EntityHelper.findByIdOrThrow(
-                nodeRepository::findById, instance.getCurrentNodeId(), "当前节点不存在");
+                definitionGraphCache.get(instance.getDefinitionId())::node, instance.getCurrentNodeId(), "当前节点不存在");
 
         // 获取当前节点的所有待审批记录
         List<WorkflowApprovalEntity> pendingApprovals = approvalRepository
@@ -68,14 +75,18 @@ public class WorkflowUrgeServiceImpl implements WorkflowUrgeService {
         UserEntity urgeUser = EntityHelper.findByIdOrThrow(
                 userRepository::findById, urgeUserId, "催办人不存在");
 
-        // 创建催办记录
-        int urgeCount = 0;
+        // 创建催办记录（同一审批人在当前节点只催办一次）
+        List<WorkflowUrgeEntity> urges = new ArrayList<>();
+        Set<String> targetIds = new LinkedHashSet<>();
         for (WorkflowApprovalEntity approval : pendingApprovals) {
             // 如果指定了目标审批人，则只催办该人
             if (req.targetApproverId() != null && !req.targetApproverId().isEmpty()
                     && !approval.getApproverId().equals(req.targetApproverId())) {
                 continue;
             }
+            if (!targetIds.add(approval.getApproverId())) {
+                continue;
+            }
 
             WorkflowUrgeEntity urge = new WorkflowUrgeEntity();
             urge.setInstanceId(instanceId);
@@ -87,12 +98,15 @@ public class WorkflowUrgeServiceImpl implements WorkflowUrgeService {
             urge.setUrgeTargetName(approval.getApproverName());
             urge.setUrgeContent(req.content());
             urge.setIsRead(false);
+            urges.add(urge);
+        }
+        urgeRepository.saveAll(urges);
+        int urgeCount = urges.size();
 
-            urgeRepository.save(urge);
-            urgeCount++;
-
-            // 发送催办通知
-            sendUrgeNotification(instanceId, approval.getApproverId(), urgeUserId);
+        // 发送催办通知（事务提交后异步分批写入）
+        if (!targetIds.isEmpty()) {
+            eventPublisher.publishEvent(new WorkflowNotificationEvent("workflow_urge", List.copyOf(targetIds),
+                    "催办通知", buildUrgeContent(instance, urgeUser, req.content()), instanceId));
         }
 
         log.info("催办工作流完成: instanceId={}, urgeCount={}", instanceId, urgeCount);
@@ -179,19 +193,11 @@ public class WorkflowUrgeServiceImpl implements WorkflowUrgeService {
     }
 
     /**
-     * 发送催办通知
-     * <p>
-     * 未来扩展点：可接入站内信、邮件、企业微信等通知渠道
-     * </p>
-     *
-     * @param instanceId    工作流实例ID
-     * @param targetUserId  目标用户ID（被催办人）
-     * @param urgeUserId    催办人ID
+     * 催办通知内容
      */
-    private void sendUrgeNotification(String instanceId, String targetUserId, String urgeUserId) {
-        log.info("发送催办通知: instanceId={}, targetUserId={}, urgeUserId={}",
-                instanceId, targetUserId, urgeUserId);
-        // 未来扩展：接入通知服务（站内信/邮件/企业微信等）
+    private static String buildUrgeContent(WorkflowInstanceEntity instance, UserEntity urgeUser, String content) {
+        String text = urgeUser.getNickname() + " 催办流程【" + instance.getTitle() + "】";
+        return content != null && !content.isBlank() ? text + "：" + content : text;
     }
 
     private String getCurrentUserId() {
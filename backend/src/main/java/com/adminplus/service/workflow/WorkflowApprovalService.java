@@ -3,9 +3,13 @@ package com.adminplus.service.workflow;
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
 import com.adminplus.pojo.dto.response.WorkflowInstanceResponse;
+import com.adminplus.pojo.entity.UserEntity;
+import com.adminplus.pojo.entity.WorkflowApprovalEntity;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 
+import java.util.List;
+
 /**
  * 工作流审批服务接口
  * <p>
@@ -68,4 +72,41 @@ public interface WorkflowApprovalService {
      * @param targetNode 目标节点
      */
     void recreateApprovalsForNode(WorkflowInstanceEntity instance, WorkflowNodeEntity targetNode);
-}
\ No newline at end of file
+
+    /**
+     * 在调用方事务内对已加载的实例执行一次审批
+     * <p>
+     * 校验审批权限、执行审批前钩子、更新审批记录并流转节点（含抄送），不保存实例、不同步待办收件箱、
+     * 不执行审批后钩子，由调用方统一处理。批量审批在加锁后逐个调用，单条审批也走同一流程。
+     * </p>
+     *
+     * @param instance      工作流实例（运行中）
+     * @param nodeApprovals 实例的审批记录（至少包含当前节点的记录，其他节点的记录会被忽略）
+     * @param user          审批人
+     * @param request       审批操作请求
+     * @param action        approved / rejected
+     * @param runPreHooks   是否执行审批前钩子；批量审批回滚重试时，已通过钩子的实例传 false，避免重复触发
+     * @return 审批结果及需要执行的审批后钩子
+     */
+    ApprovalOutcome applyApproval(WorkflowInstanceEntity instance, List<WorkflowApprovalEntity> nodeApprovals,
+                                  UserEntity user, ApprovalActionRequest request, String action,
+                                  boolean runPreHooks);
+
+    /**
+     * 执行 {@link #applyApproval} 返回的审批后钩子
+     *
+     * @param outcome 审批结果
+     * @param request 审批操作请求
+     */
+    void executePostHooks(ApprovalOutcome outcome, ApprovalActionRequest request);
+
+    /**
+     * 单个实例的审批结果
+     *
+     * @param instance      审批后的实例
+     * @param node          审批所在节点
+     * @param postHookPoint 需要执行的审批后钩子点（POST_APPROVE / POST_REJECT），无需执行时为 null
+     */
+    record ApprovalOutcome(WorkflowInstanceEntity instance, WorkflowNodeEntity node, String postHookPoint) {
+    }
+}
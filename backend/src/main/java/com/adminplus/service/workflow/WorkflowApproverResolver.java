@@ -25,6 +25,14 @@ public interface WorkflowApproverResolver {
      */
     List<String> resolveApprovers(WorkflowInstanceEntity instance, WorkflowNodeEntity node);
 
+    /**
+     * 批量解析角色成员
+     *
+     * @param roleIds 角色ID列表
+     * @return 拥有任一角色的用户ID列表（已去重）
+     */
+    List<String> resolveRoleMembers(List<String> roleIds);
+
     /**
      * 批量获取审批人姓名
      *
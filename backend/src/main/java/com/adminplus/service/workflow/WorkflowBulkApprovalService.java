@@ -0,0 +1,32 @@
+package com.adminplus.service.workflow;
+
+import com.adminplus.pojo.dto.request.BulkApprovalRequest;
+import com.adminplus.pojo.dto.response.BulkApprovalResultResponse;
+
+/**
+ * 工作流批量审批服务接口
+ * <p>
+ * 当前用户一次同意或拒绝多个工作流实例，逐条返回处理结果，单条失败不影响其他实例
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public interface WorkflowBulkApprovalService {
+
+    /**
+     * 批量同意
+     *
+     * @param request 批量审批请求
+     * @return 逐条处理结果（顺序与请求一致，重复ID只处理一次）
+     */
+    BulkApprovalResultResponse approve(BulkApprovalRequest request);
+
+    /**
+     * 批量拒绝
+     *
+     * @param request 批量审批请求
+     * @return 逐条处理结果（顺序与请求一致，重复ID只处理一次）
+     */
+    BulkApprovalResultResponse reject(BulkApprovalRequest request);
+}
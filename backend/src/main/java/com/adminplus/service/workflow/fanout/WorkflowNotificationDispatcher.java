@@ -0,0 +1,77 @@
+package com.adminplus.service.workflow.fanout;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.request.NotificationSendRequest;
+import com.adminplus.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * 工作流批量通知分发器
+ * <p>
+ * 事务提交后在 asyncExecutor 上处理 {@link WorkflowNotificationEvent}，接收人按
+ * app.workflow-fanout.notification-batch-size 分批调用 {@link NotificationService#sendBatchNotification}，
+ * 每批一个事务。某批失败只记录日志，不影响其余批次和已提交的审批数据。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowNotificationDispatcher {
+
+    private static final String RELATED_TYPE = "workflow";
+
+    private final NotificationService notificationService;
+    private final AppProperties appProperties;
+
+    @Async("asyncExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotification(WorkflowNotificationEvent event) {
+        dispatch(event);
+    }
+
+    /**
+     * 分批写入通知
+     *
+     * @return 成功写入的通知数
+     */
+    public int dispatch(WorkflowNotificationEvent event) {
+        List<String> recipientIds = event.recipientIds();
+        if (recipientIds.isEmpty()) {
+            return 0;
+        }
+
+        NotificationSendRequest request = new NotificationSendRequest();
+        request.setType(event.type());
+        request.setTitle(event.title());
+        request.setContent(event.content());
+        request.setRelatedId(event.instanceId());
+        request.setRelatedType(RELATED_TYPE);
+
+        int batchSize = Math.max(appProperties.getWorkflowFanout().getNotificationBatchSize(), 1);
+        int sent = 0;
+        for (int from = 0; from < recipientIds.size(); from += batchSize) {
+            List<String> batch = recipientIds.subList(from, Math.min(from + batchSize, recipientIds.size()));
+            try {
+                notificationService.sendBatchNotification(batch, request);
+                sent += batch.size();
+            } catch (Exception e) {
+                log.error("发送工作流通知失败: type={}, instanceId={}, batchFrom={}, batchSize={}",
+                        event.type(), event.instanceId(), from, batch.size(), e);
+            }
+        }
+
+        log.info("工作流通知已发送: type={}, instanceId={}, sent={}/{}",
+                event.type(), event.instanceId(), sent, recipientIds.size());
+        return sent;
+    }
+}
@@ -0,0 +1,31 @@
+package com.adminplus.service.workflow.fanout;
+
+import java.util.List;
+
+/**
+ * 工作流批量通知事件
+ * <p>
+ * 抄送、催办等按人展开的写操作在事务内发布，{@link WorkflowNotificationDispatcher} 在事务提交后异步分批写入站内信，
+ * 通知写入不占用审批请求的事务与响应时间，事务回滚时也不会发出通知。
+ * </p>
+ *
+ * @param type         通知类型（workflow_cc / workflow_urge 等）
+ * @param recipientIds 接收人ID列表
+ * @param title        通知标题
+ * @param content      通知内容
+ * @param instanceId   关联的工作流实例ID
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record WorkflowNotificationEvent(
+        String type,
+        List<String> recipientIds,
+        String title,
+        String content,
+        String instanceId
+) {
+
+    public WorkflowNotificationEvent {
+        recipientIds = List.copyOf(recipientIds);
+    }
+}
@@ -0,0 +1,16 @@
+package com.adminplus.service.workflow.graph;
+
+/**
+ * 工作流定义或其节点变更事件
+ * <p>
+ * 由 WorkflowDefinitionService 的写操作发布，{@link WorkflowDefinitionGraphCache} 在事务提交后据此失效编译结果。
+ * </p>
+ *
+ * @param definitionId 工作流定义ID
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record WorkflowDefinitionChangedEvent(
+        String definitionId
+) {
+}
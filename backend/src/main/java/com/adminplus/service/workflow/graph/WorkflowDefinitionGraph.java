@@ -0,0 +1,242 @@
+package com.adminplus.service.workflow.graph;
+
+import com.adminplus.pojo.entity.WorkflowDefinitionEntity;
+import com.adminplus.pojo.entity.WorkflowNodeEntity;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 工作流定义编译结果（不可变）
+ * <p>
+ * 按 nodeOrder 排序的节点以ID建立索引，预先计算每个节点的前驱/后继下标、
+ * 解析好的抄送用户/角色ID及节点字段钩子表达式，审批流转时的节点查找均为 O(1)。
+ * </p>
+ * <p>
+ * 对外返回的节点实体均为副本，调用方修改不会影响缓存中的定义。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class WorkflowDefinitionGraph {
+
+    /**
+     * 钩子点与节点字段钩子（SpEL 表达式）的对应关系
+     */
+    public static final Map<String, Function<WorkflowNodeEntity, String>> FIELD_HOOKS = Map.ofEntries(
+            Map.entry("PRE_SUBMIT", WorkflowNodeEntity::getPreSubmitValidate),
+            Map.entry("PRE_APPROVE", WorkflowNodeEntity::getPreApproveValidate),
+            Map.entry("PRE_REJECT", WorkflowNodeEntity::getPreRejectValidate),
+            Map.entry("PRE_ROLLBACK", WorkflowNodeEntity::getPreRollbackValidate),
+            Map.entry("PRE_CANCEL", WorkflowNodeEntity::getPreCancelValidate),
+            Map.entry("PRE_WITHDRAW", WorkflowNodeEntity::getPreWithdrawValidate),
+            Map.entry("PRE_ADD_SIGN", WorkflowNodeEntity::getPreAddSignValidate),
+            Map.entry("POST_SUBMIT", WorkflowNodeEntity::getPostSubmitAction),
+            Map.entry("POST_APPROVE", WorkflowNodeEntity::getPostApproveAction),
+            Map.entry("POST_REJECT", WorkflowNodeEntity::getPostRejectAction),
+            Map.entry("POST_ROLLBACK", WorkflowNodeEntity::getPostRollbackAction),
+            Map.entry("POST_CANCEL", WorkflowNodeEntity::getPostCancelAction),
+            Map.entry("POST_WITHDRAW", WorkflowNodeEntity::getPostWithdrawAction),
+            Map.entry("POST_ADD_SIGN", WorkflowNodeEntity::getPostAddSignAction)
+    );
+
+    private static final int NONE = -1;
+
+    private final String definitionId;
+    private final Integer version;
+    private final WorkflowNodeEntity[] nodes;
+    private final Map<String, Integer> indexById;
+    private final int[] successors;
+    private final int[] predecessors;
+    private final List<List<String>> ccUserIds;
+    private final List<List<String>> ccRoleIds;
+    private final List<Map<String, String>> fieldHooks;
+
+    private WorkflowDefinitionGraph(String definitionId, Integer version, List<WorkflowNodeEntity> orderedNodes) {
+        int size = orderedNodes.size();
+        this.definitionId = definitionId;
+        this.version = version;
+        this.nodes = new WorkflowNodeEntity[size];
+        this.indexById = new HashMap<>(size * 2);
+        this.successors = new int[size];
+        this.predecessors = new int[size];
+        List<List<String>> users = new ArrayList<>(size);
+        List<List<String>> roles = new ArrayList<>(size);
+        List<Map<String, String>> hooks = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            WorkflowNodeEntity node = copyOf(orderedNodes.get(i));
+            nodes[i] = node;
+            indexById.put(node.getId(), i);
+            successors[i] = i + 1 < size ? i + 1 : NONE;
+            predecessors[i] = i > 0 ? i - 1 : NONE;
+            users.add(parseIdList(node.getCcUserIds()));
+            roles.add(parseIdList(node.getCcRoleIds()));
+
+            Map<String, String> nodeHooks = new LinkedHashMap<>();
+            FIELD_HOOKS.forEach((hookPoint, getter) -> {
+                String expression = getter.apply(node);
+                if (expression != null && !expression.isBlank()) {
+                    nodeHooks.put(hookPoint, expression);
+                }
+            });
+            hooks.add(Collections.unmodifiableMap(nodeHooks));
+        }
+        this.ccUserIds = Collections.unmodifiableList(users);
+        this.ccRoleIds = Collections.unmodifiableList(roles);
+        this.fieldHooks = Collections.unmodifiableList(hooks);
+    }
+
+    /**
+     * 编译工作流定义
+     *
+     * @param definitionId 工作流定义ID
+     * @param definition   工作流定义（可为 null）
+     * @param orderedNodes 按 nodeOrder 升序排列的未删除节点
+     * @return 编译结果
+     */
+    public static WorkflowDefinitionGraph compile(String definitionId, WorkflowDefinitionEntity definition,
+                                                  List<WorkflowNodeEntity> orderedNodes) {
+        return new WorkflowDefinitionGraph(definitionId, definition != null ? definition.getVersion() : null,
+                orderedNodes != null ? orderedNodes : List.of());
+    }
+
+    public String definitionId() {
+        return definitionId;
+    }
+
+    /**
+     * 编译时的定义版本号（定义不存在时为 null）
+     */
+    public Integer version() {
+        return version;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public boolean isEmpty() {
+        return nodes.length == 0;
+    }
+
+    public boolean contains(String nodeId) {
+        return nodeId != null && indexById.containsKey(nodeId);
+    }
+
+    /**
+     * 所有节点（按 nodeOrder 升序）
+     */
+    public List<WorkflowNodeEntity> nodes() {
+        List<WorkflowNodeEntity> result = new ArrayList<>(nodes.length);
+        for (WorkflowNodeEntity node : nodes) {
+            result.add(copyOf(node));
+        }
+        return result;
+    }
+
+    public Optional<WorkflowNodeEntity> node(String nodeId) {
+        return at(indexOf(nodeId));
+    }
+
+    public Optional<WorkflowNodeEntity> first() {
+        return at(nodes.length > 0 ? 0 : NONE);
+    }
+
+    /**
+     * 下一节点，已是最后节点或节点不属于该定义时为空
+     */
+    public Optional<WorkflowNodeEntity> next(String nodeId) {
+        int index = indexOf(nodeId);
+        return at(index != NONE ? successors[index] : NONE);
+    }
+
+    /**
+     * 上一节点，已是首节点或节点不属于该定义时为空
+     */
+    public Optional<WorkflowNodeEntity> previous(String nodeId) {
+        int index = indexOf(nodeId);
+        return at(index != NONE ? predecessors[index] : NONE);
+    }
+
+    /**
+     * 节点配置的抄送用户ID
+     */
+    public List<String> ccUserIds(String nodeId) {
+        int index = indexOf(nodeId);
+        return index != NONE ? ccUserIds.get(index) : List.of();
+    }
+
+    /**
+     * 节点配置的抄送角色ID
+     */
+    public List<String> ccRoleIds(String nodeId) {
+        int index = indexOf(nodeId);
+        return index != NONE ? ccRoleIds.get(index) : List.of();
+    }
+
+    /**
+     * 节点在指定钩子点配置的字段钩子表达式
+     */
+    public String fieldHook(String nodeId, String hookPoint) {
+        int index = indexOf(nodeId);
+        return index != NONE ? fieldHooks.get(index).get(hookPoint) : null;
+    }
+
+    /**
+     * 所有非空的字段钩子表达式
+     */
+    public List<String> fieldHookExpressions() {
+        List<String> expressions = new ArrayList<>();
+        fieldHooks.forEach(hooks -> expressions.addAll(hooks.values()));
+        return expressions;
+    }
+
+    /**
+     * 解析 JSON 数组形式的ID列表（如 ["u1", "u2"]），忽略空白项
+     */
+    public static List<String> parseIdList(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        String trimmed = value.trim();
+        if (!trimmed.startsWith("[") || !trimmed.endsWith("]")) {
+            return List.of();
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (String item : trimmed.substring(1, trimmed.length() - 1).split(",")) {
+            String id = item.trim().replace("\"", "").replace("'", "");
+            if (!id.isEmpty() && !ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return List.copyOf(ids);
+    }
+
+    private int indexOf(String nodeId) {
+        if (nodeId == null) {
+            return NONE;
+        }
+        Integer index = indexById.get(nodeId);
+        return index != null ? index : NONE;
+    }
+
+    private Optional<WorkflowNodeEntity> at(int index) {
+        return index != NONE ? Optional.of(copyOf(nodes[index])) : Optional.empty();
+    }
+
+    private static WorkflowNodeEntity copyOf(WorkflowNodeEntity source) {
+        WorkflowNodeEntity copy = new WorkflowNodeEntity();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+}
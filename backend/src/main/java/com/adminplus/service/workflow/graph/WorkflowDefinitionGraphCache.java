@@ -0,0 +1,163 @@
+package com.adminplus.service.workflow.graph;
+
+import com.adminplus.common.expression.SpelExpressionEngine;
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.repository.WorkflowDefinitionRepository;
+import com.adminplus.repository.WorkflowNodeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 工作流定义编译结果缓存
+ * <p>
+ * 首次访问某个定义时读取定义及其节点并编译为 {@link WorkflowDefinitionGraph}，之后审批、退回、加签、
+ * 详情等路径的节点查找都不再查询 sys_workflow_node。编译时预先解析节点字段钩子表达式，使其进入 SpEL 缓存。
+ * </p>
+ * <p>
+ * 定义或节点写入后发布 {@link WorkflowDefinitionChangedEvent}，事务提交后失效本节点的编译结果，
+ * 并通过 Redis Pub/Sub 通知其他节点失效。节点增删改不会改变定义的 version 字段，因此以事件而不是版本号判定失效。
+ * Pub/Sub 不保证送达（Redis 断连、订阅重建期间的消息会丢失），编译结果写入 {@value #EXPIRE_AFTER_WRITE_MINUTES}
+ * 分钟后过期重新编译，漏收通知的节点最多在这段时间内使用旧的定义。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class WorkflowDefinitionGraphCache implements MessageListener {
+
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private static final int MAXIMUM_SIZE = 1024;
+
+    private static final long EXPIRE_AFTER_WRITE_MINUTES = 10;
+
+    private final WorkflowDefinitionRepository definitionRepository;
+    private final WorkflowNodeRepository nodeRepository;
+    private final SpelExpressionEngine expressionEngine;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Cache<String, WorkflowDefinitionGraph> graphs = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(Duration.ofMinutes(EXPIRE_AFTER_WRITE_MINUTES))
+            .build();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public WorkflowDefinitionGraphCache(WorkflowDefinitionRepository definitionRepository,
+                                        WorkflowNodeRepository nodeRepository,
+                                        SpelExpressionEngine expressionEngine,
+                                        StringRedisTemplate stringRedisTemplate,
+                                        RedisMessageListenerContainer listenerContainer,
+                                        MeterRegistry meterRegistry) {
+        this.definitionRepository = definitionRepository;
+        this.nodeRepository = nodeRepository;
+        this.expressionEngine = expressionEngine;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+
+        this.hitCounter = Counter.builder("workflow.definition.graph.gets")
+                .description("直接使用已编译工作流定义的次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("workflow.definition.graph.gets")
+                .description("读取并编译工作流定义的次数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("workflow.definition.graph.size", graphs, Cache::estimatedSize)
+                .description("已编译的工作流定义数量")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this,
+                new ChannelTopic(CacheConstants.WORKFLOW_DEFINITION_CHANGED_CHANNEL));
+    }
+
+    /**
+     * 获取工作流定义的编译结果
+     *
+     * @param definitionId 工作流定义ID
+     * @return 编译结果，定义不存在或没有节点时为空图
+     */
+    public WorkflowDefinitionGraph get(String definitionId) {
+        WorkflowDefinitionGraph graph = graphs.getIfPresent(definitionId);
+        if (graph != null) {
+            hitCounter.increment();
+            return graph;
+        }
+        return graphs.get(definitionId, this::compile);
+    }
+
+    /**
+     * 失效本节点的编译结果
+     */
+    public void invalidate(String definitionId) {
+        graphs.invalidate(definitionId);
+    }
+
+    /**
+     * 事务提交后失效本节点编译结果并广播给其他节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDefinitionChanged(WorkflowDefinitionChangedEvent event) {
+        invalidate(event.definitionId());
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.WORKFLOW_DEFINITION_CHANGED_CHANNEL,
+                    nodeId + MESSAGE_SEPARATOR + event.definitionId());
+        } catch (Exception e) {
+            log.warn("广播工作流定义变更失败: definitionId={}, error={}", event.definitionId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", -1);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        invalidate(parts[1]);
+    }
+
+    private WorkflowDefinitionGraph compile(String definitionId) {
+        missCounter.increment();
+        long start = System.nanoTime();
+        WorkflowDefinitionGraph graph = WorkflowDefinitionGraph.compile(definitionId,
+                definitionRepository.findById(definitionId).orElse(null),
+                nodeRepository.findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(definitionId));
+
+        for (String expression : graph.fieldHookExpressions()) {
+            try {
+                expressionEngine.parse(expression);
+            } catch (Exception e) {
+                // 表达式错误在执行钩子时按原逻辑记录结果，这里只跳过预解析
+                log.warn("预解析节点字段钩子失败: definitionId={}, error={}", definitionId, e.getMessage());
+            }
+        }
+        log.debug("工作流定义已编译: definitionId={}, nodes={}, cost={}μs",
+                definitionId, graph.size(), (System.nanoTime() - start) / 1_000);
+        return graph;
+    }
+}
@@ -30,4 +30,21 @@ public interface HookExecutor {
      * @return 执行器类型（spel、bean、http）
      */
     String getType();
+
+    /**
+     * 是否执行阻塞IO（如网络调用），为 true 时由执行引擎在虚拟线程上执行并施加超时
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    /**
+     * 熔断与并发隔离的端点标识，只对阻塞型执行器生效，应按远端服务（如 URL 的主机）区分
+     *
+     * @param config 执行器配置
+     * @return 端点标识
+     */
+    default String endpoint(HookExecutorConfig config) {
+        return getType();
+    }
 }
@@ -0,0 +1,156 @@
+package com.adminplus.service.workflow.hook;
+
+import com.adminplus.common.properties.AppProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 工作流钩子日志分区维护
+ * <p>
+ * sys_workflow_hook_log 按 create_time 按月范围分区（UTC），分区名为 sys_workflow_hook_log_pYYYYMM，
+ * 另有 DEFAULT 分区兜底。本类提前创建后续月份的分区，并整块删除已全部过期的月份分区，
+ * 保留期因此按整月向上取整。落入 DEFAULT 分区的行（如分区未及时创建的月份）无法整块删除，按行分批清理。
+ * 分区迁移由 {@link com.adminplus.common.schema.SchemaTransitionRunner} 在启动时执行，
+ * 尚未执行或执行失败、表未分区时 {@link #isPartitioned()} 返回 false，由调用方退回按行删除。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowHookLogPartitionManager {
+
+    static final String TABLE = "sys_workflow_hook_log";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * DEFAULT 分区按行清理时单批删除的行数
+     */
+    static final int DEFAULT_PARTITION_DELETE_BATCH = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppProperties appProperties;
+
+    /**
+     * 日志表是否为分区表
+     */
+    public boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_partitioned_table pt
+                    JOIN pg_class c ON c.oid = pt.partrelid
+                    WHERE c.relname = ?
+                )
+                """, Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * 创建当前月及之后 partition-months-ahead 个月的分区
+     *
+     * @return 新建的分区数
+     */
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        List<String> existing = listPartitions();
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        int monthsAhead = Math.max(appProperties.getWorkflowHookLog().getPartitionMonthsAhead(), 0);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE
+                        + " FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00') TO ('"
+                        + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+                created++;
+                log.info("已创建钩子日志分区: {}", name);
+            } catch (Exception e) {
+                // DEFAULT 分区中已有该月数据时无法创建
+                log.warn("创建钩子日志分区失败: {}, error={}", name, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * 删除整月都早于 beforeTime 的分区
+     *
+     * @return 删除的分区数
+     */
+    public int dropPartitionsBefore(Instant beforeTime) {
+        YearMonth cutoff = YearMonth.from(beforeTime.atZone(ZoneOffset.UTC));
+        int dropped = 0;
+        for (String name : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), SUFFIX).isBefore(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            dropped++;
+            log.info("已删除过期钩子日志分区: {}", name);
+        }
+        return dropped;
+    }
+
+    /**
+     * 分批删除 DEFAULT 分区中早于 beforeTime 的行
+     *
+     * @return 删除的行数
+     */
+    public int deleteDefaultPartitionBefore(Instant beforeTime) {
+        List<String> defaults = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ? AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'
+                """, String.class, TABLE);
+        int deleted = 0;
+        for (String name : defaults) {
+            int batch;
+            do {
+                // 每批单独提交，避免一次删除大量行长时间持锁
+                batch = jdbcTemplate.update("DELETE FROM " + name + " WHERE id IN (SELECT id FROM " + name
+                        + " WHERE create_time < ? LIMIT ?)", Timestamp.from(beforeTime), DEFAULT_PARTITION_DELETE_BATCH);
+                deleted += batch;
+            } while (batch >= DEFAULT_PARTITION_DELETE_BATCH);
+        }
+        if (deleted > 0) {
+            log.info("已从钩子日志 DEFAULT 分区删除 {} 条过期日志", deleted);
+        }
+        return deleted;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, TABLE);
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,159 @@
+package com.adminplus.service.workflow.hook;
+
+import com.adminplus.common.buffer.BatchWriteBuffer;
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.properties.LogStorageProperties.OverflowPolicy;
+import com.adminplus.pojo.dto.workflow.hook.HookContext;
+import com.adminplus.pojo.dto.workflow.hook.HookResult;
+import com.adminplus.pojo.entity.WorkflowHookLogEntity;
+import com.adminplus.pojo.entity.WorkflowNodeHookEntity;
+import com.adminplus.repository.WorkflowHookLogRepository;
+import com.adminplus.utils.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 工作流钩子执行日志写入器
+ * <p>
+ * 同步钩子与执行引擎中的异步钩子共用。调用方线程只构建日志并入队，由 {@link BatchWriteBuffer} 后台批量 saveAll
+ * （一个批次一个事务，配合 Hibernate JDBC 批量写入），不再在业务事务内逐条 INSERT，
+ * 因此业务事务回滚时已执行钩子的日志仍会保留。队列已满时丢弃新日志并计数，指标前缀为 workflow.hook.log。
+ * </p>
+ * <p>
+ * 同步执行成功的日志按 app.workflow-hook-log.success-sample-rate 采样，失败与异步执行结果全部写入。
+ * 写入失败只记录日志，不影响钩子结果；应用关闭时写出队列中剩余的日志。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class WorkflowHookLogWriter {
+
+    private final AppProperties.WorkflowHookLog config;
+    private final BatchWriteBuffer<WorkflowHookLogEntity> buffer;
+
+    private final Counter sampledOutCounter;
+    private final Counter buildFailedCounter;
+
+    public WorkflowHookLogWriter(WorkflowHookLogRepository hookLogRepository,
+                                 AppProperties appProperties,
+                                 MeterRegistry meterRegistry) {
+        this.config = appProperties.getWorkflowHookLog();
+        this.buffer = new BatchWriteBuffer<>("workflow-hook-log", "workflow.hook.log",
+                new BatchWriteBuffer.Settings(config.getCapacity(), config.getBatchSize(), config.getFlushIntervalMs(),
+                        OverflowPolicy.DROP_NEWEST, 0),
+                new BatchWriteBuffer.Sink<>() {
+                    @Override
+                    public void saveAll(List<WorkflowHookLogEntity> entities) {
+                        hookLogRepository.saveAll(entities);
+                    }
+
+                    @Override
+                    public void save(WorkflowHookLogEntity entity) {
+                        hookLogRepository.save(entity);
+                    }
+
+                    @Override
+                    public String describe(WorkflowHookLogEntity entity) {
+                        return "hookPoint=" + entity.getHookPoint();
+                    }
+                },
+                meterRegistry);
+
+        this.sampledOutCounter = Counter.builder("workflow.hook.log.sampled.out")
+                .description("因采样未写入的成功钩子日志数")
+                .register(meterRegistry);
+        this.buildFailedCounter = Counter.builder("workflow.hook.log.build.failed")
+                .description("构建失败的钩子日志数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isBufferEnabled()) {
+            log.info("钩子日志批量写入已禁用，日志将同步写入");
+            return;
+        }
+        buffer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        buffer.stop();
+    }
+
+    /**
+     * 保存日志
+     */
+    public void write(WorkflowNodeHookEntity hook, String hookPoint,
+                      String hookSource, String executorType,
+                      String executorConfig, HookResult result,
+                      HookContext context, boolean async) {
+        if (result.success() && !async && !sampled()) {
+            sampledOutCounter.increment();
+            return;
+        }
+
+        WorkflowHookLogEntity entry;
+        try {
+            entry = toEntity(hook, hookPoint, hookSource, executorType, executorConfig, result, context, async);
+        } catch (Exception e) {
+            buildFailedCounter.increment();
+            log.error("构建钩子日志失败: hookPoint={}", hookPoint, e);
+            return;
+        }
+        // 异步钩子在没有安全上下文的线程上执行，审计用户取触发钩子的操作人
+        buffer.submit(entry, context.operatorId() != null ? context.operatorId() : SecurityUtils.getCurrentUserIdOrDefault());
+    }
+
+    /**
+     * 当前缓冲区中待写入的日志数
+     */
+    public int pendingCount() {
+        return buffer.pendingCount();
+    }
+
+    /**
+     * 立即写出缓冲区中的全部日志（在调用方线程执行）
+     */
+    public void flushAll() {
+        buffer.flushAll();
+    }
+
+    private static WorkflowHookLogEntity toEntity(WorkflowNodeHookEntity hook, String hookPoint,
+                                                  String hookSource, String executorType,
+                                                  String executorConfig, HookResult result,
+                                                  HookContext context, boolean async) {
+        WorkflowHookLogEntity entry = new WorkflowHookLogEntity();
+        entry.setInstanceId(context.instance().getId());
+        entry.setNodeId(context.node() != null ? context.node().getId() : null);
+        entry.setHookId(hook != null ? hook.getId() : null);
+        entry.setHookSource(hookSource);
+        entry.setHookPoint(hookPoint);
+        entry.setExecutorType(executorType);
+        entry.setExecutorConfig(executorConfig);
+        entry.setSuccess(result.success());
+        entry.setResultCode(result.code());
+        entry.setResultMessage(result.message());
+        entry.setExecutionTime(result.executionTime());
+        entry.setRetryAttempts(result.retryAttempts());
+        entry.setAsync(async);
+        entry.setOperatorId(context.operatorId());
+        entry.setOperatorName(context.operatorName());
+        return entry;
+    }
+
+    private boolean sampled() {
+        double rate = config.getSuccessSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,130 @@
+package com.adminplus.service.workflow.hook.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 按端点的熔断与并发隔离
+ * <p>
+ * 每个端点一个信号量限制并发，获取失败立即拒绝而不排队；连续失败达到阈值后熔断，
+ * 熔断期内直接拒绝，到期后只放行一次试探调用，成功则恢复，失败则重新熔断。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+final class EndpointGuard {
+
+    static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
+    static final String BULKHEAD_FULL = "BULKHEAD_FULL";
+
+    private static final long MAXIMUM_ENDPOINTS = 10_000;
+
+    private final Cache<String, EndpointState> states = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_ENDPOINTS)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    private final int maxConcurrent;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    EndpointGuard(int maxConcurrent, int failureThreshold, long openMillis, LongSupplier clock) {
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 申请调用许可
+     */
+    Permit acquire(String endpoint) {
+        EndpointState state = states.get(endpoint, key -> new EndpointState(maxConcurrent));
+        boolean trial = false;
+        if (state.openUntil != 0) {
+            if (clock.getAsLong() < state.openUntil || !state.trialInFlight.compareAndSet(false, true)) {
+                return new Permit(state, CIRCUIT_OPEN, false);
+            }
+            trial = true;
+        }
+        if (!state.permits.tryAcquire()) {
+            if (trial) {
+                state.trialInFlight.set(false);
+            }
+            return new Permit(state, BULKHEAD_FULL, false);
+        }
+        return new Permit(state, null, trial);
+    }
+
+    /**
+     * 距熔断结束的毫秒数，未熔断时为 0
+     */
+    long retryAfterMillis(String endpoint) {
+        EndpointState state = states.getIfPresent(endpoint);
+        return state == null || state.openUntil == 0 ? 0 : Math.max(state.openUntil - clock.getAsLong(), 0);
+    }
+
+    private static final class EndpointState {
+
+        private final Semaphore permits;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicBoolean trialInFlight = new AtomicBoolean();
+        private volatile long openUntil;
+
+        private EndpointState(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent);
+        }
+    }
+
+    /**
+     * 调用许可，被拒绝时 {@link #rejection()} 为拒绝原因
+     */
+    final class Permit {
+
+        private final EndpointState state;
+        private final String rejection;
+        private final boolean trial;
+
+        private Permit(EndpointState state, String rejection, boolean trial) {
+            this.state = state;
+            this.rejection = rejection;
+            this.trial = trial;
+        }
+
+        boolean admitted() {
+            return rejection == null;
+        }
+
+        String rejection() {
+            return rejection;
+        }
+
+        /**
+         * 归还许可并记录端点是否健康
+         */
+        void release(boolean healthy) {
+            if (!admitted()) {
+                return;
+            }
+            state.permits.release();
+            if (healthy) {
+                state.consecutiveFailures.set(0);
+                state.openUntil = 0;
+            } else if (trial || state.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                state.consecutiveFailures.set(0);
+                state.openUntil = clock.getAsLong() + openMillis;
+            }
+            if (trial) {
+                state.trialInFlight.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.adminplus.service.workflow.hook.engine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟队列中的异步钩子，到期后由调度线程取出执行
+ *
+ * @param attemptId    待执行记录ID
+ * @param executorType 执行方式
+ * @param dueNanos     到期时间（{@link System#nanoTime()}）
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+record HookAttempt(String attemptId, String executorType, long dueNanos) implements Delayed {
+
+    static HookAttempt at(String attemptId, String executorType, Instant dueTime) {
+        long delay = Math.max(Duration.between(Instant.now(), dueTime).toNanos(), 0);
+        return new HookAttempt(attemptId, executorType, System.nanoTime() + delay);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(dueNanos, ((HookAttempt) other).dueNanos);
+    }
+}
@@ -0,0 +1,470 @@
+package com.adminplus.service.workflow.hook.engine;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.workflow.hook.BeanConfig;
+import com.adminplus.pojo.dto.workflow.hook.HookContext;
+import com.adminplus.pojo.dto.workflow.hook.HookExecutorConfig;
+import com.adminplus.pojo.dto.workflow.hook.HookResult;
+import com.adminplus.pojo.dto.workflow.hook.HttpConfig;
+import com.adminplus.pojo.dto.workflow.hook.SpELConfig;
+import com.adminplus.pojo.entity.WorkflowHookAttemptEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.pojo.entity.WorkflowNodeEntity;
+import com.adminplus.pojo.entity.WorkflowNodeHookEntity;
+import com.adminplus.repository.WorkflowHookAttemptRepository;
+import com.adminplus.repository.WorkflowInstanceRepository;
+import com.adminplus.repository.WorkflowNodeHookRepository;
+import com.adminplus.repository.WorkflowNodeRepository;
+import com.adminplus.service.workflow.hook.HookExecutor;
+import com.adminplus.service.workflow.hook.WorkflowHookLogWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 工作流钩子执行引擎
+ * <p>
+ * 阻塞型执行器（HTTP）每次执行先按 {@link HookExecutor#endpoint}（目标主机）申请熔断与并发许可，在虚拟线程上执行并按
+ * 钩子的 timeout_ms（为空时取 app.workflow-hook.default-timeout-ms）限时；spel/bean 没有远端依赖，
+ * 不经熔断与并发隔离（否则一个出错的钩子会熔断同类型的全部钩子，并发审批也会被并发上限拒绝），在调用线程上执行以保留事务上下文。
+ * </p>
+ * <p>
+ * 同步钩子：调用方需要结果，重试间隔由延迟执行器计时，调用线程（请求线程已是虚拟线程）等待期间挂起，不再 Thread.sleep。
+ * 异步钩子：在业务事务内写入 sys_workflow_hook_attempt，提交后放入 {@link DelayQueue}，调度线程取出到期项交给虚拟线程执行；
+ * 失败时更新记录的下次执行时间后重新入队，结束后删除记录并写执行日志。被熔断或并发已满拒绝的执行不计入重试次数。
+ * 记录带有节点租约，重启或宕机后租约过期的记录由 {@link #recover()} 接管。
+ * </p>
+ * <p>
+ * 指标：workflow.hook.execution（按 executor、outcome 的耗时）、workflow.hook.rejections（按 executor、reason）、
+ * workflow.hook.queue.depth（按 executor 的延迟队列长度）。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class HookExecutionEngine {
+
+    static final String TIMEOUT = "TIMEOUT";
+    static final String EXECUTION_ERROR = "EXECUTION_ERROR";
+
+    /**
+     * 视为端点故障、计入熔断的结果码（业务校验失败不计入）
+     */
+    private static final Set<String> ENDPOINT_FAILURE_CODES = Set.of("HTTP_ERROR", TIMEOUT, EXECUTION_ERROR);
+
+    private static final Set<String> REJECTION_CODES = Set.of(EndpointGuard.CIRCUIT_OPEN, EndpointGuard.BULKHEAD_FULL);
+
+    private static final String HOOK_SOURCE = "hook_table";
+
+    private final WorkflowHookAttemptRepository attemptRepository;
+    private final WorkflowNodeHookRepository hookRepository;
+    private final WorkflowInstanceRepository instanceRepository;
+    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowHookLogWriter logWriter;
+    private final JsonMapper objectMapper;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, HookExecutor> executors = new HashMap<>();
+    private final EndpointGuard guard;
+    private final DelayQueue<HookAttempt> queue = new DelayQueue<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("workflow-hook-", 0).factory());
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile Thread dispatcher;
+
+    public HookExecutionEngine(WorkflowHookAttemptRepository attemptRepository,
+                               WorkflowNodeHookRepository hookRepository,
+                               WorkflowInstanceRepository instanceRepository,
+                               WorkflowNodeRepository nodeRepository,
+                               WorkflowHookLogWriter logWriter,
+                               List<HookExecutor> executors,
+                               JsonMapper objectMapper,
+                               AppProperties appProperties,
+                               MeterRegistry meterRegistry) {
+        this.attemptRepository = attemptRepository;
+        this.hookRepository = hookRepository;
+        this.instanceRepository = instanceRepository;
+        this.nodeRepository = nodeRepository;
+        this.logWriter = logWriter;
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        this.meterRegistry = meterRegistry;
+
+        AppProperties.WorkflowHook config = appProperties.getWorkflowHook();
+        this.guard = new EndpointGuard(config.getBulkheadMaxConcurrent(), config.getCircuitFailureThreshold(),
+                config.getCircuitOpenMs(), System::currentTimeMillis);
+
+        for (HookExecutor executor : executors) {
+            String type = executor.getType();
+            this.executors.put(type, executor);
+            Gauge.builder("workflow.hook.queue.depth", queue,
+                            q -> q.stream().filter(attempt -> type.equals(attempt.executorType())).count())
+                    .description("等待执行或等待重试的异步钩子数")
+                    .tag("executor", type)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 启动调度线程，并接管租约已过期的记录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dispatcher = Thread.ofVirtual().name("workflow-hook-dispatcher").start(this::dispatch);
+        recover();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = dispatcher;
+        if (current != null) {
+            current.interrupt();
+        }
+        // 未执行完的记录保留在库中，租约过期后由存活节点接管
+        workers.shutdownNow();
+    }
+
+    /**
+     * 同步执行钩子（含重试）
+     */
+    public HookResult execute(WorkflowNodeHookEntity hook, HookExecutor executor,
+                              HookExecutorConfig config, HookContext context) {
+        long startTime = System.currentTimeMillis();
+        int attempts = 0;
+        HookResult result;
+
+        do {
+            if (attempts > 0) {
+                awaitRetry(hook.getRetryInterval());
+            }
+            attempts++;
+            result = attempt(executor, config, context, timeoutMillis(hook));
+        } while (!result.success() && attempts <= hook.getRetryCount());
+
+        return result
+            .withExecutionTime(System.currentTimeMillis() - startTime)
+            .withRetryAttempts(attempts - 1);
+    }
+
+    /**
+     * 提交异步钩子：在当前事务内持久化，提交后入队；无事务时立即入队
+     */
+    public void submit(WorkflowNodeHookEntity hook, HookContext context) {
+        Instant now = Instant.now();
+        WorkflowHookAttemptEntity attempt = new WorkflowHookAttemptEntity();
+        attempt.setHookId(hook.getId());
+        attempt.setExecutorType(hook.getExecutorType());
+        attempt.setInstanceId(context.instance().getId());
+        attempt.setNodeId(context.node() != null ? context.node().getId() : null);
+        attempt.setOperation(context.operation());
+        attempt.setOperatorId(context.operatorId());
+        attempt.setOperatorName(context.operatorName());
+        attempt.setFormData(writeJson(context.formData()));
+        attempt.setExtraParams(writeJson(context.extraParams()));
+        attempt.setNextAttemptTime(now);
+        attempt.setOwner(owner);
+        attempt.setLeaseUntil(now.plusMillis(leaseMillis()));
+        attemptRepository.save(attempt);
+
+        HookAttempt item = HookAttempt.at(attempt.getId(), hook.getExecutorType(), now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(item);
+                }
+            });
+        } else {
+            enqueue(item);
+        }
+    }
+
+    /**
+     * 接管租约已过期的记录（本节点重启前或其他节点宕机时留下的）
+     *
+     * @return 接管的记录数
+     */
+    public int recover() {
+        Instant now = Instant.now();
+        int batchSize = Math.max(appProperties.getWorkflowHook().getRecoveryBatchSize(), 1);
+        int claimed = 0;
+        for (WorkflowHookAttemptEntity row : attemptRepository.findLeaseExpired(now, PageRequest.of(0, batchSize))) {
+            if (queued.contains(row.getId())) {
+                continue;
+            }
+            Instant due = row.getNextAttemptTime().isAfter(now) ? row.getNextAttemptTime() : now;
+            if (attemptRepository.claim(row.getId(), owner, now, due.plusMillis(leaseMillis())) == 1) {
+                enqueue(HookAttempt.at(row.getId(), row.getExecutorType(), due));
+                claimed++;
+            }
+        }
+        if (claimed > 0) {
+            log.info("接管待执行的异步钩子: count={}", claimed);
+        }
+        return claimed;
+    }
+
+    /**
+     * 解析执行配置
+     */
+    public HookExecutorConfig parseConfig(WorkflowNodeHookEntity hook) {
+        try {
+            String executorConfig = hook.getExecutorConfig();
+            if (executorConfig == null || executorConfig.isBlank()) {
+                throw new IllegalArgumentException("执行配置为空");
+            }
+
+            // 根据 executorType 创建相应的配置对象
+            return switch (hook.getExecutorType()) {
+                case "spel" -> objectMapper.readValue(executorConfig, SpELConfig.class);
+                case "bean" -> objectMapper.readValue(executorConfig, BeanConfig.class);
+                case "http" -> objectMapper.readValue(executorConfig, HttpConfig.class);
+                default -> throw new IllegalArgumentException("未知的执行器类型: " + hook.getExecutorType());
+            };
+        } catch (Exception e) {
+            log.error("解析执行配置失败: executorConfig={}", hook.getExecutorConfig(), e);
+            throw new RuntimeException("解析执行配置失败", e);
+        }
+    }
+
+    /**
+     * 执行一次异步钩子，失败且未耗尽重试时重新入队
+     */
+    void run(String attemptId) {
+        WorkflowHookAttemptEntity row = attemptRepository.findById(attemptId).orElse(null);
+        if (row == null || attemptRepository.renew(attemptId, owner, Instant.now().plusMillis(leaseMillis())) == 0) {
+            // 已执行完毕或已被其他节点接管
+            return;
+        }
+
+        WorkflowNodeHookEntity hook = hookRepository.findById(row.getHookId()).orElse(null);
+        WorkflowInstanceEntity instance = instanceRepository.findById(row.getInstanceId()).orElse(null);
+        HookExecutor executor = hook != null ? executors.get(hook.getExecutorType()) : null;
+        if (hook == null || instance == null || executor == null) {
+            log.warn("异步钩子已失效，放弃执行: attemptId={}, hookId={}, instanceId={}",
+                    attemptId, row.getHookId(), row.getInstanceId());
+            attemptRepository.deleteAttempt(attemptId);
+            return;
+        }
+
+        WorkflowNodeEntity node = row.getNodeId() != null
+                ? nodeRepository.findById(row.getNodeId()).orElse(null)
+                : null;
+        HookContext context = new HookContext(instance, node, readJson(row.getFormData()), row.getOperation(),
+                row.getOperatorId(), row.getOperatorName(), readJson(row.getExtraParams()));
+
+        HookExecutorConfig config;
+        HookResult result;
+        try {
+            config = parseConfig(hook);
+            result = attempt(executor, config, context, timeoutMillis(hook));
+        } catch (RuntimeException e) {
+            config = null;
+            result = HookResult.fail(EXECUTION_ERROR, e.getMessage());
+        }
+
+        boolean rejected = REJECTION_CODES.contains(result.code());
+        int attempts = rejected ? row.getAttempts() : row.getAttempts() + 1;
+        if (!result.success() && config != null && (rejected || attempts <= hook.getRetryCount())) {
+            long delay = retryIntervalMillis(hook);
+            if (rejected) {
+                delay = Math.max(delay, guard.retryAfterMillis(executor.endpoint(config)));
+            }
+            Instant next = Instant.now().plusMillis(delay);
+            if (attemptRepository.reschedule(attemptId, owner, attempts, next,
+                    next.plusMillis(leaseMillis()), result.message()) == 1) {
+                enqueue(HookAttempt.at(attemptId, hook.getExecutorType(), next));
+            }
+            return;
+        }
+
+        attemptRepository.deleteAttempt(attemptId);
+        long executionTime = row.getCreateTime() != null
+                ? Duration.between(row.getCreateTime(), Instant.now()).toMillis()
+                : 0;
+        logWriter.write(hook, hook.getHookPoint(), HOOK_SOURCE,
+                hook.getExecutorType(), hook.getExecutorConfig(),
+                result.withExecutionTime(executionTime).withRetryAttempts(Math.max(attempts - 1, 0)),
+                context, true);
+    }
+
+    /**
+     * 执行一次：阻塞型执行器申请端点许可并限时执行，记录耗时与端点健康状态
+     */
+    private HookResult attempt(HookExecutor executor, HookExecutorConfig config, HookContext context, long timeoutMillis) {
+        String type = executor.getType();
+        EndpointGuard.Permit permit = executor.isBlocking() ? guard.acquire(executor.endpoint(config)) : null;
+        if (permit != null && !permit.admitted()) {
+            Counter.builder("workflow.hook.rejections")
+                    .description("因熔断或并发已满被拒绝的钩子执行次数")
+                    .tag("executor", type)
+                    .tag("reason", permit.rejection().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+            return HookResult.fail(permit.rejection(), EndpointGuard.CIRCUIT_OPEN.equals(permit.rejection())
+                    ? "目标端点连续失败，已暂停调用"
+                    : "目标端点并发调用已满");
+        }
+
+        long start = System.nanoTime();
+        HookResult result = null;
+        try {
+            result = executor.isBlocking()
+                    ? executeWithTimeout(executor, config, context, timeoutMillis)
+                    : executor.execute(config, context);
+        } catch (Exception e) {
+            log.error("钩子执行异常: executor={}", type, e);
+            result = HookResult.fail(EXECUTION_ERROR, e.getMessage());
+        } finally {
+            if (permit != null) {
+                permit.release(result != null && (result.success() || !ENDPOINT_FAILURE_CODES.contains(result.code())));
+            }
+        }
+
+        Timer.builder("workflow.hook.execution")
+                .description("钩子单次执行耗时")
+                .tag("executor", type)
+                .tag("outcome", result.success() ? "success" : TIMEOUT.equals(result.code()) ? "timeout" : "failure")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private HookResult executeWithTimeout(HookExecutor executor, HookExecutorConfig config,
+                                          HookContext context, long timeoutMillis) {
+        Future<HookResult> future = workers.submit(() -> executor.execute(config, context));
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return HookResult.fail(TIMEOUT, "执行超时（" + timeoutMillis + "ms）");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("钩子执行异常: executor={}", executor.getType(), cause);
+            return HookResult.fail(EXECUTION_ERROR, cause.getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return HookResult.fail(EXECUTION_ERROR, "执行被中断");
+        }
+    }
+
+    /**
+     * 等待重试间隔（由延迟执行器计时，等待线程挂起）
+     */
+    private void awaitRetry(Integer interval) {
+        if (interval == null || interval <= 0) {
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(() -> { },
+                    CompletableFuture.delayedExecutor(interval, TimeUnit.MILLISECONDS, workers)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            log.warn("等待钩子重试间隔失败", e);
+        }
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                HookAttempt item = queue.take();
+                queued.remove(item.attemptId());
+                workers.execute(() -> runSafely(item.attemptId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                // 应用关闭中
+                return;
+            }
+        }
+    }
+
+    private void runSafely(String attemptId) {
+        try {
+            run(attemptId);
+        } catch (Exception e) {
+            // 记录保留，租约过期后由恢复任务重新接管
+            log.error("异步钩子执行失败: attemptId={}", attemptId, e);
+        }
+    }
+
+    private void enqueue(HookAttempt item) {
+        if (queued.add(item.attemptId())) {
+            queue.put(item);
+        }
+    }
+
+    private long timeoutMillis(WorkflowNodeHookEntity hook) {
+        Integer timeout = hook.getTimeoutMs();
+        return timeout != null && timeout > 0 ? timeout : appProperties.getWorkflowHook().getDefaultTimeoutMs();
+    }
+
+    private long retryIntervalMillis(WorkflowNodeHookEntity hook) {
+        Integer interval = hook.getRetryInterval();
+        return interval != null && interval > 0 ? interval : 0;
+    }
+
+    private long leaseMillis() {
+        return appProperties.getWorkflowHook().getAttemptLeaseMs();
+    }
+
+    private String writeJson(Map<String, Object> value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            log.warn("序列化钩子上下文失败，异步执行时将为空", e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> readJson(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {});
+        } catch (Exception e) {
+            log.warn("反序列化钩子上下文失败", e);
+            return Map.of();
+        }
+    }
+}
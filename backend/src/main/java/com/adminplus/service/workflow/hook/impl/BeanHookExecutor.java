@@ -1,6 +1,7 @@
 package com.adminplus.service.workflow.hook.impl;
 
 import com.adminplus.common.exception.BizException;
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.BeanConfig;
 import com.adminplus.pojo.dto.workflow.hook.HookContext;
 import com.adminplus.pojo.dto.workflow.hook.HookExecutorConfig;
@@ -9,10 +10,7 @@ import com.adminplus.service.workflow.hook.HookExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationContext;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
@@ -33,6 +31,7 @@ import java.util.List;
 public class BeanHookExecutor implements HookExecutor {
 
     private final ApplicationContext applicationContext;
+    private final SpelExpressionEngine expressionEngine;
 
     @Override
     public HookResult execute(HookExecutorConfig config, HookContext context) {
@@ -81,18 +80,10 @@ public class BeanHookExecutor implements HookExecutor {
     }
 
     private Object[] resolveArgs(List<String> argExpressions, HookContext context) {
-        ExpressionParser parser = new SpelExpressionParser();
-        StandardEvaluationContext evalContext = new StandardEvaluationContext();
-        evalContext.setVariable("instance", context.instance());
-        evalContext.setVariable("node", context.node());
-        evalContext.setVariable("formData", context.formData());
-        evalContext.setVariable("operation", context.operation());
-        evalContext.setVariable("operatorId", context.operatorId());
-        evalContext.setVariable("operatorName", context.operatorName());
-        evalContext.setVariable("extraParams", context.extraParams());
+        EvaluationContext evalContext = expressionEngine.standardContext(context.toVariables());
 
         return argExpressions.stream()
-            .map(expr -> parser.parseExpression(expr).getValue(evalContext))
+            .map(expr -> expressionEngine.evaluate(expr, evalContext, null))
             .toArray();
     }
 
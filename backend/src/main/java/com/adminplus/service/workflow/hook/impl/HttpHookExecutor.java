@@ -94,6 +94,25 @@ public class HttpHookExecutor implements HookExecutor {
         return "http";
     }
 
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    /**
+     * 按 scheme://host:port 区分端点，同一服务的不同路径共享熔断状态
+     */
+    @Override
+    public String endpoint(HookExecutorConfig config) {
+        String url = ((HttpConfig) config).url();
+        try {
+            URI uri = URI.create(url);
+            return "http:" + uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+        } catch (Exception e) {
+            return "http:" + url;
+        }
+    }
+
     private String buildRequestBody(String template, HookContext context) {
         if (template == null || template.isBlank()) {
             return "{}";
@@ -1,48 +1,40 @@
 package com.adminplus.service.workflow.hook.impl;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.HookContext;
 import com.adminplus.pojo.dto.workflow.hook.HookExecutorConfig;
 import com.adminplus.pojo.dto.workflow.hook.HookResult;
 import com.adminplus.pojo.dto.workflow.hook.SpELConfig;
 import com.adminplus.service.workflow.hook.HookExecutor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.stereotype.Component;
 
 /**
  * SpEL 钩子执行器
  * <p>
- * 支持在钩子中使用 SpEL 表达式进行校验和执行
+ * 支持在钩子中使用 SpEL 表达式进行校验和执行，表达式经 {@link SpelExpressionEngine} 缓存与编译
  * </p>
  *
  * @author AdminPlus
  * @since 2026-04-02
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class SpELHookExecutor implements HookExecutor {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelExpressionEngine expressionEngine;
 
     @Override
     public HookResult execute(HookExecutorConfig config, HookContext context) {
         SpELConfig spelConfig = (SpELConfig) config;
 
-        StandardEvaluationContext evalContext = new StandardEvaluationContext();
-        evalContext.setVariable("instance", context.instance());
-        evalContext.setVariable("node", context.node());
-        evalContext.setVariable("formData", context.formData());
-        evalContext.setVariable("operation", context.operation());
-        evalContext.setVariable("operatorId", context.operatorId());
-        evalContext.setVariable("operatorName", context.operatorName());
-        evalContext.setVariable("extraParams", context.extraParams());
+        EvaluationContext evalContext = expressionEngine.standardContext(context.toVariables());
 
         try {
-            Expression expr = parser.parseExpression(spelConfig.expression());
-            Object result = expr.getValue(evalContext);
+            Object result = expressionEngine.evaluate(spelConfig.expression(), evalContext, null);
 
             if (result instanceof HookResult hookResult) {
                 return hookResult;
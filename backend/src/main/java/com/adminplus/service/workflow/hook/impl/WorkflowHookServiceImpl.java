@@ -1,34 +1,31 @@
 package com.adminplus.service.workflow.hook.impl;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.*;
-import com.adminplus.pojo.entity.WorkflowHookLogEntity;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.pojo.entity.WorkflowNodeHookEntity;
-import com.adminplus.repository.WorkflowHookLogRepository;
 import com.adminplus.repository.WorkflowNodeHookRepository;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
 import com.adminplus.service.workflow.hook.HookExecutor;
+import com.adminplus.service.workflow.hook.WorkflowHookLogWriter;
 import com.adminplus.service.workflow.hook.WorkflowHookService;
+import com.adminplus.service.workflow.hook.engine.HookExecutionEngine;
 import com.adminplus.utils.SecurityUtils;
-import tools.jackson.databind.json.JsonMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
  * 工作流钩子服务实现
+ * <p>
+ * 表钩子的执行、重试、超时、熔断与异步调度由 {@link HookExecutionEngine} 负责
+ * </p>
  *
  * @author AdminPlus
  * @since 2026-04-02
@@ -39,10 +36,10 @@ import java.util.stream.Stream;
 public class WorkflowHookServiceImpl implements WorkflowHookService {
 
     private final WorkflowNodeHookRepository hookRepository;
-    private final WorkflowHookLogRepository hookLogRepository;
+    private final WorkflowHookLogWriter hookLogWriter;
     private final Map<String, HookExecutor> executors;
-    private final JsonMapper objectMapper;
-    private final ThreadPoolTaskExecutor asyncExecutor;
+    private final HookExecutionEngine executionEngine;
+    private final SpelExpressionEngine expressionEngine;
 
     // 钩子点类型映射
     private static final Set<String> VALIDATION_HOOKS = Set.of(
@@ -50,24 +47,6 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
         "PRE_CANCEL", "PRE_WITHDRAW", "PRE_ADD_SIGN"
     );
 
-    // 节点字段名映射
-    private static final Map<String, String> NODE_FIELD_MAPPING = Map.ofEntries(
-        Map.entry("PRE_SUBMIT", "preSubmitValidate"),
-        Map.entry("PRE_APPROVE", "preApproveValidate"),
-        Map.entry("PRE_REJECT", "preRejectValidate"),
-        Map.entry("PRE_ROLLBACK", "preRollbackValidate"),
-        Map.entry("PRE_CANCEL", "preCancelValidate"),
-        Map.entry("PRE_WITHDRAW", "preWithdrawValidate"),
-        Map.entry("PRE_ADD_SIGN", "preAddSignValidate"),
-        Map.entry("POST_SUBMIT", "postSubmitAction"),
-        Map.entry("POST_APPROVE", "postApproveAction"),
-        Map.entry("POST_REJECT", "postRejectAction"),
-        Map.entry("POST_ROLLBACK", "postRollbackAction"),
-        Map.entry("POST_CANCEL", "postCancelAction"),
-        Map.entry("POST_WITHDRAW", "postWithdrawAction"),
-        Map.entry("POST_ADD_SIGN", "postAddSignAction")
-    );
-
     @Override
     public List<HookResult> executeNodeFieldHooks(
         String hookPoint,
@@ -188,13 +167,13 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
             return results;
         }
 
-        String fieldName = NODE_FIELD_MAPPING.get(hookPoint);
-        if (fieldName == null) {
+        Function<WorkflowNodeEntity, String> field = WorkflowDefinitionGraph.FIELD_HOOKS.get(hookPoint);
+        if (field == null) {
             return results;
         }
 
         try {
-            String expression = getFieldValue(context.node(), fieldName);
+            String expression = field.apply(context.node());
             if (expression == null || expression.isBlank()) {
                 return results;
             }
@@ -237,20 +216,15 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
                 continue;
             }
 
-            HookExecutorConfig config = parseConfig(hook);
+            HookExecutorConfig config = executionEngine.parseConfig(hook);
 
             if (hook.getAsyncExecution()) {
-                // 异步执行
-                asyncExecutor.execute(() -> {
-                    HookResult result = executeWithRetry(executor, config, context, hook);
-                    saveLog(hook, hook.getHookPoint(), "hook_table",
-                        hook.getExecutorType(), hook.getExecutorConfig(),
-                        result, context, true);
-                });
+                // 异步执行：持久化后由执行引擎调度，结果与日志由引擎写入
+                executionEngine.submit(hook, context);
                 results.add(new HookResult(true, "ASYNC_EXECUTING", "异步执行中"));
             } else {
                 // 同步执行
-                HookResult result = executeWithRetry(executor, config, context, hook);
+                HookResult result = executionEngine.execute(hook, executor, config, context);
                 results.add(result);
                 saveLog(hook, hook.getHookPoint(), "hook_table",
                     hook.getExecutorType(), hook.getExecutorConfig(),
@@ -262,38 +236,7 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
     }
 
     /**
-     * 带重试的执行
-     */
-    private HookResult executeWithRetry(
-        HookExecutor executor,
-        HookExecutorConfig config,
-        HookContext context,
-        WorkflowNodeHookEntity hook
-    ) {
-        int attempts = 0;
-        HookResult result;
-        long startTime = System.currentTimeMillis();
-
-        do {
-            attempts++;
-            result = executor.execute(config, context);
-
-            if (result.success()) {
-                break;
-            }
-
-            if (attempts <= hook.getRetryCount()) {
-                sleep(hook.getRetryInterval());
-            }
-        } while (attempts <= hook.getRetryCount() && !result.success());
-
-        return result
-            .withExecutionTime(System.currentTimeMillis() - startTime)
-            .withRetryAttempts(attempts - 1);
-    }
-
-    /**
-     * 评估条件表达式
+     * 评估条件表达式（只读上下文，可访问 #instance、#node、#formData、#operation）
      */
     private boolean evaluateCondition(String conditionExpression, HookContext context) {
         if (conditionExpression == null || conditionExpression.isBlank()) {
@@ -301,15 +244,14 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
         }
 
         try {
-            ExpressionParser parser = new SpelExpressionParser();
-            StandardEvaluationContext evalContext = new StandardEvaluationContext();
-            evalContext.setVariable("instance", context.instance());
-            evalContext.setVariable("node", context.node());
-            evalContext.setVariable("formData", context.formData());
-            evalContext.setVariable("operation", context.operation());
-
-            Expression expr = parser.parseExpression(conditionExpression);
-            Boolean result = expr.getValue(evalContext, Boolean.class);
+            Map<String, Object> variables = new HashMap<>(4);
+            variables.put("instance", context.instance());
+            variables.put("node", context.node());
+            variables.put("formData", context.formData());
+            variables.put("operation", context.operation());
+
+            Boolean result = expressionEngine.evaluate(conditionExpression,
+                expressionEngine.conditionContext(variables), Boolean.class);
             return Boolean.TRUE.equals(result);
         } catch (Exception e) {
             log.warn("条件表达式求值失败: {}", conditionExpression, e);
@@ -324,66 +266,7 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
                          String hookSource, String executorType,
                          String executorConfig, HookResult result,
                          HookContext context, boolean async) {
-        try {
-            WorkflowHookLogEntity log = new WorkflowHookLogEntity();
-            log.setInstanceId(context.instance().getId());
-            log.setNodeId(context.node() != null ? context.node().getId() : null);
-            log.setHookId(hook != null ? hook.getId() : null);
-            log.setHookSource(hookSource);
-            log.setHookPoint(hookPoint);
-            log.setExecutorType(executorType);
-            log.setExecutorConfig(executorConfig);
-            log.setSuccess(result.success());
-            log.setResultCode(result.code());
-            log.setResultMessage(result.message());
-            log.setExecutionTime(result.executionTime());
-            log.setRetryAttempts(result.retryAttempts());
-            log.setAsync(async);
-            log.setOperatorId(context.operatorId());
-            log.setOperatorName(context.operatorName());
-
-            hookLogRepository.save(log);
-        } catch (Exception e) {
-            log.error("保存钩子日志失败: hookPoint={}", hookPoint, e);
-        }
-    }
-
-    /**
-     * 解析配置
-     */
-    private HookExecutorConfig parseConfig(WorkflowNodeHookEntity hook) {
-        try {
-            String executorConfig = hook.getExecutorConfig();
-            if (executorConfig == null || executorConfig.isBlank()) {
-                throw new IllegalArgumentException("执行配置为空");
-            }
-
-            // 根据 executorType 创建相应的配置对象
-            return switch (hook.getExecutorType()) {
-                case "spel" -> objectMapper.readValue(executorConfig, SpELConfig.class);
-                case "bean" -> objectMapper.readValue(executorConfig, BeanConfig.class);
-                case "http" -> objectMapper.readValue(executorConfig, HttpConfig.class);
-                default -> throw new IllegalArgumentException("未知的执行器类型: " + hook.getExecutorType());
-            };
-        } catch (Exception e) {
-            log.error("解析执行配置失败: executorConfig={}", hook.getExecutorConfig(), e);
-            throw new RuntimeException("解析执行配置失败", e);
-        }
-    }
-
-    /**
-     * 获取字段值（通过反射）
-     */
-    private String getFieldValue(WorkflowNodeEntity node, String fieldName) {
-        try {
-            Field field = WorkflowNodeEntity.class.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            Object value = field.get(node);
-            return value != null ? value.toString() : null;
-        } catch (Exception e) {
-            log.warn("获取字段值失败: fieldName={}", fieldName, e);
-            return null;
-        }
+        hookLogWriter.write(hook, hookPoint, hookSource, executorType, executorConfig, result, context, async);
     }
 
     private boolean isValidationHook(String hookPoint) {
@@ -394,16 +277,6 @@ public class WorkflowHookServiceImpl implements WorkflowHookService {
         return hookPoint.replace("PRE_", "").replace("POST_", "");
     }
 
-    private void sleep(Integer interval) {
-        if (interval != null && interval > 0) {
-            try {
-                Thread.sleep(interval);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
     private String getCurrentUserId() {
         return SecurityUtils.getCurrentUserIdOrDefault();
     }
@@ -17,9 +17,10 @@ import com.adminplus.repository.UserRepository;
 import com.adminplus.repository.WorkflowAddSignRepository;
 import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.workflow.WorkflowAddSignService;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
 import com.adminplus.service.workflow.hook.WorkflowHookService;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.SecurityUtils;
 import com.adminplus.utils.ServiceAssert;
@@ -51,7 +52,8 @@ public class WorkflowAddSignServiceImpl implements WorkflowAddSignService {
 
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
+    private final WorkflowInbox inbox;
     private final WorkflowAddSignRepository addSignRepository;
     private final UserRepository userRepository;
     private final WorkflowHookService hookService;
@@ -74,7 +76,7 @@ public class WorkflowAddSignServiceImpl implements WorkflowAddSignService {
 
         // 获取当前节点
         WorkflowNodeEntity currentNode = EntityHelper.findByIdOrThrow(
-            nodeRepository::findById, instance.getCurrentNodeId(), "当前节点不存在");
+            definitionGraphCache.get(instance.getDefinitionId())::node, instance.getCurrentNodeId(), "当前节点不存在");
 
         // 获取当前用户的审批记录
         WorkflowApprovalEntity myApproval = approvalRepository
@@ -107,6 +109,7 @@ public class WorkflowAddSignServiceImpl implements WorkflowAddSignService {
         // 处理转办
         if (request.addType() == AddSignRequest.AddSignType.TRANSFER) {
             WorkflowAddSignResponse result = handleTransfer(instance, currentNode, myApproval, addUser, initiator, request);
+            inbox.refresh(instance);
 
             // 加签后钩子执行
             HookExecutionSummary postResult = hookService.executeAllHooks(
@@ -123,6 +126,7 @@ public class WorkflowAddSignServiceImpl implements WorkflowAddSignService {
 
         // 处理加签（前加签、后加签）
         WorkflowAddSignResponse result = handleAddSign(instance, currentNode, myApproval, addUser, initiator, request);
+        inbox.refresh(instance);
 
         // 加签后钩子执行
         HookExecutionSummary postResult = hookService.executeAllHooks(
@@ -18,22 +18,27 @@ import com.adminplus.repository.UserRepository;
 import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowCcRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.workflow.WorkflowApprovalService;
 import com.adminplus.service.workflow.WorkflowApproverResolver;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
 import com.adminplus.service.workflow.hook.WorkflowHookService;
+import com.adminplus.service.workflow.fanout.WorkflowNotificationEvent;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.SecurityUtils;
 import com.adminplus.utils.ServiceAssert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,13 +57,15 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
 
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
     private final WorkflowCcRepository ccRepository;
     private final UserRepository userRepository;
     private final WorkflowApproverResolver approverResolver;
     private final WorkflowHookService hookService;
+    private final WorkflowInbox inbox;
     private final ConversionService conversionService;
     private final JsonMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -67,7 +74,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         log.info("提交工作流: instanceId={}, userId={}", instanceId, userId);
 
         WorkflowInstanceEntity instance = EntityHelper.findByIdOrThrow(
-            instanceRepository::findById, instanceId, "工作流实例不存在");
+            instanceRepository::findByIdForUpdate, instanceId, "工作流实例不存在");
 
         ServiceAssert.isTrue(instance.isDraft() || instance.isRunning(), "只有草稿或进行中的工作流可以提交");
 
@@ -83,12 +90,11 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         instance.setSubmitTime(Instant.now());
 
         // 获取工作流定义的第一个节点
-        List<WorkflowNodeEntity> nodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(instance.getDefinitionId());
+        WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
 
-        ServiceAssert.isTrue(!nodes.isEmpty(), "工作流没有配置审批节点");
+        ServiceAssert.isTrue(!graph.isEmpty(), "工作流没有配置审批节点");
 
-        WorkflowNodeEntity firstNode = nodes.get(0);
+        WorkflowNodeEntity firstNode = graph.first().orElseThrow();
 
         // 提交前钩子校验
         HookExecutionSummary preResult = hookService.executeAllHooks(
@@ -109,6 +115,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
 
         // 创建审批记录
         createApprovalRecords(instance, firstNode);
+        inbox.refresh(instance);
 
         // 创建抄送记录（流程发起时抄送）
         createCcRecords(instance, firstNode, "start", instance.getRemark());
@@ -152,7 +159,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         log.info("取消工作流: instanceId={}, userId={}", instanceId, userId);
 
         WorkflowInstanceEntity instance = EntityHelper.findByIdOrThrow(
-            instanceRepository::findById, instanceId, "工作流实例不存在");
+            instanceRepository::findByIdForUpdate, instanceId, "工作流实例不存在");
 
         ServiceAssert.isTrue(instance.isCancellable(), "当前状态不允许取消");
 
@@ -161,7 +168,8 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         // 取消前钩子校验
         WorkflowNodeEntity currentNode = null;
         if (instance.getCurrentNodeId() != null) {
-            currentNode = nodeRepository.findById(instance.getCurrentNodeId()).orElse(null);
+            currentNode = definitionGraphCache.get(instance.getDefinitionId())
+                    .node(instance.getCurrentNodeId()).orElse(null);
         }
 
         HookExecutionSummary preResult = hookService.executeAllHooks(
@@ -178,6 +186,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         instance.setStatus(WorkflowStatus.CANCELLED.getCode());
         instance.setFinishTime(Instant.now());
         instanceRepository.save(instance);
+        inbox.refresh(instance);
 
         // 取消后钩子执行
         HookExecutionSummary postResult = hookService.executeAllHooks(
@@ -216,7 +225,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         log.info("撤回工作流: instanceId={}, userId={}", instanceId, userId);
 
         WorkflowInstanceEntity instance = EntityHelper.findByIdOrThrow(
-            instanceRepository::findById, instanceId, "工作流实例不存在");
+            instanceRepository::findByIdForUpdate, instanceId, "工作流实例不存在");
 
         ServiceAssert.isTrue(instance.getUserId().equals(userId), "只有发起人可以撤回工作流");
 
@@ -225,7 +234,8 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         // 撤回前钩子校验
         WorkflowNodeEntity currentNode = null;
         if (instance.getCurrentNodeId() != null) {
-            currentNode = nodeRepository.findById(instance.getCurrentNodeId()).orElse(null);
+            currentNode = definitionGraphCache.get(instance.getDefinitionId())
+                    .node(instance.getCurrentNodeId()).orElse(null);
         }
 
         HookExecutionSummary preResult = hookService.executeAllHooks(
@@ -241,10 +251,8 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
 
         // 删除所有审批记录
         List<WorkflowApprovalEntity> approvals = approvalRepository.findByInstanceIdAndDeletedFalseOrderByCreateTimeAsc(instanceId);
-        approvals.forEach(a -> {
-            a.setDeleted(true);
-            approvalRepository.save(a);
-        });
+        approvals.forEach(a -> a.setDeleted(true));
+        approvalRepository.saveAll(approvals);
 
         // 重置为草稿
         instance.setStatus(WorkflowStatus.DRAFT.getCode());
@@ -252,6 +260,7 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
         instance.setCurrentNodeName(null);
         instance.setSubmitTime(null);
         instanceRepository.save(instance);
+        inbox.refresh(instance);
 
         // 撤回后钩子执行
         HookExecutionSummary postResult = hookService.executeAllHooks(
@@ -275,38 +284,57 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
             userRepository::findById, userId, "用户不存在");
 
         WorkflowInstanceEntity instance = EntityHelper.findByIdOrThrow(
-            instanceRepository::findById, instanceId, "工作流实例不存在");
+            instanceRepository::findByIdForUpdate, instanceId, "工作流实例不存在");
 
         ServiceAssert.isTrue(instance.isRunning(), "只有进行中的工作流可以审批");
 
-        // 查询当前节点的待审批记录
-        List<WorkflowApprovalEntity> pendingApprovals = approvalRepository
-                .findByInstanceIdAndNodeIdAndDeletedFalse(instanceId, instance.getCurrentNodeId())
-                .stream()
+        List<WorkflowApprovalEntity> nodeApprovals = approvalRepository
+                .findByInstanceIdAndNodeIdAndDeletedFalse(instanceId, instance.getCurrentNodeId());
+        ApprovalOutcome outcome = applyApproval(instance, nodeApprovals, user, request, action, true);
+        executePostHooks(outcome, request);
+
+        instance = instanceRepository.save(instance);
+        inbox.refresh(instance);
+        return toInstanceResponse(instance, false, canUserApprove(instance, userId));
+    }
+
+    @Override
+    public ApprovalOutcome applyApproval(WorkflowInstanceEntity instance, List<WorkflowApprovalEntity> nodeApprovals,
+                                         UserEntity user, ApprovalActionRequest request, String action,
+                                         boolean runPreHooks) {
+        String instanceId = instance.getId();
+        ServiceAssert.isTrue(instance.isRunning(), "只有进行中的工作流可以审批");
+
+        // 当前节点的待审批记录
+        List<WorkflowApprovalEntity> pendingApprovals = nodeApprovals.stream()
+                .filter(a -> a.getNodeId().equals(instance.getCurrentNodeId()))
                 .filter(WorkflowApprovalEntity::isPending)
                 .collect(Collectors.toList());
 
         // 查找当前用户的审批记录
         WorkflowApprovalEntity myApproval = pendingApprovals.stream()
-                .filter(a -> a.getApproverId().equals(userId))
+                .filter(a -> a.getApproverId().equals(user.getId()))
                 .findFirst()
                 .orElseThrow(() -> new BizException("您没有权限审批此工作流"));
 
         // 查询当前节点
+        WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
         WorkflowNodeEntity currentNode = EntityHelper.findByIdOrThrow(
-            nodeRepository::findById, instance.getCurrentNodeId(), "当前节点不存在");
+            graph::node, instance.getCurrentNodeId(), "当前节点不存在");
 
         // 审批前钩子校验
-        String hookPoint = action.equals("approved") ? "PRE_APPROVE" : "PRE_REJECT";
-        HookExecutionSummary preResult = hookService.executeAllHooks(
-            hookPoint, instance, currentNode,
-            deserializeFormData(instance.getBusinessData()),
-            Map.of("request", request, "action", action)
-        );
+        if (runPreHooks) {
+            String hookPoint = action.equals("approved") ? "PRE_APPROVE" : "PRE_REJECT";
+            HookExecutionSummary preResult = hookService.executeAllHooks(
+                hookPoint, instance, currentNode,
+                deserializeFormData(instance.getBusinessData()),
+                Map.of("request", request, "action", action)
+            );
 
-        if (!preResult.allPassed()) {
-            throw new BizException(400,
-                preResult.blockingMessages().isEmpty() ? "审批前校验失败" : preResult.blockingMessages().get(0));
+            if (!preResult.allPassed()) {
+                throw new BizException(400,
+                    preResult.blockingMessages().isEmpty() ? "审批前校验失败" : preResult.blockingMessages().get(0));
+            }
         }
 
         // 更新审批记录
@@ -326,64 +354,51 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
 
             // 创建抄送记录（拒绝时抄送）
             createCcRecords(instance, currentNode, "reject", request.comment());
+            return new ApprovalOutcome(instance, currentNode, "POST_REJECT");
+        }
 
-            // 拒绝后钩子执行
-            HookExecutionSummary postResult = hookService.executeAllHooks(
-                "POST_REJECT", instance, currentNode,
-                deserializeFormData(instance.getBusinessData()),
-                Map.of("request", request)
-            );
-            if (!postResult.warningMessages().isEmpty()) {
-                log.warn("拒绝后钩子警告: {}", postResult.warningMessages());
-            }
-        } else {
-            // 同意，检查是否所有人都已审批
-            boolean allApproved = pendingApprovals.stream()
-                    .allMatch(WorkflowApprovalEntity::isApproved);
-
-            if (allApproved) {
-                // 当前节点所有审批人都已同意，流转到下一节点
-                moveToNextNode(instance);
-
-                // 创建抄送记录（审批通过时抄送）
-                createCcRecords(instance, currentNode, "approve", request.comment());
-
-                // 同意后钩子执行
-                HookExecutionSummary postResult = hookService.executeAllHooks(
-                    "POST_APPROVE", instance, currentNode,
-                    deserializeFormData(instance.getBusinessData()),
-                    Map.of("request", request)
-                );
-                if (!postResult.warningMessages().isEmpty()) {
-                    log.warn("同意后钩子警告: {}", postResult.warningMessages());
-                }
-            } else {
-                log.info("等待其他审批人审批: instanceId={}", instanceId);
-            }
+        // 同意，检查是否所有人都已审批
+        boolean allApproved = pendingApprovals.stream()
+                .allMatch(WorkflowApprovalEntity::isApproved);
+
+        if (!allApproved) {
+            log.info("等待其他审批人审批: instanceId={}", instanceId);
+            return new ApprovalOutcome(instance, currentNode, null);
         }
 
-        instance = instanceRepository.save(instance);
-        return toInstanceResponse(instance, false, canUserApprove(instance, userId));
+        // 当前节点所有审批人都已同意，流转到下一节点
+        moveToNextNode(instance, graph);
+
+        // 创建抄送记录（审批通过时抄送）
+        createCcRecords(instance, currentNode, "approve", request.comment());
+        return new ApprovalOutcome(instance, currentNode, "POST_APPROVE");
+    }
+
+    @Override
+    public void executePostHooks(ApprovalOutcome outcome, ApprovalActionRequest request) {
+        if (outcome.postHookPoint() == null) {
+            return;
+        }
+        WorkflowInstanceEntity instance = outcome.instance();
+        HookExecutionSummary postResult = hookService.executeAllHooks(
+            outcome.postHookPoint(), instance, outcome.node(),
+            deserializeFormData(instance.getBusinessData()),
+            Map.of("request", request)
+        );
+        if (!postResult.warningMessages().isEmpty()) {
+            log.warn("{}钩子警告: {}", "POST_REJECT".equals(outcome.postHookPoint()) ? "拒绝后" : "同意后",
+                    postResult.warningMessages());
+        }
     }
 
     /**
      * 流转到下一节点
      */
-    private void moveToNextNode(WorkflowInstanceEntity instance) {
-        List<WorkflowNodeEntity> nodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(instance.getDefinitionId());
-
-        int currentIndex = -1;
-        for (int i = 0; i < nodes.size(); i++) {
-            if (nodes.get(i).getId().equals(instance.getCurrentNodeId())) {
-                currentIndex = i;
-                break;
-            }
-        }
+    private void moveToNextNode(WorkflowInstanceEntity instance, WorkflowDefinitionGraph graph) {
+        WorkflowNodeEntity nextNode = graph.next(instance.getCurrentNodeId()).orElse(null);
 
-        if (currentIndex >= 0 && currentIndex < nodes.size() - 1) {
+        if (nextNode != null) {
             // 有下一节点
-            WorkflowNodeEntity nextNode = nodes.get(currentIndex + 1);
             instance.setCurrentNodeId(nextNode.getId());
             instance.setCurrentNodeName(nextNode.getNodeName());
 
@@ -406,11 +421,13 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
      * 创建审批记录
      */
     private void createApprovalRecords(WorkflowInstanceEntity instance, WorkflowNodeEntity node) {
-        List<String> approverIds = approverResolver.resolveApprovers(instance, node);
+        // 角色/部门展开可能产生重复用户，(实例, 节点, 审批人) 有唯一约束，先去重
+        List<String> approverIds = List.copyOf(new LinkedHashSet<>(approverResolver.resolveApprovers(instance, node)));
 
         // Batch fetch approver names to avoid N+1 queries
         Map<String, String> approverNames = approverResolver.batchGetApproverNames(approverIds);
 
+        List<WorkflowApprovalEntity> approvals = new ArrayList<>(approverIds.size());
         for (String approverId : approverIds) {
             WorkflowApprovalEntity approval = new WorkflowApprovalEntity();
             approval.setInstanceId(instance.getId());
@@ -427,8 +444,10 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
                 approval.setApprovalTime(Instant.now());
             }
 
-            approvalRepository.save(approval);
+            approvals.add(approval);
         }
+        // 一次提交整批实体，ID 在 @PrePersist 中生成，刷新时按 hibernate.jdbc.batch_size 合并为批量 INSERT
+        approvalRepository.saveAll(approvals);
 
         log.info("创建审批记录: instanceId={}, nodeId={}, approverCount={}", instance.getId(), node.getId(), approverIds.size());
     }
@@ -443,46 +462,18 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
      */
     private void createCcRecords(WorkflowInstanceEntity instance, WorkflowNodeEntity node, String ccType, String ccContent) {
         try {
-            // 解析节点配置的抄送用户ID列表
-            Set<String> ccUserIds = new HashSet<>();
-
-            // 1. 从节点的 ccUserIds 字段解析
-            if (node.getCcUserIds() != null && !node.getCcUserIds().isEmpty()) {
-                // 假设存储格式为 JSON 数组字符串: ["user1", "user2"]
-                String userIdsStr = node.getCcUserIds().trim();
-                if (userIdsStr.startsWith("[") && userIdsStr.endsWith("]")) {
-                    userIdsStr = userIdsStr.substring(1, userIdsStr.length() - 1);
-                    String[] userIds = userIdsStr.split(",");
-                    for (String uid : userIds) {
-                        uid = uid.trim().replace("\"", "").replace("'", "");
-                        if (!uid.isEmpty()) {
-                            ccUserIds.add(uid);
-                        }
-                    }
-                }
-            }
-
-            // 2. 从节点的 ccRoleIds 字段解析角色，获取该角色的所有用户
-            if (node.getCcRoleIds() != null && !node.getCcRoleIds().isEmpty()) {
-                String roleIdsStr = node.getCcRoleIds().trim();
-                if (roleIdsStr.startsWith("[") && roleIdsStr.endsWith("]")) {
-                    roleIdsStr = roleIdsStr.substring(1, roleIdsStr.length() - 1);
-                    String[] roleIds = roleIdsStr.split(",");
-                    for (String rid : roleIds) {
-                        rid = rid.trim().replace("\"", "").replace("'", "");
-                        if (!rid.isEmpty()) {
-                            // TODO: 需要UserRoleRepository来获取角色对应的用户
-                            // 这里暂时跳过，因为WorkflowApproverResolver没有这个方法
-                            log.warn("解析角色抄送人暂未实现: roleId={}", rid);
-                        }
-                    }
-                }
-            }
+            // 节点的抄送用户/角色在编译定义图时已解析
+            WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
+            // 抄送角色一次查询展开为成员，与抄送用户合并去重
+            Set<String> ccUserIdSet = new LinkedHashSet<>(graph.ccUserIds(node.getId()));
+            ccUserIdSet.addAll(approverResolver.resolveRoleMembers(graph.ccRoleIds(node.getId())));
+            List<String> ccUserIds = new ArrayList<>(ccUserIdSet);
 
             // 创建抄送记录
             // Batch fetch user names to avoid N+1 queries
-            Map<String, String> userNames = approverResolver.batchGetApproverNames(List.copyOf(ccUserIds));
+            Map<String, String> userNames = approverResolver.batchGetApproverNames(ccUserIds);
 
+            List<WorkflowCcEntity> ccList = new ArrayList<>(ccUserIds.size());
             for (String ccUserId : ccUserIds) {
                 WorkflowCcEntity cc = new WorkflowCcEntity();
                 cc.setInstanceId(instance.getId());
@@ -494,12 +485,16 @@ public class WorkflowApprovalServiceImpl implements WorkflowApprovalService {
                 cc.setIsRead(false);
                 cc.setUserName(userNames.get(ccUserId));
 
-                ccRepository.save(cc);
+                ccList.add(cc);
             }
+            ccRepository.saveAll(ccList);
 
             if (!ccUserIds.isEmpty()) {
                 log.info("创建抄送记录: instanceId={}, node={}, ccType={}, ccCount={}",
                         instance.getId(), node.getNodeName(), ccType, ccUserIds.size());
+                // 抄送通知在事务提交后异步分批写入
+                eventPublisher.publishEvent(new WorkflowNotificationEvent("workflow_cc", ccUserIds,
+                        "抄送通知", "您被抄送了流程【" + instance.getTitle() + "】", instance.getId()));
             }
         } catch (Exception e) {
             log.error("创建抄送记录失败: instanceId={}, node={}", instance.getId(), node.getNodeName(), e);
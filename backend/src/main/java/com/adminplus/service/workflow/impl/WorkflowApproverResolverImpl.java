@@ -107,6 +107,18 @@ public class WorkflowApproverResolverImpl implements WorkflowApproverResolver {
         return approvers;
     }
 
+    @Override
+    public List<String> resolveRoleMembers(List<String> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return List.of();
+        }
+
+        return userRoleRepository.findByRoleIdIn(roleIds).stream()
+                .map(UserRoleEntity::getUserId)
+                .distinct()
+                .toList();
+    }
+
     @Override
     public Map<String, String> batchGetApproverNames(List<String> userIds) {
         if (userIds == null || userIds.isEmpty()) {
@@ -0,0 +1,202 @@
+package com.adminplus.service.workflow.impl;
+
+import com.adminplus.common.exception.BizException;
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.request.ApprovalActionRequest;
+import com.adminplus.pojo.dto.request.BulkApprovalRequest;
+import com.adminplus.pojo.dto.response.BulkApprovalResultResponse;
+import com.adminplus.pojo.dto.response.BulkApprovalResultResponse.ItemResult;
+import com.adminplus.pojo.entity.UserEntity;
+import com.adminplus.pojo.entity.WorkflowApprovalEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.repository.UserRepository;
+import com.adminplus.repository.WorkflowApprovalRepository;
+import com.adminplus.repository.WorkflowInstanceRepository;
+import com.adminplus.service.workflow.WorkflowApprovalService;
+import com.adminplus.service.workflow.WorkflowApprovalService.ApprovalOutcome;
+import com.adminplus.service.workflow.WorkflowBulkApprovalService;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
+import com.adminplus.utils.EntityHelper;
+import com.adminplus.utils.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * 工作流批量审批服务实现
+ * <p>
+ * 实例ID去重排序后按 app.workflow-bulk-approval.chunk-size 分段，每段一个事务：
+ * 按ID顺序一次加锁全部实例、一次查询全部审批记录，逐个执行与单条审批相同的
+ * {@link WorkflowApprovalService#applyApproval}（含审批前钩子），段末统一同步待办收件箱，
+ * 审批记录与实例的写入在提交时按 JDBC 批次刷新。
+ * </p>
+ * <p>
+ * 段内某个实例失败时整段回滚，剔除失败实例后重新处理该段，保证成功的实例不会带上失败实例的部分写入；
+ * 审批前钩子每个实例只执行一次，重试时跳过上一轮已通过钩子的实例；审批后钩子在段提交后执行，避免回滚重试时重复触发。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkflowBulkApprovalServiceImpl implements WorkflowBulkApprovalService {
+
+    private static final String SUCCESS = "success";
+    private static final String FAILED = "failed";
+
+    private final WorkflowInstanceRepository instanceRepository;
+    private final WorkflowApprovalRepository approvalRepository;
+    private final UserRepository userRepository;
+    private final WorkflowApprovalService approvalService;
+    private final WorkflowInbox inbox;
+    private final TransactionTemplate transactionTemplate;
+    private final AppProperties appProperties;
+
+    @Override
+    public BulkApprovalResultResponse approve(BulkApprovalRequest request) {
+        return process(request, "approved");
+    }
+
+    @Override
+    public BulkApprovalResultResponse reject(BulkApprovalRequest request) {
+        return process(request, "rejected");
+    }
+
+    private BulkApprovalResultResponse process(BulkApprovalRequest request, String action) {
+        long start = System.nanoTime();
+        String userId = SecurityUtils.getCurrentUserId();
+        UserEntity user = EntityHelper.findByIdOrThrow(userRepository::findById, userId, "用户不存在");
+
+        LinkedHashSet<String> requested = new LinkedHashSet<>();
+        for (String instanceId : request.instanceIds()) {
+            if (instanceId != null && !instanceId.isBlank()) {
+                requested.add(instanceId);
+            }
+        }
+        ApprovalActionRequest actionRequest = ApprovalActionRequest.builder()
+                .comment(request.comment())
+                .attachments(request.attachments())
+                .build();
+
+        // 所有批量请求都按ID升序分段加锁
+        List<String> sorted = new ArrayList<>(new TreeSet<>(requested));
+        int chunkSize = Math.max(appProperties.getWorkflowBulkApproval().getChunkSize(), 1);
+        Map<String, ItemResult> results = new HashMap<>();
+        for (int from = 0; from < sorted.size(); from += chunkSize) {
+            processChunk(sorted.subList(from, Math.min(from + chunkSize, sorted.size())),
+                    user, actionRequest, action, results);
+        }
+
+        List<ItemResult> details = requested.stream().map(results::get).toList();
+        int success = (int) details.stream().filter(item -> SUCCESS.equals(item.status())).count();
+        log.info("批量审批完成: userId={}, action={}, total={}, success={}, cost={}ms", userId, action,
+                details.size(), success, (System.nanoTime() - start) / 1_000_000);
+        return new BulkApprovalResultResponse(details.size(), success, details.size() - success, details);
+    }
+
+    /**
+     * 处理一段实例：失败实例剔除后重试，直到剩余实例全部成功提交
+     */
+    private void processChunk(List<String> chunk, UserEntity user, ApprovalActionRequest request, String action,
+                              Map<String, ItemResult> results) {
+        List<String> remaining = new ArrayList<>(chunk);
+        Set<String> preHooksPassed = new HashSet<>();
+        while (!remaining.isEmpty()) {
+            List<String> pass = List.copyOf(remaining);
+            Map<String, String> failures = new LinkedHashMap<>();
+            List<ApprovalOutcome> outcomes;
+            try {
+                outcomes = transactionTemplate.execute(status -> {
+                    List<ApprovalOutcome> applied = applyChunk(pass, user, request, action, preHooksPassed, failures);
+                    if (!failures.isEmpty()) {
+                        status.setRollbackOnly();
+                    }
+                    return applied;
+                });
+            } catch (RuntimeException e) {
+                log.error("批量审批提交失败: action={}, instances={}", action, pass.size(), e);
+                pass.forEach(id -> results.put(id, failed(id, "批量提交失败，请重试")));
+                return;
+            }
+
+            if (failures.isEmpty()) {
+                for (ApprovalOutcome outcome : outcomes) {
+                    WorkflowInstanceEntity instance = outcome.instance();
+                    results.put(instance.getId(), new ItemResult(instance.getId(), SUCCESS, instance.getStatus(), null));
+                    executePostHooks(outcome, request);
+                }
+                return;
+            }
+
+            failures.forEach((id, reason) -> results.put(id, failed(id, reason)));
+            remaining.removeAll(failures.keySet());
+        }
+    }
+
+    /**
+     * 在当前事务内按ID顺序加锁并审批一段实例，失败原因写入 failures，审批成功的实例记入 preHooksPassed
+     */
+    private List<ApprovalOutcome> applyChunk(List<String> instanceIds, UserEntity user, ApprovalActionRequest request,
+                                             String action, Set<String> preHooksPassed, Map<String, String> failures) {
+        List<WorkflowInstanceEntity> instances = instanceRepository.findAllByIdForUpdate(instanceIds);
+        Map<String, List<WorkflowApprovalEntity>> approvalsByInstance = approvalRepository
+                .findByInstanceIdInAndDeletedFalse(instanceIds).stream()
+                .collect(Collectors.groupingBy(WorkflowApprovalEntity::getInstanceId));
+
+        Map<String, WorkflowInstanceEntity> found = new HashMap<>();
+        instances.forEach(instance -> found.put(instance.getId(), instance));
+        for (String instanceId : instanceIds) {
+            if (!found.containsKey(instanceId)) {
+                failures.put(instanceId, "工作流实例不存在");
+            }
+        }
+
+        List<ApprovalOutcome> outcomes = new ArrayList<>(instances.size());
+        for (WorkflowInstanceEntity instance : instances) {
+            try {
+                outcomes.add(approvalService.applyApproval(instance,
+                        approvalsByInstance.getOrDefault(instance.getId(), List.of()), user, request, action,
+                        !preHooksPassed.contains(instance.getId())));
+                preHooksPassed.add(instance.getId());
+            } catch (BizException e) {
+                failures.put(instance.getId(), e.getMessage());
+            } catch (RuntimeException e) {
+                // 非业务异常可能已破坏当前持久化上下文，停止本轮，回滚后剔除该实例重试
+                log.error("批量审批处理实例失败: instanceId={}", instance.getId(), e);
+                failures.put(instance.getId(), "审批处理失败");
+                break;
+            }
+        }
+
+        if (failures.isEmpty()) {
+            inbox.refreshAll(instances);
+        }
+        return outcomes;
+    }
+
+    private void executePostHooks(ApprovalOutcome outcome, ApprovalActionRequest request) {
+        try {
+            approvalService.executePostHooks(outcome, request);
+        } catch (Exception e) {
+            log.error("批量审批后钩子执行失败: instanceId={}", outcome.instance().getId(), e);
+        }
+    }
+
+    private static ItemResult failed(String instanceId, String reason) {
+        return new ItemResult(instanceId, FAILED, null, reason);
+    }
+}
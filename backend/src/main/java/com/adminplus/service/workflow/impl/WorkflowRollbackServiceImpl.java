@@ -14,9 +14,11 @@ import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.workflow.WorkflowApprovalService;
 import com.adminplus.service.workflow.WorkflowRollbackService;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.service.workflow.hook.WorkflowHookService;
 import com.adminplus.utils.EntityHelper;
 import com.adminplus.utils.SecurityUtils;
@@ -49,7 +51,8 @@ public class WorkflowRollbackServiceImpl implements WorkflowRollbackService {
 
     private final WorkflowInstanceRepository instanceRepository;
     private final WorkflowApprovalRepository approvalRepository;
-    private final WorkflowNodeRepository nodeRepository;
+    private final WorkflowDefinitionGraphCache definitionGraphCache;
+    private final WorkflowInbox inbox;
     private final WorkflowApprovalService approvalService;
     private final WorkflowHookService hookService;
     private final WorkflowPermissionChecker permissionChecker;
@@ -95,12 +98,13 @@ public class WorkflowRollbackServiceImpl implements WorkflowRollbackService {
                 .anyMatch(n -> n.id().equals(targetNodeIdForValidation));
         ServiceAssert.isTrue(isValidTarget, "无法回退到指定节点");
 
+        WorkflowDefinitionGraph graph = definitionGraphCache.get(instance.getDefinitionId());
         WorkflowNodeEntity targetNode = EntityHelper.findByIdOrThrow(
-            nodeRepository::findById, finalTargetNodeId, "目标节点不存在");
+            graph::node, finalTargetNodeId, "目标节点不存在");
 
         // 获取当前节点
         WorkflowNodeEntity currentNode = EntityHelper.findByIdOrThrow(
-            nodeRepository::findById, instance.getCurrentNodeId(), "当前节点不存在");
+            graph::node, instance.getCurrentNodeId(), "当前节点不存在");
 
         // 回退前钩子校验
         HookExecutionSummary preResult = hookService.executeAllHooks(
@@ -134,6 +138,7 @@ public class WorkflowRollbackServiceImpl implements WorkflowRollbackService {
 
         // 清理目标节点的旧审批记录，重新创建
         approvalService.recreateApprovalsForNode(instance, targetNode);
+        inbox.refresh(instance);
 
         // 回退后钩子执行
         HookExecutionSummary postResult = hookService.executeAllHooks(
@@ -162,8 +167,7 @@ public class WorkflowRollbackServiceImpl implements WorkflowRollbackService {
         permissionChecker.checkViewAccess(instance, userId);
 
         // 获取所有节点
-        List<WorkflowNodeEntity> allNodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(instance.getDefinitionId());
+        List<WorkflowNodeEntity> allNodes = definitionGraphCache.get(instance.getDefinitionId()).nodes();
 
         // 获取已审批通过的节点列表（从审批记录中获取）
         List<String> approvedNodeIds = approvalRepository
@@ -185,9 +189,6 @@ public class WorkflowRollbackServiceImpl implements WorkflowRollbackService {
      * 查找上一个节点ID
      */
     private String findPreviousNodeId(WorkflowInstanceEntity instance) {
-        List<WorkflowNodeEntity> nodes = nodeRepository
-                .findByDefinitionIdAndDeletedFalseOrderByNodeOrderAsc(instance.getDefinitionId());
-
         // 获取已审批通过的节点列表
         List<String> approvedNodeIds = approvalRepository
                 .findByInstanceIdAndDeletedFalseOrderByCreateTimeAsc(instance.getId())
@@ -0,0 +1,362 @@
+package com.adminplus.service.workflow.inbox;
+
+import com.adminplus.common.exception.BizException;
+import com.adminplus.pojo.entity.WorkflowApprovalEntity;
+import com.adminplus.pojo.entity.WorkflowInboxEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.repository.WorkflowApprovalRepository;
+import com.adminplus.repository.WorkflowInboxRepository;
+import com.adminplus.utils.IdUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 工作流待办收件箱
+ * <p>
+ * 创建、处理审批记录或改变实例状态的事务在结束前调用 {@link #refresh(WorkflowInstanceEntity)}，
+ * 按实例当前的待审批记录增删 sys_workflow_inbox 条目并累加 sys_workflow_inbox_counter，
+ * 条目的删除、新增与计数累加各以一条整批语句完成，与节点展开的审批人数无关，
+ * 待办列表按 (submit_time, id) 游标分页只扫描覆盖索引，待办角标按用户读取计数行（O(1)）。
+ * 由定时任务在低峰期从审批记录校正，修复初始化脚本直接写表等未经增量维护的路径造成的偏差。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowInbox {
+
+    /**
+     * 单页最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String PENDING = "pending";
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final WorkflowInboxRepository inboxRepository;
+    private final WorkflowApprovalRepository approvalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 按实例当前的待审批记录同步收件箱（需在写入审批记录/实例的事务内调用）
+     */
+    public void refresh(WorkflowInstanceEntity instance) {
+        String instanceId = instance.getId();
+
+        TreeSet<String> pendingUsers = new TreeSet<>();
+        if (isActive(instance)) {
+            for (WorkflowApprovalEntity approval
+                    : approvalRepository.findByInstanceIdAndApprovalStatusAndDeletedFalse(instanceId, PENDING)) {
+                pendingUsers.add(approval.getApproverId());
+            }
+        }
+
+        Changes changes = new Changes();
+        sync(instance, pendingUsers, inboxRepository.findByInstanceId(instanceId), changes);
+        apply(changes);
+    }
+
+    /**
+     * 批量同步多个实例（批量审批在同一事务末尾调用一次）
+     * <p>
+     * 待审批记录与已有条目各一次查询，所有实例的条目增删与计数累加合并为各一条语句。
+     * </p>
+     */
+    public void refreshAll(Collection<WorkflowInstanceEntity> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        List<String> instanceIds = instances.stream().map(WorkflowInstanceEntity::getId).toList();
+
+        Map<String, TreeSet<String>> pendingByInstance = new HashMap<>();
+        for (WorkflowApprovalEntity approval
+                : approvalRepository.findByInstanceIdInAndApprovalStatusAndDeletedFalse(instanceIds, PENDING)) {
+            pendingByInstance.computeIfAbsent(approval.getInstanceId(), k -> new TreeSet<>()).add(approval.getApproverId());
+        }
+        Map<String, List<WorkflowInboxEntity>> entriesByInstance = new HashMap<>();
+        for (WorkflowInboxEntity entry : inboxRepository.findByInstanceIdIn(instanceIds)) {
+            entriesByInstance.computeIfAbsent(entry.getInstanceId(), k -> new ArrayList<>()).add(entry);
+        }
+
+        Changes changes = new Changes();
+        for (WorkflowInstanceEntity instance : instances) {
+            TreeSet<String> pendingUsers = isActive(instance)
+                    ? pendingByInstance.getOrDefault(instance.getId(), new TreeSet<>()) : new TreeSet<>();
+            sync(instance, pendingUsers, entriesByInstance.getOrDefault(instance.getId(), List.of()), changes);
+        }
+        apply(changes);
+    }
+
+    /**
+     * 计算单个实例需要增删的条目，追加到 changes
+     */
+    private void sync(WorkflowInstanceEntity instance, TreeSet<String> pendingUsers,
+                      List<WorkflowInboxEntity> entries, Changes changes) {
+        String instanceId = instance.getId();
+
+        Map<String, WorkflowInboxEntity> existing = new HashMap<>();
+        for (WorkflowInboxEntity entry : entries) {
+            existing.put(entry.getUserId(), entry);
+        }
+
+        for (String userId : new TreeSet<>(existing.keySet())) {
+            if (!pendingUsers.contains(userId)) {
+                changes.deleteInstanceIds.add(instanceId);
+                changes.deleteUserIds.add(userId);
+            }
+        }
+
+        Instant submitTime = sortTime(instance);
+        for (String userId : pendingUsers) {
+            if (!existing.containsKey(userId)) {
+                changes.insertUserIds.add(userId);
+                changes.insertInstanceIds.add(instanceId);
+                changes.insertSubmitTimes.add(submitTime.toString());
+            }
+        }
+        // 被驳回后重新提交的实例按新的提交时间排序
+        boolean moved = existing.values().stream()
+                .anyMatch(entry -> pendingUsers.contains(entry.getUserId()) && !submitTime.equals(entry.getSubmitTime()));
+        if (moved) {
+            inboxRepository.updateSubmitTime(instanceId, submitTime);
+        }
+    }
+
+    /**
+     * 整批执行条目增删，并按实际增删的行累加计数
+     */
+    private void apply(Changes changes) {
+        Map<String, long[]> deltas = new TreeMap<>();
+        if (!changes.deleteUserIds.isEmpty()) {
+            // 已读状态以删除时的行为准，条目查询之后并发的标记已读已经扣减过未读数
+            for (Object[] row : inboxRepository.deleteEntries(
+                    changes.deleteInstanceIds.toArray(String[]::new), changes.deleteUserIds.toArray(String[]::new))) {
+                addDelta(deltas, (String) row[0], -1, Boolean.TRUE.equals(row[1]) ? 0 : -1);
+            }
+        }
+        if (!changes.insertUserIds.isEmpty()) {
+            String[] ids = new String[changes.insertUserIds.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = IdUtils.nextIdStr();
+            }
+            for (String userId : inboxRepository.insertEntries(ids, changes.insertUserIds.toArray(String[]::new),
+                    changes.insertInstanceIds.toArray(String[]::new), changes.insertSubmitTimes.toArray(String[]::new))) {
+                addDelta(deltas, userId, 1, 1);
+            }
+        }
+        applyDeltas(deltas);
+    }
+
+    private static boolean isActive(WorkflowInstanceEntity instance) {
+        return instance.isRunning() && !Boolean.TRUE.equals(instance.getDeleted());
+    }
+
+    private static void addDelta(Map<String, long[]> deltas, String userId, long pending, long unread) {
+        long[] delta = deltas.computeIfAbsent(userId, k -> new long[2]);
+        delta[0] += pending;
+        delta[1] += unread;
+    }
+
+    private void applyDeltas(Map<String, long[]> deltas) {
+        List<String> userIds = new ArrayList<>(deltas.size());
+        List<Long> pendingDeltas = new ArrayList<>(deltas.size());
+        List<Long> unreadDeltas = new ArrayList<>(deltas.size());
+        deltas.forEach((userId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                userIds.add(userId);
+                pendingDeltas.add(delta[0]);
+                unreadDeltas.add(delta[1]);
+            }
+        });
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String[] ids = new String[userIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = IdUtils.nextIdStr();
+        }
+        inboxRepository.adjustCounters(ids, userIds.toArray(String[]::new),
+                pendingDeltas.toArray(Long[]::new), unreadDeltas.toArray(Long[]::new));
+    }
+
+    /**
+     * 标记某用户的待办已读（在独立事务中执行，可从只读查询中调用）
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markRead(String userId, String instanceId) {
+        if (userId == null || instanceId == null) {
+            return;
+        }
+        if (inboxRepository.markRead(userId, instanceId) > 0) {
+            inboxRepository.adjustCounter(IdUtils.nextIdStr(), userId, 0, -1);
+        }
+    }
+
+    /**
+     * 按游标读取一页待办实例ID
+     *
+     * @param userId 用户ID
+     * @param cursor 上一页返回的游标，为空时读取第一页
+     * @param size   每页条数（1..{@value #MAX_PAGE_SIZE}）
+     * @return 实例ID（按提交时间倒序）与下一页游标
+     */
+    public Page page(String userId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // 多取一条用于判断是否还有下一页
+        List<Object[]> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = inboxRepository.findFirstPage(userId, limit + 1);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            rows = inboxRepository.findPageAfter(userId, position.submitTime(), position.id(), limit + 1);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<Object[]> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        List<String> instanceIds = new ArrayList<>(pageRows.size());
+        for (Object[] row : pageRows) {
+            instanceIds.add((String) row[1]);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = encodeCursor(new Cursor(toInstant(last[2]), (String) last[0]));
+        }
+        return new Page(instanceIds, nextCursor);
+    }
+
+    /**
+     * 用户的待审批实例数
+     */
+    public long pendingCount(String userId) {
+        Long count = inboxRepository.findPendingCount(userId);
+        return count != null ? Math.max(count, 0L) : 0L;
+    }
+
+    /**
+     * 用户的未读待审批实例数
+     */
+    public long unreadCount(String userId) {
+        Long count = inboxRepository.findUnreadCount(userId);
+        return count != null ? Math.max(count, 0L) : 0L;
+    }
+
+    /**
+     * 从审批记录校正收件箱及待办计数（保留已有条目的已读状态）
+     * <p>
+     * 校正期间锁表会阻塞所有审批写入，以咨询锁保证集群中同一时间只有一个节点执行，其他节点直接跳过。
+     * </p>
+     *
+     * @return 收件箱变化的条目数，其他节点正在校正时为 -1
+     */
+    public int reconcile() {
+        long start = System.nanoTime();
+        Integer rows = transactionTemplate.execute(status -> {
+            if (!inboxRepository.tryLockReconcile()) {
+                return -1;
+            }
+            inboxRepository.lockForReconcile();
+            int changed = inboxRepository.deleteStaleEntries();
+            changed += inboxRepository.insertMissingEntries();
+            inboxRepository.deleteAllCounters();
+            inboxRepository.rebuildCounters();
+            return changed;
+        });
+        if (rows != null && rows < 0) {
+            log.info("其他节点正在校正工作流待办收件箱，本节点跳过");
+            return -1;
+        }
+        log.info("工作流待办收件箱已校正: rows={}, cost={}ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 排序时间：提交时间，草稿阶段直接进入审批的实例退化为创建时间；截断到数据库精度，保证游标可精确比较
+     */
+    private static Instant sortTime(WorkflowInstanceEntity instance) {
+        Instant time = instance.getSubmitTime() != null ? instance.getSubmitTime()
+                : instance.getCreateTime() != null ? instance.getCreateTime() : Instant.now();
+        return time.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    static String encodeCursor(Cursor cursor) {
+        String raw = cursor.submitTime().toString() + CURSOR_SEPARATOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BizException("分页游标无效");
+            }
+            return new Cursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BizException("分页游标无效");
+        }
+    }
+
+    /**
+     * 原生查询的 TIMESTAMPTZ 列可能映射为 Instant、OffsetDateTime 或 java.sql.Timestamp
+     */
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        throw new IllegalStateException("无法识别的时间类型: " + (value != null ? value.getClass() : null));
+    }
+
+    /**
+     * 一页待办
+     *
+     * @param instanceIds 实例ID（按提交时间倒序）
+     * @param nextCursor  下一页游标，没有下一页时为 null
+     */
+    public record Page(List<String> instanceIds, String nextCursor) {
+    }
+
+    record Cursor(Instant submitTime, String id) {
+    }
+
+    /**
+     * 一次同步中待执行的条目增删，各列表按下标对应一行
+     */
+    private static final class Changes {
+        private final List<String> deleteInstanceIds = new ArrayList<>();
+        private final List<String> deleteUserIds = new ArrayList<>();
+        private final List<String> insertUserIds = new ArrayList<>();
+        private final List<String> insertInstanceIds = new ArrayList<>();
+        private final List<String> insertSubmitTimes = new ArrayList<>();
+    }
+}
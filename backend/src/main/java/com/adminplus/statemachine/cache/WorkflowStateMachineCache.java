@@ -0,0 +1,170 @@
+package com.adminplus.statemachine.cache;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.statemachine.enums.WorkflowEvent;
+import com.adminplus.statemachine.enums.WorkflowState;
+import com.adminplus.statemachine.extendedstate.WorkflowExtendedState;
+import com.adminplus.statemachine.persist.WorkflowStateMachinePersister;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * 工作流状态机缓存
+ * <p>
+ * 以流程实例ID为键缓存已恢复的状态机，避免每次审批操作都新建状态机并从
+ * spring_state_machine_context 读取、反序列化扩展状态。
+ * </p>
+ * <p>
+ * 状态机采用"借出/归还"方式使用：{@link #acquire} 从缓存中移除并返回状态机，调用方独占使用；
+ * {@link #release} 在事务提交后放回缓存，事务回滚时丢弃，缓存中不会留下未提交的状态。
+ * 缓存条目记录归还时的快照文本，借出时与调用方在悲观锁（findByIdForUpdate）下读到的
+ * 流程实例快照比较，不一致（其他节点已推进该实例或条目来自已回滚的事务）时从数据库重新恢复。
+ * 终态的状态机不再缓存。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@Slf4j
+@Component
+public class WorkflowStateMachineCache {
+
+    private final StateMachineFactory<WorkflowState, WorkflowEvent> stateMachineFactory;
+    private final WorkflowStateMachinePersister persister;
+    private final AppProperties.WorkflowStateMachine config;
+    private final Cache<String, CachedMachine> machines;
+
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+
+    public WorkflowStateMachineCache(StateMachineFactory<WorkflowState, WorkflowEvent> stateMachineFactory,
+                                     WorkflowStateMachinePersister persister,
+                                     AppProperties appProperties,
+                                     MeterRegistry meterRegistry) {
+        this.stateMachineFactory = stateMachineFactory;
+        this.persister = persister;
+        this.config = appProperties.getWorkflowStateMachine();
+        this.machines = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterAccess(Duration.ofMinutes(config.getCacheExpireMinutes()))
+                .build();
+
+        this.hitCounter = Counter.builder("workflow.statemachine.cache.gets")
+                .description("直接复用缓存状态机的次数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("workflow.statemachine.cache.gets")
+                .description("缓存状态机与实例快照不一致、重新恢复的次数")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("workflow.statemachine.cache.gets")
+                .description("缓存中不存在、从数据库恢复的次数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("workflow.statemachine.cache.size", machines, Cache::estimatedSize)
+                .description("缓存中的状态机数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 借出流程实例的状态机
+     * <p>
+     * 必须在持有流程实例行锁后调用，保证同一实例同一时刻只有一个调用方使用状态机。
+     * </p>
+     *
+     * @param instanceId 流程实例ID
+     * @param snapshot   悲观锁下读取的流程实例快照（state_machine_context）
+     * @return 已启动、状态与快照一致的状态机
+     */
+    public StateMachine<WorkflowState, WorkflowEvent> acquire(String instanceId, String snapshot) {
+        CachedMachine cached = config.isCacheEnabled() ? machines.asMap().remove(instanceId) : null;
+        if (cached != null) {
+            if (snapshot != null && Objects.equals(cached.snapshot(), snapshot)) {
+                hitCounter.increment();
+                return cached.machine();
+            }
+            staleCounter.increment();
+        } else {
+            missCounter.increment();
+        }
+        return restore(instanceId);
+    }
+
+    /**
+     * 归还状态机
+     * <p>
+     * 存在事务时在提交后放回缓存，回滚时丢弃；无事务时立即放回。
+     * </p>
+     *
+     * @param instanceId 流程实例ID
+     * @param machine    状态机
+     * @param snapshot   本次写入流程实例的快照
+     */
+    public void release(String instanceId, StateMachine<WorkflowState, WorkflowEvent> machine, String snapshot) {
+        if (!config.isCacheEnabled() || snapshot == null || isFinal(machine)) {
+            return;
+        }
+
+        CachedMachine entry = new CachedMachine(machine, snapshot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    machines.put(instanceId, entry);
+                }
+            });
+        } else {
+            machines.put(instanceId, entry);
+        }
+    }
+
+    /**
+     * 移除流程实例的缓存状态机
+     */
+    public void evict(String instanceId) {
+        machines.invalidate(instanceId);
+    }
+
+    long size() {
+        machines.cleanUp();
+        return machines.estimatedSize();
+    }
+
+    private StateMachine<WorkflowState, WorkflowEvent> restore(String instanceId) {
+        StateMachine<WorkflowState, WorkflowEvent> sm = stateMachineFactory.getStateMachine(instanceId);
+
+        try {
+            // 尝试从数据库恢复状态机状态
+            persister.restore(sm, instanceId);
+            log.debug("Restored state machine for instance: {}", instanceId);
+        } catch (Exception e) {
+            log.debug("No existing state machine for instance {}, creating new one: {}",
+                    instanceId, e.getMessage());
+            // 新状态机，初始化扩展状态
+            sm.startReactively().block();
+            WorkflowExtendedState.setInstanceId(sm, instanceId);
+        }
+
+        return sm;
+    }
+
+    private static boolean isFinal(StateMachine<WorkflowState, WorkflowEvent> machine) {
+        return machine.getState() == null || machine.getState().getId() != WorkflowState.RUNNING;
+    }
+
+    private record CachedMachine(StateMachine<WorkflowState, WorkflowEvent> machine, String snapshot) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.adminplus.statemachine.config;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.statemachine.guards.SpELGuard;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,7 +18,7 @@ import org.springframework.context.annotation.Configuration;
 public class WorkflowGuardsConfig {
 
     @Bean
-    public SpELGuard spelGuard() {
-        return new SpELGuard();
+    public SpELGuard spelGuard(SpelExpressionEngine expressionEngine) {
+        return new SpELGuard(expressionEngine);
     }
 }
@@ -1,20 +1,21 @@
 package com.adminplus.statemachine.guards;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.statemachine.enums.WorkflowEvent;
 import com.adminplus.statemachine.enums.WorkflowState;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.messaging.Message;
 import org.springframework.statemachine.StateContext;
 import org.springframework.statemachine.guard.Guard;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * SpEL 表达式守卫
  * <p>
- * 用于条件分支判断，从消息头中读取 conditionExpression 并进行求值
+ * 用于条件分支判断，从消息头中读取 conditionExpression 并进行求值。
+ * 表达式由 {@link SpelExpressionEngine} 缓存，在只读上下文中求值（不允许类型引用、构造器和赋值）
  * </p>
  * <p>
  * 支持的 SpEL 变量：
@@ -30,7 +31,11 @@ import org.springframework.statemachine.guard.Guard;
 @Slf4j
 public class SpELGuard implements Guard<WorkflowState, WorkflowEvent> {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final SpelExpressionEngine expressionEngine;
+
+    public SpELGuard(SpelExpressionEngine expressionEngine) {
+        this.expressionEngine = expressionEngine;
+    }
 
     @Override
     public boolean evaluate(StateContext<WorkflowState, WorkflowEvent> context) {
@@ -49,24 +54,22 @@ public class SpELGuard implements Guard<WorkflowState, WorkflowEvent> {
         }
 
         try {
-            // 准备 SpEL 上下文
-            StandardEvaluationContext spelContext = new StandardEvaluationContext();
-
             // 从消息头中获取业务数据和流程实例
             Object businessData = message.getHeaders().get("businessData");
             Object instance = message.getHeaders().get("instance");
 
             // 设置 SpEL 变量
+            Map<String, Object> variables = new HashMap<>(2);
             if (businessData != null) {
-                spelContext.setVariable("businessData", businessData);
+                variables.put("businessData", businessData);
             }
             if (instance != null) {
-                spelContext.setVariable("instance", instance);
+                variables.put("instance", instance);
             }
 
-            // 解析并求值表达式
-            Expression expression = parser.parseExpression(conditionExpression);
-            Boolean result = expression.getValue(spelContext, Boolean.class);
+            // 求值表达式（解析结果由引擎缓存）
+            Boolean result = expressionEngine.evaluate(conditionExpression,
+                    expressionEngine.conditionContext(variables), Boolean.class);
 
             log.debug("SpEL expression '{}' evaluated to: {}", conditionExpression, result);
             return Boolean.TRUE.equals(result);
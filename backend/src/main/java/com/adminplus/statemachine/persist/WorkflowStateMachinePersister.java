@@ -3,22 +3,26 @@ package com.adminplus.statemachine.persist;
 import com.adminplus.repository.StateMachineRepository;
 import com.adminplus.statemachine.enums.WorkflowEvent;
 import com.adminplus.statemachine.enums.WorkflowState;
-import tools.jackson.databind.json.JsonMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.statemachine.StateMachine;
 import org.springframework.statemachine.StateMachineContext;
 import org.springframework.statemachine.persist.StateMachinePersister;
+import org.springframework.statemachine.support.DefaultExtendedState;
 import org.springframework.statemachine.support.DefaultStateMachineContext;
 import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * 工作流状态机持久化器
  * <p>
- * 负责将状态机上下文序列化到数据库，以及从数据库恢复
+ * 负责将状态机上下文序列化到数据库，以及从数据库恢复。
+ * 状态与扩展状态变量编码为单个 {@link WorkflowStateMachineSnapshot} JSON 文档，每次持久化只序列化一次；
+ * 恢复时兼容旧格式（每个变量值单独序列化为 JSON 字符串后再整体序列化）。
  * </p>
  *
  * @author AdminPlus
@@ -30,41 +34,42 @@ import java.util.Map;
 public class WorkflowStateMachinePersister
         implements StateMachinePersister<WorkflowState, WorkflowEvent, String> {
 
+    private static final String FIELD_STATE = "state";
+    private static final String FIELD_VARIABLES = "variables";
+
     private final StateMachineRepository repository;
     private final JsonMapper objectMapper;
 
     @Override
     public void persist(StateMachine<WorkflowState, WorkflowEvent> stateMachine,
                        String contextId) throws Exception {
+        persistSnapshot(stateMachine, contextId);
+    }
+
+    /**
+     * 持久化状态机并返回编码后的快照
+     *
+     * @param stateMachine 状态机
+     * @param contextId    上下文ID（流程实例ID）
+     * @return 快照 JSON，可直接写入流程实例
+     */
+    public String persistSnapshot(StateMachine<WorkflowState, WorkflowEvent> stateMachine,
+                                  String contextId) {
 
         log.debug("Persisting state machine for context: {}", contextId);
 
+        WorkflowState state = stateMachine.getState().getId();
+        String snapshot = encode(stateMachine);
+
         StateMachineEntity entity = repository.findByMachineId(contextId)
                 .orElse(new StateMachineEntity());
-
         entity.setMachineId(contextId);
-        entity.setState(stateMachine.getState().getId().toString());
-
-        // 序列化 extended state
-        Map<String, Object> extendedStateMap = new HashMap<>();
-        stateMachine.getExtendedState().getVariables().entrySet().forEach(entry -> {
-            String k = entry.getKey().toString();
-            Object v = entry.getValue();
-            try {
-                String json = objectMapper.writeValueAsString(v);
-                extendedStateMap.put(k, json);
-            } catch (Exception e) {
-                log.warn("Failed to serialize extended state key: {}", k, e);
-                extendedStateMap.put(k, v);
-            }
-        });
-
-        String extendedStateJson = objectMapper.writeValueAsString(extendedStateMap);
-        entity.setExtendedState(extendedStateJson);
-
+        entity.setState(state.name());
+        entity.setExtendedState(snapshot);
         repository.save(entity);
 
         log.debug("State machine persisted successfully for context: {}", contextId);
+        return snapshot;
     }
 
     @Override
@@ -81,56 +86,68 @@ public class WorkflowStateMachinePersister
         log.debug("Found state machine context for: {}, state: {}",
                 contextId, entity.getState());
 
-        // 从数据库读取并反序列化上下文
-        StateMachineContext<WorkflowState, WorkflowEvent> context =
-                deserializeContext(entity);
+        WorkflowStateMachineSnapshot snapshot = decode(entity.getExtendedState(),
+                WorkflowState.valueOf(entity.getState()));
 
-        // 重置状态机到持久化的状态
-        stateMachine.getStateMachineAccessor().doWithAllRegions(accessor -> {
-            accessor.resetStateMachine(context);
-        });
+        // 重置状态机到持久化的状态及扩展状态
+        DefaultExtendedState extendedState = new DefaultExtendedState();
+        extendedState.getVariables().putAll(snapshot.variables());
+        StateMachineContext<WorkflowState, WorkflowEvent> context =
+                new DefaultStateMachineContext<>(snapshot.state(), null, null, extendedState);
 
-        // 恢复扩展状态
-        restoreExtendedState(entity);
+        stateMachine.stopReactively().block();
+        stateMachine.getStateMachineAccessor().doWithAllRegions(accessor -> accessor.resetStateMachine(context));
+        stateMachine.startReactively().block();
 
-        log.debug("State machine restored successfully for context: {}", contextId);
+        log.debug("State machine restored successfully for context: {}, variables: {}",
+                contextId, snapshot.variables().size());
 
         return stateMachine;
     }
 
     /**
-     * 从数据库实体反序列化状态机上下文
+     * 将状态机编码为快照 JSON
      */
-    private StateMachineContext<WorkflowState, WorkflowEvent> deserializeContext(
-            StateMachineEntity entity) throws Exception {
-
-        WorkflowState state = WorkflowState.valueOf(entity.getState());
-
-        // 创建简单的上下文，只包含状态信息
-        // ExtendedState 会在后续手动恢复
-        return new DefaultStateMachineContext<>(
-                state,
-                null,
-                null,
-                null
-        );
+    public String encode(StateMachine<WorkflowState, WorkflowEvent> stateMachine) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        stateMachine.getExtendedState().getVariables()
+                .forEach((key, value) -> variables.put(key.toString(), value));
+        return objectMapper.writeValueAsString(
+                new WorkflowStateMachineSnapshot(stateMachine.getState().getId(), variables));
     }
 
     /**
-     * 恢复扩展状态到状态机
+     * 解码快照 JSON
+     *
+     * @param json          快照 JSON（新格式或旧格式）
+     * @param fallbackState 旧格式中不含状态时使用的状态
      */
-    private void restoreExtendedState(StateMachineEntity entity) throws Exception {
-        if (entity.getExtendedState() != null) {
+    public WorkflowStateMachineSnapshot decode(String json, WorkflowState fallbackState) {
+        if (json == null || json.isBlank()) {
+            return new WorkflowStateMachineSnapshot(fallbackState, new LinkedHashMap<>());
+        }
+
+        JsonNode root = objectMapper.readTree(json);
+        if (root.has(FIELD_STATE) && root.path(FIELD_VARIABLES).isObject()) {
             @SuppressWarnings("unchecked")
-            Map<String, Object> serializedMap = objectMapper.readValue(
-                    entity.getExtendedState(),
-                    Map.class);
-
-            // 注意：这里需要通过 StateMachine 的 ExtendedState 来设置变量
-            // 实际使用时，需要在调用 restore 方法后手动设置 ExtendedState
-            log.debug("Deserialized {} extended state variables",
-                    serializedMap.size());
+            Map<String, Object> variables = objectMapper.treeToValue(root.get(FIELD_VARIABLES), LinkedHashMap.class);
+            return new WorkflowStateMachineSnapshot(WorkflowState.valueOf(root.get(FIELD_STATE).asText()), variables);
         }
+
+        // 旧格式：变量值为各自序列化后的 JSON 字符串
+        Map<String, Object> variables = new LinkedHashMap<>();
+        root.properties().forEach(entry -> variables.put(entry.getKey(), decodeLegacyValue(entry.getValue())));
+        return new WorkflowStateMachineSnapshot(fallbackState, variables);
     }
-}
 
+    private Object decodeLegacyValue(JsonNode node) {
+        if (node.isString()) {
+            try {
+                return objectMapper.readValue(node.asText(), Object.class);
+            } catch (Exception e) {
+                return node.asText();
+            }
+        }
+        return objectMapper.treeToValue(node, Object.class);
+    }
+}
@@ -0,0 +1,24 @@
+package com.adminplus.statemachine.persist;
+
+import com.adminplus.statemachine.enums.WorkflowState;
+
+import java.util.Map;
+
+/**
+ * 工作流状态机快照
+ * <p>
+ * 状态与扩展状态变量整体编码为一个 JSON 文档（{"state":"RUNNING","variables":{...}}），
+ * 每次状态转换只序列化一次，同一份文本同时写入 spring_state_machine_context.extended_state
+ * 和 sys_workflow_instance.state_machine_context。
+ * </p>
+ *
+ * @param state     当前状态
+ * @param variables 扩展状态变量
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public record WorkflowStateMachineSnapshot(
+        WorkflowState state,
+        Map<String, Object> variables
+) {
+}
@@ -32,7 +32,7 @@ public class DictUtils {
      * @param value    字典值
      * @return 字典标签，未找到返回原值
      */
-    @Cacheable(value = "dict:label", key = "#dictType + ':' + #value")
+    @Cacheable(value = "dict:label", key = "#dictType + ':' + #value", sync = true)
     public String getDictLabel(String dictType, String value) {
         if (value == null || value.isEmpty()) {
             return "";
@@ -53,7 +53,7 @@ public class DictUtils {
      * @param dictType 字典类型
      * @return 字典项映射
      */
-    @Cacheable(value = "dict:map", key = "#dictType")
+    @Cacheable(value = "dict:map", key = "#dictType", sync = true)
     public Map<String, String> getDictMap(String dictType) {
         try {
             List<DictItemEntity> items = dictItemRepository.findByDictType(dictType);
@@ -75,7 +75,7 @@ public class DictUtils {
      * @param dictType 字典类型
      * @return 字典项列表
      */
-    @Cacheable(value = "dict:items", key = "#dictType")
+    @Cacheable(value = "dict:items", key = "#dictType", sync = true)
     public List<DictItemResponse> getDictItems(String dictType) {
         try {
             List<DictItemEntity> entities = dictItemRepository.findByDictType(dictType);
@@ -21,6 +21,11 @@ public class FileContentValidator {
 
     private static final Tika TIKA = new Tika();
 
+    /**
+     * 类型检测读取的文件头长度（tika-core 魔数检测只读取文件头，超出部分不参与判断）
+     */
+    public static final int SNIFF_LENGTH = 64 * 1024;
+
     // 允许的图片类型（使用 FileConstants）
     private static final Set<String> ALLOWED_IMAGE_TYPES = new HashSet<>(Arrays.asList(FileConstants.ALLOWED_IMAGE_TYPES));
 
@@ -76,12 +81,26 @@ public class FileContentValidator {
             return null;
         }
         try (InputStream is = file.getInputStream()) {
-            return TIKA.detect(is, file.getOriginalFilename());
+            return detectMimeType(is.readNBytes(SNIFF_LENGTH), file.getOriginalFilename());
         } catch (IOException e) {
             return null;
         }
     }
 
+    /**
+     * 根据已读取的文件头检测 MIME 类型（流式上传时复用同一份文件头，不再重复打开输入流）
+     *
+     * @param prefix   文件头，最多 {@link #SNIFF_LENGTH} 字节
+     * @param filename 原始文件名
+     * @return 检测到的 MIME 类型，如果文件头为空则返回 null
+     */
+    public static String detectMimeType(byte[] prefix, String filename) {
+        if (prefix == null || prefix.length == 0) {
+            return null;
+        }
+        return TIKA.detect(prefix, filename);
+    }
+
     /**
      * 验证文件是否为允许的图片类型
      *
@@ -109,7 +128,17 @@ public class FileContentValidator {
      */
     public static boolean isAllowedFileType(MultipartFile file, String contentType) {
         // 使用 Tika 检测实际类型
-        String detectedType = detectMimeType(file);
+        return isAllowedFileType(detectMimeType(file), file.getOriginalFilename());
+    }
+
+    /**
+     * 验证检测到的 MIME 类型是否为允许的类型（图片 + 文档）
+     *
+     * @param detectedType 检测到的 MIME 类型
+     * @param filename     原始文件名
+     * @return 是否为允许的类型
+     */
+    public static boolean isAllowedFileType(String detectedType, String filename) {
         if (detectedType == null) {
             return false;
         }
@@ -126,7 +155,6 @@ public class FileContentValidator {
         // 特殊处理：Office 文档（DOCX, XLSX, PPTX）实际上是 ZIP 格式
         // 如果检测到 application/zip，需要检查文件名扩展名
         if ("application/zip".equals(detectedType)) {
-            String filename = file.getOriginalFilename();
             if (filename != null) {
                 String ext = filename.toLowerCase();
                 if (ext.endsWith(".docx") || ext.endsWith(".xlsx") || ext.endsWith(".pptx") || ext.endsWith(".zip")) {
@@ -2,113 +2,104 @@ package com.adminplus.utils;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * 雪花 ID 工具类
+ * <p>
+ * 委托给 {@link SnowflakeIdGenerator}（无锁）。启动初期的节点号取自系统属性
+ * snowflake.datacenter.id / snowflake.worker.id，未设置时由主机名与地址推算；
+ * 应用启动后由 {@link com.adminplus.common.id.SnowflakeWorkerRegistrar} 从 Redis 或数据库租用唯一节点号并切换。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-02-07
+ */
 public class IdUtils {
 
-    private static final long START_TIMESTAMP = 1735689600000L;
+    private static final int WORKER_ID_BITS = 5;
+    private static final int MAX_WORKER_ID = (1 << WORKER_ID_BITS) - 1;
+    private static final int MAX_DATACENTER_ID = (1 << WORKER_ID_BITS) - 1;
 
-    private static final long WORKER_ID_BITS = 5L;
-    private static final long DATACENTER_ID_BITS = 5L;
-    private static final long SEQUENCE_BITS = 12L;
+    private static final long DEFAULT_MAX_CLOCK_DRIFT_MS = 10;
 
-    private static final long MAX_WORKER_ID = ~(-1L << WORKER_ID_BITS);
-    private static final long MAX_DATACENTER_ID = ~(-1L << DATACENTER_ID_BITS);
-    private static final long WORKER_ID_SHIFT = SEQUENCE_BITS;
-    private static final long DATACENTER_ID_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
-    private static final long TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS + DATACENTER_ID_BITS;
+    private static volatile SnowflakeIdGenerator generator = new SnowflakeIdGenerator(
+            (generateDatacenterId() << WORKER_ID_BITS) | generateWorkerId(), DEFAULT_MAX_CLOCK_DRIFT_MS);
 
-    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
-
-    private static final long workerId;
-    private static final long datacenterId;
-    private static final AtomicLong sequence = new AtomicLong(0);
-    private static long lastTimestamp = -1L;
-
-    static {
-        workerId = generateWorkerId();
-        datacenterId = generateDatacenterId();
-    }
-
-    private static long generateWorkerId() {
-        String workerIdStr = System.getProperty("snowflake.worker.id");
-        if (workerIdStr != null && !workerIdStr.isEmpty()) {
-            try {
-                long id = Long.parseLong(workerIdStr);
-                if (id >= 0 && id <= MAX_WORKER_ID) {
-                    return id;
-                }
-            } catch (NumberFormatException e) {
-            }
+    private static int generateWorkerId() {
+        Integer configured = configuredId("snowflake.worker.id", MAX_WORKER_ID);
+        if (configured != null) {
+            return configured;
         }
 
         try {
             String hostName = InetAddress.getLocalHost().getHostName();
-            long hash = hostName.hashCode();
-            return Math.abs(hash) & MAX_WORKER_ID;
+            return Math.abs(hostName.hashCode()) & MAX_WORKER_ID;
         } catch (UnknownHostException e) {
-            return 1L;
+            return 1;
         }
     }
 
-    private static long generateDatacenterId() {
-        String datacenterIdStr = System.getProperty("snowflake.datacenter.id");
-        if (datacenterIdStr != null && !datacenterIdStr.isEmpty()) {
-            try {
-                long id = Long.parseLong(datacenterIdStr);
-                if (id >= 0 && id <= MAX_DATACENTER_ID) {
-                    return id;
-                }
-            } catch (NumberFormatException e) {
-            }
+    private static int generateDatacenterId() {
+        Integer configured = configuredId("snowflake.datacenter.id", MAX_DATACENTER_ID);
+        if (configured != null) {
+            return configured;
         }
 
         try {
             String hostAddress = InetAddress.getLocalHost().getHostAddress();
-            long hash = hostAddress.hashCode();
-            return Math.abs(hash) & MAX_DATACENTER_ID;
+            return Math.abs(hostAddress.hashCode()) & MAX_DATACENTER_ID;
         } catch (UnknownHostException e) {
-            return 1L;
+            return 1;
         }
     }
 
-    public static synchronized long nextId() {
-        long timestamp = timeGen();
-
-        if (timestamp < lastTimestamp) {
-            throw new RuntimeException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", lastTimestamp - timestamp));
-        }
-
-        if (lastTimestamp == timestamp) {
-            long currentSequence = sequence.incrementAndGet() & SEQUENCE_MASK;
-            if (currentSequence == 0) {
-                timestamp = tilNextMillis(lastTimestamp);
+    private static Integer configuredId(String property, int max) {
+        String value = System.getProperty(property);
+        if (value != null && !value.isEmpty()) {
+            try {
+                int id = Integer.parseInt(value);
+                if (id >= 0 && id <= max) {
+                    return id;
+                }
+            } catch (NumberFormatException e) {
+                // 忽略非法配置，退回按主机推算
             }
-        } else {
-            sequence.set(0);
         }
+        return null;
+    }
 
-        lastTimestamp = timestamp;
-
-        return ((timestamp - START_TIMESTAMP) << TIMESTAMP_SHIFT)
-                | (datacenterId << DATACENTER_ID_SHIFT)
-                | (workerId << WORKER_ID_SHIFT)
-                | sequence.get();
+    public static long nextId() {
+        return generator.nextId();
     }
 
     public static String nextIdStr() {
-        return String.valueOf(nextId());
+        return String.valueOf(generator.nextId());
     }
 
-    private static long tilNextMillis(long lastTimestamp) {
-        long timestamp = timeGen();
-        while (timestamp <= lastTimestamp) {
-            timestamp = timeGen();
-        }
-        return timestamp;
+    /**
+     * 批量生成 ID，用于批量插入
+     *
+     * @param count 数量
+     * @return 递增的 ID 数组
+     */
+    public static long[] nextIds(int count) {
+        return generator.nextIds(count);
+    }
+
+    /**
+     * 当前节点号（0 ~ 1023）
+     */
+    public static int getWorkerId() {
+        return generator.getWorkerId();
     }
 
-    private static long timeGen() {
-        return System.currentTimeMillis();
+    /**
+     * 切换到租用的节点号
+     *
+     * @param workerId        节点号（0 ~ 1023）
+     * @param maxClockDriftMs 允许的时钟漂移（毫秒）
+     */
+    public static synchronized void useWorkerId(int workerId, long maxClockDriftMs) {
+        generator = generator.withWorkerId(workerId, maxClockDriftMs);
     }
 }
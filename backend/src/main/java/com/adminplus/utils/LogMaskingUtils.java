@@ -7,7 +7,8 @@ import com.adminplus.utils.masking.*;
  * <p>
  * 使用责任链模式实现可扩展的脱敏规则：
  * <ul>
- *   <li>内置规则：密码、Token、身份证、手机号、邮箱、SQL密码、信用卡、用户名、IP</li>
+ *   <li>内置规则：密码、Token、身份证、手机号、邮箱、SQL密码、信用卡（编译为一次扫描，无命中时返回原字符串）</li>
+ *   <li>用户名、IP 为单字段脱敏，通过 {@link #maskUsername(String)}、{@link #maskIp(String)} 调用</li>
  *   <li>支持优先级排序：实现 {@link Prioritized} 接口指定执行顺序</li>
  *   <li>支持自定义规则：通过 {@link LogMaskerChain#withAdditional(LogMasker...)} 添加</li>
  * </ul>
@@ -0,0 +1,151 @@
+package com.adminplus.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花 ID 生成器（无锁）
+ * <p>
+ * ID 结构：41 位毫秒时间戳（相对 2025-01-01）| 10 位节点号 | 12 位序列号。
+ * 时间戳与序列号合并为一个 {@link AtomicLong} 状态，通过 CAS 推进，不使用监视器锁。
+ * 同一毫秒内序列号用尽时进位到下一毫秒（逻辑时钟领先系统时钟），
+ * 时钟小幅回拨时沿逻辑时钟继续发号；逻辑时钟领先超过 maxClockDriftMs 时，
+ * 若是发号过快则停顿等待系统时钟追上，若是时钟回拨超出容忍范围则抛出异常。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class SnowflakeIdGenerator {
+
+    static final long START_TIMESTAMP = 1735689600000L;
+
+    static final int WORKER_ID_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+
+    /**
+     * 节点号上限（不含）
+     */
+    public static final int MAX_WORKER_COUNT = 1 << WORKER_ID_BITS;
+
+    private static final int TIMESTAMP_SHIFT = WORKER_ID_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerBits;
+    private final long maxClockDriftMs;
+    private final LongSupplier clock;
+
+    /**
+     * 上次发出的 (时间戳 << SEQUENCE_BITS) | 序列号
+     */
+    private final AtomicLong state;
+
+    /**
+     * @param workerId        节点号，0 ~ {@link #MAX_WORKER_COUNT} - 1
+     * @param maxClockDriftMs 逻辑时钟允许领先系统时钟的毫秒数
+     */
+    public SnowflakeIdGenerator(int workerId, long maxClockDriftMs) {
+        this(workerId, maxClockDriftMs, System::currentTimeMillis, 0L);
+    }
+
+    SnowflakeIdGenerator(int workerId, long maxClockDriftMs, LongSupplier clock, long initialState) {
+        if (workerId < 0 || workerId >= MAX_WORKER_COUNT) {
+            throw new IllegalArgumentException("workerId 超出范围: " + workerId);
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.maxClockDriftMs = Math.max(maxClockDriftMs, 0);
+        this.clock = clock;
+        this.state = new AtomicLong(initialState);
+    }
+
+    /**
+     * 以新节点号继续发号，保留已发出的时间戳与序列号，切换后 ID 仍单调递增
+     */
+    public SnowflakeIdGenerator withWorkerId(int workerId, long maxClockDriftMs) {
+        return new SnowflakeIdGenerator(workerId, maxClockDriftMs, clock, state.get());
+    }
+
+    public int getWorkerId() {
+        return (int) (workerBits >>> SEQUENCE_BITS);
+    }
+
+    /**
+     * 生成一个 ID
+     */
+    public long nextId() {
+        for (;;) {
+            long prev = state.get();
+            long now = currentTimestamp();
+            long next = now > (prev >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : prev + 1;
+            if (!checkDrift(prev, next, now)) {
+                continue;
+            }
+            if (state.compareAndSet(prev, next)) {
+                return compose(next);
+            }
+        }
+    }
+
+    /**
+     * 批量生成 ID（一次 CAS 预留一段连续序列号）
+     *
+     * @param count 数量
+     * @return 递增的 ID 数组
+     */
+    public long[] nextIds(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count 不能为负数: " + count);
+        }
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            long prev = state.get();
+            long now = currentTimestamp();
+            long first = now > (prev >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : prev + 1;
+            if (!checkDrift(prev, first, now)) {
+                continue;
+            }
+            // 本次最多预留到逻辑时钟领先 maxClockDriftMs 的最后一个序列号
+            long limit = ((now + maxClockDriftMs + 1) << SEQUENCE_BITS) - 1;
+            int take = (int) Math.min(count - filled, limit - first + 1);
+            if (state.compareAndSet(prev, first + take - 1)) {
+                for (int i = 0; i < take; i++) {
+                    ids[filled++] = compose(first + i);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 检查逻辑时钟领先系统时钟的幅度
+     *
+     * @return 可以发号时为 true；需要等待时等待后返回 false，由调用方重试
+     */
+    private boolean checkDrift(long prev, long next, long now) {
+        long lead = (next >>> SEQUENCE_BITS) - now;
+        if (lead <= maxClockDriftMs) {
+            return true;
+        }
+        long backwardMs = (prev >>> SEQUENCE_BITS) - now;
+        if (backwardMs > maxClockDriftMs) {
+            throw new IllegalStateException(String.format(
+                    "Clock moved backwards. Refusing to generate id for %d milliseconds", backwardMs));
+        }
+        // 序列号已用尽到容忍上限，停顿到系统时钟进入下一毫秒（虚拟线程在此让出载体线程）
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(lead - maxClockDriftMs));
+        return false;
+    }
+
+    private long currentTimestamp() {
+        return clock.getAsLong() - START_TIMESTAMP;
+    }
+
+    private long compose(long timestampAndSequence) {
+        return ((timestampAndSequence >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT)
+                | workerBits
+                | (timestampAndSequence & SEQUENCE_MASK);
+    }
+}
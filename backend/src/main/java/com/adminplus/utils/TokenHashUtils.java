@@ -0,0 +1,79 @@
+package com.adminplus.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Token 摘要工具类
+ * <p>
+ * 生成 Token 的 SHA-256 摘要（Base64 前 32 位），用作黑名单等 Redis 键，避免明文 Token 落库。
+ * 平台线程复用线程本地的 {@link MessageDigest}；虚拟线程生命周期通常只有一个请求，
+ * 改为克隆预先创建的原型实例，同样避免每次调用 {@link MessageDigest#getInstance} 的 Provider 查找。
+ * </p>
+ * <p>
+ * 每个线程记住最近一次计算的 Token 与摘要：同一请求内黑名单过滤器、JWT 解码器与权限转换器
+ * 依次对同一 Token 取摘要，只有第一次真正计算。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class TokenHashUtils {
+
+    private static final String ALGORITHM = "SHA-256";
+
+    private static final int HASH_LENGTH = 32;
+
+    private static final MessageDigest PROTOTYPE = newDigest();
+
+    private static final ThreadLocal<MessageDigest> LOCAL_DIGEST = ThreadLocal.withInitial(TokenHashUtils::newDigest);
+
+    private static final ThreadLocal<LastHash> LAST_HASH = new ThreadLocal<>();
+
+    private TokenHashUtils() {
+        // 工具类不允许实例化
+    }
+
+    /**
+     * 计算 Token 摘要
+     *
+     * @param token Token 字符串
+     * @return Base64 编码的 SHA-256 摘要前 32 位
+     */
+    public static String hash(String token) {
+        LastHash last = LAST_HASH.get();
+        if (last != null && last.token().equals(token)) {
+            return last.hash();
+        }
+        byte[] digest = digest().digest(token.getBytes(StandardCharsets.UTF_8));
+        String hash = Base64.getEncoder().encodeToString(digest).substring(0, HASH_LENGTH);
+        LAST_HASH.set(new LastHash(token, hash));
+        return hash;
+    }
+
+    private static MessageDigest digest() {
+        if (Thread.currentThread().isVirtual()) {
+            try {
+                return (MessageDigest) PROTOTYPE.clone();
+            } catch (CloneNotSupportedException e) {
+                return newDigest();
+            }
+        }
+        MessageDigest digest = LOCAL_DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
+    private record LastHash(String token, String hash) {
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.adminplus.utils;
+
+/**
+ * User-Agent 解析工具类
+ * <p>
+ * 仅按关键字识别常见浏览器与操作系统，用于在线会话等展示场景
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public final class UserAgentUtils {
+
+    private static final String UNKNOWN = "Unknown";
+
+    private UserAgentUtils() {
+        // 工具类不允许实例化
+    }
+
+    /**
+     * 解析浏览器名称
+     *
+     * @param userAgent User-Agent 请求头
+     * @return 浏览器名称，无法识别时返回 "Unknown"
+     */
+    public static String parseBrowser(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        // 顺序敏感：Edge/Opera 的 UA 同时包含 Chrome，Chrome 的 UA 同时包含 Safari
+        if (userAgent.contains("Edg/") || userAgent.contains("Edge/")) {
+            return "Edge";
+        }
+        if (userAgent.contains("OPR/") || userAgent.contains("Opera")) {
+            return "Opera";
+        }
+        if (userAgent.contains("Firefox/")) {
+            return "Firefox";
+        }
+        if (userAgent.contains("Chrome/") || userAgent.contains("CriOS/")) {
+            return "Chrome";
+        }
+        if (userAgent.contains("Safari/")) {
+            return "Safari";
+        }
+        if (userAgent.contains("MSIE") || userAgent.contains("Trident/")) {
+            return "IE";
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 解析操作系统名称
+     *
+     * @param userAgent User-Agent 请求头
+     * @return 操作系统名称，无法识别时返回 "Unknown"
+     */
+    public static String parseOs(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        if (userAgent.contains("Windows")) {
+            return "Windows";
+        }
+        if (userAgent.contains("Android")) {
+            return "Android";
+        }
+        if (userAgent.contains("iPhone") || userAgent.contains("iPad") || userAgent.contains("iOS")) {
+            return "iOS";
+        }
+        if (userAgent.contains("Mac OS X") || userAgent.contains("Macintosh")) {
+            return "macOS";
+        }
+        if (userAgent.contains("Linux")) {
+            return "Linux";
+        }
+        return UNKNOWN;
+    }
+}
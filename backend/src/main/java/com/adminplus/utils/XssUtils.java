@@ -2,8 +2,6 @@ package com.adminplus.utils;
 
 import org.springframework.web.util.HtmlUtils;
 
-import java.util.regex.Pattern;
-
 /**
  * XSS 防护工具类
  *
@@ -12,23 +10,13 @@ import java.util.regex.Pattern;
  */
 public class XssUtils {
 
-    // 危险的 JavaScript 事件
-    private static final Pattern SCRIPT_EVENT_PATTERN = Pattern.compile(
-            "on\\w+\\s*=",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    // 危险的 HTML 标签
-    private static final Pattern DANGEROUS_TAG_PATTERN = Pattern.compile(
-            "<(script|iframe|object|embed|form|input|button|meta|link|style)",
-            Pattern.CASE_INSENSITIVE
-    );
+    // 危险的 HTML 标签（小写，匹配时忽略 ASCII 大小写）
+    private static final String[] DANGEROUS_TAGS = {
+            "script", "iframe", "object", "embed", "form", "input", "button", "meta", "link", "style"
+    };
 
     // javascript: 协议
-    private static final Pattern JS_PROTOCOL_PATTERN = Pattern.compile(
-            "javascript:",
-            Pattern.CASE_INSENSITIVE
-    );
+    private static final String JS_PROTOCOL = "javascript:";
 
     /**
      * 过滤 HTML 标签，防止 XSS 攻击
@@ -55,6 +43,11 @@ public class XssUtils {
 
     /**
      * 清理输入，移除危险的 HTML/JavaScript
+     * <p>
+     * 单次字符扫描同时识别三类片段：危险标签开头（如 {@code <script}）、事件属性（{@code on\w+\s*=}）
+     * 与 {@code javascript:} 协议。没有候选片段时不分配新对象，只做 trim。
+     * 有片段被移除时对结果再次扫描，直到不再变化，避免移除后拼接出新的危险片段（如 {@code <scr<scriptipt>}）。
+     * </p>
      *
      * @param input 输入字符串
      * @return 清理后的字符串
@@ -64,16 +57,88 @@ public class XssUtils {
             return null;
         }
 
-        // 移除危险的 HTML 标签
-        String sanitized = DANGEROUS_TAG_PATTERN.matcher(input).replaceAll("");
+        String sanitized = input;
+        String removed;
+        while ((removed = removeDangerous(sanitized)) != sanitized) {
+            sanitized = removed;
+        }
+        return sanitized.trim();
+    }
 
-        // 移除 JavaScript 事件
-        sanitized = SCRIPT_EVENT_PATTERN.matcher(sanitized).replaceAll("");
+    /**
+     * 单次扫描移除危险片段
+     *
+     * @return 没有危险片段时返回原实例
+     */
+    private static String removeDangerous(String input) {
+        StringBuilder result = null;
+        int copied = 0;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            int end = switch (input.charAt(i)) {
+                case '<' -> matchDangerousTag(input, i);
+                case 'o', 'O' -> matchEventHandler(input, i);
+                case 'j', 'J' -> input.regionMatches(true, i, JS_PROTOCOL, 0, JS_PROTOCOL.length())
+                        ? i + JS_PROTOCOL.length() : -1;
+                default -> -1;
+            };
+            if (end < 0) {
+                continue;
+            }
+            if (result == null) {
+                result = new StringBuilder(length);
+            }
+            result.append(input, copied, i);
+            copied = end;
+            i = end - 1;
+        }
+        if (result == null) {
+            return input;
+        }
+        return result.append(input, copied, length).toString();
+    }
 
-        // 移除 javascript: 协议
-        sanitized = JS_PROTOCOL_PATTERN.matcher(sanitized).replaceAll("");
+    /**
+     * 匹配 {@code <tag}，返回片段结束位置，不匹配时返回 -1
+     */
+    private static int matchDangerousTag(String input, int start) {
+        for (String tag : DANGEROUS_TAGS) {
+            if (input.regionMatches(true, start + 1, tag, 0, tag.length())) {
+                return start + 1 + tag.length();
+            }
+        }
+        return -1;
+    }
 
-        return sanitized.trim();
+    /**
+     * 匹配 {@code on\w+\s*=}，返回片段结束位置，不匹配时返回 -1
+     */
+    private static int matchEventHandler(String input, int start) {
+        int length = input.length();
+        int i = start + 1;
+        if (i >= length || (input.charAt(i) != 'n' && input.charAt(i) != 'N')) {
+            return -1;
+        }
+        i++;
+        int nameStart = i;
+        while (i < length && isWordChar(input.charAt(i))) {
+            i++;
+        }
+        if (i == nameStart) {
+            return -1;
+        }
+        while (i < length && isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i < length && input.charAt(i) == '=' ? i + 1 : -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
     }
 
     /**
@@ -0,0 +1,180 @@
+package com.adminplus.utils.masking;
+
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 组合正则脱敏器
+ * <p>
+ * 将多个 {@link PatternMasker} 编译为一个按优先级排列的选择分支正则 (r1)|(r2)|...，一次扫描完成替换：
+ * 同一位置按优先级尝试各规则，替换后的内容不再被后续规则扫描。
+ * 先执行各规则的预判，全部判定不可能匹配、或扫描无命中时返回原字符串实例，不产生新对象。
+ * </p>
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+final class CombinedPatternMasker implements LogMasker {
+
+    private static final int EMBEDDABLE_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.MULTILINE | Pattern.DOTALL
+            | Pattern.UNICODE_CASE | Pattern.COMMENTS | Pattern.UNIX_LINES;
+
+    private final PatternMasker[] rules;
+    private final int[] groupOffsets;
+    private final int[] groupCounts;
+    private final Pattern pattern;
+
+    CombinedPatternMasker(List<PatternMasker> rules) {
+        this.rules = rules.toArray(new PatternMasker[0]);
+        this.groupOffsets = new int[this.rules.length];
+        this.groupCounts = new int[this.rules.length];
+
+        StringBuilder regex = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < this.rules.length; i++) {
+            Pattern rulePattern = this.rules[i].pattern();
+            if (i > 0) {
+                regex.append('|');
+            }
+            regex.append('(').append(inlineFlags(rulePattern.flags())).append(rulePattern.pattern()).append("))");
+            groupOffsets[i] = group;
+            groupCounts[i] = rulePattern.matcher("").groupCount();
+            group += 1 + groupCounts[i];
+        }
+        this.pattern = Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 规则能否参与组合（标志均可内嵌）
+     */
+    static boolean isCombinable(LogMasker masker) {
+        return masker instanceof PatternMasker patternMasker
+                && (patternMasker.pattern().flags() & ~EMBEDDABLE_FLAGS) == 0;
+    }
+
+    @Override
+    public String mask(String input) {
+        if (input == null || input.isEmpty() || !mayMatch(input)) {
+            return input;
+        }
+        Matcher matcher = pattern.matcher(input);
+        if (!matcher.find()) {
+            return input;
+        }
+
+        StringBuilder result = new StringBuilder(input.length() + 16);
+        RuleMatch ruleMatch = new RuleMatch(matcher);
+        int last = 0;
+        do {
+            int rule = matchedRule(matcher);
+            ruleMatch.select(groupOffsets[rule], groupCounts[rule]);
+            result.append(input, last, matcher.start()).append(rules[rule].replacement(ruleMatch));
+            last = matcher.end();
+        } while (matcher.find());
+        return result.append(input, last, input.length()).toString();
+    }
+
+    private boolean mayMatch(String input) {
+        for (PatternMasker rule : rules) {
+            if (rule.mayMatch(input)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int matchedRule(Matcher matcher) {
+        for (int i = 0; i < groupOffsets.length; i++) {
+            if (matcher.start(groupOffsets[i]) >= 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("no rule matched");
+    }
+
+    private static String inlineFlags(int flags) {
+        StringBuilder inline = new StringBuilder("(?");
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            inline.append('i');
+        }
+        if ((flags & Pattern.MULTILINE) != 0) {
+            inline.append('m');
+        }
+        if ((flags & Pattern.DOTALL) != 0) {
+            inline.append('s');
+        }
+        if ((flags & Pattern.UNICODE_CASE) != 0) {
+            inline.append('u');
+        }
+        if ((flags & Pattern.COMMENTS) != 0) {
+            inline.append('x');
+        }
+        if ((flags & Pattern.UNIX_LINES) != 0) {
+            inline.append('d');
+        }
+        return inline.append(':').toString();
+    }
+
+    /**
+     * 组合正则匹配结果中某条规则的视图（分组编号还原为规则自身的编号）
+     */
+    private static final class RuleMatch implements MatchResult {
+
+        private final Matcher matcher;
+        private int offset;
+        private int groupCount;
+
+        private RuleMatch(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        private void select(int offset, int groupCount) {
+            this.offset = offset;
+            this.groupCount = groupCount;
+        }
+
+        @Override
+        public int start() {
+            return matcher.start(offset);
+        }
+
+        @Override
+        public int start(int group) {
+            return matcher.start(offset + checkGroup(group));
+        }
+
+        @Override
+        public int end() {
+            return matcher.end(offset);
+        }
+
+        @Override
+        public int end(int group) {
+            return matcher.end(offset + checkGroup(group));
+        }
+
+        @Override
+        public String group() {
+            return matcher.group(offset);
+        }
+
+        @Override
+        public String group(int group) {
+            return matcher.group(offset + checkGroup(group));
+        }
+
+        @Override
+        public int groupCount() {
+            return groupCount;
+        }
+
+        private int checkGroup(int group) {
+            if (group < 0 || group > groupCount) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+            return group;
+        }
+    }
+}
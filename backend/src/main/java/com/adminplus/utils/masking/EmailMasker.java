@@ -1,5 +1,6 @@
 package com.adminplus.utils.masking;
 
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -10,25 +11,30 @@ import java.util.regex.Pattern;
  * @author AdminPlus
  * @since 2026-04-10
  */
-public class EmailMasker implements LogMasker, Prioritized {
+public class EmailMasker implements PatternMasker, Prioritized {
 
     private static final Pattern PATTERN = Pattern.compile(
             "([a-zA-Z0-9._%+-]+)(@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,})"
     );
 
     @Override
-    public String mask(String input) {
-        if (input == null || input.isEmpty()) {
-            return input;
+    public Pattern pattern() {
+        return PATTERN;
+    }
+
+    @Override
+    public String replacement(MatchResult match) {
+        String username = match.group(1);
+        String domain = match.group(2);
+        if (username.length() > 2) {
+            return username.charAt(0) + "***" + username.charAt(username.length() - 1) + domain;
         }
-        return PATTERN.matcher(input).replaceAll(mr -> {
-            String username = mr.group(1);
-            String domain = mr.group(2);
-            if (username.length() > 2) {
-                return username.charAt(0) + "***" + username.charAt(username.length() - 1) + domain;
-            }
-            return "***" + domain;
-        });
+        return "***" + domain;
+    }
+
+    @Override
+    public boolean mayMatch(String input) {
+        return input.indexOf('@') >= 0;
     }
 
     @Override
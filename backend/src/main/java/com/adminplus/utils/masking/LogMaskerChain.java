@@ -1,36 +1,48 @@
 package com.adminplus.utils.masking;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
 /**
  * 脱敏器责任链
  * <p>
- * 按优先级顺序执行脱敏规则
+ * 按优先级顺序执行脱敏规则。创建时将优先级相邻的 {@link PatternMasker} 编译为一个组合正则
+ * （{@link CombinedPatternMasker}），一次扫描完成这些规则的替换；其他脱敏器在各自的位置单独执行。
+ * 没有任何规则命中时返回原字符串实例。
  *
  * @author AdminPlus
  * @since 2026-04-10
  */
 public final class LogMaskerChain implements LogMasker {
 
+    private static final Comparator<LogMasker> PRIORITY_ORDER = Comparator.comparingInt(m ->
+            m instanceof Prioritized p ? p.getPriority() : 1000
+    );
+
     private final LogMasker[] maskers;
+    private final LogMasker[] stages;
 
     private LogMaskerChain(LogMasker[] maskers) {
         this.maskers = maskers;
+        this.stages = compile(maskers);
     }
 
     @Override
     public String mask(String input) {
         String result = input;
-        for (LogMasker masker : maskers) {
-            result = masker.mask(result);
+        for (LogMasker stage : stages) {
+            result = stage.mask(result);
         }
         return result;
     }
 
     /**
      * 创建默认脱敏规则链
+     * <p>
+     * 用户名、IP 脱敏器对整个输入生效（整行会被替换），只用于单个字段，不加入整行日志的规则链，
+     * 通过 LogMaskingUtils.maskUsername / maskIp 单独调用。
      */
     public static LogMaskerChain createDefault() {
         List<LogMasker> maskers = new ArrayList<>();
@@ -43,22 +55,18 @@ public final class LogMaskerChain implements LogMasker {
         maskers.add(new EmailMasker());
         maskers.add(new SqlPasswordMasker());
         maskers.add(new CreditCardMasker());
-        maskers.add(new UsernameMasker());
-        maskers.add(new IpMasker());
 
         // 按优先级排序
-        maskers.sort(Comparator.comparingInt(m ->
-            m instanceof Prioritized p ? p.getPriority() : 1000
-        ));
+        maskers.sort(PRIORITY_ORDER);
 
         return new LogMaskerChain(maskers.toArray(new LogMasker[0]));
     }
 
     /**
-     * 创建自定义脱敏规则链
+     * 创建自定义脱敏规则链（按参数顺序执行）
      */
     public static LogMaskerChain of(LogMasker... maskers) {
-        return new LogMaskerChain(maskers);
+        return new LogMaskerChain(maskers.clone());
     }
 
     /**
@@ -68,16 +76,32 @@ public final class LogMaskerChain implements LogMasker {
      * @return 新的责任链
      */
     public LogMaskerChain withAdditional(LogMasker... additionalMaskers) {
-        List<LogMasker> all = new ArrayList<>();
-        for (LogMasker m : maskers) {
-            all.add(m);
+        List<LogMasker> all = new ArrayList<>(Arrays.asList(maskers));
+        all.addAll(Arrays.asList(additionalMaskers));
+        all.sort(PRIORITY_ORDER);
+        return new LogMaskerChain(all.toArray(new LogMasker[0]));
+    }
+
+    /**
+     * 将相邻的可组合规则合并为一个阶段
+     */
+    private static LogMasker[] compile(LogMasker[] maskers) {
+        List<LogMasker> stages = new ArrayList<>();
+        List<PatternMasker> run = new ArrayList<>();
+        for (LogMasker masker : maskers) {
+            if (CombinedPatternMasker.isCombinable(masker)) {
+                run.add((PatternMasker) masker);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                stages.add(new CombinedPatternMasker(run));
+                run = new ArrayList<>();
+            }
+            stages.add(masker);
         }
-        for (LogMasker m : additionalMaskers) {
-            all.add(m);
+        if (!run.isEmpty()) {
+            stages.add(new CombinedPatternMasker(run));
         }
-        all.sort(Comparator.comparingInt(m ->
-            m instanceof Prioritized p ? p.getPriority() : 1000
-        ));
-        return new LogMaskerChain(all.toArray(new LogMasker[0]));
+        return stages.toArray(new LogMasker[0]);
     }
 }
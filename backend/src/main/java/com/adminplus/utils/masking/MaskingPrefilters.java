@@ -0,0 +1,49 @@
+package com.adminplus.utils.masking;
+
+/**
+ * 脱敏规则的预判工具
+ * <p>
+ * 供 {@link PatternMasker#mayMatch(String)} 使用的简单字符扫描，只读不分配
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+final class MaskingPrefilters {
+
+    private MaskingPrefilters() {
+    }
+
+    /**
+     * 是否包含至少 length 个连续的 ASCII 数字
+     */
+    static boolean hasDigitRun(String input, int length) {
+        int run = 0;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            char c = input.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++run >= length) {
+                    return true;
+                }
+            } else {
+                run = 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否包含关键字（忽略大小写，关键字为 ASCII）
+     */
+    static boolean containsIgnoreCase(String input, String keyword) {
+        int last = input.length() - keyword.length();
+        char first = keyword.charAt(0);
+        for (int i = 0; i <= last; i++) {
+            char c = input.charAt(i);
+            if ((c == first || Character.toLowerCase(c) == first)
+                    && input.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
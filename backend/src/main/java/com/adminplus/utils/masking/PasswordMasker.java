@@ -1,5 +1,6 @@
 package com.adminplus.utils.masking;
 
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -10,7 +11,7 @@ import java.util.regex.Pattern;
  * @author AdminPlus
  * @since 2026-04-10
  */
-public class PasswordMasker implements LogMasker, Prioritized {
+public class PasswordMasker implements PatternMasker, Prioritized {
 
     private static final Pattern PATTERN = Pattern.compile(
             "(password[=:]\\s*[\"']?)([^\\s\"',}]+)([\"'\\s,}]*)",
@@ -18,11 +19,18 @@ public class PasswordMasker implements LogMasker, Prioritized {
     );
 
     @Override
-    public String mask(String input) {
-        if (input == null) {
-            return null;
-        }
-        return PATTERN.matcher(input).replaceAll("$1***$3");
+    public Pattern pattern() {
+        return PATTERN;
+    }
+
+    @Override
+    public String replacement(MatchResult match) {
+        return match.group(1) + "***" + match.group(3);
+    }
+
+    @Override
+    public boolean mayMatch(String input) {
+        return MaskingPrefilters.containsIgnoreCase(input, "password");
     }
 
     @Override
@@ -0,0 +1,46 @@
+package com.adminplus.utils.masking;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于正则的脱敏器
+ * <p>
+ * {@link LogMaskerChain} 将优先级相邻的此类规则编译为一个组合正则，一次扫描完成全部替换，
+ * 不再逐条 replaceAll。规则的正则不能使用按编号的反向引用（组合后分组编号会偏移），
+ * 标志仅支持可内嵌的 CASE_INSENSITIVE、MULTILINE、DOTALL、UNICODE_CASE、COMMENTS、UNIX_LINES，
+ * 其他标志的规则单独执行。
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+public interface PatternMasker extends LogMasker {
+
+    /**
+     * 匹配敏感内容的正则
+     */
+    Pattern pattern();
+
+    /**
+     * 生成匹配内容的替换文本（原样输出，不解析 $ 引用）
+     *
+     * @param match 本规则的匹配结果，分组编号与 {@link #pattern()} 一致
+     */
+    String replacement(MatchResult match);
+
+    /**
+     * 廉价的预判：返回 false 表示输入一定不会匹配，可跳过正则扫描
+     */
+    default boolean mayMatch(String input) {
+        return true;
+    }
+
+    @Override
+    default String mask(String input) {
+        if (input == null || input.isEmpty() || !mayMatch(input)) {
+            return input;
+        }
+        return pattern().matcher(input).replaceAll(mr -> Matcher.quoteReplacement(replacement(mr)));
+    }
+}
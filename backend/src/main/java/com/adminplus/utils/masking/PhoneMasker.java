@@ -1,5 +1,6 @@
 package com.adminplus.utils.masking;
 
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -10,16 +11,23 @@ import java.util.regex.Pattern;
  * @author AdminPlus
  * @since 2026-04-10
  */
-public class PhoneMasker implements LogMasker, Prioritized {
+public class PhoneMasker implements PatternMasker, Prioritized {
 
     private static final Pattern PATTERN = Pattern.compile("(1[3-9]\\d)(\\d{4})(\\d{4})");
 
     @Override
-    public String mask(String input) {
-        if (input == null) {
-            return null;
-        }
-        return PATTERN.matcher(input).replaceAll("$1****$3");
+    public Pattern pattern() {
+        return PATTERN;
+    }
+
+    @Override
+    public String replacement(MatchResult match) {
+        return match.group(1) + "****" + match.group(3);
+    }
+
+    @Override
+    public boolean mayMatch(String input) {
+        return MaskingPrefilters.hasDigitRun(input, 11);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.adminplus.utils.masking;
 
+import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 
 /**
@@ -10,7 +11,7 @@ import java.util.regex.Pattern;
  * @author AdminPlus
  * @since 2026-04-10
  */
-public class TokenMasker implements LogMasker, Prioritized {
+public class TokenMasker implements PatternMasker, Prioritized {
 
     private static final Pattern PATTERN = Pattern.compile(
             "(Bearer\\s+)(eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+)",
@@ -18,18 +19,23 @@ public class TokenMasker implements LogMasker, Prioritized {
     );
 
     @Override
-    public String mask(String input) {
-        if (input == null || input.isEmpty()) {
-            return input;
+    public Pattern pattern() {
+        return PATTERN;
+    }
+
+    @Override
+    public String replacement(MatchResult match) {
+        String prefix = match.group(1);
+        String token = match.group(2);
+        if (token.length() > 16) {
+            return prefix + token.substring(0, 8) + "..." + token.substring(token.length() - 8);
         }
-        return PATTERN.matcher(input).replaceAll(mr -> {
-            String prefix = mr.group(1);
-            String token = mr.group(2);
-            if (token.length() > 16) {
-                return prefix + token.substring(0, 8) + "..." + token.substring(token.length() - 8);
-            }
-            return prefix + "***";
-        });
+        return prefix + "***";
+    }
+
+    @Override
+    public boolean mayMatch(String input) {
+        return MaskingPrefilters.containsIgnoreCase(input, "bearer");
     }
 
     @Override
@@ -0,0 +1,26 @@
+-- ====================================================================
+-- 日志按日汇总表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: 按 (日期, 日志类型, 操作类型, 状态) 汇总日志数，由日志写入/删除增量维护
+--       空维度存储为 -1，以便唯一约束参与 ON CONFLICT
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_log_daily_stat (
+    id VARCHAR(64) PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    log_type INTEGER NOT NULL,
+    operation_type INTEGER NOT NULL,
+    status INTEGER NOT NULL,
+    log_count BIGINT NOT NULL,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_log_daily_stat UNIQUE (stat_date, log_type, operation_type, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_log_daily_stat_date ON sys_log_daily_stat(stat_date);
+
+COMMENT ON TABLE sys_log_daily_stat IS '日志按日汇总表';
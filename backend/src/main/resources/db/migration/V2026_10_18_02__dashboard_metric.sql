@@ -0,0 +1,40 @@
+-- ====================================================================
+-- 仪表盘汇总指标表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: sys_dashboard_metric 按 (指标, 日期, 维度) 存储计数，由业务写入增量维护、每晚校正
+--       不区分日期的指标（角色成员数）日期固定为 1970-01-01，无维度时维度为空串
+--       sys_dashboard_active_user 记录每日活跃用户，用于活跃用户数去重
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_dashboard_metric (
+    id VARCHAR(64) PRIMARY KEY,
+    metric VARCHAR(32) NOT NULL,
+    stat_date DATE NOT NULL,
+    dimension VARCHAR(64) NOT NULL,
+    metric_value BIGINT NOT NULL,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_dashboard_metric UNIQUE (metric, stat_date, dimension)
+);
+
+CREATE INDEX IF NOT EXISTS idx_dashboard_metric_date ON sys_dashboard_metric(stat_date);
+
+COMMENT ON TABLE sys_dashboard_metric IS '仪表盘汇总指标表';
+
+CREATE TABLE IF NOT EXISTS sys_dashboard_active_user (
+    id VARCHAR(64) PRIMARY KEY,
+    stat_date DATE NOT NULL,
+    user_id VARCHAR(64) NOT NULL,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_dashboard_active_user UNIQUE (stat_date, user_id)
+);
+
+COMMENT ON TABLE sys_dashboard_active_user IS '仪表盘每日活跃用户表';
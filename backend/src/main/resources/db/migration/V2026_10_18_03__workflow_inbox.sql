@@ -0,0 +1,43 @@
+-- ====================================================================
+-- 工作流待办收件箱表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: sys_workflow_inbox 每行为 (待审批用户, 进行中的实例)，随审批记录在同一事务内维护
+--       待办列表按 (submit_time, id) 做游标分页，覆盖索引使分页只需扫描索引
+--       sys_workflow_inbox_counter 保存每个用户的待审批数、未读数
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_workflow_inbox (
+    id VARCHAR(64) PRIMARY KEY,
+    user_id VARCHAR(64) NOT NULL,
+    instance_id VARCHAR(64) NOT NULL,
+    submit_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_workflow_inbox_user_instance UNIQUE (user_id, instance_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_workflow_inbox_cursor
+    ON sys_workflow_inbox(user_id, submit_time DESC, id DESC) INCLUDE (instance_id, is_read);
+CREATE INDEX IF NOT EXISTS idx_workflow_inbox_instance ON sys_workflow_inbox(instance_id);
+
+COMMENT ON TABLE sys_workflow_inbox IS '工作流待办收件箱表';
+
+CREATE TABLE IF NOT EXISTS sys_workflow_inbox_counter (
+    id VARCHAR(64) PRIMARY KEY,
+    user_id VARCHAR(64) NOT NULL,
+    pending_count BIGINT NOT NULL,
+    unread_count BIGINT NOT NULL,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_workflow_inbox_counter_user UNIQUE (user_id)
+);
+
+COMMENT ON TABLE sys_workflow_inbox_counter IS '工作流待办计数表';
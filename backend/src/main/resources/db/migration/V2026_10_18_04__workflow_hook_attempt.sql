@@ -0,0 +1,39 @@
+-- ====================================================================
+-- 待执行的异步钩子表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: 异步钩子在业务事务内写入，执行结束后删除；owner/lease_until 为调度租约，
+--       节点宕机后租约过期的记录由其他节点接管
+--       sys_workflow_node_hook 增加单次执行超时 timeout_ms
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_workflow_hook_attempt (
+    id VARCHAR(64) PRIMARY KEY,
+    hook_id VARCHAR(64) NOT NULL,
+    executor_type VARCHAR(20),
+    instance_id VARCHAR(64) NOT NULL,
+    node_id VARCHAR(64),
+    operation VARCHAR(30),
+    operator_id VARCHAR(50),
+    operator_name VARCHAR(100),
+    form_data TEXT,
+    extra_params TEXT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    owner VARCHAR(64),
+    lease_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error TEXT,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_wf_hook_attempt_lease ON sys_workflow_hook_attempt(lease_until);
+
+COMMENT ON TABLE sys_workflow_hook_attempt IS '待执行的异步钩子表';
+
+ALTER TABLE sys_workflow_node_hook ADD COLUMN IF NOT EXISTS timeout_ms INTEGER;
+
+COMMENT ON COLUMN sys_workflow_node_hook.timeout_ms IS '单次执行超时（毫秒）';
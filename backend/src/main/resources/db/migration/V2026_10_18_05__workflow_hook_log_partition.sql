@@ -0,0 +1,99 @@
+-- ====================================================================
+-- 工作流钩子日志表按月分区
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: sys_workflow_hook_log 改为按 create_time 按月范围分区（UTC），分区名 sys_workflow_hook_log_pYYYYMM，
+--       主键改为 (id, create_time)。过期日志由清理任务整块删除分区，不再逐行软删除。
+--       应用启动时及每天提前创建后续月份的分区，DEFAULT 分区兜底。
+--       原表中未删除的日志按月迁入对应分区，已软删除的日志不再迁移。
+--       未启用 Flyway 时由 SchemaTransitionRunner 在表尚未分区时执行（ddl-auto 建出的普通表会被改为分区表）。
+-- ====================================================================
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM pg_partitioned_table pt
+        JOIN pg_class c ON c.oid = pt.partrelid
+        WHERE c.relname = 'sys_workflow_hook_log'
+    ) THEN
+        RETURN;
+    END IF;
+
+    IF to_regclass('sys_workflow_hook_log') IS NOT NULL THEN
+        ALTER TABLE sys_workflow_hook_log RENAME TO sys_workflow_hook_log_legacy;
+        ALTER INDEX IF EXISTS sys_workflow_hook_log_pkey RENAME TO sys_workflow_hook_log_legacy_pkey;
+    END IF;
+
+    CREATE TABLE sys_workflow_hook_log (
+        id VARCHAR(64) NOT NULL,
+        instance_id VARCHAR(64) NOT NULL,
+        node_id VARCHAR(64),
+        hook_id VARCHAR(64),
+        hook_source VARCHAR(20),
+        hook_point VARCHAR(30) NOT NULL,
+        executor_type VARCHAR(20),
+        executor_config TEXT,
+        success BOOLEAN NOT NULL,
+        result_code VARCHAR(50),
+        result_message TEXT,
+        execution_time BIGINT,
+        retry_attempts INTEGER,
+        async BOOLEAN,
+        operator_id VARCHAR(50),
+        operator_name VARCHAR(100),
+        create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+        update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+        create_user VARCHAR(255) NOT NULL,
+        update_user VARCHAR(255) NOT NULL,
+        deleted BOOLEAN NOT NULL DEFAULT FALSE,
+        PRIMARY KEY (id, create_time)
+    ) PARTITION BY RANGE (create_time);
+
+    CREATE TABLE sys_workflow_hook_log_default PARTITION OF sys_workflow_hook_log DEFAULT;
+
+    -- 从原表最早的月份到当前月之后两个月
+    month_start := date_trunc('month', now() AT TIME ZONE 'UTC')::DATE;
+    last_month := (month_start + INTERVAL '2 months')::DATE;
+    IF to_regclass('sys_workflow_hook_log_legacy') IS NOT NULL THEN
+        SELECT LEAST(month_start, COALESCE(date_trunc('month', MIN(create_time))::DATE, month_start))
+        INTO month_start
+        FROM sys_workflow_hook_log_legacy
+        WHERE deleted = FALSE;
+    END IF;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF sys_workflow_hook_log FOR VALUES FROM (%L) TO (%L)',
+            'sys_workflow_hook_log_p' || to_char(month_start, 'YYYYMM'),
+            month_start::TEXT || ' 00:00:00+00',
+            (month_start + INTERVAL '1 month')::DATE::TEXT || ' 00:00:00+00');
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    IF to_regclass('sys_workflow_hook_log_legacy') IS NOT NULL THEN
+        INSERT INTO sys_workflow_hook_log (
+            id, instance_id, node_id, hook_id, hook_source, hook_point, executor_type, executor_config,
+            success, result_code, result_message, execution_time, retry_attempts, async,
+            operator_id, operator_name, create_time, update_time, create_user, update_user, deleted)
+        SELECT id, instance_id, node_id, hook_id, hook_source, hook_point, executor_type, executor_config,
+               success, result_code, result_message, execution_time, retry_attempts, async,
+               operator_id, operator_name,
+               COALESCE(create_time, now()), COALESCE(update_time, create_time, now()),
+               'system', 'system', FALSE
+        FROM sys_workflow_hook_log_legacy
+        WHERE deleted = FALSE;
+
+        DROP TABLE sys_workflow_hook_log_legacy;
+    END IF;
+END $$;
+
+-- 分区表上的索引会自动建立到每个分区
+CREATE INDEX IF NOT EXISTS idx_wf_hook_log_instance ON sys_workflow_hook_log(instance_id);
+CREATE INDEX IF NOT EXISTS idx_wf_hook_log_node ON sys_workflow_hook_log(node_id);
+CREATE INDEX IF NOT EXISTS idx_wf_hook_log_point ON sys_workflow_hook_log(hook_point);
+CREATE INDEX IF NOT EXISTS idx_wf_hook_log_time ON sys_workflow_hook_log(create_time);
+
+COMMENT ON TABLE sys_workflow_hook_log IS '工作流钩子执行日志表（按月分区）';
@@ -0,0 +1,11 @@
+-- ====================================================================
+-- 文件内容摘要
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: sys_file 增加 content_hash（SHA-256），由流式上传在写入存储时同步计算，
+--       历史文件为空
+-- ====================================================================
+
+ALTER TABLE sys_file ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_file_content_hash ON sys_file (content_hash);
@@ -0,0 +1,30 @@
+-- ====================================================================
+-- 内容寻址文件对象表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: 按内容 SHA-256 去重存储，sys_file 通过 content_hash 引用；
+--       ref_count 为引用数，降为 0 时记录 released_time，超过宽限期后由定时任务回收
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_file_blob (
+    id VARCHAR(64) PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL,
+    storage_type VARCHAR(20) NOT NULL,
+    file_url VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    released_time TIMESTAMP WITH TIME ZONE,
+    create_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    update_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    create_user VARCHAR(255) NOT NULL,
+    update_user VARCHAR(255) NOT NULL,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT uk_file_blob_hash UNIQUE (content_hash, storage_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_file_blob_released ON sys_file_blob (ref_count, released_time);
+
+COMMENT ON TABLE sys_file_blob IS '内容寻址文件对象表';
+COMMENT ON COLUMN sys_file_blob.content_hash IS '内容 SHA-256（小写十六进制）';
+COMMENT ON COLUMN sys_file_blob.ref_count IS '引用该对象的未删除文件记录数';
+COMMENT ON COLUMN sys_file_blob.released_time IS '引用计数降为 0 的时间';
@@ -0,0 +1,34 @@
+-- ====================================================================
+-- Refresh Token 摘要存储
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: sys_refresh_token 以定长摘要（与 TokenHashUtils 相同：SHA-256 的 Base64 前 32 位）
+--       替代 TEXT 类型的 Token 原文，摘要与 user_id 均建唯一索引：
+--       刷新时按摘要等值查询，登录时按 user_id 原地覆盖（每个用户一行）
+--       未启用 Flyway 时由 SchemaTransitionRunner 在启动时检测到 token 列仍存在后执行
+-- ====================================================================
+
+ALTER TABLE sys_refresh_token ADD COLUMN IF NOT EXISTS token_hash VARCHAR(32);
+
+UPDATE sys_refresh_token
+SET token_hash = substr(encode(sha256(convert_to(token, 'UTF8')), 'base64'), 1, 32)
+WHERE token_hash IS NULL;
+
+-- 软删除的记录已失效，同一用户只保留最新的一行
+DELETE FROM sys_refresh_token WHERE deleted = true;
+
+DELETE FROM sys_refresh_token t
+USING sys_refresh_token newer
+WHERE t.user_id = newer.user_id
+  AND (t.create_time, t.id) < (newer.create_time, newer.id);
+
+ALTER TABLE sys_refresh_token ALTER COLUMN token_hash SET NOT NULL;
+
+ALTER TABLE sys_refresh_token DROP CONSTRAINT IF EXISTS uk_refresh_token_token;
+DROP INDEX IF EXISTS idx_refresh_token_token_hash;
+DROP INDEX IF EXISTS idx_refresh_token_token;
+DROP INDEX IF EXISTS idx_refresh_token_user_id;
+ALTER TABLE sys_refresh_token DROP COLUMN IF EXISTS token;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_token_token_hash ON sys_refresh_token (token_hash);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_token_user_id ON sys_refresh_token (user_id);
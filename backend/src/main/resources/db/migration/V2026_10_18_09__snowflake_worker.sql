@@ -0,0 +1,22 @@
+-- ====================================================================
+-- 雪花节点号租约表
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: app.snowflake.lease-mode=DATABASE 时，每个实例启动时租用一个节点号并定期续租，
+--       保证多实例生成的 ID 不冲突；预置 0 ~ 1023 全部节点号
+--       未启用 Flyway 时由 SchemaTransitionRunner 在启动时检测到表不存在后执行
+-- ====================================================================
+
+CREATE TABLE IF NOT EXISTS sys_snowflake_worker (
+    worker_id INTEGER PRIMARY KEY,
+    instance_id VARCHAR(128),
+    lease_expire_time TIMESTAMP WITH TIME ZONE
+);
+
+INSERT INTO sys_snowflake_worker (worker_id)
+SELECT generate_series(0, 1023)
+ON CONFLICT (worker_id) DO NOTHING;
+
+COMMENT ON TABLE sys_snowflake_worker IS '雪花节点号租约表';
+COMMENT ON COLUMN sys_snowflake_worker.instance_id IS '持有租约的实例标识';
+COMMENT ON COLUMN sys_snowflake_worker.lease_expire_time IS '租约到期时间（数据库时钟），为空表示从未被租用';
@@ -0,0 +1,13 @@
+-- ====================================================================
+-- 工作流待办收件箱游标覆盖索引
+-- ====================================================================
+-- 创建日期: 2026-10-18
+-- 描述: 由 ddl-auto 建表的环境只有不含 INCLUDE 列的同名索引（或没有该索引），
+--       待办分页需要回表读取 instance_id、is_read；按覆盖索引重建
+--       未启用 Flyway 时由 SchemaTransitionRunner 在启动时检测到索引不是覆盖索引后执行
+-- ====================================================================
+
+DROP INDEX IF EXISTS idx_workflow_inbox_cursor;
+
+CREATE INDEX idx_workflow_inbox_cursor
+    ON sys_workflow_inbox(user_id, submit_time DESC, id DESC) INCLUDE (instance_id, is_read);
@@ -0,0 +1,41 @@
+-- 令牌桶限流（单次往返、原子执行）
+-- KEYS[1]  桶键（哈希：tokens 剩余令牌，ts 上次补充时间毫秒）
+-- ARGV[1]  桶容量
+-- ARGV[2]  每毫秒补充的令牌数
+-- ARGV[3]  申请的令牌数（本地租约批量）
+-- 返回 {发放令牌数, 剩余令牌数, 重试等待毫秒, 桶补满毫秒}
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+-- 余量充足（至少两倍批量）时才按批量发放，否则逐个发放，避免单节点囤积临界令牌
+local granted = 0
+if requested > 1 and tokens >= requested * 2 then
+    granted = requested
+elseif tokens >= 1 then
+    granted = 1
+end
+tokens = tokens - granted
+
+-- 每次写入都刷新 TTL：桶补满后键自然过期，与满桶等价，不会残留无 TTL 的键
+local reset = math.ceil((capacity - tokens) / rate)
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+redis.call('PEXPIRE', KEYS[1], math.max(reset, 1000))
+
+local retryAfter = 0
+if granted == 0 then
+    retryAfter = math.ceil((1 - tokens) / rate)
+end
+return {granted, math.floor(tokens), retryAfter, reset}
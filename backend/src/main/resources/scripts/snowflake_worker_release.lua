@@ -0,0 +1,8 @@
+-- 释放雪花节点号（仅删除本实例持有的租约）
+-- KEYS[1]  节点号租约键
+-- ARGV[1]  实例标识
+-- 返回删除的键数
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
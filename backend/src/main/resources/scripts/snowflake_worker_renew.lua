@@ -0,0 +1,11 @@
+-- 续租雪花节点号
+-- KEYS[1]  节点号租约键
+-- ARGV[1]  实例标识
+-- ARGV[2]  租期（毫秒）
+-- 返回 1 续租成功（租约已过期但节点号未被占用时重新占用），0 已被其他实例占用
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] or not owner then
+    redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+    return 1
+end
+return 0
@@ -0,0 +1,186 @@
+package com.adminplus.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * TwoLevelCache 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCache Unit Tests")
+class TwoLevelCacheTest {
+
+    @Mock
+    private CacheInvalidationPublisher publisher;
+
+    private ConcurrentMapCache remoteCache;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCache = spy(new ConcurrentMapCache("userPermissions", false));
+        cache = new TwoLevelCache("userPermissions",
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(),
+                remoteCache,
+                publisher);
+    }
+
+    @Nested
+    @DisplayName("get Tests")
+    class GetTests {
+
+        @Test
+        @DisplayName("should serve repeated reads from L1 without hitting L2")
+        void get_RepeatedRead_ShouldHitLocal() {
+            // Given
+            remoteCache.put("user-001", List.of("user:list"));
+
+            // When
+            Object first = cache.get("user-001").get();
+            Object second = cache.get("user-001").get();
+
+            // Then
+            assertThat(first).isEqualTo(List.of("user:list"));
+            assertThat(second).isSameAs(first);
+            verify(remoteCache, times(1)).get("user-001");
+            assertThat(cache.getRemoteHits()).isEqualTo(1);
+            assertThat(cache.getLocalCache().stats().hitCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should return null and count L2 miss when absent")
+        void get_WhenAbsent_ShouldReturnNull() {
+            assertThat(cache.get("missing")).isNull();
+            assertThat(cache.getRemoteMisses()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should treat numeric and string keys as the same L1 entry")
+        void get_NumericKey_ShouldMatchStringKey() {
+            cache.put(1L, "value");
+
+            assertThat(cache.getLocalCache().getIfPresent("1")).isEqualTo("value");
+        }
+
+        @Test
+        @DisplayName("should load through both tiers with value loader")
+        void get_WithLoader_ShouldPopulateBothTiers() {
+            String value = cache.get("key", () -> "loaded");
+
+            assertThat(value).isEqualTo("loaded");
+            assertThat(remoteCache.get("key").get()).isEqualTo("loaded");
+            assertThat(cache.getLocalCache().getIfPresent("key")).isEqualTo("loaded");
+        }
+    }
+
+    @Nested
+    @DisplayName("put Tests")
+    class PutTests {
+
+        @Test
+        @DisplayName("should not broadcast when filling through the value loader")
+        void get_WithLoader_ShouldNotPublish() {
+            // When
+            cache.get("user-001", () -> "value");
+
+            // Then
+            verify(publisher, never()).publishEvict(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("should broadcast on explicit write")
+        void put_Explicit_ShouldPublish() {
+            // When
+            cache.put("user-001", "value");
+
+            // Then
+            verify(publisher).publishEvict("userPermissions", "user-001");
+        }
+
+        @Test
+        @DisplayName("should broadcast a write that follows a miss on the same thread")
+        void put_AfterMiss_ShouldPublish() {
+            // Given: 未命中后方法抛出异常或被 unless 跳过，没有回填
+            assertThat(cache.get("user-001")).isNull();
+
+            // When
+            cache.put("user-001", "value");
+
+            // Then
+            verify(publisher).publishEvict("userPermissions", "user-001");
+        }
+
+        @Test
+        @DisplayName("should broadcast when overwriting a cached value")
+        void put_AfterHit_ShouldPublish() {
+            // Given
+            remoteCache.put("user-001", "old");
+            assertThat(cache.get("user-001").get()).isEqualTo("old");
+
+            // When
+            cache.put("user-001", "new");
+
+            // Then
+            verify(publisher).publishEvict("userPermissions", "user-001");
+            assertThat(cache.get("user-001").get()).isEqualTo("new");
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should evict both tiers and broadcast")
+        void evict_ShouldClearBothTiersAndPublish() {
+            cache.get("user-001", () -> "value");
+
+            cache.evict("user-001");
+
+            assertThat(remoteCache.get("user-001")).isNull();
+            assertThat(cache.getLocalCache().getIfPresent("user-001")).isNull();
+            verify(publisher).publishEvict("userPermissions", "user-001");
+        }
+
+        @Test
+        @DisplayName("should clear both tiers and broadcast")
+        void clear_ShouldClearBothTiersAndPublish() {
+            cache.put("a", "1");
+            cache.put("b", "2");
+
+            cache.clear();
+
+            assertThat(cache.getLocalCache().estimatedSize()).isZero();
+            assertThat(remoteCache.getNativeCache()).isEmpty();
+            verify(publisher).publishClear("userPermissions");
+        }
+
+        @Test
+        @DisplayName("should drop only local copy on remote invalidation")
+        void evictLocal_ShouldKeepRemoteEntry() {
+            cache.put("user-001", "value");
+
+            cache.evictLocal("user-001");
+
+            assertThat(cache.getLocalCache().getIfPresent("user-001")).isNull();
+            assertThat(remoteCache.get("user-001")).isNotNull();
+            assertThat(cache.getRemoteInvalidations()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.adminplus.common.expression;
+
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.ParseException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SpelExpressionEngine 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("SpelExpressionEngine Unit Tests")
+class SpelExpressionEngineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SpelExpressionEngine engine;
+    private WorkflowInstanceEntity instance;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new SpelExpressionEngine(meterRegistry);
+        instance = new WorkflowInstanceEntity();
+        instance.setStatus("running");
+    }
+
+    private EvaluationContext conditionContext(int amount) {
+        return engine.conditionContext(Map.of("instance", instance, "formData", Map.of("amount", amount)));
+    }
+
+    @Nested
+    @DisplayName("Cache Tests")
+    class CacheTests {
+
+        @Test
+        @DisplayName("should parse each source text once")
+        void evaluate_SameSource_ShouldHitCache() {
+            // When
+            for (int i = 0; i < 4; i++) {
+                engine.evaluate("#formData['amount'] > 500", conditionContext(i * 300), Boolean.class);
+            }
+
+            // Then
+            assertThat(engine.hitRate()).isEqualTo(0.75);
+            assertThat(meterRegistry.get("spel.expression.cache.gets").tag("result", "miss").functionCounter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should not cache expressions that fail to parse")
+        void evaluate_InvalidSyntax_ShouldThrow() {
+            assertThatThrownBy(() -> engine.evaluate("#formData[", conditionContext(1), Boolean.class))
+                    .isInstanceOf(ParseException.class);
+            assertThat(meterRegistry.get("spel.expression.cache.size").gauge().value()).isZero();
+        }
+
+        @Test
+        @DisplayName("should cache template and plain expressions separately")
+        void evaluateTemplate_ShouldUseTemplateSyntax() {
+            // When
+            String text = engine.evaluateTemplate("删除用户 #{#name}", engine.standardContext(Map.of("name", "alice")));
+
+            // Then
+            assertThat(text).isEqualTo("删除用户 alice");
+        }
+    }
+
+    @Nested
+    @DisplayName("Compilation Tests")
+    class CompilationTests {
+
+        @Test
+        @DisplayName("should compile hot expressions and keep results consistent")
+        void evaluate_HotExpression_ShouldCompile() {
+            // When
+            for (int i = 0; i < SpelExpressionEngine.HOT_THRESHOLD * 2; i++) {
+                Boolean result = engine.evaluate("#instance.status == 'running' and #formData['amount'] > 500",
+                        conditionContext(1000), Boolean.class);
+                assertThat(result).isTrue();
+            }
+
+            // Then
+            assertThat(engine.compiledCount()).isEqualTo(1);
+            assertThat(engine.evaluate("#instance.status == 'running' and #formData['amount'] > 500",
+                    conditionContext(100), Boolean.class)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Context Tests")
+    class ContextTests {
+
+        @Test
+        @DisplayName("should reject type references in condition context")
+        void conditionContext_TypeReference_ShouldFail() {
+            assertThatThrownBy(() -> engine.evaluate("T(java.lang.System).exit(0) == null",
+                    conditionContext(1), Boolean.class))
+                    .isInstanceOf(EvaluationException.class);
+        }
+
+        @Test
+        @DisplayName("should allow instance method calls in condition context")
+        void conditionContext_InstanceMethod_ShouldWork() {
+            assertThat(engine.evaluate("#instance.status.startsWith('run')", conditionContext(1), Boolean.class))
+                    .isTrue();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.adminplus.common.filter;
+
+import com.adminplus.common.pojo.XssRequestWrapper;
+import com.adminplus.common.properties.AppProperties;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * XssFilter 与 XssRequestWrapper 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("XssFilter Unit Tests")
+class XssFilterTest {
+
+    private XssFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        filter = new XssFilter(new AppProperties().getXss());
+        request = new MockHttpServletRequest("GET", "/api/v1/sys/users");
+    }
+
+    private HttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+        AtomicReference<ServletRequest> passed = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, resp) -> passed.set(req));
+        return (HttpServletRequest) passed.get();
+    }
+
+    @Test
+    @DisplayName("should pass multipart requests through unwrapped")
+    void doFilter_Multipart_ShouldNotWrap() throws Exception {
+        // Given
+        request.setContentType("multipart/form-data; boundary=x");
+
+        // When & Then
+        assertThat(filter(request)).isSameAs(request);
+    }
+
+    @Nested
+    @DisplayName("header Tests")
+    class HeaderTests {
+
+        @Test
+        @DisplayName("should sanitize headers that are not allowlisted")
+        void getHeader_NotAllowlisted_ShouldSanitize() throws Exception {
+            // Given
+            request.addHeader("X-Custom", "<script>alert(1)");
+
+            // When
+            HttpServletRequest wrapped = filter(request);
+
+            // Then
+            assertThat(wrapped).isInstanceOf(XssRequestWrapper.class);
+            assertThat(wrapped.getHeader("X-Custom")).isEqualTo(">alert(1)");
+        }
+
+        @Test
+        @DisplayName("should return allowlisted headers as-is regardless of name case")
+        void getHeader_Allowlisted_ShouldReturnOriginal() throws Exception {
+            // Given
+            request.addHeader("Authorization", "Bearer a.b.c onx=1");
+
+            // When
+            HttpServletRequest wrapped = filter(request);
+
+            // Then
+            assertThat(wrapped.getHeader("authorization")).isEqualTo("Bearer a.b.c onx=1");
+        }
+
+        @Test
+        @DisplayName("should return the same sanitized instance on repeated reads")
+        void getHeader_RepeatedReads_ShouldReuseResult() throws Exception {
+            // Given
+            request.addHeader("X-Custom", "  onclick=go() ");
+            HttpServletRequest wrapped = filter(request);
+
+            // When
+            String first = wrapped.getHeader("X-Custom");
+            String second = wrapped.getHeader("X-Custom");
+
+            // Then
+            assertThat(first).isEqualTo("go()");
+            assertThat(second).isSameAs(first);
+            assertThat(wrapped.getHeader("X-Missing")).isNull();
+            assertThat(wrapped.getHeader("X-Missing")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("parameter Tests")
+    class ParameterTests {
+
+        @Test
+        @DisplayName("should sanitize parameter values and keep allowlisted ones")
+        void getParameter_ShouldSanitizeUnlessAllowlisted() throws Exception {
+            // Given
+            request.addParameter("keyword", "javascript:alert(1)");
+            request.addParameter("page", " 1 ");
+
+            // When
+            HttpServletRequest wrapped = filter(request);
+
+            // Then
+            assertThat(wrapped.getParameter("keyword")).isEqualTo("alert(1)");
+            assertThat(wrapped.getParameter("page")).isEqualTo(" 1 ");
+        }
+
+        @Test
+        @DisplayName("should return the original array when no value changes")
+        void getParameterValues_Clean_ShouldReturnOriginal() throws Exception {
+            // Given
+            request.addParameter("ids", "1", "2");
+            request.addParameter("names", "张三", "<iframe src=x>");
+
+            // When
+            HttpServletRequest wrapped = filter(request);
+
+            // Then
+            assertThat(wrapped.getParameterValues("ids")).isSameAs(request.getParameterValues("ids"));
+            assertThat(wrapped.getParameterValues("names")).containsExactly("张三", "src=x>");
+            assertThat(request.getParameterValues("names")).containsExactly("张三", "<iframe src=x>");
+            assertThat(wrapped.getParameterValues("missing")).isNull();
+        }
+    }
+}
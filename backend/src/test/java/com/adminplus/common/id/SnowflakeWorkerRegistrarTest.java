@@ -0,0 +1,112 @@
+package com.adminplus.common.id;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.utils.IdUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * SnowflakeWorkerRegistrar 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SnowflakeWorkerRegistrar Unit Tests")
+class SnowflakeWorkerRegistrarTest {
+
+    @Mock
+    private WorkerIdLeaser leaser;
+
+    private SnowflakeWorkerRegistrar registrar;
+
+    @BeforeEach
+    void setUp() {
+        registrar = new SnowflakeWorkerRegistrar(new AppProperties().getSnowflake(), leaser);
+    }
+
+    @Test
+    @DisplayName("should switch IdUtils to the leased worker id")
+    void register_ShouldUseLeasedWorkerId() {
+        // Given
+        when(leaser.acquire(anyString(), any())).thenReturn(OptionalInt.of(517));
+
+        // When
+        registrar.register();
+
+        // Then
+        assertThat(registrar.getWorkerId()).isEqualTo(517);
+        assertThat(IdUtils.getWorkerId()).isEqualTo(517);
+        assertThat((IdUtils.nextId() >>> 12) & 1023).isEqualTo(517);
+    }
+
+    @Test
+    @DisplayName("should fail startup when no worker id is available")
+    void register_WhenExhausted_ShouldThrow() {
+        // Given
+        when(leaser.acquire(anyString(), any())).thenReturn(OptionalInt.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> registrar.register()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("should lease a new worker id when the lease was taken over")
+    void renew_WhenLost_ShouldAcquireAgain() {
+        // Given
+        when(leaser.acquire(anyString(), any())).thenReturn(OptionalInt.of(3), OptionalInt.of(4));
+        registrar.register();
+        when(leaser.renew(eq(3), anyString(), any())).thenReturn(false);
+
+        // When
+        registrar.renew();
+
+        // Then
+        assertThat(registrar.getWorkerId()).isEqualTo(4);
+        assertThat(IdUtils.getWorkerId()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("should keep the worker id when renewal succeeds")
+    void renew_WhenOwned_ShouldKeepWorkerId() {
+        // Given
+        when(leaser.acquire(anyString(), any())).thenReturn(OptionalInt.of(3));
+        registrar.register();
+        when(leaser.renew(eq(3), anyString(), any())).thenReturn(true);
+
+        // When
+        registrar.renew();
+        registrar.release();
+
+        // Then
+        assertThat(registrar.getWorkerId()).isEqualTo(3);
+        verify(leaser, times(1)).acquire(anyString(), any());
+        verify(leaser).release(eq(3), anyString());
+    }
+
+    @Test
+    @DisplayName("should not renew or release before a worker id is leased")
+    void renew_BeforeRegister_ShouldDoNothing() {
+        // When
+        registrar.renew();
+        registrar.release();
+
+        // Then
+        verify(leaser, never()).renew(anyInt(), anyString(), any());
+        verify(leaser, never()).release(anyInt(), anyString());
+    }
+}
@@ -1,24 +1,31 @@
 package com.adminplus.common.interceptor;
 
 import com.adminplus.common.properties.AppProperties;
-import jakarta.servlet.http.HttpServletResponse;
+import com.adminplus.common.ratelimit.RateLimitDecision;
+import com.adminplus.common.ratelimit.RedisRateLimiter;
+import com.adminplus.enums.RateLimitDimension;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,15 +39,9 @@ import static org.mockito.Mockito.*;
 class RateLimitInterceptorTest {
 
     @Mock
-    private StringRedisTemplate redisTemplate;
-
-    @Mock
-    private ValueOperations<String, String> valueOperations;
+    private RedisRateLimiter rateLimiter;
 
-    @Mock
     private AppProperties appProperties;
-
-    @InjectMocks
     private RateLimitInterceptor interceptor;
 
     private MockHttpServletRequest request;
@@ -50,15 +51,28 @@ class RateLimitInterceptorTest {
     void setUp() {
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         // Setup default rate limit config
-        AppProperties.RateLimit rateLimit = new AppProperties.RateLimit();
+        appProperties = new AppProperties();
+        AppProperties.RateLimit rateLimit = appProperties.getRateLimit();
         rateLimit.setLoginMaxRequests(5);
         rateLimit.setLoginTimeWindow(60);
         rateLimit.setGeneralMaxRequests(100);
         rateLimit.setGeneralTimeWindow(60);
-        when(appProperties.getRateLimit()).thenReturn(rateLimit);
+        interceptor = new RateLimitInterceptor(rateLimiter, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static RateLimitDecision allowed(int limit, long remaining) {
+        return new RateLimitDecision(true, limit, remaining, 12, 0);
+    }
+
+    private static RateLimitDecision denied(int limit) {
+        return new RateLimitDecision(false, limit, 0, 60, 12);
     }
 
     @Nested
@@ -66,18 +80,20 @@ class RateLimitInterceptorTest {
     class LoginEndpointTests {
 
         @Test
-        @DisplayName("should allow request when under limit")
+        @DisplayName("should allow request when under limit and expose quota headers")
         void preHandle_LoginUnderLimit_ShouldAllow() throws Exception {
             request.setRequestURI("/auth/login");
             request.setRemoteAddr("192.168.1.1");
 
-            when(valueOperations.increment(anyString())).thenReturn(1L);
+            when(rateLimiter.acquire("rate_limit:login:ip:192.168.1.1", 5, 60)).thenReturn(allowed(5, 4));
 
             boolean result = interceptor.preHandle(request, response, null);
 
             assertThat(result).isTrue();
             assertThat(response.getStatus()).isEqualTo(200);
-            verify(redisTemplate).expire(anyString(), anyLong(), any());
+            assertThat(response.getHeader("X-RateLimit-Limit")).isEqualTo("5");
+            assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("4");
+            assertThat(response.getHeader("X-RateLimit-Reset")).isEqualTo("12");
         }
 
         @Test
@@ -86,27 +102,26 @@ class RateLimitInterceptorTest {
             request.setRequestURI("/auth/login");
             request.setRemoteAddr("192.168.1.1");
 
-            when(valueOperations.increment(anyString())).thenReturn(6L);
+            when(rateLimiter.acquire(anyString(), eq(5), eq(60))).thenReturn(denied(5));
 
             boolean result = interceptor.preHandle(request, response, null);
 
             assertThat(result).isFalse();
             assertThat(response.getStatus()).isEqualTo(429);
+            assertThat(response.getHeader("Retry-After")).isEqualTo("12");
             assertThat(response.getContentAsString()).contains("请求过于频繁");
         }
 
         @Test
-        @DisplayName("should allow request exactly at limit")
-        void preHandle_LoginAtLimit_ShouldAllow() throws Exception {
-            request.setRequestURI("/auth/login");
+        @DisplayName("should match rules against the path without context path")
+        void preHandle_WithContextPath_ShouldMatchLoginRule() throws Exception {
+            request.setContextPath("/api");
+            request.setRequestURI("/api/auth/login");
             request.setRemoteAddr("192.168.1.1");
 
-            when(valueOperations.increment(anyString())).thenReturn(5L);
-
-            boolean result = interceptor.preHandle(request, response, null);
+            when(rateLimiter.acquire(contains("login"), eq(5), eq(60))).thenReturn(allowed(5, 4));
 
-            assertThat(result).isTrue();
-            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
         }
     }
 
@@ -115,17 +130,41 @@ class RateLimitInterceptorTest {
     class GeneralEndpointTests {
 
         @Test
-        @DisplayName("should apply general rate limit for other endpoints")
+        @DisplayName("should apply general rate limit for sensitive endpoints")
         void preHandle_GeneralEndpoint_ShouldApplyGeneralLimit() throws Exception {
-            request.setRequestURI("/users");
+            request.setRequestURI("/workflow/instances/inst-001/approve");
             request.setRemoteAddr("192.168.1.2");
 
-            when(valueOperations.increment(anyString())).thenReturn(1L);
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(allowed(100, 99));
 
             boolean result = interceptor.preHandle(request, response, null);
 
             assertThat(result).isTrue();
-            verify(valueOperations).increment(contains("general"));
+            verify(rateLimiter).acquire(contains("general"), eq(100), eq(60));
+        }
+
+        @Test
+        @DisplayName("should share one general bucket across the default sensitive endpoints")
+        void preHandle_DefaultSensitiveEndpoints_ShouldShareGeneralBucket() throws Exception {
+            request.setRemoteAddr("192.168.1.2");
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(allowed(100, 99));
+
+            for (String uri : List.of("/auth/refresh", "/sys/users/u1/password", "/files/upload",
+                    "/workflow/instances/inst-001/submit", "/workflow/instances/inst-001/reject")) {
+                request.setRequestURI(uri);
+                assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            }
+
+            verify(rateLimiter, times(5)).acquire("rate_limit:general:ip:192.168.1.2", 100, 60);
+        }
+
+        @Test
+        @DisplayName("should not limit ordinary endpoints by default")
+        void preHandle_OrdinaryEndpoint_ShouldNotLimitByDefault() throws Exception {
+            request.setRequestURI("/sys/users");
+
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            verifyNoInteractions(rateLimiter);
         }
 
         @Test
@@ -134,13 +173,24 @@ class RateLimitInterceptorTest {
             request.setRequestURI("/files/upload");
             request.setRemoteAddr("192.168.1.2");
 
-            when(valueOperations.increment(anyString())).thenReturn(101L);
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(denied(100));
 
             boolean result = interceptor.preHandle(request, response, null);
 
             assertThat(result).isFalse();
             assertThat(response.getStatus()).isEqualTo(429);
         }
+
+        @Test
+        @DisplayName("should allow without quota headers when the limiter fails open")
+        void preHandle_WhenLimiterFailsOpen_ShouldAllowWithoutHeaders() throws Exception {
+            request.setRequestURI("/auth/refresh");
+
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(RateLimitDecision.failOpen(100));
+
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            assertThat(response.getHeader("X-RateLimit-Remaining")).isNull();
+        }
     }
 
     @Nested
@@ -151,52 +201,78 @@ class RateLimitInterceptorTest {
         @DisplayName("should track different IPs separately")
         void preHandle_DifferentIps_ShouldTrackSeparately() throws Exception {
             request.setRequestURI("/auth/login");
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(allowed(5, 4));
 
             // First IP
             request.setRemoteAddr("192.168.1.1");
-            when(valueOperations.increment(contains("192.168.1.1"))).thenReturn(1L);
-
-            boolean result1 = interceptor.preHandle(request, response, null);
-            assertThat(result1).isTrue();
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
 
             // Second IP - separate counter
             response = new MockHttpServletResponse();
             request.setRemoteAddr("192.168.1.2");
-            when(valueOperations.increment(contains("192.168.1.2"))).thenReturn(1L);
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
 
-            boolean result2 = interceptor.preHandle(request, response, null);
-            assertThat(result2).isTrue();
+            verify(rateLimiter).acquire(contains("192.168.1.1"), eq(5), eq(60));
+            verify(rateLimiter).acquire(contains("192.168.1.2"), eq(5), eq(60));
         }
     }
 
     @Nested
-    @DisplayName("Configurable Values Tests")
-    class ConfigurableValuesTests {
+    @DisplayName("Configurable Rules Tests")
+    class ConfigurableRulesTests {
+
+        private AppProperties.RateLimit.Rule rule(String name, String pattern, RateLimitDimension dimension,
+                                                  int maxRequests) {
+            AppProperties.RateLimit.Rule rule = new AppProperties.RateLimit.Rule();
+            rule.setName(name);
+            rule.setPattern(pattern);
+            rule.setDimension(dimension);
+            rule.setMaxRequests(maxRequests);
+            rule.setWindowSeconds(30);
+            return rule;
+        }
 
         @Test
-        @DisplayName("should use configured rate limit values")
-        void preHandle_ShouldUseConfiguredValues() throws Exception {
-            AppProperties.RateLimit customLimit = new AppProperties.RateLimit();
-            customLimit.setLoginMaxRequests(3);
-            customLimit.setLoginTimeWindow(30);
-            customLimit.setGeneralMaxRequests(50);
-            customLimit.setGeneralTimeWindow(30);
-            when(appProperties.getRateLimit()).thenReturn(customLimit);
-
-            request.setRequestURI("/auth/login");
+        @DisplayName("should apply the first matching configured rule")
+        void preHandle_ShouldUseFirstMatchingRule() throws Exception {
+            appProperties.getRateLimit().setRules(List.of(
+                    rule("upload", "/files/upload", RateLimitDimension.IP, 3),
+                    rule("default", "/**", RateLimitDimension.IP, 50)));
+            interceptor = new RateLimitInterceptor(rateLimiter, appProperties);
+            request.setRequestURI("/files/upload");
             request.setRemoteAddr("192.168.1.1");
 
-            when(valueOperations.increment(anyString())).thenReturn(3L);
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(allowed(3, 2));
 
-            boolean result = interceptor.preHandle(request, response, null);
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            verify(rateLimiter).acquire("rate_limit:upload:ip:192.168.1.1", 3, 30);
+        }
 
-            assertThat(result).isTrue();  // 3 is exactly at limit
+        @Test
+        @DisplayName("should skip requests matched by no rule")
+        void preHandle_WhenNoRuleMatches_ShouldAllow() throws Exception {
+            appProperties.getRateLimit().setRules(List.of(rule("upload", "/files/upload", RateLimitDimension.IP, 3)));
+            interceptor = new RateLimitInterceptor(rateLimiter, appProperties);
+            request.setRequestURI("/users");
 
-            when(valueOperations.increment(anyString())).thenReturn(4L);
-            response = new MockHttpServletResponse();
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            verifyNoInteractions(rateLimiter);
+        }
 
-            result = interceptor.preHandle(request, response, null);
-            assertThat(result).isFalse();  // 4 exceeds limit of 3
+        @Test
+        @DisplayName("should count per user for user-dimension rules")
+        void preHandle_UserDimension_ShouldKeyByUserId() throws Exception {
+            appProperties.getRateLimit().setRules(List.of(rule("approve", "/workflow/**", RateLimitDimension.USER, 10)));
+            interceptor = new RateLimitInterceptor(rateLimiter, appProperties);
+            Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("alice").claim("userId", "user-001").build();
+            SecurityContextHolder.getContext().setAuthentication(
+                    new JwtAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+            request.setRequestURI("/workflow/1/approve");
+
+            when(rateLimiter.acquire(anyString(), anyInt(), anyInt())).thenReturn(allowed(10, 9));
+
+            assertThat(interceptor.preHandle(request, response, null)).isTrue();
+            verify(rateLimiter).acquire("rate_limit:approve:user:user-001", 10, 30);
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.adminplus.common.ratelimit;
+
+import com.adminplus.common.properties.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * RedisRateLimiter 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisRateLimiter Unit Tests")
+class RedisRateLimiterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RedisRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RedisRateLimiter(redisTemplate, new AppProperties());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenScriptResult(long granted, long remaining, long retryAfterMs, long resetMs) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenReturn(List.of(granted, remaining, retryAfterMs, resetMs));
+    }
+
+    @Test
+    @DisplayName("should serve leased tokens locally before returning to Redis")
+    @SuppressWarnings("unchecked")
+    void acquire_WithLease_ShouldSkipRedisUntilLeaseExhausted() {
+        // Given: 容量 100 的规则一次预取 10 个令牌
+        givenScriptResult(10, 80, 0, 12_000);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.acquire("rate_limit:general:ip:1", 100, 60).allowed()).isTrue();
+        }
+        rateLimiter.acquire("rate_limit:general:ip:1", 100, 60);
+
+        // Then
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of("rate_limit:general:ip:1")),
+                eq("100"), any(), eq("10"));
+    }
+
+    @Test
+    @DisplayName("should go to Redis for every request on small-capacity rules")
+    void leaseSize_SmallCapacity_ShouldBeOne() {
+        assertThat(rateLimiter.leaseSize(5)).isEqualTo(1);
+        assertThat(rateLimiter.leaseSize(100)).isEqualTo(10);
+        assertThat(rateLimiter.leaseSize(10_000)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("should deny with retry-after when the bucket is empty")
+    void acquire_WhenBucketEmpty_ShouldDeny() {
+        // Given
+        givenScriptResult(0, 0, 11_500, 60_000);
+
+        // When
+        RateLimitDecision decision = rateLimiter.acquire("rate_limit:login:ip:1", 5, 60);
+
+        // Then
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterSeconds()).isEqualTo(12);
+        assertThat(decision.resetSeconds()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("should fail open when Redis is unavailable")
+    @SuppressWarnings("unchecked")
+    void acquire_WhenRedisFails_ShouldFailOpen() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        // When
+        RateLimitDecision decision = rateLimiter.acquire("rate_limit:login:ip:1", 5, 60);
+
+        // Then
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.hasQuota()).isFalse();
+    }
+}
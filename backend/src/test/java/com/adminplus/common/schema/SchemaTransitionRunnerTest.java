@@ -0,0 +1,88 @@
+package com.adminplus.common.schema;
+
+import com.adminplus.common.schema.SchemaTransitionRunner.SchemaTransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+/**
+ * SchemaTransitionRunner 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SchemaTransitionRunner Unit Tests")
+class SchemaTransitionRunnerTest {
+
+    private static final SchemaTransition TRANSITION =
+            new SchemaTransition("test", "SELECT pending", "db/migration/V2026_10_18_08__refresh_token_hash.sql");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SchemaTransitionRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        runner = new SchemaTransitionRunner(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("should run the script under the advisory lock when the transition is pending")
+    void apply_WhenPending_ShouldRunScript() {
+        // Given
+        when(jdbcTemplate.queryForObject("SELECT pending", Boolean.class)).thenReturn(true);
+
+        // When
+        boolean applied = runner.apply(TRANSITION);
+
+        // Then
+        assertThat(applied).isTrue();
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(contains("pg_advisory_xact_lock"));
+        inOrder.verify(jdbcTemplate).queryForObject("SELECT pending", Boolean.class);
+        inOrder.verify(jdbcTemplate).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("should skip the script when the transition is already done")
+    void apply_WhenDone_ShouldSkipScript() {
+        // Given
+        when(jdbcTemplate.queryForObject("SELECT pending", Boolean.class)).thenReturn(false);
+
+        // When
+        boolean applied = runner.apply(TRANSITION);
+
+        // Then
+        assertThat(applied).isFalse();
+        verify(jdbcTemplate).execute(anyString());
+        verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+    }
+
+    @Test
+    @DisplayName("should reference scripts that exist on the classpath")
+    void transitions_ShouldReferenceExistingScripts() {
+        assertThat(SchemaTransitionRunner.TRANSITIONS)
+                .allSatisfy(transition -> assertThat(new ClassPathResource(transition.script()).exists()).isTrue());
+    }
+}
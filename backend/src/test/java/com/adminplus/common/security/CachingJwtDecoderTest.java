@@ -0,0 +1,207 @@
+package com.adminplus.common.security;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.utils.TokenHashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachingJwtDecoder、CachingJwtAuthenticationConverter 与 VerifiedJwtCache 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingJwtDecoder Unit Tests")
+class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtDecoder delegate;
+
+    @Mock
+    private Converter<Jwt, AbstractAuthenticationToken> delegateConverter;
+
+    @Mock
+    private PermissionSnapshotEngine permissionSnapshotEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedJwtCache cache;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedJwtCache(new AppProperties(), meterRegistry);
+        decoder = new CachingJwtDecoder(delegate, cache);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("admin")
+                .claim("userId", "user-1")
+                .issuedAt(Instant.now().minusSeconds(60))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private double cacheLookups(String result) {
+        return meterRegistry.get("security.jwt.decode.cache").tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("decode Tests")
+    class DecodeTests {
+
+        @Test
+        @DisplayName("should verify a token only once until it is invalidated")
+        void decode_ShouldReuseVerifiedToken() throws Exception {
+            // Given
+            Jwt verified = jwt(TOKEN, Instant.now().plusSeconds(3600));
+            when(delegate.decode(TOKEN)).thenReturn(verified);
+
+            // When
+            Jwt first = decoder.decode(TOKEN);
+            Jwt second = decoder.decode(TOKEN);
+
+            // Then
+            assertThat(first).isSameAs(verified);
+            assertThat(second).isSameAs(verified);
+            verify(delegate, times(1)).decode(TOKEN);
+            assertThat(cacheLookups("hit")).isEqualTo(1.0);
+            assertThat(cacheLookups("miss")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should verify again after the token is revoked")
+        void decode_AfterInvalidate_ShouldVerifyAgain() throws Exception {
+            // Given
+            when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().plusSeconds(3600)));
+            decoder.decode(TOKEN);
+
+            // When
+            cache.invalidate(List.of(TokenHashUtils.hash(TOKEN)));
+            decoder.decode(TOKEN);
+
+            // Then
+            verify(delegate, times(2)).decode(TOKEN);
+        }
+
+        @Test
+        @DisplayName("should not cache tokens that fail verification")
+        void decode_WhenInvalid_ShouldNotCache() throws Exception {
+            // Given
+            when(delegate.decode(TOKEN)).thenThrow(new BadJwtException("invalid signature"));
+
+            // When & Then
+            assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+            assertThatThrownBy(() -> decoder.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+            verify(delegate, times(2)).decode(TOKEN);
+        }
+
+        @Test
+        @DisplayName("should bypass the cache when disabled")
+        void decode_WhenDisabled_ShouldAlwaysVerify() throws Exception {
+            // Given
+            AppProperties appProperties = new AppProperties();
+            appProperties.getJwt().setDecodeCacheEnabled(false);
+            CachingJwtDecoder uncached = new CachingJwtDecoder(delegate,
+                    new VerifiedJwtCache(appProperties, new SimpleMeterRegistry()));
+            when(delegate.decode(TOKEN)).thenReturn(jwt(TOKEN, Instant.now().plusSeconds(3600)));
+
+            // When
+            uncached.decode(TOKEN);
+            uncached.decode(TOKEN);
+
+            // Then
+            verify(delegate, times(2)).decode(TOKEN);
+        }
+    }
+
+    @Nested
+    @DisplayName("convert Tests")
+    class ConvertTests {
+
+        private CachingJwtAuthenticationConverter converter;
+        private Jwt verified;
+
+        @BeforeEach
+        void setUpConverter() throws Exception {
+            converter = new CachingJwtAuthenticationConverter(delegateConverter, cache,
+                    permissionSnapshotEngine::getVersion);
+            verified = jwt(TOKEN, Instant.now().plusSeconds(3600));
+            when(delegate.decode(TOKEN)).thenReturn(verified);
+            decoder.decode(TOKEN);
+            lenient().when(delegateConverter.convert(verified)).thenAnswer(inv -> new JwtAuthenticationToken(verified,
+                    List.of(new SimpleGrantedAuthority("user:list")), "admin"));
+        }
+
+        @Test
+        @DisplayName("should reuse authorities while the permission snapshot is unchanged")
+        void convert_SameVersion_ShouldReuseAuthorities() {
+            // Given
+            when(permissionSnapshotEngine.getVersion()).thenReturn(3L);
+
+            // When
+            AbstractAuthenticationToken first = converter.convert(verified);
+            AbstractAuthenticationToken second = converter.convert(verified);
+
+            // Then
+            verify(delegateConverter, times(1)).convert(verified);
+            assertThat(second).isNotSameAs(first);
+            assertThat(second.getName()).isEqualTo("admin");
+            assertThat(second.getAuthorities()).extracting("authority").containsExactly("user:list");
+        }
+
+        @Test
+        @DisplayName("should rebuild authorities after the permission snapshot changes")
+        void convert_VersionChanged_ShouldConvertAgain() {
+            // Given
+            when(permissionSnapshotEngine.getVersion()).thenReturn(3L, 4L);
+
+            // When
+            converter.convert(verified);
+            converter.convert(verified);
+
+            // Then
+            verify(delegateConverter, times(2)).convert(verified);
+        }
+
+        @Test
+        @DisplayName("should not cache authorities before the snapshot is built")
+        void convert_WithoutSnapshot_ShouldAlwaysConvert() {
+            // Given
+            when(permissionSnapshotEngine.getVersion()).thenReturn(-1L);
+
+            // When
+            converter.convert(verified);
+            converter.convert(verified);
+
+            // Then
+            verify(delegateConverter, times(2)).convert(any());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.adminplus.common.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PermissionSnapshot 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("PermissionSnapshot Unit Tests")
+class PermissionSnapshotTest {
+
+    private PermissionSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = PermissionSnapshot.build(1,
+                Map.of("m1", "user:list", "m2", "user:add", "m3", "role:list"),
+                Map.of("r-admin", List.of("m1", "m2", "m3"), "r-user", List.of("m1", "m-no-perm")),
+                Map.of("u1", List.of("r-admin"), "u2", List.of("r-user"), "u3", List.of("r-admin", "r-user")));
+    }
+
+    private static Set<String> names(Set<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    @Nested
+    @DisplayName("authoritiesOf Tests")
+    class AuthoritiesOfTests {
+
+        @Test
+        @DisplayName("should union permissions of all user roles")
+        void authoritiesOf_ShouldUnionRoles() {
+            assertThat(names(snapshot.authoritiesOf("u3"))).containsExactlyInAnyOrder("user:list", "user:add", "role:list");
+            assertThat(names(snapshot.authoritiesOf("u2"))).containsExactly("user:list");
+        }
+
+        @Test
+        @DisplayName("should return empty set for unknown user")
+        void authoritiesOf_UnknownUser_ShouldBeEmpty() {
+            assertThat(snapshot.authoritiesOf("unknown")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should share authority instances across users and calls")
+        void authoritiesOf_ShouldReuseInstances() {
+            GrantedAuthority fromU1 = snapshot.authoritiesOf("u1").stream()
+                    .filter(a -> a.getAuthority().equals("user:list")).findFirst().orElseThrow();
+            GrantedAuthority fromU2 = snapshot.authoritiesOf("u2").iterator().next();
+
+            assertThat(fromU2).isSameAs(fromU1);
+            assertThat(snapshot.authoritiesOf("u1")).isSameAs(snapshot.authoritiesOf("u1"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Update Tests")
+    class IncrementalUpdateTests {
+
+        @Test
+        @DisplayName("should replace user roles without touching the old snapshot")
+        void withUserRoles_ShouldProduceNewVersion() {
+            PermissionSnapshot updated = snapshot.withUserRoles("u2", List.of("r-admin"));
+
+            assertThat(updated.getVersion()).isEqualTo(2);
+            assertThat(names(updated.authoritiesOf("u2"))).contains("role:list");
+            assertThat(names(snapshot.authoritiesOf("u2"))).containsExactly("user:list");
+        }
+
+        @Test
+        @DisplayName("should drop user when roles are cleared")
+        void withUserRoles_Empty_ShouldRemoveUser() {
+            PermissionSnapshot updated = snapshot.withUserRoles("u1", List.of());
+
+            assertThat(updated.authoritiesOf("u1")).isEmpty();
+            assertThat(updated.userCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should recompute users of a changed role")
+        void withRoleMenus_ShouldAffectAllMembers() {
+            snapshot.authoritiesOf("u2");
+
+            PermissionSnapshot updated = snapshot.withRoleMenus("r-user", List.of("m3"));
+
+            assertThat(names(updated.authoritiesOf("u2"))).containsExactly("role:list");
+        }
+
+        @Test
+        @DisplayName("should apply renamed permission keys")
+        void withMenuPermKeys_ShouldRebuildRoleAuthorities() {
+            PermissionSnapshot updated = snapshot.withMenuPermKeys(Map.of("m1", "user:query"));
+
+            assertThat(names(updated.authoritiesOf("u1"))).containsExactly("user:query");
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.adminplus.common.security;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.utils.TokenHashUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenRevocationEngine 与 TokenBloomFilter 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationEngine Unit Tests")
+class TokenRevocationEngineTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private Predicate<String> storeLookup;
+
+    @Mock
+    private VerifiedJwtCache verifiedJwtCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new TokenRevocationEngine(redisTemplate, listenerContainer, new AppProperties(),
+                verifiedJwtCache, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenBlacklist(String... hashes) {
+        Iterator<String> keys = Arrays.stream(hashes)
+                .map(hash -> CacheConstants.TOKEN_BLACKLIST_KEY_PREFIX + hash)
+                .iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(inv -> keys.hasNext());
+        lenient().when(cursor.next()).thenAnswer(inv -> keys.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("token.blacklist.filter.lookups").tag("result", result).counter().count();
+    }
+
+    @Nested
+    @DisplayName("isRevoked Tests")
+    class IsRevokedTests {
+
+        @Test
+        @DisplayName("should query Redis until the first rebuild completes")
+        void isRevoked_BeforeRebuild_ShouldQueryStore() {
+            // Given
+            when(storeLookup.test("h1")).thenReturn(true);
+
+            // When & Then
+            assertThat(engine.isReady()).isFalse();
+            assertThat(engine.isRevoked("h1", storeLookup)).isTrue();
+            verify(storeLookup).test("h1");
+        }
+
+        @Test
+        @DisplayName("should skip Redis for tokens the filter rules out")
+        void isRevoked_WhenFilterNegative_ShouldSkipStore() {
+            // Given
+            givenBlacklist("h1", "h2");
+            engine.rebuild();
+
+            // When
+            boolean result = engine.isRevoked(TokenHashUtils.hash("fresh.jwt.token"), storeLookup);
+
+            // Then
+            assertThat(result).isFalse();
+            verify(storeLookup, never()).test(any());
+            assertThat(lookups("negative")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should confirm filter hits against Redis")
+        void isRevoked_WhenFilterPositive_ShouldConfirmWithStore() {
+            // Given
+            givenBlacklist("h1");
+            engine.rebuild();
+            when(storeLookup.test("h1")).thenReturn(true);
+
+            // When & Then
+            assertThat(engine.isRevoked("h1", storeLookup)).isTrue();
+            assertThat(lookups("true_positive")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should count filter hits missing in Redis as false positives")
+        void isRevoked_WhenExpiredInStore_ShouldCountFalsePositive() {
+            // Given
+            givenBlacklist("h1");
+            engine.rebuild();
+            when(storeLookup.test("h1")).thenReturn(false);
+
+            // When & Then
+            assertThat(engine.isRevoked("h1", storeLookup)).isFalse();
+            assertThat(lookups("false_positive")).isEqualTo(1.0);
+            assertThat(meterRegistry.get("token.blacklist.filter.false_positive_rate").gauge().value())
+                    .isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Propagation Tests")
+    class PropagationTests {
+
+        @Test
+        @DisplayName("should add revoked hashes locally and broadcast them")
+        void revoked_ShouldAddAndBroadcast() {
+            // Given
+            givenBlacklist();
+            engine.rebuild();
+
+            // When
+            engine.revoked(List.of("h1", "h2"));
+
+            // Then
+            when(storeLookup.test(any())).thenReturn(true);
+            assertThat(engine.isRevoked("h1", storeLookup)).isTrue();
+            assertThat(engine.isRevoked("h2", storeLookup)).isTrue();
+            verify(verifiedJwtCache).invalidate(List.of("h1", "h2"));
+            verify(redisTemplate).convertAndSend(eq(CacheConstants.TOKEN_REVOKED_CHANNEL),
+                    argThat((String payload) -> payload.endsWith("|h1,h2")));
+        }
+
+        @Test
+        @DisplayName("should add hashes broadcast by other nodes")
+        void onMessage_FromOtherNode_ShouldAdd() {
+            // Given
+            givenBlacklist();
+            engine.rebuild();
+            byte[] body = "other-node|h3".getBytes(StandardCharsets.UTF_8);
+
+            // When
+            engine.onMessage(new DefaultMessage(CacheConstants.TOKEN_REVOKED_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    body), null);
+
+            // Then
+            when(storeLookup.test("h3")).thenReturn(true);
+            assertThat(engine.isRevoked("h3", storeLookup)).isTrue();
+            verify(verifiedJwtCache).invalidate(List.of("h3"));
+        }
+
+        @Test
+        @DisplayName("should invalidate verified tokens even when the filter is disabled")
+        void revoked_WhenBloomDisabled_ShouldStillInvalidateAndBroadcast() {
+            // Given
+            AppProperties appProperties = new AppProperties();
+            appProperties.getTokenBlacklist().setBloomEnabled(false);
+            TokenRevocationEngine disabled = new TokenRevocationEngine(redisTemplate, listenerContainer,
+                    appProperties, verifiedJwtCache, meterRegistry);
+
+            // When
+            disabled.revoked(List.of("h1"));
+
+            // Then
+            verify(verifiedJwtCache).invalidate(List.of("h1"));
+            verify(redisTemplate).convertAndSend(eq(CacheConstants.TOKEN_REVOKED_CHANNEL),
+                    argThat((String payload) -> payload.endsWith("|h1")));
+        }
+
+        @Test
+        @DisplayName("should keep hashes revoked while a rebuild is scanning")
+        @SuppressWarnings("unchecked")
+        void revoked_DuringRebuild_ShouldReachNewFilter() {
+            // Given
+            givenBlacklist();
+            engine.rebuild();
+            Cursor<String> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(inv -> {
+                engine.revoked(List.of("h4"));
+                return false;
+            });
+            when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+
+            // When
+            engine.rebuild();
+
+            // Then
+            when(storeLookup.test("h4")).thenReturn(true);
+            assertThat(engine.isRevoked("h4", storeLookup)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should keep the current filter when rebuild fails")
+        void rebuild_WhenScanFails_ShouldKeepCurrentFilter() {
+            // Given
+            givenBlacklist("h1");
+            engine.rebuild();
+            doThrow(new RuntimeException("connection refused")).when(redisTemplate).scan(any(ScanOptions.class));
+
+            // When
+            long entries = engine.rebuild();
+
+            // Then
+            assertThat(entries).isEqualTo(-1);
+            assertThat(engine.isReady()).isTrue();
+            when(storeLookup.test("h1")).thenReturn(true);
+            assertThat(engine.isRevoked("h1", storeLookup)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("TokenBloomFilter Tests")
+    class BloomFilterTests {
+
+        @Test
+        @DisplayName("should never report a false negative")
+        void mightContain_ShouldContainAllInserted() {
+            // Given
+            TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.01);
+            for (int i = 0; i < 10_000; i++) {
+                filter.put(TokenHashUtils.hash("token-" + i));
+            }
+
+            // When & Then
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(filter.mightContain(TokenHashUtils.hash("token-" + i))).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("should keep false positive rate near the configured target")
+        void mightContain_ShouldHonourFalsePositiveRate() {
+            // Given
+            TokenBloomFilter filter = TokenBloomFilter.create(10_000, 0.01);
+            for (int i = 0; i < 10_000; i++) {
+                filter.put(TokenHashUtils.hash("revoked-" + i));
+            }
+
+            // When
+            int falsePositives = 0;
+            for (int i = 0; i < 100_000; i++) {
+                if (filter.mightContain(TokenHashUtils.hash("active-" + i))) {
+                    falsePositives++;
+                }
+            }
+
+            // Then
+            assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+            assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+        }
+
+        @Test
+        @DisplayName("should hash tokens to the legacy blacklist key format")
+        void hash_ShouldMatchLegacyFormat() {
+            // When
+            String hash = TokenHashUtils.hash("valid.jwt.token");
+
+            // Then
+            assertThat(hash).hasSize(32).isEqualTo(TokenHashUtils.hash("valid.jwt.token"));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.adminplus.controller;
 
+import com.adminplus.common.cache.TwoLevelCacheManager;
 import com.adminplus.service.PermissionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -41,6 +42,9 @@ class CacheControllerTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private TwoLevelCacheManager cacheManager;
+
     @InjectMocks
     private CacheController cacheController;
 
@@ -73,6 +77,7 @@ class CacheControllerTest {
 
             verify(redisTemplate).keys("*");
             verify(redisTemplate).delete(keys);
+            verify(cacheManager).clearAllLocal();
         }
 
         @Test
@@ -114,6 +119,7 @@ class CacheControllerTest {
 
             verify(redisTemplate).keys("roles*");
             verify(redisTemplate).delete(keys);
+            verify(cacheManager).clearLocal("roles");
         }
     }
 
@@ -138,6 +144,7 @@ class CacheControllerTest {
 
             verify(redisTemplate).keys("roles*");
             verify(redisTemplate).delete(keys);
+            verify(cacheManager).clearLocal("roles");
         }
     }
 
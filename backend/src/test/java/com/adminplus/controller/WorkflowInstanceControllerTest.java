@@ -1,10 +1,13 @@
 package com.adminplus.controller;
 
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
+import com.adminplus.pojo.dto.request.BulkApprovalRequest;
+import com.adminplus.pojo.dto.response.BulkApprovalResultResponse;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
 import com.adminplus.pojo.dto.response.WorkflowDetailResponse;
 import com.adminplus.pojo.dto.response.WorkflowInstanceResponse;
 import com.adminplus.service.WorkflowInstanceService;
+import com.adminplus.service.workflow.WorkflowBulkApprovalService;
 import com.adminplus.config.TestJacksonConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,6 +47,9 @@ class WorkflowInstanceControllerTest {
     @Mock
     private WorkflowInstanceService instanceService;
 
+    @Mock
+    private WorkflowBulkApprovalService bulkApprovalService;
+
     @InjectMocks
     private WorkflowInstanceController instanceController;
 
@@ -237,6 +243,32 @@ class WorkflowInstanceControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("bulkApprove Tests")
+    class BulkApproveTests {
+
+        @Test
+        @DisplayName("should return per-item results")
+        void bulkApprove_ShouldReturnItemResults() throws Exception {
+            // Given
+            BulkApprovalRequest request = new BulkApprovalRequest(List.of("inst-001", "inst-002"), "同意", null);
+            when(bulkApprovalService.approve(any(BulkApprovalRequest.class))).thenReturn(
+                    new BulkApprovalResultResponse(2, 1, 1, List.of(
+                            new BulkApprovalResultResponse.ItemResult("inst-001", "success", "running", null),
+                            new BulkApprovalResultResponse.ItemResult("inst-002", "failed", null, "您没有权限审批此工作流"))));
+
+            // When & Then
+            mockMvc.perform(post("/workflow/instances/bulk-approve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.success").value(1))
+                    .andExpect(jsonPath("$.data.details[1].status").value("failed"));
+
+            verify(bulkApprovalService).approve(any(BulkApprovalRequest.class));
+        }
+    }
+
     @Nested
     @DisplayName("reject Tests")
     class RejectTests {
@@ -80,6 +80,7 @@ class WorkflowNodeHookControllerTest {
                 null,
                 null,
                 null,
+                null,
                 null
         );
     }
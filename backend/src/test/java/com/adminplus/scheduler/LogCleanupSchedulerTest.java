@@ -3,6 +3,7 @@ package com.adminplus.scheduler;
 import com.adminplus.common.properties.LogStorageProperties;
 import com.adminplus.repository.WorkflowHookLogRepository;
 import com.adminplus.service.LogService;
+import com.adminplus.service.workflow.hook.WorkflowHookLogPartitionManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,9 @@ class LogCleanupSchedulerTest {
     @Mock
     private WorkflowHookLogRepository hookLogRepository;
 
+    @Mock
+    private WorkflowHookLogPartitionManager hookLogPartitionManager;
+
     @InjectMocks
     private LogCleanupScheduler scheduler;
 
@@ -62,6 +66,24 @@ class LogCleanupSchedulerTest {
         verify(hookLogRepository).deleteByCreateTimeBeforeAndDeletedFalse(any(Instant.class));
     }
 
+    @Test
+    @DisplayName("钩子日志表已分区时，应删除过期分区并清理 DEFAULT 分区，而不是逐行删除")
+    void shouldDropPartitionsWhenHookLogPartitioned() {
+        // Given
+        when(cleanupConfig.isEnabled()).thenReturn(true);
+        when(cleanupConfig.getRetentionDays()).thenReturn(90);
+        when(hookLogPartitionManager.isPartitioned()).thenReturn(true);
+        when(hookLogPartitionManager.dropPartitionsBefore(any(Instant.class))).thenReturn(2);
+
+        // When
+        scheduler.cleanupExpiredHookLogs();
+
+        // Then
+        verify(hookLogPartitionManager).dropPartitionsBefore(any(Instant.class));
+        verify(hookLogPartitionManager).deleteDefaultPartitionBefore(any(Instant.class));
+        verify(hookLogRepository, never()).deleteByCreateTimeBeforeAndDeletedFalse(any(Instant.class));
+    }
+
     @Test
     @DisplayName("当清理功能禁用时，应跳过日志清理")
     void shouldSkipCleanupWhenDisabled() {
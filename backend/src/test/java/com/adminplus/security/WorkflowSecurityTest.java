@@ -20,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import tools.jackson.databind.json.JsonMapper;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -91,6 +92,9 @@ class WorkflowSecurityTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     // Sub-services for WorkflowInstanceServiceImpl
     @Mock
     private WorkflowDraftService draftService;
@@ -131,7 +135,7 @@ class WorkflowSecurityTest {
     void setUp() {
         // Initialize definition service
         mockDefinitionService = new WorkflowDefinitionServiceImpl(
-                definitionRepository, nodeRepository, conversionService
+                definitionRepository, nodeRepository, conversionService, eventPublisher
         );
 
         // Setup test users
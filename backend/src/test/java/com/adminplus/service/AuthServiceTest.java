@@ -68,6 +68,9 @@ class AuthServiceTest {
     @Mock
     private LogService logService;
 
+    @Mock
+    private OnlineUserService onlineUserService;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -0,0 +1,212 @@
+package com.adminplus.service;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.entity.DashboardMetricEntity;
+import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.pojo.entity.UserEntity;
+import com.adminplus.repository.DashboardMetricRepository;
+import com.adminplus.service.impl.DashboardMetricRollup;
+import com.adminplus.service.impl.LogDailyRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * DashboardMetricRollup 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardMetricRollup Unit Tests")
+class DashboardMetricRollupTest {
+
+    @Mock
+    private DashboardMetricRepository dashboardMetricRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LogDailyRollup logDailyRollup;
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
+    private DashboardMetricRollup rollup;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(logDailyRollup.statZone()).thenReturn(ZONE);
+        rollup = new DashboardMetricRollup(dashboardMetricRepository, new AppProperties(), transactionTemplate, logDailyRollup);
+        today = LocalDate.now(ZONE);
+    }
+
+    private static LogEntity log(String userId) {
+        LogEntity entity = new LogEntity();
+        entity.setUserId(userId);
+        entity.setCreateTime(Instant.now());
+        return entity;
+    }
+
+    @Test
+    @DisplayName("should count visits and only first-time active users per day")
+    void recordVisits_ShouldDeduplicateActiveUsers() {
+        // Given
+        when(dashboardMetricRepository.markActive(anyString(), eq(today), eq("u1"))).thenReturn(1);
+        when(dashboardMetricRepository.markActive(anyString(), eq(today), eq("u2"))).thenReturn(0);
+
+        // When
+        rollup.recordVisits(List.of(log("u1"), log("u1"), log("u2"), log(null)));
+
+        // Then
+        InOrder inOrder = inOrder(dashboardMetricRepository);
+        inOrder.verify(dashboardMetricRepository).markActive(anyString(), eq(today), eq("u1"));
+        inOrder.verify(dashboardMetricRepository).markActive(anyString(), eq(today), eq("u2"));
+        inOrder.verify(dashboardMetricRepository).increment(anyString(), eq("ACTIVE_USER"), eq(today),
+                eq(DashboardMetricEntity.NO_DIMENSION), eq(1L));
+        inOrder.verify(dashboardMetricRepository).increment(anyString(), eq("VISIT"), eq(today),
+                eq(DashboardMetricEntity.NO_DIMENSION), eq(4L));
+        verifyNoMoreInteractions(dashboardMetricRepository);
+    }
+
+    @Test
+    @DisplayName("should decrement visits on delete")
+    void recordVisitsDeleted_ShouldDecrement() {
+        // When
+        rollup.recordVisitsDeleted(List.of(log("u1"), log("u2")));
+
+        // Then
+        verify(dashboardMetricRepository).increment(anyString(), eq("VISIT"), eq(today),
+                eq(DashboardMetricEntity.NO_DIMENSION), eq(-2L));
+        verify(dashboardMetricRepository, never()).markActive(anyString(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("should adjust new users on the user's creation date")
+    void recordUser_ShouldUseCreateDate() {
+        // Given
+        UserEntity user = new UserEntity();
+        user.setCreateTime(today.minusDays(3).atStartOfDay(ZONE).toInstant());
+
+        // When
+        rollup.recordUserCreated(user);
+        rollup.recordUserDeleted(user);
+
+        // Then
+        verify(dashboardMetricRepository).increment(anyString(), eq("USER_NEW"), eq(today.minusDays(3)),
+                eq(DashboardMetricEntity.NO_DIMENSION), eq(1L));
+        verify(dashboardMetricRepository).increment(anyString(), eq("USER_NEW"), eq(today.minusDays(3)),
+                eq(DashboardMetricEntity.NO_DIMENSION), eq(-1L));
+    }
+
+    @Test
+    @DisplayName("should update role members in role id order")
+    void recordRoleMembers_ShouldUpdateInOrder() {
+        // When
+        rollup.recordRoleMembers(Set.of("role-b", "role-a"), 1);
+
+        // Then
+        InOrder inOrder = inOrder(dashboardMetricRepository);
+        inOrder.verify(dashboardMetricRepository).increment(anyString(), eq("ROLE_MEMBER"),
+                eq(DashboardMetricEntity.ALL_TIME), eq("role-a"), eq(1L));
+        inOrder.verify(dashboardMetricRepository).increment(anyString(), eq("ROLE_MEMBER"),
+                eq(DashboardMetricEntity.ALL_TIME), eq("role-b"), eq(1L));
+    }
+
+    @Test
+    @DisplayName("should rebuild rollups from source tables under a table lock")
+    @SuppressWarnings("unchecked")
+    void reconcile_ShouldLockThenRebuild() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(dashboardMetricRepository.tryLockReconcile()).thenReturn(true);
+        when(dashboardMetricRepository.rebuildUserNew(any(), anyString())).thenReturn(2);
+        when(dashboardMetricRepository.rebuildVisit(any(), anyString())).thenReturn(3);
+        when(dashboardMetricRepository.rebuildActiveUserCount()).thenReturn(3);
+        when(dashboardMetricRepository.rebuildRoleMembers()).thenReturn(4);
+
+        // When
+        int rows = rollup.reconcile();
+
+        // Then
+        assertThat(rows).isEqualTo(12);
+        InOrder inOrder = inOrder(dashboardMetricRepository);
+        inOrder.verify(dashboardMetricRepository).lockForReconcile();
+        inOrder.verify(dashboardMetricRepository).deleteForReconcile(today.minusDays(29));
+        inOrder.verify(dashboardMetricRepository).deleteAllActiveUsers();
+        inOrder.verify(dashboardMetricRepository).rebuildActiveUsers(any(), anyString());
+        inOrder.verify(dashboardMetricRepository).rebuildActiveUserCount();
+    }
+
+    @Test
+    @DisplayName("should skip reconciliation when another node holds the advisory lock")
+    @SuppressWarnings("unchecked")
+    void reconcile_WhenLockHeldElsewhere_ShouldSkip() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(dashboardMetricRepository.tryLockReconcile()).thenReturn(false);
+
+        // When
+        int rows = rollup.reconcile();
+
+        // Then
+        assertThat(rows).isEqualTo(-1);
+        verify(dashboardMetricRepository, never()).lockForReconcile();
+    }
+
+    @Test
+    @DisplayName("should not lock or rebuild at startup once rollups exist")
+    @SuppressWarnings("unchecked")
+    void onApplicationReady_WhenMetricsExist_ShouldSkip() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(dashboardMetricRepository.tryLockReconcile()).thenReturn(true);
+        when(dashboardMetricRepository.hasMetrics()).thenReturn(true);
+
+        // When
+        rollup.onApplicationReady();
+
+        // Then
+        verify(dashboardMetricRepository, never()).lockForReconcile();
+        verify(dashboardMetricRepository, never()).deleteForReconcile(any());
+    }
+
+    @Test
+    @DisplayName("should rebuild at startup when the rollup table is empty")
+    @SuppressWarnings("unchecked")
+    void onApplicationReady_WhenEmpty_ShouldRebuild() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(dashboardMetricRepository.tryLockReconcile()).thenReturn(true);
+        when(dashboardMetricRepository.hasMetrics()).thenReturn(false);
+
+        // When
+        rollup.onApplicationReady();
+
+        // Then
+        verify(dashboardMetricRepository).lockForReconcile();
+        verify(dashboardMetricRepository).rebuildRoleMembers();
+    }
+}
@@ -3,6 +3,8 @@ package com.adminplus.service;
 import com.adminplus.pojo.dto.response.*;
 import com.adminplus.repository.*;
 import com.adminplus.service.impl.DashboardServiceImpl;
+import com.adminplus.service.impl.LogDailyRollup;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,17 +44,25 @@ class DashboardServiceTest {
     private LogRepository logRepository;
 
     @Mock
-    private UserRoleRepository userRoleRepository;
+    private DashboardMetricRepository dashboardMetricRepository;
 
     @Mock
-    private RefreshTokenRepository refreshTokenRepository;
+    private OnlineUserService onlineUserService;
 
     @Mock
     private DataSource dataSource;
 
+    @Mock
+    private LogDailyRollup logDailyRollup;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(logDailyRollup.statZone()).thenReturn(ZoneId.systemDefault());
+    }
+
     @Nested
     @DisplayName("getStats Tests")
     class GetStatsTests {
@@ -62,7 +74,8 @@ class DashboardServiceTest {
             when(userRepository.countByDeletedFalse()).thenReturn(100L);
             when(roleRepository.countByDeletedFalse()).thenReturn(10L);
             when(menuRepository.countByDeletedFalse()).thenReturn(50L);
-            when(logRepository.countByCreateTimeBetweenAndDeletedFalse(any(), any())).thenReturn(20L);  // 今日日志数
+            when(dashboardMetricRepository.findDailyValues(List.of("VISIT"), LocalDate.now()))
+                    .thenReturn(List.<Object[]>of(new Object[]{"VISIT", LocalDate.now(), 20L}));  // 今日日志数
 
             // When
             DashboardStatsResponse result = dashboardService.getStats();
@@ -77,7 +90,7 @@ class DashboardServiceTest {
             verify(userRepository).countByDeletedFalse();
             verify(roleRepository).countByDeletedFalse();
             verify(menuRepository).countByDeletedFalse();
-            verify(logRepository).countByCreateTimeBetweenAndDeletedFalse(any(), any());
+            verify(logRepository, never()).countByCreateTimeBetweenAndDeletedFalse(any(), any());
         }
 
         @Test
@@ -87,7 +100,7 @@ class DashboardServiceTest {
             when(userRepository.countByDeletedFalse()).thenReturn(0L);
             when(roleRepository.countByDeletedFalse()).thenReturn(0L);
             when(menuRepository.countByDeletedFalse()).thenReturn(0L);
-            when(logRepository.countByCreateTimeBetweenAndDeletedFalse(any(), any())).thenReturn(0L);
+            when(dashboardMetricRepository.findDailyValues(anyList(), any())).thenReturn(List.of());
 
             // When
             DashboardStatsResponse result = dashboardService.getStats();
@@ -105,10 +118,12 @@ class DashboardServiceTest {
     class GetUserGrowthDataTests {
 
         @Test
-        @DisplayName("should return chart data with 7 days")
+        @DisplayName("should return chart data with 7 days from one rollup query")
         void getUserGrowthData_ShouldReturn7DaysData() {
             // Given
-            when(userRepository.countByCreateTimeBetweenAndDeletedFalse(any(), any())).thenReturn(0L);
+            LocalDate today = LocalDate.now();
+            when(dashboardMetricRepository.findDailyValues(List.of("USER_NEW"), today.minusDays(6)))
+                    .thenReturn(List.<Object[]>of(new Object[]{"USER_NEW", today, 3L}));
 
             // When
             ChartDataResponse result = dashboardService.getUserGrowthData();
@@ -116,7 +131,9 @@ class DashboardServiceTest {
             // Then
             assertThat(result).isNotNull();
             assertThat(result.labels()).hasSize(7);
-            assertThat(result.values()).hasSize(7);
+            assertThat(result.values()).containsExactly(0L, 0L, 0L, 0L, 0L, 0L, 3L);
+            verify(dashboardMetricRepository).findDailyValues(anyList(), any());
+            verifyNoInteractions(userRepository);
         }
     }
 
@@ -128,16 +145,18 @@ class DashboardServiceTest {
         @DisplayName("should return role distribution data")
         void getRoleDistributionData_ShouldReturnData() {
             // Given
-            when(roleRepository.findByDeletedFalse()).thenReturn(List.of());
-            when(userRoleRepository.findAll()).thenReturn(List.of());
+            when(dashboardMetricRepository.findRoleMemberCounts()).thenReturn(List.of(
+                    new Object[]{"管理员", 2L},
+                    new Object[]{"普通用户", 0L}
+            ));
 
             // When
             ChartDataResponse result = dashboardService.getRoleDistributionData();
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.labels()).isNotNull();
-            assertThat(result.values()).isNotNull();
+            assertThat(result.labels()).containsExactly("管理员", "普通用户");
+            assertThat(result.values()).containsExactly(2L, 0L);
+            verifyNoInteractions(roleRepository);
         }
     }
 
@@ -203,18 +222,18 @@ class DashboardServiceTest {
     class GetOnlineUsersTests {
 
         @Test
-        @DisplayName("should return online users list")
-        void getOnlineUsers_ShouldReturnList() {
-            // Given - Mock 返回空的 token 列表
-            when(refreshTokenRepository.findValidTokens(any())).thenReturn(List.of());
+        @DisplayName("should read online users from the session registry")
+        void getOnlineUsers_ShouldDelegateToRegistry() {
+            // Given
+            PageResultResponse<OnlineUserResponse> page = new PageResultResponse<>(List.of(), 0L, 1, 20);
+            when(onlineUserService.getOnlineUsers(1, 20)).thenReturn(page);
 
             // When
-            List<OnlineUserResponse> result = dashboardService.getOnlineUsers();
+            PageResultResponse<OnlineUserResponse> result = dashboardService.getOnlineUsers(1, 20);
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result).isEmpty();
-            verify(refreshTokenRepository).findValidTokens(any());
+            assertThat(result).isSameAs(page);
+            verifyNoInteractions(userRepository, logRepository);
         }
     }
 
@@ -226,15 +245,27 @@ class DashboardServiceTest {
         @DisplayName("should return statistics")
         void getStatistics_ShouldReturnStatistics() {
             // Given
+            LocalDate today = LocalDate.now();
             when(userRepository.countByDeletedFalse()).thenReturn(100L);
-            when(logRepository.countByCreateTimeBetweenAndDeletedFalse(any(), any())).thenReturn(50L);
-            when(logRepository.countDistinctUsersByTimeRange(any(), any())).thenReturn(30L);
+            when(dashboardMetricRepository.findDailyValues(List.of("USER_NEW", "VISIT", "ACTIVE_USER"), today.minusDays(6)))
+                    .thenReturn(List.of(
+                            new Object[]{"VISIT", today, 50L},
+                            new Object[]{"VISIT", today.minusDays(1), 40L},
+                            new Object[]{"ACTIVE_USER", today, 30L},
+                            new Object[]{"USER_NEW", today, 5L}
+                    ));
 
             // When
             StatisticsResponse result = dashboardService.getStatistics();
 
             // Then
-            assertThat(result).isNotNull();
+            assertThat(result.totalUsers()).isEqualTo(100L);
+            assertThat(result.todayVisits()).isEqualTo(50L);
+            assertThat(result.activeUsers()).isEqualTo(30L);
+            assertThat(result.todayNewUsers()).isEqualTo(5L);
+            assertThat(result.visitTrendData().values()).containsExactly(0L, 0L, 0L, 0L, 0L, 40L, 50L);
+            assertThat(result.userGrowthData().values()).containsExactly(0L, 0L, 0L, 0L, 0L, 0L, 5L);
+            verify(dashboardMetricRepository).findDailyValues(anyList(), any());
         }
     }
 
@@ -246,7 +277,7 @@ class DashboardServiceTest {
         @DisplayName("should return visit trend data with 7 days")
         void getVisitTrendData_ShouldReturn7DaysData() {
             // Given
-            when(logRepository.countByCreateTimeBetweenAndDeletedFalse(any(), any())).thenReturn(0L);
+            when(dashboardMetricRepository.findDailyValues(anyList(), any())).thenReturn(List.of());
 
             // When
             ChartDataResponse result = dashboardService.getVisitTrendData();
@@ -5,7 +5,10 @@ import com.adminplus.pojo.dto.response.LogPageResponse;
 import com.adminplus.pojo.dto.response.PageResultResponse;
 import com.adminplus.pojo.entity.LogEntity;
 import com.adminplus.repository.LogRepository;
+import com.adminplus.service.impl.DashboardMetricRollup;
 import com.adminplus.service.impl.DatabaseLogStorage;
+import com.adminplus.service.impl.LogDailyRollup;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -39,6 +42,15 @@ class DatabaseLogStorageTest {
     @Mock
     private LogRepository logRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private LogDailyRollup logDailyRollup;
+
+    @Mock
+    private DashboardMetricRollup dashboardMetricRollup;
+
     @InjectMocks
     private DatabaseLogStorage storage;
 
@@ -96,6 +108,8 @@ class DatabaseLogStorageTest {
             // Then
             assertThat(result).hasSize(1);
             verify(logRepository).saveAll(logs);
+            verify(logDailyRollup).recordInserted(logs);
+            verify(dashboardMetricRollup).recordVisits(logs);
         }
     }
 
@@ -242,13 +256,28 @@ class DatabaseLogStorageTest {
         @DisplayName("should delete by id")
         void deleteById_ShouldDelete() {
             // Given
-            doNothing().when(logRepository).deleteById("log-001");
+            when(logRepository.findById("log-001")).thenReturn(Optional.of(testLog));
 
             // When
             storage.deleteById("log-001");
 
             // Then
-            verify(logRepository).deleteById("log-001");
+            verify(logRepository).delete(testLog);
+            verify(logDailyRollup).recordDeleted(List.of(testLog));
+        }
+
+        @Test
+        @DisplayName("should do nothing when log not found")
+        void deleteById_WhenNotFound_ShouldSkip() {
+            // Given
+            when(logRepository.findById("missing")).thenReturn(Optional.empty());
+
+            // When
+            storage.deleteById("missing");
+
+            // Then
+            verify(logRepository, never()).delete(any(LogEntity.class));
+            verifyNoInteractions(logDailyRollup);
         }
     }
 
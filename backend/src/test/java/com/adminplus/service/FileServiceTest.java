@@ -6,24 +6,33 @@ import com.adminplus.enums.StorageType;
 import com.adminplus.pojo.dto.response.FileResponse;
 import com.adminplus.pojo.entity.FileEntity;
 import com.adminplus.repository.FileRepository;
+import com.adminplus.service.file.FileBlobStorage;
 import com.adminplus.service.impl.FileServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -49,6 +58,15 @@ class FileServiceTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private VirusScanService virusScanService;
+
+    @Mock
+    private VirusScanService.ScanSession scanSession;
+
+    @Mock
+    private FileBlobStorage fileBlobStorage;
+
     @InjectMocks
     private FileServiceImpl fileService;
 
@@ -144,6 +162,40 @@ class FileServiceTest {
             verify(fileRepository).save(any(FileEntity.class));
         }
 
+        @Test
+        @DisplayName("should release deduplicated content instead of deleting it")
+        void deleteFile_WithContentHash_ShouldReleaseBlob() {
+            // Given
+            testFile.setContentHash("hash-001");
+            when(fileRepository.findByIdAndDeletedFalse("file-001")).thenReturn(Optional.of(testFile));
+            when(fileBlobStorage.release("hash-001", testFile.getFileUrl())).thenReturn(true);
+
+            // When
+            boolean result = fileService.deleteFile("file-001");
+
+            // Then
+            assertThat(result).isTrue();
+            verify(fileStorageService, never()).deleteFile(any());
+            verify(fileRepository).save(testFile);
+        }
+
+        @Test
+        @DisplayName("should delete its own object when the file does not reference a deduplicated blob")
+        void deleteFile_WithContentHashOutsideBlobStore_ShouldDeleteOwnObject() {
+            // Given
+            testFile.setContentHash("hash-001");
+            when(fileRepository.findByIdAndDeletedFalse("file-001")).thenReturn(Optional.of(testFile));
+            when(fileBlobStorage.release("hash-001", testFile.getFileUrl())).thenReturn(false);
+            when(fileStorageService.deleteFile(testFile.getFileUrl())).thenReturn(true);
+
+            // When
+            boolean result = fileService.deleteFile("file-001");
+
+            // Then
+            assertThat(result).isTrue();
+            verify(fileStorageService).deleteFile(testFile.getFileUrl());
+        }
+
         @Test
         @DisplayName("should throw exception when file not found")
         void deleteFile_WhenNotFound_ShouldThrowException() {
@@ -232,5 +284,153 @@ class FileServiceTest {
                     .isInstanceOf(BizException.class)
                     .hasMessageContaining("文件大小超过限制");
         }
+
+        @Test
+        @DisplayName("should store, hash and scan the upload in a single pass")
+        void uploadFile_ShouldStreamContentOnce() throws Exception {
+            // Given
+            FileStorageProperties.LocalConfig localConfig = new FileStorageProperties.LocalConfig();
+            localConfig.setMaxSize(10);
+            when(fileStorageConfig.getLocal()).thenReturn(localConfig);
+            byte[] content = pngContent();
+            MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", content);
+            when(fileBlobStorage.isEnabled()).thenReturn(false);
+            when(virusScanService.openSession("avatar.png")).thenReturn(scanSession);
+            when(scanSession.finish()).thenReturn(true);
+            when(fileStorageService.uploadFile(any(InputStream.class), eq((long) content.length),
+                    eq("avatar.png"), eq("image/png"), eq("avatars")))
+                    .thenAnswer(invocation -> {
+                        // 模拟存储后端读取全部内容
+                        invocation.getArgument(0, InputStream.class).transferTo(OutputStream.nullOutputStream());
+                        return "/uploads/avatars/avatar.png";
+                    });
+            when(fileStorageService.getStorageType()).thenReturn(StorageType.LOCAL);
+            when(fileRepository.save(any(FileEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            fileService.uploadFile(file, "avatars");
+
+            // Then
+            ArgumentCaptor<FileEntity> saved = ArgumentCaptor.forClass(FileEntity.class);
+            verify(fileRepository).save(saved.capture());
+            String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            assertThat(saved.getValue().getContentHash()).isEqualTo(expectedHash);
+            assertThat(saved.getValue().getFileUrl()).isEqualTo("/uploads/avatars/avatar.png");
+            verify(scanSession, atLeastOnce()).write(any(byte[].class), anyInt(), anyInt());
+            verify(scanSession).close();
+        }
+
+        @Test
+        @DisplayName("should delete stored file when virus scan fails")
+        void uploadFile_WhenVirusFound_ShouldDeleteStoredFile() {
+            // Given
+            FileStorageProperties.LocalConfig localConfig = new FileStorageProperties.LocalConfig();
+            localConfig.setMaxSize(10);
+            when(fileStorageConfig.getLocal()).thenReturn(localConfig);
+            MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", pngContent());
+            when(fileBlobStorage.isEnabled()).thenReturn(false);
+            when(virusScanService.openSession("avatar.png")).thenReturn(scanSession);
+            when(scanSession.finish()).thenReturn(false);
+            when(fileStorageService.uploadFile(any(InputStream.class), anyLong(), any(), any(), any()))
+                    .thenReturn("/uploads/avatars/avatar.png");
+
+            // When & Then
+            assertThatThrownBy(() -> fileService.uploadFile(file, "avatars"))
+                    .isInstanceOf(BizException.class)
+                    .hasMessageContaining("文件包含病毒");
+            verify(fileStorageService).deleteFile("/uploads/avatars/avatar.png");
+            verify(fileRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reference existing content without storing or scanning it again")
+        void uploadFile_WithDedupHit_ShouldSkipStoreAndScan() throws Exception {
+            // Given
+            FileStorageProperties.LocalConfig localConfig = new FileStorageProperties.LocalConfig();
+            localConfig.setMaxSize(10);
+            when(fileStorageConfig.getLocal()).thenReturn(localConfig);
+            byte[] content = pngContent();
+            MockMultipartFile file = spy(new MockMultipartFile("file", "avatar.png", "image/png", content));
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            when(fileBlobStorage.isEnabled()).thenReturn(true);
+            when(fileBlobStorage.acquire(hash)).thenReturn(Optional.of("/uploads/blobs/existing.png"));
+            when(fileRepository.save(any(FileEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            fileService.uploadFile(file, "avatars");
+
+            // Then
+            ArgumentCaptor<FileEntity> saved = ArgumentCaptor.forClass(FileEntity.class);
+            verify(fileRepository).save(saved.capture());
+            assertThat(saved.getValue().getFileUrl()).isEqualTo("/uploads/blobs/existing.png");
+            assertThat(saved.getValue().getContentHash()).isEqualTo(hash);
+            verify(file, times(1)).getInputStream();
+            verify(fileBlobStorage, never()).store(any(), any(InputStream.class), anyLong(), any());
+            verifyNoInteractions(virusScanService);
+        }
+
+        @Test
+        @DisplayName("should store and scan new content under a unique object name, then register it")
+        void uploadFile_WithDedupMiss_ShouldStoreScanAndRegister() throws Exception {
+            // Given
+            FileStorageProperties.LocalConfig localConfig = new FileStorageProperties.LocalConfig();
+            localConfig.setMaxSize(10);
+            when(fileStorageConfig.getLocal()).thenReturn(localConfig);
+            byte[] content = pngContent();
+            MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", content);
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            when(fileBlobStorage.isEnabled()).thenReturn(true);
+            when(fileBlobStorage.acquire(hash)).thenReturn(Optional.empty());
+            when(virusScanService.openSession("avatar.png")).thenReturn(scanSession);
+            when(scanSession.finish()).thenReturn(true);
+            when(fileBlobStorage.store(eq(".png"), any(InputStream.class), eq((long) content.length), eq("image/png")))
+                    .thenAnswer(invocation -> {
+                        invocation.getArgument(1, InputStream.class).transferTo(OutputStream.nullOutputStream());
+                        return "/uploads/blobs/new.png";
+                    });
+            when(fileBlobStorage.register(hash, "/uploads/blobs/new.png", content.length))
+                    .thenReturn("/uploads/blobs/new.png");
+            when(fileRepository.save(any(FileEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            fileService.uploadFile(file, "avatars");
+
+            // Then
+            ArgumentCaptor<FileEntity> saved = ArgumentCaptor.forClass(FileEntity.class);
+            verify(fileRepository).save(saved.capture());
+            assertThat(saved.getValue().getFileUrl()).isEqualTo("/uploads/blobs/new.png");
+            verify(scanSession, atLeastOnce()).write(any(byte[].class), anyInt(), anyInt());
+            verify(fileStorageService, never()).uploadFile(any(InputStream.class), anyLong(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should delete the object just written when scanning fails with dedup enabled")
+        void uploadFile_WithDedupWhenVirusFound_ShouldDeleteOwnObject() {
+            // Given
+            FileStorageProperties.LocalConfig localConfig = new FileStorageProperties.LocalConfig();
+            localConfig.setMaxSize(10);
+            when(fileStorageConfig.getLocal()).thenReturn(localConfig);
+            MockMultipartFile file = new MockMultipartFile("file", "avatar.png", "image/png", pngContent());
+            when(fileBlobStorage.isEnabled()).thenReturn(true);
+            when(fileBlobStorage.acquire(anyString())).thenReturn(Optional.empty());
+            when(virusScanService.openSession("avatar.png")).thenReturn(scanSession);
+            when(scanSession.finish()).thenReturn(false);
+            when(fileBlobStorage.store(any(), any(InputStream.class), anyLong(), any()))
+                    .thenReturn("/uploads/blobs/1001.png");
+
+            // When & Then
+            assertThatThrownBy(() -> fileService.uploadFile(file, "avatars"))
+                    .isInstanceOf(BizException.class)
+                    .hasMessageContaining("文件包含病毒");
+            verify(fileStorageService).deleteFile("/uploads/blobs/1001.png");
+            verify(fileBlobStorage, never()).register(any(), any(), anyLong());
+        }
+
+        private byte[] pngContent() {
+            byte[] content = new byte[100 * 1024];
+            byte[] signature = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+            System.arraycopy(signature, 0, content, 0, signature.length);
+            return content;
+        }
     }
 }
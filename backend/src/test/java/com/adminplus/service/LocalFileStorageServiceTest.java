@@ -14,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -122,6 +124,25 @@ class LocalFileStorageServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("不支持的文件格式");
         }
+
+        @Test
+        @DisplayName("should stream content to disk")
+        void uploadFile_FromStream_ShouldWriteContent() throws Exception {
+            // Given
+            when(localConfig.getBasePath()).thenReturn(tempDir.toString());
+            when(localConfig.getAccessPrefix()).thenReturn("/files");
+            byte[] content = new byte[3 * 1024 * 1024 + 17];
+            content[content.length - 1] = 42;
+
+            // When
+            String result = fileStorageService.uploadFile(new ByteArrayInputStream(content), content.length,
+                    "report.pdf", "application/pdf", "uploads");
+
+            // Then
+            assertThat(result).startsWith("/files/uploads/").endsWith(".pdf");
+            Path stored = tempDir.resolve(result.substring("/files/".length()));
+            assertThat(Files.readAllBytes(stored)).isEqualTo(content);
+        }
     }
 
     @Nested
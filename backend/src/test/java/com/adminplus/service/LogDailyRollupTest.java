@@ -0,0 +1,187 @@
+package com.adminplus.service;
+
+import com.adminplus.common.properties.LogStorageProperties;
+import com.adminplus.pojo.entity.LogDailyStatEntity;
+import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.repository.LogDailyStatRepository;
+import com.adminplus.service.impl.LogDailyRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * LogDailyRollup 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogDailyRollup Unit Tests")
+class LogDailyRollupTest {
+
+    @Mock
+    private LogDailyStatRepository logDailyStatRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LogStorageProperties properties;
+    private LogDailyRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LogStorageProperties();
+        properties.getStatistics().setRollupEnabled(true);
+        rollup = new LogDailyRollup(logDailyStatRepository, properties, transactionTemplate);
+    }
+
+    private static LogEntity log(Integer logType, Integer operationType, Integer status) {
+        LogEntity entity = new LogEntity();
+        entity.setLogType(logType);
+        entity.setOperationType(operationType);
+        entity.setStatus(status);
+        entity.setCreateTime(Instant.now());
+        return entity;
+    }
+
+    @Test
+    @DisplayName("should issue one upsert per distinct cell in a fixed order")
+    void recordInserted_ShouldGroupByCell() {
+        // Given
+        LocalDate today = LocalDate.now(rollup.statZone());
+        List<LogEntity> logs = List.of(log(1, 2, 1), log(1, 2, 1), log(2, null, 0));
+
+        // When
+        rollup.recordInserted(logs);
+
+        // Then
+        InOrder inOrder = inOrder(logDailyStatRepository);
+        inOrder.verify(logDailyStatRepository).increment(anyString(), eq(today), eq(1), eq(2), eq(1), eq(2L));
+        inOrder.verify(logDailyStatRepository).increment(anyString(), eq(today), eq(2),
+                eq(LogDailyStatEntity.NONE), eq(0), eq(1L));
+        verifyNoMoreInteractions(logDailyStatRepository);
+    }
+
+    @Test
+    @DisplayName("should decrement cells on delete")
+    void recordDeleted_ShouldDecrement() {
+        // When
+        rollup.recordDeleted(List.of(log(1, 1, 1)));
+
+        // Then
+        verify(logDailyStatRepository).increment(anyString(), any(LocalDate.class), eq(1), eq(1), eq(1), eq(-1L));
+    }
+
+    @Test
+    @DisplayName("should skip when rollup is disabled")
+    void recordInserted_WhenDisabled_ShouldSkip() {
+        // Given
+        properties.getStatistics().setRollupEnabled(false);
+
+        // When
+        rollup.recordInserted(List.of(log(1, 1, 1)));
+
+        // Then
+        verify(logDailyStatRepository, never()).increment(anyString(), any(), anyInt(), anyInt(), anyInt(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("should rebuild only the recent days under the advisory lock")
+    void rebuild_ShouldBeBoundedByDate() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(logDailyStatRepository.tryLockRebuild()).thenReturn(true);
+        when(logDailyStatRepository.rebuildFromLogs(anyString(), any(Instant.class))).thenReturn(6);
+        ZoneId zone = ZoneId.of("Asia/Shanghai");
+        LocalDate from = LocalDate.now(zone).minusDays(1);
+
+        // When
+        int rows = rollup.rebuild(2);
+
+        // Then
+        assertThat(rows).isEqualTo(6);
+        InOrder inOrder = inOrder(logDailyStatRepository);
+        inOrder.verify(logDailyStatRepository).tryLockRebuild();
+        inOrder.verify(logDailyStatRepository).lockForRebuild();
+        inOrder.verify(logDailyStatRepository).deleteRowsSince(from);
+        inOrder.verify(logDailyStatRepository).rebuildFromLogs("Asia/Shanghai", from.atStartOfDay(zone).toInstant());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("should skip rebuild when another node holds the lock")
+    void rebuild_WhenLockHeld_ShouldSkip() {
+        // Given
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(inv -> ((TransactionCallback<Integer>) inv.getArgument(0)).doInTransaction(null));
+        when(logDailyStatRepository.tryLockRebuild()).thenReturn(false);
+
+        // When
+        int rows = rollup.rebuild(2);
+
+        // Then
+        assertThat(rows).isEqualTo(-1);
+        verify(logDailyStatRepository, never()).lockForRebuild();
+        verify(logDailyStatRepository, never()).deleteRowsSince(any());
+    }
+
+    @Test
+    @DisplayName("should not rebuild on startup when rebuild-days is 0")
+    void onApplicationReady_WhenRebuildDaysZero_ShouldSkip() {
+        // Given
+        properties.getStatistics().setRebuildDays(0);
+
+        // When
+        rollup.onApplicationReady();
+
+        // Then
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("should reject offset-style zone ids")
+    void constructor_WithOffsetZone_ShouldFail() {
+        // Given
+        LogStorageProperties offsetZone = new LogStorageProperties();
+        offsetZone.getStatistics().setZone("GMT+08:00");
+
+        // When & Then
+        assertThatThrownBy(() -> new LogDailyRollup(logDailyStatRepository, offsetZone, transactionTemplate))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("should use the configured IANA zone")
+    void statZone_ShouldUseConfiguredZone() {
+        // Given
+        LogStorageProperties utc = new LogStorageProperties();
+        utc.getStatistics().setZone("Z");
+
+        // When
+        LogDailyRollup utcRollup = new LogDailyRollup(logDailyStatRepository, utc, transactionTemplate);
+
+        // Then
+        assertThat(rollup.statZone()).isEqualTo(ZoneId.of("Asia/Shanghai"));
+        assertThat(utcRollup.statZone().getId()).isEqualTo("UTC");
+    }
+}
@@ -1,10 +1,13 @@
 package com.adminplus.service;
 
 import com.adminplus.pojo.dto.query.LogQuery;
-import com.adminplus.pojo.dto.response.LogPageResponse;
-import com.adminplus.pojo.dto.response.PageResultResponse;
+import com.adminplus.pojo.entity.LogEntity;
 import com.adminplus.service.impl.LogExportServiceImpl;
+import com.adminplus.service.impl.LogStorageStrategySelector;
 import com.adminplus.utils.DictUtils;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,10 +17,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,7 +43,10 @@ import static org.mockito.Mockito.*;
 class LogExportServiceTest {
 
     @Mock
-    private LogService logService;
+    private LogStorageStrategySelector storageStrategySelector;
+
+    @Mock
+    private LogStorageStrategy storageStrategy;
 
     @Mock
     private DictUtils dictUtils;
@@ -42,32 +54,44 @@ class LogExportServiceTest {
     @InjectMocks
     private LogExportServiceImpl logExportService;
 
-    private LogPageResponse testLog;
+    private LogEntity testLog;
     private LogQuery query;
 
     @BeforeEach
     void setUp() {
-        testLog = new LogPageResponse(
-                "log-001",
-                "testuser",
-                "用户管理",
-                1, // OPERATION
-                1, // QUERY
-                "查询用户列表",
-                "UserService.list",
-                "params",
-                "192.168.1.1",
-                "本地",
-                100L,
-                1, // SUCCESS
-                null,
-                Instant.now()
-        );
+        testLog = new LogEntity();
+        testLog.setId("log-001");
+        testLog.setUsername("testuser");
+        testLog.setModule("用户管理");
+        testLog.setLogType(1); // OPERATION
+        testLog.setOperationType(1); // QUERY
+        testLog.setDescription("查询用户列表");
+        testLog.setMethod("UserService.list");
+        testLog.setIp("192.168.1.1");
+        testLog.setCostTime(100L);
+        testLog.setStatus(1); // SUCCESS
+        testLog.setCreateTime(Instant.now());
 
         query = new LogQuery(1, 10, null, null, null, null, null, null, null);
 
-        // Mock dictUtils for dictionary label translation
-        lenient().when(dictUtils.getDictLabel(anyString(), anyString())).thenAnswer(inv -> inv.getArgument(1));
+        lenient().when(storageStrategySelector.getStrategy()).thenReturn(storageStrategy);
+        lenient().when(dictUtils.getDictMap("log_type")).thenReturn(Map.of("1", "操作日志"));
+        lenient().when(dictUtils.getDictMap("operation_type")).thenReturn(Map.of("1", "查询"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenLogs(List<LogEntity> logs) {
+        when(storageStrategy.forEachMatching(any(LogQuery.class), any(Consumer.class))).thenAnswer(inv -> {
+            Consumer<LogEntity> action = inv.getArgument(1);
+            logs.forEach(action);
+            return (long) logs.size();
+        });
+    }
+
+    private static byte[] render(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toByteArray();
     }
 
     @Nested
@@ -78,53 +102,47 @@ class LogExportServiceTest {
         @DisplayName("should export logs to Excel")
         void exportToExcel_ShouldReturnExcelFile() throws IOException {
             // Given
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(testLog), 1L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
+            givenLogs(List.of(testLog));
 
             // When
-            ResponseEntity<byte[]> result = logExportService.exportToExcel(query);
+            ResponseEntity<StreamingResponseBody> result = logExportService.exportToExcel(query);
+            byte[] content = render(result);
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.getBody()).isNotNull();
-            assertThat(result.getBody().length).isGreaterThan(0);
             assertThat(result.getHeaders().getContentType().toString())
                     .contains("application/octet-stream");
+            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+                Sheet sheet = workbook.getSheetAt(0);
+                assertThat(sheet.getLastRowNum()).isEqualTo(1);
+                assertThat(sheet.getRow(1).getCell(0).getStringCellValue()).isEqualTo("log-001");
+                assertThat(sheet.getRow(1).getCell(3).getStringCellValue()).isEqualTo("操作日志");
+                assertThat(sheet.getRow(1).getCell(9).getStringCellValue()).isEqualTo("成功");
+            }
         }
 
         @Test
-        @DisplayName("should export empty Excel when no logs")
-        void exportToExcel_WhenNoLogs_ShouldReturnEmptyExcel() throws IOException {
+        @DisplayName("should export header only when no logs")
+        void exportToExcel_WhenNoLogs_ShouldReturnHeaderOnly() throws IOException {
             // Given
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(), 0L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
+            givenLogs(List.of());
 
             // When
-            ResponseEntity<byte[]> result = logExportService.exportToExcel(query);
+            byte[] content = render(logExportService.exportToExcel(query));
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.getBody()).isNotNull();
+            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+                assertThat(workbook.getSheetAt(0).getLastRowNum()).isZero();
+            }
         }
 
         @Test
-        @DisplayName("should limit export to 10000 records")
-        void exportToExcel_ShouldLimitRecords() throws IOException {
-            // Given
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(testLog), 1L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
-
+        @DisplayName("should not read logs until the body is written")
+        void exportToExcel_ShouldDeferQueryToBodyWrite() {
             // When
             logExportService.exportToExcel(query);
 
             // Then
-            verify(logService).getLogList(argThat(q -> q.getSize() == 10000));
+            verifyNoInteractions(storageStrategy);
         }
     }
 
@@ -136,56 +154,61 @@ class LogExportServiceTest {
         @DisplayName("should export logs to CSV")
         void exportToCsv_ShouldReturnCsvFile() throws IOException {
             // Given
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(testLog), 1L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
+            givenLogs(List.of(testLog));
 
             // When
-            ResponseEntity<byte[]> result = logExportService.exportToCsv(query);
+            ResponseEntity<StreamingResponseBody> result = logExportService.exportToCsv(query);
+            String content = new String(render(result), StandardCharsets.UTF_8);
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.getBody()).isNotNull();
             assertThat(result.getHeaders().getContentType().toString())
                     .contains("text/csv");
+            assertThat(content.split("\n")).hasSize(2);
+            assertThat(content).contains("log-001,testuser,用户管理,操作日志,查询,查询用户列表");
         }
 
         @Test
-        @DisplayName("should export empty CSV when no logs")
-        void exportToCsv_WhenNoLogs_ShouldReturnEmptyCsv() throws IOException {
+        @DisplayName("should resolve dictionary labels once per export")
+        void exportToCsv_ShouldResolveDictOnce() throws IOException {
             // Given
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(), 0L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
+            givenLogs(List.of(testLog, testLog, testLog));
 
             // When
-            ResponseEntity<byte[]> result = logExportService.exportToCsv(query);
+            render(logExportService.exportToCsv(query));
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.getBody()).isNotNull();
+            verify(dictUtils, times(1)).getDictMap("log_type");
+            verify(dictUtils, times(1)).getDictMap("operation_type");
+            verify(dictUtils, never()).getDictLabel(anyString(), anyString());
         }
 
         @Test
         @DisplayName("should handle log with null values")
         void exportToCsv_WithNullValues_ShouldHandleGracefully() throws IOException {
             // Given
-            LogPageResponse logWithNulls = new LogPageResponse(
-                    "log-002", null, null, null, null, null, null, null, null, null, null, null, null, null
-            );
-            PageResultResponse<LogPageResponse> pageResult = new PageResultResponse<>(
-                    List.of(logWithNulls), 1L, 1, 10
-            );
-            when(logService.getLogList(any(LogQuery.class))).thenReturn(pageResult);
+            LogEntity logWithNulls = new LogEntity();
+            logWithNulls.setId("log-002");
+            givenLogs(List.of(logWithNulls));
+
+            // When
+            String content = new String(render(logExportService.exportToCsv(query)), StandardCharsets.UTF_8);
+
+            // Then
+            assertThat(content).contains("log-002,,,未知,未知,,,,0,失败,");
+        }
+
+        @Test
+        @DisplayName("should quote values containing separators")
+        void exportToCsv_ShouldEscapeSpecialCharacters() throws IOException {
+            // Given
+            testLog.setDescription("a,\"b\"");
+            givenLogs(List.of(testLog));
 
             // When
-            ResponseEntity<byte[]> result = logExportService.exportToCsv(query);
+            String content = new String(render(logExportService.exportToCsv(query)), StandardCharsets.UTF_8);
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.getBody()).isNotNull();
+            assertThat(content).contains("\"a,\"\"b\"\"\"");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package com.adminplus.service;
+
+import com.adminplus.common.properties.LogStorageProperties;
+import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.service.impl.LogIngestionBuffer;
+import com.adminplus.service.impl.LogStorageStrategySelector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * LogIngestionBuffer 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogIngestionBuffer Unit Tests")
+class LogIngestionBufferTest {
+
+    @Mock
+    private LogStorageStrategySelector storageStrategySelector;
+
+    @Mock
+    private LogStorageStrategy storageStrategy;
+
+    private LogStorageProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LogIngestionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(storageStrategySelector.getStrategy()).thenReturn(storageStrategy);
+        properties = new LogStorageProperties();
+        // 批次大于容量且刷新间隔足够长：后台线程在测试期间不会主动刷新
+        properties.getIngestion().setCapacity(3);
+        properties.getIngestion().setBatchSize(10);
+        properties.getIngestion().setFlushIntervalMs(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    private LogIngestionBuffer newBuffer(LogStorageProperties.OverflowPolicy policy) {
+        properties.getIngestion().setOverflowPolicy(policy);
+        return new LogIngestionBuffer(storageStrategySelector, properties, meterRegistry);
+    }
+
+    private static LogEntity log(String description) {
+        LogEntity entity = new LogEntity();
+        entity.setDescription(description);
+        return entity;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Batch Flush Tests")
+    class BatchFlushTests {
+
+        @Test
+        @DisplayName("should write queued logs in batches of batchSize")
+        @SuppressWarnings("unchecked")
+        void flushAll_ShouldSaveInBatches() {
+            // Given
+            properties.getIngestion().setCapacity(10);
+            properties.getIngestion().setBatchSize(2);
+            buffer = newBuffer(LogStorageProperties.OverflowPolicy.DROP_NEWEST);
+            buffer.start();
+            buffer.submit(log("a"));
+            buffer.submit(log("b"));
+            buffer.submit(log("c"));
+
+            // When
+            buffer.stop();
+
+            // Then
+            ArgumentCaptor<List<LogEntity>> captor = ArgumentCaptor.forClass(List.class);
+            verify(storageStrategy, atLeastOnce()).saveAll(captor.capture());
+            assertThat(captor.getAllValues()).allMatch(batch -> batch.size() <= 2);
+            assertThat(captor.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(3);
+            assertThat(counter("log.ingestion.flushed")).isEqualTo(3);
+            assertThat(buffer.pendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should fall back to single writes when batch fails")
+        void flush_WhenBatchFails_ShouldRetryIndividually() {
+            // Given
+            properties.getIngestion().setBatchSize(2);
+            buffer = newBuffer(LogStorageProperties.OverflowPolicy.DROP_NEWEST);
+            when(storageStrategy.saveAll(anyList())).thenThrow(new RuntimeException("value too long"));
+            when(storageStrategy.save(any(LogEntity.class)))
+                    .thenReturn(null)
+                    .thenThrow(new RuntimeException("value too long"));
+            buffer.start();
+            buffer.submit(log("ok"));
+            buffer.submit(log("bad"));
+
+            // When
+            buffer.stop();
+
+            // Then
+            verify(storageStrategy, times(2)).save(any(LogEntity.class));
+            assertThat(counter("log.ingestion.flushed")).isEqualTo(1);
+            assertThat(counter("log.ingestion.failed")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Overflow Policy Tests")
+    class OverflowPolicyTests {
+
+        @Test
+        @DisplayName("should drop newest log when full")
+        void submit_DropNewest_ShouldRejectIncoming() {
+            // Given
+            buffer = newBuffer(LogStorageProperties.OverflowPolicy.DROP_NEWEST);
+            buffer.start();
+            buffer.submit(log("1"));
+            buffer.submit(log("2"));
+            buffer.submit(log("3"));
+
+            // When
+            boolean accepted = buffer.submit(log("4"));
+
+            // Then
+            assertThat(accepted).isFalse();
+            assertThat(buffer.pendingCount()).isEqualTo(3);
+            assertThat(counter("log.ingestion.dropped")).isEqualTo(1);
+            assertThat(counter("log.ingestion.enqueued")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should evict oldest log when full")
+        @SuppressWarnings("unchecked")
+        void submit_DropOldest_ShouldKeepNewest() {
+            // Given
+            buffer = newBuffer(LogStorageProperties.OverflowPolicy.DROP_OLDEST);
+            buffer.start();
+            buffer.submit(log("1"));
+            buffer.submit(log("2"));
+            buffer.submit(log("3"));
+
+            // When
+            boolean accepted = buffer.submit(log("4"));
+            buffer.flushAll();
+
+            // Then
+            assertThat(accepted).isTrue();
+            ArgumentCaptor<List<LogEntity>> captor = ArgumentCaptor.forClass(List.class);
+            verify(storageStrategy, atLeastOnce()).saveAll(captor.capture());
+            assertThat(captor.getAllValues().stream().flatMap(List::stream).map(LogEntity::getDescription))
+                    .containsExactly("2", "3", "4");
+            assertThat(counter("log.ingestion.dropped")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should write on caller thread when full")
+        void submit_CallerRuns_ShouldSaveDirectly() {
+            // Given
+            buffer = newBuffer(LogStorageProperties.OverflowPolicy.CALLER_RUNS);
+            buffer.start();
+            buffer.submit(log("1"));
+            buffer.submit(log("2"));
+            buffer.submit(log("3"));
+            LogEntity overflow = log("4");
+
+            // When
+            boolean accepted = buffer.submit(overflow);
+
+            // Then
+            assertThat(accepted).isTrue();
+            verify(storageStrategy).save(overflow);
+            assertThat(counter("log.ingestion.dropped")).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("should write synchronously when ingestion is disabled")
+    void submit_WhenDisabled_ShouldSaveDirectly() {
+        // Given
+        properties.getIngestion().setEnabled(false);
+        buffer = newBuffer(LogStorageProperties.OverflowPolicy.DROP_NEWEST);
+        buffer.start();
+        LogEntity entity = log("sync");
+
+        // When
+        buffer.submit(entity);
+
+        // Then
+        verify(storageStrategy).save(entity);
+        verify(storageStrategy, never()).saveAll(anyList());
+    }
+}
@@ -7,6 +7,7 @@ import com.adminplus.pojo.dto.response.LogPageResponse;
 import com.adminplus.pojo.dto.response.LogStatisticsResponse;
 import com.adminplus.pojo.dto.response.PageResultResponse;
 import com.adminplus.pojo.entity.LogEntity;
+import com.adminplus.service.impl.LogIngestionBuffer;
 import com.adminplus.service.impl.LogStorageStrategySelector;
 import com.adminplus.service.impl.LogServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +49,9 @@ class LogServiceTest {
     @Mock
     private LogStatisticsService logStatisticsService;
 
+    @Mock
+    private LogIngestionBuffer logIngestionBuffer;
+
     @InjectMocks
     private LogServiceImpl logService;
 
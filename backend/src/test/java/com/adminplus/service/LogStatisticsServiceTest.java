@@ -1,8 +1,11 @@
 package com.adminplus.service;
 
-import com.adminplus.pojo.dto.query.LogQuery;
+import com.adminplus.constants.DateTimeConstants;
 import com.adminplus.pojo.dto.response.LogStatisticsResponse;
-import com.adminplus.service.impl.LogStorageStrategySelector;
+import com.adminplus.pojo.entity.LogDailyStatEntity;
+import com.adminplus.repository.LogDailyStatRepository;
+import com.adminplus.repository.LogRepository;
+import com.adminplus.service.impl.LogDailyRollup;
 import com.adminplus.service.impl.LogStatisticsServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,8 +16,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -28,17 +37,30 @@ import static org.mockito.Mockito.*;
 class LogStatisticsServiceTest {
 
     @Mock
-    private LogStorageStrategySelector storageStrategySelector;
+    private LogRepository logRepository;
+
+    @Mock
+    private LogDailyStatRepository logDailyStatRepository;
 
     @Mock
-    private LogStorageStrategy storageStrategy;
+    private LogDailyRollup logDailyRollup;
 
     @InjectMocks
     private LogStatisticsServiceImpl logStatisticsService;
 
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+
     @BeforeEach
     void setUp() {
-        lenient().when(storageStrategySelector.getStrategy()).thenReturn(storageStrategy);
+        lenient().when(logDailyRollup.statZone()).thenReturn(ZONE);
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZONE);
+    }
+
+    private static String format(LocalDate date) {
+        return date.format(DateTimeConstants.STANDARD_DATE);
     }
 
     @Nested
@@ -46,30 +68,40 @@ class LogStatisticsServiceTest {
     class GetStatisticsTests {
 
         @Test
-        @DisplayName("should return statistics with all counts")
-        void getStatistics_ShouldReturnStatistics() {
-            // Given
-            when(storageStrategy.count()).thenReturn(100L);
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(10L);
+        @DisplayName("should aggregate all breakdowns from a single grouped scan")
+        void getStatistics_ShouldAggregateCells() {
+            // Given: [日期, 日志类型, 操作类型, 状态, 数量]
+            when(logRepository.aggregateStatistics(any(Instant.class), anyString())).thenReturn(List.of(
+                    new Object[]{today(), 1, 1, 1, 10L},
+                    new Object[]{java.sql.Date.valueOf(today().minusDays(1)), 1, 2, 0, 5L},
+                    new Object[]{today(), 2, null, 1, 3L},
+                    new Object[]{null, 3, null, 1, 100L}
+            ));
 
             // When
             LogStatisticsResponse result = logStatisticsService.getStatistics();
 
             // Then
-            assertThat(result).isNotNull();
-            assertThat(result.totalCount()).isEqualTo(100L);
-            assertThat(result.countByType()).isNotNull();
-            assertThat(result.countByStatus()).isNotNull();
-            assertThat(result.countByDate()).hasSize(7);
-            assertThat(result.countByOperationType()).hasSize(7);
+            assertThat(result.totalCount()).isEqualTo(118L);
+            assertThat(result.operationCount()).isEqualTo(15L);
+            assertThat(result.loginCount()).isEqualTo(3L);
+            assertThat(result.systemCount()).isEqualTo(100L);
+            assertThat(result.todayCount()).isEqualTo(13L);
+            assertThat(result.successCount()).isEqualTo(113L);
+            assertThat(result.failureCount()).isEqualTo(5L);
+            assertThat(result.countByOperationType()).hasSize(7).containsEntry(1, 10L).containsEntry(2, 5L);
+            assertThat(result.countByDate()).hasSize(7)
+                    .containsEntry(format(today()), 13L)
+                    .containsEntry(format(today().minusDays(1)), 5L);
+            verify(logRepository, times(1)).aggregateStatistics(any(Instant.class), anyString());
+            verifyNoInteractions(logDailyStatRepository);
         }
 
         @Test
         @DisplayName("should return zero counts when no logs exist")
         void getStatistics_WhenNoLogs_ShouldReturnZeroCounts() {
             // Given
-            when(storageStrategy.count()).thenReturn(0L);
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(0L);
+            when(logRepository.aggregateStatistics(any(Instant.class), anyString())).thenReturn(List.of());
 
             // When
             LogStatisticsResponse result = logStatisticsService.getStatistics();
@@ -79,21 +111,26 @@ class LogStatisticsServiceTest {
             assertThat(result.operationCount()).isEqualTo(0L);
             assertThat(result.loginCount()).isEqualTo(0L);
             assertThat(result.systemCount()).isEqualTo(0L);
+            assertThat(result.countByDate()).hasSize(7).containsValue(0L);
         }
 
         @Test
-        @DisplayName("should call storage strategy for each statistic")
-        void getStatistics_ShouldCallStrategyMethods() {
+        @DisplayName("should read the daily rollup when enabled")
+        void getStatistics_WhenRollupEnabled_ShouldReadRollup() {
             // Given
-            when(storageStrategy.count()).thenReturn(100L);
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(10L);
+            when(logDailyRollup.isEnabled()).thenReturn(true);
+            when(logDailyStatRepository.findAllCells()).thenReturn(List.<Object[]>of(
+                    new Object[]{today(), 2, LogDailyStatEntity.NONE, 1, 4L}
+            ));
 
             // When
-            logStatisticsService.getStatistics();
+            LogStatisticsResponse result = logStatisticsService.getStatistics();
 
             // Then
-            verify(storageStrategy).count();
-            verify(storageStrategy, atLeastOnce()).countByCondition(any(LogQuery.class));
+            assertThat(result.loginCount()).isEqualTo(4L);
+            assertThat(result.todayCount()).isEqualTo(4L);
+            assertThat(result.countByOperationType().values()).containsOnly(0L);
+            verify(logRepository, never()).aggregateStatistics(any(), any());
         }
     }
 
@@ -102,46 +139,38 @@ class LogStatisticsServiceTest {
     class GetTrendDataTests {
 
         @Test
-        @DisplayName("should return trend data for specified days")
+        @DisplayName("should return one bucket per day with a single query")
         void getTrendData_ShouldReturnDataForDays() {
             // Given
-            int days = 7;
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(5L);
-
-            // When
-            LogStatisticsResponse result = logStatisticsService.getTrendData(days);
-
-            // Then
-            assertThat(result).isNotNull();
-            assertThat(result.countByDate()).hasSize(days);
-        }
-
-        @Test
-        @DisplayName("should return trend data for 30 days")
-        void getTrendData_ShouldReturnDataFor30Days() {
-            // Given
-            int days = 30;
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(3L);
+            when(logRepository.countByDateSince(any(Instant.class), anyString())).thenReturn(List.<Object[]>of(
+                    new Object[]{today(), 10L},
+                    new Object[]{today().minusDays(2), 20L}
+            ));
 
             // When
-            LogStatisticsResponse result = logStatisticsService.getTrendData(days);
+            LogStatisticsResponse result = logStatisticsService.getTrendData(30);
 
             // Then
-            assertThat(result.countByDate()).hasSize(days);
+            assertThat(result.countByDate()).hasSize(30);
+            assertThat(result.totalCount()).isEqualTo(30L);
+            verify(logRepository, times(1)).countByDateSince(any(Instant.class), anyString());
         }
 
         @Test
-        @DisplayName("should calculate total count from trend data")
-        void getTrendData_ShouldCalculateTotalCount() {
+        @DisplayName("should read trend from rollup when enabled")
+        void getTrendData_WhenRollupEnabled_ShouldReadRollup() {
             // Given
-            int days = 3;
-            when(storageStrategy.countByCondition(any(LogQuery.class))).thenReturn(10L);
+            when(logDailyRollup.isEnabled()).thenReturn(true);
+            when(logDailyStatRepository.sumByDateSince(today().minusDays(2))).thenReturn(List.<Object[]>of(
+                    new Object[]{today(), 7L}
+            ));
 
             // When
-            LogStatisticsResponse result = logStatisticsService.getTrendData(days);
+            LogStatisticsResponse result = logStatisticsService.getTrendData(3);
 
             // Then
-            assertThat(result.totalCount()).isEqualTo(30L); // 10 * 3 days
+            assertThat(result.countByDate()).hasSize(3).containsEntry(format(today()), 7L);
+            assertThat(result.totalCount()).isEqualTo(7L);
         }
     }
-}
\ No newline at end of file
+}
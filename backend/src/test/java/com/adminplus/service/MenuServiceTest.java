@@ -1,6 +1,7 @@
 package com.adminplus.service;
 
 import com.adminplus.common.exception.BizException;
+import com.adminplus.common.security.PermissionChangedEvent;
 import com.adminplus.pojo.dto.request.MenuCreateRequest;
 import com.adminplus.pojo.dto.response.MenuResponse;
 import com.adminplus.pojo.entity.MenuEntity;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 
 import java.util.List;
@@ -52,6 +54,9 @@ class MenuServiceTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MenuServiceImpl menuService;
 
@@ -236,6 +241,7 @@ class MenuServiceTest {
             // Then
             assertThat(result).isNotNull();
             verify(menuRepository).save(any(MenuEntity.class));
+            verify(eventPublisher).publishEvent(PermissionChangedEvent.menus());
         }
 
         @Test
@@ -358,6 +364,7 @@ class MenuServiceTest {
             assertThat(result.name()).isEqualTo("Test Menu (副本)");
             assertThat(result.parentId()).isEqualTo("0");
             verify(menuRepository).save(any(MenuEntity.class));
+            verify(eventPublisher).publishEvent(PermissionChangedEvent.menus());
         }
 
         @Test
@@ -0,0 +1,168 @@
+package com.adminplus.service;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.constants.CacheConstants;
+import com.adminplus.pojo.dto.response.OnlineUserResponse;
+import com.adminplus.pojo.dto.response.PageResultResponse;
+import com.adminplus.service.impl.OnlineUserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OnlineUserService 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OnlineUserService Unit Tests")
+class OnlineUserServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private OnlineUserServiceImpl onlineUserService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        onlineUserService = new OnlineUserServiceImpl(redisTemplate, new AppProperties());
+    }
+
+    @Nested
+    @DisplayName("getOnlineUsers Tests")
+    class GetOnlineUsersTests {
+
+        @Test
+        @DisplayName("should prune idle users then read one page by last-seen order")
+        @SuppressWarnings("unchecked")
+        void getOnlineUsers_ShouldReadPageFromSortedSet() {
+            // Given
+            long loginTime = Instant.parse("2026-10-18T08:00:00Z").toEpochMilli();
+            Set<TypedTuple<String>> entries = new LinkedHashSet<>();
+            entries.add(new DefaultTypedTuple<>("user-002", 2000.0));
+            entries.add(new DefaultTypedTuple<>("user-001", 1000.0));
+            when(zSetOperations.zCard(CacheConstants.ONLINE_USERS_KEY)).thenReturn(5L);
+            when(zSetOperations.reverseRangeWithScores(CacheConstants.ONLINE_USERS_KEY, 2, 3)).thenReturn(entries);
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.<Object>of(
+                    Map.of("username", "alice", "ip", "10.0.0.2", "browser", "Chrome", "os", "Windows",
+                            "loginTime", String.valueOf(loginTime)),
+                    Map.of()
+            ));
+
+            // When
+            PageResultResponse<OnlineUserResponse> result = onlineUserService.getOnlineUsers(2, 2);
+
+            // Then
+            assertThat(result.total()).isEqualTo(5L);
+            assertThat(result.records()).extracting(OnlineUserResponse::userId)
+                    .containsExactly("user-002", "user-001");
+            OnlineUserResponse first = result.records().get(0);
+            assertThat(first.username()).isEqualTo("alice");
+            assertThat(first.browser()).isEqualTo("Chrome");
+            assertThat(first.loginTime()).isEqualTo(Instant.ofEpochMilli(loginTime));
+            // 会话信息缺失时使用占位值，并以最后活跃时间代替登录时间
+            OnlineUserResponse second = result.records().get(1);
+            assertThat(second.username()).isEqualTo("-");
+            assertThat(second.loginTime()).isEqualTo(Instant.ofEpochMilli(1000));
+            verify(zSetOperations).removeRangeByScore(eq(CacheConstants.ONLINE_USERS_KEY),
+                    eq(Double.NEGATIVE_INFINITY), anyDouble());
+        }
+
+        @Test
+        @DisplayName("should skip range read when page is beyond total")
+        void getOnlineUsers_BeyondTotal_ShouldReturnEmpty() {
+            // Given
+            when(zSetOperations.zCard(CacheConstants.ONLINE_USERS_KEY)).thenReturn(1L);
+
+            // When
+            PageResultResponse<OnlineUserResponse> result = onlineUserService.getOnlineUsers(3, 10);
+
+            // Then
+            assertThat(result.records()).isEmpty();
+            assertThat(result.total()).isEqualTo(1L);
+            verify(zSetOperations, never()).reverseRangeWithScores(anyString(), anyLong(), anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Presence Tests")
+    class PresenceTests {
+
+        @Test
+        @DisplayName("should refresh last-seen only for registered users")
+        void touch_WhenRegistered_ShouldUpdateScore() {
+            // Given
+            when(zSetOperations.score(CacheConstants.ONLINE_USERS_KEY, "user-001")).thenReturn(1000.0);
+
+            // When
+            onlineUserService.touch("user-001");
+
+            // Then
+            verify(zSetOperations).add(eq(CacheConstants.ONLINE_USERS_KEY), eq("user-001"), anyDouble());
+            verify(redisTemplate).expire(CacheConstants.ONLINE_SESSION_KEY_PREFIX + "user-001", Duration.ofHours(2));
+        }
+
+        @Test
+        @DisplayName("should not re-register unknown users on refresh")
+        void touch_WhenNotRegistered_ShouldSkip() {
+            // Given
+            when(zSetOperations.score(CacheConstants.ONLINE_USERS_KEY, "user-001")).thenReturn(null);
+
+            // When
+            onlineUserService.touch("user-001");
+
+            // Then
+            verify(zSetOperations, never()).add(anyString(), anyString(), anyDouble());
+        }
+
+        @Test
+        @DisplayName("should remove presence and session on logout")
+        void remove_ShouldDeleteEntries() {
+            // When
+            onlineUserService.remove("user-001");
+
+            // Then
+            verify(zSetOperations).remove(CacheConstants.ONLINE_USERS_KEY, "user-001");
+            verify(redisTemplate).delete(CacheConstants.ONLINE_SESSION_KEY_PREFIX + "user-001");
+        }
+
+        @Test
+        @DisplayName("should not fail login when Redis is unavailable")
+        @SuppressWarnings("unchecked")
+        void recordLogin_WhenRedisFails_ShouldSwallow() {
+            // Given
+            when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                    .thenThrow(new RuntimeException("connection refused"));
+
+            // When & Then
+            assertThatCode(() -> onlineUserService.recordLogin("user-001", "alice", "10.0.0.1", "Mozilla/5.0"))
+                    .doesNotThrowAnyException();
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.adminplus.service;
 import com.adminplus.common.exception.BizException;
 import com.adminplus.common.properties.AppProperties;
 import com.adminplus.common.security.JwtTokenProvider;
+import com.adminplus.constants.CacheConstants;
 import com.adminplus.pojo.entity.RefreshTokenEntity;
 import com.adminplus.repository.RefreshTokenRepository;
 import com.adminplus.service.impl.RefreshTokenServiceImpl;
+import com.adminplus.utils.TokenHashUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,7 +16,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
@@ -22,6 +27,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -43,6 +51,15 @@ class RefreshTokenServiceTest {
     @Mock
     private AppProperties appProperties;
 
+    @Mock
+    private OnlineUserService onlineUserService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
     @InjectMocks
     private RefreshTokenServiceImpl refreshTokenService;
 
@@ -52,13 +69,18 @@ class RefreshTokenServiceTest {
     void setUp() {
         testToken = new RefreshTokenEntity();
         testToken.setUserId("user-001");
-        testToken.setToken("refresh-token-uuid");
+        testToken.setTokenHash(TokenHashUtils.hash("refresh-token-uuid"));
         testToken.setExpiryDate(Instant.now().plus(7, ChronoUnit.DAYS));
         testToken.setRevoked(false);
 
         AppProperties.Jwt jwtProps = new AppProperties.Jwt();
         jwtProps.setRefreshTokenExpirationDays(7);
         lenient().when(appProperties.getJwt()).thenReturn(jwtProps);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private static String tokenKey(String token) {
+        return CacheConstants.REFRESH_TOKEN_KEY_PREFIX + TokenHashUtils.hash(token);
     }
 
     @Nested
@@ -66,37 +88,38 @@ class RefreshTokenServiceTest {
     class CreateRefreshTokenTests {
 
         @Test
-        @DisplayName("should create new refresh token")
-        void createRefreshToken_ShouldCreateToken() {
+        @DisplayName("should store only the token digest with a single upsert")
+        void createRefreshToken_ShouldUpsertDigest() {
             // Given
             String userId = "user-001";
-            doNothing().when(refreshTokenRepository).deleteByUserId(userId);
             when(jwtTokenProvider.generateRefreshToken(userId)).thenReturn("refresh-jwt-token");
-            when(refreshTokenRepository.save(any())).thenReturn(testToken);
 
             // When
             String result = refreshTokenService.createRefreshToken(userId);
 
             // Then
             assertThat(result).isEqualTo("refresh-jwt-token");
-            verify(refreshTokenRepository).deleteByUserId(userId);
-            verify(refreshTokenRepository).save(any(RefreshTokenEntity.class));
+            verify(refreshTokenRepository).upsert(anyString(), eq(userId),
+                    eq(TokenHashUtils.hash("refresh-jwt-token")), any(Instant.class));
+            verify(refreshTokenRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("should revoke previous tokens before creating new one")
-        void createRefreshToken_ShouldRevokePreviousTokens() {
+        @DisplayName("should write through to Redis and drop the previous token")
+        void createRefreshToken_ShouldReplacePreviousTokenInRedis() {
             // Given
             String userId = "user-001";
-            doNothing().when(refreshTokenRepository).deleteByUserId(userId);
             when(jwtTokenProvider.generateRefreshToken(userId)).thenReturn("refresh-jwt-token");
-            when(refreshTokenRepository.save(any())).thenReturn(testToken);
+            when(valueOperations.getAndSet(CacheConstants.USER_REFRESH_TOKEN_KEY_PREFIX + userId,
+                    TokenHashUtils.hash("refresh-jwt-token"))).thenReturn("old-hash");
 
             // When
             refreshTokenService.createRefreshToken(userId);
 
             // Then
-            verify(refreshTokenRepository).deleteByUserId(userId);
+            verify(valueOperations).set(eq(tokenKey("refresh-jwt-token")),
+                    argThat((String value) -> value.startsWith(userId + "|")), any(Duration.class));
+            verify(redisTemplate).delete(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + "old-hash");
         }
     }
 
@@ -104,11 +127,29 @@ class RefreshTokenServiceTest {
     @DisplayName("refreshAccessToken Tests")
     class RefreshAccessTokenTests {
 
+        @Test
+        @DisplayName("should not query the database when Redis has the token")
+        void refreshAccessToken_WhenCached_ShouldSkipDatabase() {
+            // Given
+            when(valueOperations.get(tokenKey("refresh-token-uuid")))
+                    .thenReturn("user-001|" + Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli());
+            when(jwtTokenProvider.generateAccessToken("user-001")).thenReturn("new-access-token");
+
+            // When
+            String result = refreshTokenService.refreshAccessToken("refresh-token-uuid");
+
+            // Then
+            assertThat(result).isEqualTo("new-access-token");
+            verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+            verify(onlineUserService).touch("user-001");
+        }
+
         @Test
         @DisplayName("should return new access token for valid refresh token")
         void refreshAccessToken_WithValidToken_ShouldReturnAccessToken() {
             // Given
-            when(refreshTokenRepository.findByToken("refresh-token-uuid")).thenReturn(Optional.of(testToken));
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("refresh-token-uuid")))
+                    .thenReturn(Optional.of(testToken));
             when(jwtTokenProvider.generateAccessToken("user-001")).thenReturn("new-access-token");
 
             // When
@@ -116,13 +157,14 @@ class RefreshTokenServiceTest {
 
             // Then
             assertThat(result).isEqualTo("new-access-token");
+            verify(onlineUserService).touch("user-001");
         }
 
         @Test
         @DisplayName("should throw exception for invalid refresh token")
         void refreshAccessToken_WithInvalidToken_ShouldThrowException() {
             // Given
-            when(refreshTokenRepository.findByToken("invalid-token")).thenReturn(Optional.empty());
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("invalid-token"))).thenReturn(Optional.empty());
 
             // When & Then
             assertThatThrownBy(() -> refreshTokenService.refreshAccessToken("invalid-token"))
@@ -135,7 +177,8 @@ class RefreshTokenServiceTest {
         void refreshAccessToken_WithRevokedToken_ShouldThrowException() {
             // Given
             testToken.setRevoked(true);
-            when(refreshTokenRepository.findByToken("refresh-token-uuid")).thenReturn(Optional.of(testToken));
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("refresh-token-uuid")))
+                    .thenReturn(Optional.of(testToken));
 
             // When & Then
             assertThatThrownBy(() -> refreshTokenService.refreshAccessToken("refresh-token-uuid"))
@@ -148,7 +191,8 @@ class RefreshTokenServiceTest {
         void refreshAccessToken_WithExpiredToken_ShouldThrowException() {
             // Given
             testToken.setExpiryDate(Instant.now().minus(1, ChronoUnit.DAYS));
-            when(refreshTokenRepository.findByToken("refresh-token-uuid")).thenReturn(Optional.of(testToken));
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("refresh-token-uuid")))
+                    .thenReturn(Optional.of(testToken));
 
             // When & Then
             assertThatThrownBy(() -> refreshTokenService.refreshAccessToken("refresh-token-uuid"))
@@ -162,24 +206,27 @@ class RefreshTokenServiceTest {
     class RevokeRefreshTokenTests {
 
         @Test
-        @DisplayName("should revoke valid token")
+        @DisplayName("should revoke valid token and remove it from Redis")
         void revokeRefreshToken_ShouldRevokeToken() {
             // Given
-            when(refreshTokenRepository.findByToken("refresh-token-uuid")).thenReturn(Optional.of(testToken));
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("refresh-token-uuid")))
+                    .thenReturn(Optional.of(testToken));
             when(refreshTokenRepository.save(any())).thenReturn(testToken);
 
             // When
             refreshTokenService.revokeRefreshToken("refresh-token-uuid");
 
             // Then
+            assertThat(testToken.getRevoked()).isTrue();
             verify(refreshTokenRepository).save(any(RefreshTokenEntity.class));
+            verify(redisTemplate).delete(tokenKey("refresh-token-uuid"));
         }
 
         @Test
         @DisplayName("should throw exception for invalid token")
         void revokeRefreshToken_WithInvalidToken_ShouldThrowException() {
             // Given
-            when(refreshTokenRepository.findByToken("invalid-token")).thenReturn(Optional.empty());
+            when(refreshTokenRepository.findByTokenHash(TokenHashUtils.hash("invalid-token"))).thenReturn(Optional.empty());
 
             // When & Then
             assertThatThrownBy(() -> refreshTokenService.revokeRefreshToken("invalid-token"))
@@ -194,16 +241,19 @@ class RefreshTokenServiceTest {
 
         @Test
         @DisplayName("should revoke all tokens for user")
-        void revokeAllUserTokens_ShouldDeleteAllTokens() {
+        void revokeAllUserTokens_ShouldRevokeAllTokens() {
             // Given
             String userId = "user-001";
-            doNothing().when(refreshTokenRepository).deleteByUserId(userId);
+            when(valueOperations.getAndDelete(CacheConstants.USER_REFRESH_TOKEN_KEY_PREFIX + userId))
+                    .thenReturn("current-hash");
 
             // When
             refreshTokenService.revokeAllUserTokens(userId);
 
             // Then
-            verify(refreshTokenRepository).deleteByUserId(userId);
+            verify(refreshTokenRepository).revokeByUserId(eq(userId), any(Instant.class));
+            verify(redisTemplate).delete(CacheConstants.REFRESH_TOKEN_KEY_PREFIX + "current-hash");
+            verify(onlineUserService).remove(userId);
         }
     }
 
@@ -212,16 +262,16 @@ class RefreshTokenServiceTest {
     class CleanupExpiredTokensTests {
 
         @Test
-        @DisplayName("should delete expired tokens")
-        void cleanupExpiredTokens_ShouldDeleteExpired() {
+        @DisplayName("should delete expired tokens in batches until drained")
+        void cleanupExpiredTokens_ShouldDeleteInBatches() {
             // Given
-            doNothing().when(refreshTokenRepository).deleteByExpiryDateBefore(any(Instant.class));
+            when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), anyInt())).thenReturn(1000, 1000, 12);
 
             // When
             refreshTokenService.cleanupExpiredTokens();
 
             // Then
-            verify(refreshTokenRepository).deleteByExpiryDateBefore(any(Instant.class));
+            verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(Instant.class), eq(1000));
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.adminplus.service;
 
+import com.adminplus.common.security.TokenRevocationEngine;
 import com.adminplus.service.impl.TokenBlacklistServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +16,7 @@ import org.springframework.data.redis.core.SetOperations;
 
 import java.time.Duration;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,13 +41,20 @@ class TokenBlacklistServiceTest {
     @Mock
     private SetOperations<String, String> setOperations;
 
+    @Mock
+    private TokenRevocationEngine tokenRevocationEngine;
+
     @InjectMocks
     private TokenBlacklistServiceImpl tokenBlacklistService;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
         lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        // 默认过滤器判定"可能存在"，回查 Redis
+        lenient().when(tokenRevocationEngine.isRevoked(anyString(), any()))
+                .thenAnswer(inv -> ((Predicate<String>) inv.getArgument(1)).test(inv.getArgument(0)));
     }
 
     @Nested
@@ -65,6 +74,7 @@ class TokenBlacklistServiceTest {
             // Then
             verify(valueOperations).set(anyString(), eq(userId), any(Duration.class));
             verify(setOperations).add(anyString(), anyString());
+            verify(tokenRevocationEngine).revoked(argThat(hashes -> hashes.size() == 1));
         }
 
         @Test
@@ -120,6 +130,20 @@ class TokenBlacklistServiceTest {
             assertThat(result).isFalse();
         }
 
+        @Test
+        @DisplayName("should skip Redis when filter rules the token out")
+        void isTokenBlacklisted_WhenFilterNegative_ShouldSkipRedis() {
+            // Given
+            when(tokenRevocationEngine.isRevoked(anyString(), any())).thenReturn(false);
+
+            // When
+            boolean result = tokenBlacklistService.isTokenBlacklisted("valid.jwt.token");
+
+            // Then
+            assertThat(result).isFalse();
+            verify(redisTemplate, never()).hasKey(anyString());
+        }
+
         @Test
         @DisplayName("should return false when token is null")
         void isTokenBlacklisted_WithNullToken_ShouldReturnFalse() {
@@ -158,6 +182,7 @@ class TokenBlacklistServiceTest {
 
             // Then
             verify(valueOperations, times(3)).set(anyString(), anyString(), any(Duration.class));
+            verify(tokenRevocationEngine).revoked(tokenHashes);
         }
 
         @Test
@@ -1,6 +1,7 @@
 package com.adminplus.service;
 
 import com.adminplus.common.exception.BizException;
+import com.adminplus.common.security.PermissionChangedEvent;
 import com.adminplus.pojo.dto.request.UserCreateRequest;
 import com.adminplus.pojo.dto.request.UserUpdateRequest;
 import com.adminplus.pojo.dto.request.LogEntry;
@@ -13,6 +14,7 @@ import com.adminplus.repository.DeptRepository;
 import com.adminplus.repository.RoleRepository;
 import com.adminplus.repository.UserRepository;
 import com.adminplus.repository.UserRoleRepository;
+import com.adminplus.service.impl.DashboardMetricRollup;
 import com.adminplus.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -69,6 +72,12 @@ class UserServiceTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DashboardMetricRollup dashboardMetricRollup;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -281,6 +290,7 @@ class UserServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.username()).isEqualTo("newuser");
             verify(userRepository).save(any(UserEntity.class));
+            verify(dashboardMetricRollup).recordUserCreated(any(UserEntity.class));
         }
     }
 
@@ -300,6 +310,7 @@ class UserServiceTest {
 
             // Then
             verify(userRepository).delete(any(UserEntity.class));
+            verify(dashboardMetricRollup).recordUserDeleted(testUser);
         }
 
         @Test
@@ -370,6 +381,9 @@ class UserServiceTest {
             // Then
             verify(userRoleRepository).deleteByUserIdAndRoleIdIn("user-001", Set.of("existing-role"));
             verify(userRoleRepository).saveAll(any());
+            verify(dashboardMetricRollup).recordRoleMembers(Set.of("existing-role"), -1);
+            verify(dashboardMetricRollup).recordRoleMembers(Set.of("role-001"), 1);
+            verify(eventPublisher).publishEvent(PermissionChangedEvent.user("user-001"));
         }
 
         @Test
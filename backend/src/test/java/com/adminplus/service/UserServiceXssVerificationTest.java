@@ -8,6 +8,7 @@ import com.adminplus.repository.DeptRepository;
 import com.adminplus.repository.RoleRepository;
 import com.adminplus.repository.UserRepository;
 import com.adminplus.repository.UserRoleRepository;
+import com.adminplus.service.impl.DashboardMetricRollup;
 import com.adminplus.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -65,6 +66,9 @@ class UserServiceXssVerificationTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private DashboardMetricRollup dashboardMetricRollup;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -10,6 +10,7 @@ import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.repository.WorkflowDefinitionRepository;
 import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.impl.WorkflowDefinitionServiceImpl;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 
 import java.util.Arrays;
@@ -53,6 +55,9 @@ class WorkflowDefinitionServiceTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WorkflowDefinitionServiceImpl service;
 
@@ -510,6 +515,20 @@ class WorkflowDefinitionServiceTest {
             // Then
             verify(nodeRepository).deleteById("node-001");
         }
+
+        @Test
+        @DisplayName("Should publish definition change so compiled graphs are invalidated")
+        void shouldPublishDefinitionChangedOnNodeDelete() {
+            // Given
+            when(nodeRepository.findById("node-001")).thenReturn(Optional.of(testNodeEntity));
+
+            // When
+            service.deleteNode("node-001");
+
+            // Then
+            verify(eventPublisher).publishEvent(new WorkflowDefinitionChangedEvent("def-001"));
+            verify(nodeRepository).deleteById("node-001");
+        }
     }
 
     @Nested
@@ -2,6 +2,7 @@ package com.adminplus.service;
 
 import com.adminplus.pojo.dto.request.ApprovalActionRequest;
 import com.adminplus.pojo.dto.request.WorkflowStartRequest;
+import com.adminplus.pojo.dto.response.CursorPageResponse;
 import com.adminplus.pojo.dto.response.WorkflowDraftDetailResponse;
 import com.adminplus.pojo.dto.response.WorkflowInstanceResponse;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
@@ -12,6 +13,7 @@ import com.adminplus.service.workflow.WorkflowDraftService;
 import com.adminplus.service.workflow.WorkflowRollbackService;
 import com.adminplus.service.workflow.WorkflowAddSignService;
 import com.adminplus.service.workflow.impl.WorkflowPermissionChecker;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
 import com.adminplus.common.security.AppUserDetails;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -73,6 +75,9 @@ class WorkflowInstanceServiceTest {
     @Mock
     private WorkflowPermissionChecker permissionChecker;
 
+    @Mock
+    private WorkflowInbox inbox;
+
     // Repository mocks (for query operations)
     @Mock
     private WorkflowInstanceRepository instanceRepository;
@@ -296,6 +301,39 @@ class WorkflowInstanceServiceTest {
             // This test documents the architecture - query ops remain in main service
             assertThat(true).isTrue();
         }
+
+        @Test
+        @DisplayName("countPendingApprovals reads the inbox counter")
+        void countPendingApprovalsReadsInboxCounter() {
+            // Given
+            mockSecurityContext(APPROVER_ID);
+            when(inbox.pendingCount(APPROVER_ID)).thenReturn(42L);
+
+            // When
+            long count = service.countPendingApprovals();
+
+            // Then
+            assertThat(count).isEqualTo(42L);
+            verify(instanceRepository, never()).countPendingApprovalsByUser(anyString());
+        }
+
+        @Test
+        @DisplayName("getPendingApprovalPage passes the inbox cursor through")
+        void getPendingApprovalPageUsesInboxCursor() {
+            // Given
+            mockSecurityContext(APPROVER_ID);
+            when(inbox.page(APPROVER_ID, "cursor-1", 20)).thenReturn(new WorkflowInbox.Page(List.of(), "cursor-2"));
+            when(instanceRepository.findAllById(List.of())).thenReturn(List.of());
+
+            // When
+            CursorPageResponse<WorkflowInstanceResponse> page = service.getPendingApprovalPage("cursor-1", 20);
+
+            // Then
+            assertThat(page.records()).isEmpty();
+            assertThat(page.nextCursor()).isEqualTo("cursor-2");
+            assertThat(page.hasMore()).isTrue();
+            verify(instanceRepository, never()).findPendingApprovalsByUser(anyString());
+        }
     }
 
     // ==================== Architecture Documentation ====================
@@ -7,11 +7,12 @@ import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.repository.WorkflowApprovalRepository;
 import com.adminplus.repository.WorkflowInstanceRepository;
-import com.adminplus.repository.WorkflowNodeRepository;
 import com.adminplus.service.impl.WorkflowStateMachineServiceImpl;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
+import com.adminplus.statemachine.cache.WorkflowStateMachineCache;
 import com.adminplus.statemachine.enums.WorkflowEvent;
 import com.adminplus.statemachine.enums.WorkflowState;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.adminplus.statemachine.persist.WorkflowStateMachinePersister;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -24,8 +25,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.statemachine.StateMachine;
-import org.springframework.statemachine.config.StateMachineFactory;
-import org.springframework.statemachine.persist.StateMachinePersister;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -46,10 +45,10 @@ import static org.mockito.Mockito.*;
 class WorkflowStateMachineServiceTest {
 
     @Mock
-    private StateMachineFactory<WorkflowState, WorkflowEvent> stateMachineFactory;
+    private WorkflowStateMachineCache machineCache;
 
     @Mock
-    private StateMachinePersister<WorkflowState, WorkflowEvent, String> persister;
+    private WorkflowStateMachinePersister persister;
 
     @Mock
     private WorkflowInstanceRepository instanceRepository;
@@ -58,10 +57,7 @@ class WorkflowStateMachineServiceTest {
     private WorkflowApprovalRepository approvalRepository;
 
     @Mock
-    private WorkflowNodeRepository nodeRepository;
-
-    @Mock
-    private ObjectMapper objectMapper;
+    private WorkflowDefinitionGraphCache definitionGraphCache;
 
     @Mock
     private StateMachine<WorkflowState, WorkflowEvent> stateMachine;
@@ -263,6 +259,24 @@ class WorkflowStateMachineServiceTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("只有发起人可以取消工作流");
         }
+
+        @Test
+        @DisplayName("should neither persist nor return machine to cache when event is rejected")
+        void cancel_WhenEventRejected_ShouldNotPersist() {
+            // Given
+            mockSecurityContext();
+            testInstance.setStateMachineContext("snapshot-1");
+            when(instanceRepository.findByIdForUpdate("inst-001")).thenReturn(Optional.of(testInstance));
+            when(machineCache.acquire("inst-001", "snapshot-1")).thenReturn(stateMachine);
+            when(stateMachine.sendEvent(WorkflowEvent.CANCEL)).thenReturn(false);
+
+            // When & Then
+            assertThatThrownBy(() -> stateMachineService.cancel("inst-001"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("状态机事件被拒绝");
+            verifyNoInteractions(persister);
+            verify(machineCache, never()).release(any(), any(), any());
+        }
     }
 
     @Nested
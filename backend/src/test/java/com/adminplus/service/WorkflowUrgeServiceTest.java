@@ -1,20 +1,26 @@
 package com.adminplus.service;
 
 import com.adminplus.common.exception.BizException;
+import com.adminplus.pojo.dto.request.UrgeActionRequest;
 import com.adminplus.pojo.dto.response.WorkflowUrgeResponse;
 import com.adminplus.pojo.entity.*;
 import com.adminplus.repository.*;
 import com.adminplus.service.impl.WorkflowUrgeServiceImpl;
+import com.adminplus.service.workflow.fanout.WorkflowNotificationEvent;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraph;
+import com.adminplus.service.workflow.graph.WorkflowDefinitionGraphCache;
 import com.adminplus.utils.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionService;
 
 import java.time.Instant;
@@ -47,7 +53,7 @@ class WorkflowUrgeServiceTest {
     private WorkflowApprovalRepository approvalRepository;
 
     @Mock
-    private WorkflowNodeRepository nodeRepository;
+    private WorkflowDefinitionGraphCache definitionGraphCache;
 
     @Mock
     private UserRepository userRepository;
@@ -55,6 +61,9 @@ class WorkflowUrgeServiceTest {
     @Mock
     private ConversionService conversionService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WorkflowUrgeServiceImpl urgeService;
 
@@ -114,6 +123,80 @@ class WorkflowUrgeServiceTest {
                 .thenReturn(testUrgeResponse);
     }
 
+    private WorkflowApprovalEntity pendingApproval(String approverId) {
+        WorkflowApprovalEntity approval = new WorkflowApprovalEntity();
+        approval.setInstanceId("inst-001");
+        approval.setNodeId("node-001");
+        approval.setApproverId(approverId);
+        approval.setApprovalStatus("pending");
+        return approval;
+    }
+
+    @Nested
+    @DisplayName("urgeWorkflow Tests")
+    class UrgeWorkflowTests {
+
+        @BeforeEach
+        void setUpInstance() {
+            testInstance.setDefinitionId("def-001");
+            testInstance.setTitle("请假申请");
+            lenient().when(instanceRepository.findById("inst-001")).thenReturn(Optional.of(testInstance));
+            lenient().when(definitionGraphCache.get("def-001"))
+                    .thenReturn(WorkflowDefinitionGraph.compile("def-001", null, List.of(testNode)));
+            lenient().when(userRepository.findById(testUserId)).thenReturn(Optional.of(testUser));
+        }
+
+        @Test
+        @DisplayName("should save urges in one batch and publish a single notification event")
+        @SuppressWarnings("unchecked")
+        void urgeWorkflow_ShouldBatchUrgesAndNotifications() {
+            // Given
+            when(approvalRepository.findByInstanceIdAndNodeIdAndDeletedFalse("inst-001", "node-001"))
+                    .thenReturn(List.of(pendingApproval("a1"), pendingApproval("a2"), pendingApproval("a1")));
+
+            try (MockedStatic<SecurityUtils> mockedSecurity = mockStatic(SecurityUtils.class)) {
+                mockedSecurity.when(SecurityUtils::getCurrentUserId).thenReturn(testUserId);
+
+                // When
+                urgeService.urgeWorkflow("inst-001", new UrgeActionRequest("请尽快审批", null));
+            }
+
+            // Then
+            ArgumentCaptor<List<WorkflowUrgeEntity>> urges = ArgumentCaptor.forClass(List.class);
+            verify(urgeRepository).saveAll(urges.capture());
+            verify(urgeRepository, never()).save(any());
+            assertThat(urges.getValue()).extracting(WorkflowUrgeEntity::getUrgeTargetId).containsExactly("a1", "a2");
+
+            ArgumentCaptor<WorkflowNotificationEvent> event = ArgumentCaptor.forClass(WorkflowNotificationEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().type()).isEqualTo("workflow_urge");
+            assertThat(event.getValue().recipientIds()).containsExactly("a1", "a2");
+            assertThat(event.getValue().content()).contains("请假申请").contains("请尽快审批");
+        }
+
+        @Test
+        @DisplayName("should only urge the targeted approver")
+        @SuppressWarnings("unchecked")
+        void urgeWorkflow_WithTarget_ShouldOnlyUrgeTarget() {
+            // Given
+            when(approvalRepository.findByInstanceIdAndNodeIdAndDeletedFalse("inst-001", "node-001"))
+                    .thenReturn(List.of(pendingApproval("a1"), pendingApproval("a2")));
+
+            try (MockedStatic<SecurityUtils> mockedSecurity = mockStatic(SecurityUtils.class)) {
+                mockedSecurity.when(SecurityUtils::getCurrentUserId).thenReturn(testUserId);
+
+                // When
+                urgeService.urgeWorkflow("inst-001", new UrgeActionRequest("请尽快审批", "a2"));
+            }
+
+            // Then
+            ArgumentCaptor<List<WorkflowUrgeEntity>> urges = ArgumentCaptor.forClass(List.class);
+            verify(urgeRepository).saveAll(urges.capture());
+            assertThat(urges.getValue()).extracting(WorkflowUrgeEntity::getUrgeTargetId).containsExactly("a2");
+            verify(eventPublisher).publishEvent(any(WorkflowNotificationEvent.class));
+        }
+    }
+
     @Nested
     @DisplayName("getReceivedUrgeRecords Tests")
     class GetReceivedUrgeRecordsTests {
@@ -0,0 +1,165 @@
+package com.adminplus.service.file;
+
+import com.adminplus.common.properties.FileStorageProperties;
+import com.adminplus.enums.StorageType;
+import com.adminplus.pojo.entity.FileBlobEntity;
+import com.adminplus.repository.FileBlobRepository;
+import com.adminplus.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * FileBlobStorage 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileBlobStorage Unit Tests")
+class FileBlobStorageTest {
+
+    private static final String HASH = "ab12" + "0".repeat(60);
+
+    @Mock
+    private FileBlobRepository fileBlobRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private FileBlobStorage fileBlobStorage;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(fileStorageService.getStorageType()).thenReturn(StorageType.LOCAL);
+        fileBlobStorage = new FileBlobStorage(fileBlobRepository, fileStorageService,
+                new FileStorageProperties(), transactionTemplate);
+    }
+
+    private static FileBlobEntity blob(String id, String fileUrl) {
+        FileBlobEntity blob = new FileBlobEntity();
+        blob.setId(id);
+        blob.setContentHash(HASH);
+        blob.setStorageType(StorageType.LOCAL);
+        blob.setFileUrl(fileUrl);
+        blob.setFileSize(1024L);
+        blob.setRefCount(0);
+        return blob;
+    }
+
+    @Test
+    @DisplayName("should name objects by a unique id")
+    void objectName_ShouldUseObjectId() {
+        assertThat(FileBlobStorage.objectName("1001", ".PNG")).isEqualTo("blobs/1001.png");
+        assertThat(FileBlobStorage.objectName("1001", null)).isEqualTo("blobs/1001");
+    }
+
+    @Nested
+    @DisplayName("acquire / register Tests")
+    class ReferenceTests {
+
+        @Test
+        @DisplayName("should reuse stored object when hash exists")
+        void acquire_WhenExists_ShouldReturnUrl() {
+            // Given
+            when(fileBlobRepository.acquire(eq(HASH), eq(StorageType.LOCAL), any())).thenReturn(1);
+            when(fileBlobRepository.findByContentHashAndStorageType(HASH, StorageType.LOCAL))
+                    .thenReturn(Optional.of(blob("blob-1", "/uploads/blobs/a.png")));
+
+            // When
+            Optional<String> result = fileBlobStorage.acquire(HASH);
+
+            // Then
+            assertThat(result).contains("/uploads/blobs/a.png");
+        }
+
+        @Test
+        @DisplayName("should return empty when hash does not exist")
+        void acquire_WhenMissing_ShouldReturnEmpty() {
+            // Given
+            when(fileBlobRepository.acquire(eq(HASH), eq(StorageType.LOCAL), any())).thenReturn(0);
+
+            // When & Then
+            assertThat(fileBlobStorage.acquire(HASH)).isEmpty();
+            verify(fileBlobRepository, never()).findByContentHashAndStorageType(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("should only release blobs referenced by the same url")
+        void release_ShouldMatchFileUrl() {
+            // Given
+            when(fileBlobRepository.release(eq(HASH), eq(StorageType.LOCAL), eq("/uploads/avatars/a.png"), any()))
+                    .thenReturn(0);
+
+            // When & Then
+            assertThat(fileBlobStorage.release(HASH, "/uploads/avatars/a.png")).isFalse();
+        }
+
+        @Test
+        @DisplayName("should keep the first registered object when uploads race")
+        void register_WhenRaced_ShouldDeleteOwnObject() {
+            // Given
+            when(fileBlobRepository.findByContentHashAndStorageType(HASH, StorageType.LOCAL))
+                    .thenReturn(Optional.of(blob("blob-1", "/uploads/blobs/a.jpg")));
+
+            // When
+            String result = fileBlobStorage.register(HASH, "/uploads/blobs/a.jpeg", 1024L);
+
+            // Then
+            assertThat(result).isEqualTo("/uploads/blobs/a.jpg");
+            verify(fileBlobRepository).register(anyString(), eq(HASH), eq("LOCAL"), eq("/uploads/blobs/a.jpeg"), anyLong());
+            verify(fileStorageService).deleteFile("/uploads/blobs/a.jpeg");
+        }
+    }
+
+    @Nested
+    @DisplayName("collectGarbage Tests")
+    class CollectGarbageTests {
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        void setUpTransaction() {
+            when(transactionTemplate.execute(any(TransactionCallback.class)))
+                    .thenAnswer(inv -> ((TransactionCallback<Boolean>) inv.getArgument(0)).doInTransaction(null));
+        }
+
+        @Test
+        @DisplayName("should delete objects that are still unreferenced")
+        void collectGarbage_ShouldDeleteUnreferencedObjects() {
+            // Given
+            when(fileBlobRepository.findReleased(eq(StorageType.LOCAL), any(), any()))
+                    .thenReturn(List.of(blob("blob-1", "/uploads/blobs/a.png"), blob("blob-2", "/uploads/blobs/b.png")));
+            when(fileBlobRepository.deleteIfUnreferenced("blob-1")).thenReturn(1);
+            // blob-2 在查询后被重新引用
+            when(fileBlobRepository.deleteIfUnreferenced("blob-2")).thenReturn(0);
+            when(fileStorageService.deleteFile("/uploads/blobs/a.png")).thenReturn(true);
+
+            // When
+            int collected = fileBlobStorage.collectGarbage();
+
+            // Then
+            assertThat(collected).isEqualTo(1);
+            verify(fileStorageService).deleteFile("/uploads/blobs/a.png");
+            verify(fileStorageService, never()).deleteFile("/uploads/blobs/b.png");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.adminplus.service.workflow;
+
+import com.adminplus.common.exception.BizException;
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.request.BulkApprovalRequest;
+import com.adminplus.pojo.dto.response.BulkApprovalResultResponse;
+import com.adminplus.pojo.entity.UserEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.repository.UserRepository;
+import com.adminplus.repository.WorkflowApprovalRepository;
+import com.adminplus.repository.WorkflowInstanceRepository;
+import com.adminplus.service.workflow.WorkflowApprovalService.ApprovalOutcome;
+import com.adminplus.service.workflow.impl.WorkflowBulkApprovalServiceImpl;
+import com.adminplus.service.workflow.inbox.WorkflowInbox;
+import com.adminplus.utils.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowBulkApprovalService 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkflowBulkApprovalService Unit Tests")
+class WorkflowBulkApprovalServiceTest {
+
+    @Mock
+    private WorkflowInstanceRepository instanceRepository;
+
+    @Mock
+    private WorkflowApprovalRepository approvalRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WorkflowApprovalService approvalService;
+
+    @Mock
+    private WorkflowInbox inbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<SimpleTransactionStatus> transactions = new ArrayList<>();
+    private MockedStatic<SecurityUtils> mockedSecurity;
+    private WorkflowBulkApprovalService bulkApprovalService;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getWorkflowBulkApproval().setChunkSize(100);
+        bulkApprovalService = new WorkflowBulkApprovalServiceImpl(instanceRepository, approvalRepository,
+                userRepository, approvalService, inbox, transactionTemplate, appProperties);
+
+        user = new UserEntity();
+        user.setId("approver-001");
+        user.setNickname("审批人");
+        mockedSecurity = mockStatic(SecurityUtils.class);
+        mockedSecurity.when(SecurityUtils::getCurrentUserId).thenReturn("approver-001");
+        when(userRepository.findById("approver-001")).thenReturn(Optional.of(user));
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            SimpleTransactionStatus status = new SimpleTransactionStatus();
+            transactions.add(status);
+            return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(status);
+        });
+        lenient().when(instanceRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().sorted().map(WorkflowBulkApprovalServiceTest::running).toList();
+        });
+        when(approvalRepository.findByInstanceIdInAndDeletedFalse(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedSecurity.close();
+    }
+
+    private static WorkflowInstanceEntity running(String id) {
+        WorkflowInstanceEntity instance = new WorkflowInstanceEntity();
+        instance.setId(id);
+        instance.setStatus("running");
+        return instance;
+    }
+
+    private void approveAllExcept(String failingId) {
+        when(approvalService.applyApproval(any(), anyList(), eq(user), any(), eq("approved"), anyBoolean())).thenAnswer(invocation -> {
+            WorkflowInstanceEntity instance = invocation.getArgument(0);
+            if (instance.getId().equals(failingId)) {
+                throw new BizException("您没有权限审批此工作流");
+            }
+            return new ApprovalOutcome(instance, null, "POST_APPROVE");
+        });
+    }
+
+    @Test
+    @DisplayName("should lock in id order, refresh the inbox once and keep request order in results")
+    void approve_ShouldProcessChunkInOneTransaction() {
+        // Given
+        approveAllExcept(null);
+
+        // When
+        BulkApprovalResultResponse result = bulkApprovalService.approve(
+                new BulkApprovalRequest(List.of("inst-3", "inst-1", "inst-2", "inst-1"), "同意", null));
+
+        // Then
+        verify(instanceRepository).findAllByIdForUpdate(List.of("inst-1", "inst-2", "inst-3"));
+        verify(inbox).refreshAll(anyList());
+        assertThat(transactions).hasSize(1);
+        assertThat(transactions.get(0).isRollbackOnly()).isFalse();
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.success()).isEqualTo(3);
+        assertThat(result.details()).extracting(BulkApprovalResultResponse.ItemResult::instanceId)
+                .containsExactly("inst-3", "inst-1", "inst-2");
+        verify(approvalService, times(3)).executePostHooks(any(), any());
+    }
+
+    @Test
+    @DisplayName("should roll back and retry the chunk without the failing instance")
+    void approve_WhenOneFails_ShouldRetryWithoutIt() {
+        // Given
+        approveAllExcept("inst-2");
+
+        // When
+        BulkApprovalResultResponse result = bulkApprovalService.approve(
+                new BulkApprovalRequest(List.of("inst-1", "inst-2", "inst-3"), "同意", null));
+
+        // Then
+        assertThat(transactions).hasSize(2);
+        assertThat(transactions.get(0).isRollbackOnly()).isTrue();
+        assertThat(transactions.get(1).isRollbackOnly()).isFalse();
+        InOrder inOrder = inOrder(instanceRepository);
+        inOrder.verify(instanceRepository).findAllByIdForUpdate(List.of("inst-1", "inst-2", "inst-3"));
+        inOrder.verify(instanceRepository).findAllByIdForUpdate(List.of("inst-1", "inst-3"));
+        assertThat(result.success()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.details().get(1).status()).isEqualTo("failed");
+        assertThat(result.details().get(1).reason()).contains("没有权限");
+        // 后置钩子只在提交成功的一轮执行
+        verify(approvalService, times(2)).executePostHooks(any(), any());
+        // 前置钩子每个实例只执行一次，重试轮跳过已通过的实例
+        verify(approvalService, times(3)).applyApproval(any(), anyList(), eq(user), any(), eq("approved"), eq(true));
+        verify(approvalService, times(2)).applyApproval(any(), anyList(), eq(user), any(), eq("approved"), eq(false));
+    }
+
+    @Test
+    @DisplayName("should report instances that do not exist")
+    void approve_WhenInstanceMissing_ShouldReportFailure() {
+        // Given
+        approveAllExcept(null);
+        when(instanceRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> !id.equals("missing")).map(WorkflowBulkApprovalServiceTest::running).toList();
+        });
+
+        // When
+        BulkApprovalResultResponse result = bulkApprovalService.approve(
+                new BulkApprovalRequest(List.of("inst-1", "missing"), "同意", null));
+
+        // Then
+        assertThat(result.success()).isEqualTo(1);
+        assertThat(result.details().get(1).reason()).isEqualTo("工作流实例不存在");
+    }
+}
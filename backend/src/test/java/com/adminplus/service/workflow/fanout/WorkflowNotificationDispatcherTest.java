@@ -0,0 +1,94 @@
+package com.adminplus.service.workflow.fanout;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.request.NotificationSendRequest;
+import com.adminplus.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowNotificationDispatcher 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkflowNotificationDispatcher Unit Tests")
+class WorkflowNotificationDispatcherTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private AppProperties appProperties;
+    private WorkflowNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getWorkflowFanout().setNotificationBatchSize(200);
+        dispatcher = new WorkflowNotificationDispatcher(notificationService, appProperties);
+    }
+
+    private static WorkflowNotificationEvent event(int recipients) {
+        List<String> ids = IntStream.range(0, recipients).mapToObj(i -> "user-" + i).toList();
+        return new WorkflowNotificationEvent("workflow_urge", ids, "催办通知", "请尽快审批", "inst-001");
+    }
+
+    @Test
+    @DisplayName("should split a 500-recipient event into batches of the configured size")
+    @SuppressWarnings("unchecked")
+    void dispatch_ShouldSendInBatches() {
+        // When
+        int sent = dispatcher.dispatch(event(500));
+
+        // Then
+        ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<NotificationSendRequest> request = ArgumentCaptor.forClass(NotificationSendRequest.class);
+        verify(notificationService, times(3)).sendBatchNotification(batches.capture(), request.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(200, 200, 100);
+        assertThat(request.getValue().getType()).isEqualTo("workflow_urge");
+        assertThat(request.getValue().getRelatedId()).isEqualTo("inst-001");
+        assertThat(request.getValue().getRelatedType()).isEqualTo("workflow");
+        assertThat(sent).isEqualTo(500);
+    }
+
+    @Test
+    @DisplayName("should keep sending remaining batches when one batch fails")
+    void dispatch_WhenBatchFails_ShouldContinue() {
+        // Given
+        lenient().doThrow(new RuntimeException("db down"))
+                .when(notificationService).sendBatchNotification(argThat(ids -> ids.contains("user-0")), any());
+
+        // When
+        int sent = dispatcher.dispatch(event(500));
+
+        // Then
+        verify(notificationService, times(3)).sendBatchNotification(anyList(), any());
+        assertThat(sent).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("should skip events without recipients")
+    void dispatch_WithoutRecipients_ShouldDoNothing() {
+        // When
+        int sent = dispatcher.dispatch(event(0));
+
+        // Then
+        verifyNoInteractions(notificationService);
+        assertThat(sent).isZero();
+    }
+}
@@ -0,0 +1,112 @@
+package com.adminplus.service.workflow.graph;
+
+import com.adminplus.pojo.entity.WorkflowDefinitionEntity;
+import com.adminplus.pojo.entity.WorkflowNodeEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * WorkflowDefinitionGraph 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("WorkflowDefinitionGraph Unit Tests")
+class WorkflowDefinitionGraphTest {
+
+    private WorkflowDefinitionGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        WorkflowDefinitionEntity definition = new WorkflowDefinitionEntity();
+        definition.setId("def-001");
+        definition.setVersion(3);
+
+        WorkflowNodeEntity first = node("node-001", 1);
+        first.setCcUserIds("[\"user-001\", 'user-002', \"user-001\"]");
+        first.setPreApproveValidate("#formData['amount'] < 1000");
+        WorkflowNodeEntity second = node("node-002", 2);
+        second.setCcRoleIds("[\"role-001\"]");
+        WorkflowNodeEntity last = node("node-003", 3);
+
+        graph = WorkflowDefinitionGraph.compile("def-001", definition, List.of(first, second, last));
+    }
+
+    private static WorkflowNodeEntity node(String id, int order) {
+        WorkflowNodeEntity node = new WorkflowNodeEntity();
+        node.setId(id);
+        node.setDefinitionId("def-001");
+        node.setNodeName("节点" + order);
+        node.setNodeOrder(order);
+        return node;
+    }
+
+    @Nested
+    @DisplayName("Navigation Tests")
+    class NavigationTests {
+
+        @Test
+        @DisplayName("should walk nodes in nodeOrder")
+        void shouldWalkNodesInOrder() {
+            // Then
+            assertThat(graph.version()).isEqualTo(3);
+            assertThat(graph.first()).map(WorkflowNodeEntity::getId).contains("node-001");
+            assertThat(graph.next("node-001")).map(WorkflowNodeEntity::getId).contains("node-002");
+            assertThat(graph.previous("node-003")).map(WorkflowNodeEntity::getId).contains("node-002");
+            assertThat(graph.next("node-003")).isEmpty();
+            assertThat(graph.previous("node-001")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should return empty for nodes outside the definition")
+        void shouldReturnEmptyForUnknownNode() {
+            // Then
+            assertThat(graph.contains("node-999")).isFalse();
+            assertThat(graph.node("node-999")).isEmpty();
+            assertThat(graph.next(null)).isEmpty();
+            assertThat(WorkflowDefinitionGraph.compile("def-002", null, List.of()).first()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not expose cached node instances to callers")
+        void shouldIsolateCachedNodes() {
+            // When
+            graph.node("node-001").orElseThrow().setNodeName("modified");
+            graph.nodes().get(1).setNodeName("modified");
+
+            // Then
+            assertThat(graph.node("node-001")).map(WorkflowNodeEntity::getNodeName).contains("节点1");
+            assertThat(graph.node("node-002")).map(WorkflowNodeEntity::getNodeName).contains("节点2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Precompiled Field Tests")
+    class PrecompiledFieldTests {
+
+        @Test
+        @DisplayName("should parse and deduplicate CC ids once")
+        void shouldParseCcIds() {
+            // Then
+            assertThat(graph.ccUserIds("node-001")).containsExactly("user-001", "user-002");
+            assertThat(graph.ccRoleIds("node-002")).containsExactly("role-001");
+            assertThat(graph.ccUserIds("node-003")).isEmpty();
+            assertThat(WorkflowDefinitionGraph.parseIdList("user-001")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should index non-blank field hooks by hook point")
+        void shouldIndexFieldHooks() {
+            // Then
+            assertThat(graph.fieldHook("node-001", "PRE_APPROVE")).isEqualTo("#formData['amount'] < 1000");
+            assertThat(graph.fieldHook("node-001", "PRE_REJECT")).isNull();
+            assertThat(graph.fieldHookExpressions()).containsExactly("#formData['amount'] < 1000");
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.adminplus.service.workflow.hook;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.BeanConfig;
 import com.adminplus.pojo.dto.workflow.hook.HookContext;
 import com.adminplus.pojo.dto.workflow.hook.HookResult;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.service.workflow.hook.impl.BeanHookExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,7 +39,7 @@ class BeanHookExecutorTest {
 
     @BeforeEach
     void setUp() {
-        executor = new BeanHookExecutor(applicationContext);
+        executor = new BeanHookExecutor(applicationContext, new SpelExpressionEngine(new SimpleMeterRegistry()));
 
         testInstance = new WorkflowInstanceEntity();
         testInstance.setId("inst-001");
@@ -1,11 +1,13 @@
 package com.adminplus.service.workflow.hook;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.HookContext;
 import com.adminplus.pojo.dto.workflow.hook.HookResult;
 import com.adminplus.pojo.dto.workflow.hook.SpELConfig;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.service.workflow.hook.impl.SpELHookExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,7 +28,7 @@ class SpELHookExecutorTest {
 
     @BeforeEach
     void setUp() {
-        executor = new SpELHookExecutor();
+        executor = new SpELHookExecutor(new SpelExpressionEngine(new SimpleMeterRegistry()));
 
         testInstance = new WorkflowInstanceEntity();
         testInstance.setId("inst-001");
@@ -0,0 +1,168 @@
+package com.adminplus.service.workflow.hook;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.common.security.AuditorContext;
+import com.adminplus.pojo.dto.workflow.hook.HookContext;
+import com.adminplus.pojo.dto.workflow.hook.HookResult;
+import com.adminplus.pojo.entity.WorkflowHookLogEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.repository.WorkflowHookLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowHookLogWriter 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkflowHookLogWriter Unit Tests")
+class WorkflowHookLogWriterTest {
+
+    @Mock
+    private WorkflowHookLogRepository hookLogRepository;
+
+    private AppProperties appProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private WorkflowHookLogWriter writer;
+    private HookContext context;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        // 刷新间隔足够长：后台线程在测试期间不会主动刷新
+        appProperties.getWorkflowHookLog().setBatchSize(10);
+        appProperties.getWorkflowHookLog().setFlushIntervalMs(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+
+        WorkflowInstanceEntity instance = new WorkflowInstanceEntity();
+        instance.setId("instance-001");
+        context = new HookContext(instance, null, Map.of(), "APPROVE", "user-001", "Test User", Map.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private WorkflowHookLogWriter newWriter() {
+        WorkflowHookLogWriter created = new WorkflowHookLogWriter(hookLogRepository, appProperties, meterRegistry);
+        created.start();
+        return created;
+    }
+
+    private void write(HookResult result, boolean async) {
+        writer.write(null, "PRE_APPROVE", "node_field", "spel", "#formData.amount > 100", result, context, async);
+    }
+
+    @Test
+    @DisplayName("should buffer logs and write them in one saveAll")
+    @SuppressWarnings("unchecked")
+    void shouldWriteInBatches() {
+        // Given
+        writer = newWriter();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            write(HookResult.fail("VALIDATION_FAILED", "金额必须大于100"), false);
+        }
+
+        // Then
+        verify(hookLogRepository, never()).save(any());
+        assertThat(writer.pendingCount()).isEqualTo(3);
+
+        writer.flushAll();
+        ArgumentCaptor<List<WorkflowHookLogEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(hookLogRepository).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(3);
+        assertThat(batch.getValue().get(0).getInstanceId()).isEqualTo("instance-001");
+        assertThat(writer.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should drop successful sync logs outside the sample but keep failures and async results")
+    void shouldSampleOnlySuccessfulSyncLogs() {
+        // Given
+        appProperties.getWorkflowHookLog().setSuccessSampleRate(0);
+        writer = newWriter();
+
+        // When
+        write(HookResult.ok(), false);
+        write(HookResult.fail("FAILED", "失败"), false);
+        write(HookResult.ok(), true);
+
+        // Then
+        assertThat(writer.pendingCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("workflow.hook.log.sampled.out").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fall back to single saves when a batch fails")
+    void shouldRetryIndividuallyWhenBatchFails() {
+        // Given
+        writer = newWriter();
+        when(hookLogRepository.saveAll(anyList())).thenThrow(new RuntimeException("db down"));
+        write(HookResult.fail("FAILED", "失败"), false);
+        write(HookResult.fail("FAILED", "失败"), false);
+
+        // When
+        writer.flushAll();
+
+        // Then
+        verify(hookLogRepository, times(2)).save(any(WorkflowHookLogEntity.class));
+    }
+
+    @Test
+    @DisplayName("should persist buffered logs as the hook operator instead of the drainer thread")
+    void shouldWriteAsOperator() {
+        // Given
+        writer = newWriter();
+        List<String> auditors = new ArrayList<>();
+        when(hookLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            auditors.add(AuditorContext.current());
+            return invocation.getArgument(0);
+        });
+        write(HookResult.fail("FAILED", "失败"), true);
+
+        // When
+        writer.flushAll();
+
+        // Then
+        assertThat(auditors).containsExactly("user-001");
+        assertThat(AuditorContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("should write synchronously when the buffer is disabled")
+    void shouldWriteDirectlyWhenDisabled() {
+        // Given
+        appProperties.getWorkflowHookLog().setBufferEnabled(false);
+        writer = newWriter();
+
+        // When
+        write(HookResult.ok(), false);
+
+        // Then
+        verify(hookLogRepository).save(any(WorkflowHookLogEntity.class));
+        assertThat(writer.pendingCount()).isZero();
+    }
+}
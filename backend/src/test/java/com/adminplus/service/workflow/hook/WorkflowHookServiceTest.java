@@ -1,14 +1,20 @@
 package com.adminplus.service.workflow.hook;
 
+import com.adminplus.common.expression.SpelExpressionEngine;
 import com.adminplus.pojo.dto.workflow.hook.*;
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.entity.WorkflowHookAttemptEntity;
 import com.adminplus.pojo.entity.WorkflowHookLogEntity;
 import com.adminplus.pojo.entity.WorkflowInstanceEntity;
 import com.adminplus.pojo.entity.WorkflowNodeEntity;
 import com.adminplus.pojo.entity.WorkflowNodeHookEntity;
+import com.adminplus.repository.WorkflowHookAttemptRepository;
 import com.adminplus.repository.WorkflowHookLogRepository;
 import com.adminplus.repository.WorkflowNodeHookRepository;
+import com.adminplus.service.workflow.hook.engine.HookExecutionEngine;
 import com.adminplus.service.workflow.hook.impl.WorkflowHookServiceImpl;
 import tools.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,8 +22,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.List;
 import java.util.Map;
@@ -52,11 +58,14 @@ class WorkflowHookServiceTest {
     private JsonMapper objectMapper;
 
     @Mock
-    private ThreadPoolTaskExecutor asyncExecutor;
+    private WorkflowHookAttemptRepository attemptRepository;
 
     @Mock
     private HookExecutor spelExecutor;
 
+    @Spy
+    private SpelExpressionEngine expressionEngine = new SpelExpressionEngine(new SimpleMeterRegistry());
+
     @InjectMocks
     private WorkflowHookServiceImpl hookService;
 
@@ -96,8 +105,15 @@ class WorkflowHookServiceTest {
         // Setup test form data
         testFormData = Map.of("amount", 200);
 
-        // Setup executors map
+        // Setup executors map, log writer and execution engine
         setExecutors(Map.of("spel", spelExecutor));
+        lenient().when(spelExecutor.getType()).thenReturn("spel");
+        lenient().when(spelExecutor.endpoint(any())).thenReturn("spel");
+        WorkflowHookLogWriter hookLogWriter = new WorkflowHookLogWriter(hookLogRepository, new AppProperties(),
+            new SimpleMeterRegistry());
+        setField("hookLogWriter", hookLogWriter);
+        setField("executionEngine", new HookExecutionEngine(attemptRepository, hookRepository, null, null,
+            hookLogWriter, List.of(), objectMapper, new AppProperties(), new SimpleMeterRegistry()));
     }
 
     @Nested
@@ -204,6 +220,11 @@ class WorkflowHookServiceTest {
                 .thenReturn(List.of(testHook));
             lenient().when(objectMapper.readValue(anyString(), eq(SpELConfig.class)))
                 .thenReturn(new SpELConfig("#formData.amount > 100", null));
+            when(attemptRepository.save(any(WorkflowHookAttemptEntity.class))).thenAnswer(invocation -> {
+                WorkflowHookAttemptEntity attempt = invocation.getArgument(0);
+                attempt.setId("attempt-001");
+                return attempt;
+            });
 
             // When
             List<HookResult> results = hookService.executeTableHooks(
@@ -213,7 +234,8 @@ class WorkflowHookServiceTest {
             // Then
             assertThat(results).hasSize(1);
             assertThat(results.get(0).code()).isEqualTo("ASYNC_EXECUTING");
-            verify(asyncExecutor).execute(any(Runnable.class));
+            verify(attemptRepository).save(any(WorkflowHookAttemptEntity.class));
+            verify(spelExecutor, never()).execute(any(), any());
         }
     }
 
@@ -348,10 +370,14 @@ class WorkflowHookServiceTest {
      * Helper method to set executors map via reflection
      */
     private void setExecutors(Map<String, HookExecutor> executors) {
+        setField("executors", executors);
+    }
+
+    private void setField(String name, Object value) {
         try {
-            var field = WorkflowHookServiceImpl.class.getDeclaredField("executors");
+            var field = WorkflowHookServiceImpl.class.getDeclaredField(name);
             field.setAccessible(true);
-            field.set(hookService, executors);
+            field.set(hookService, value);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,373 @@
+package com.adminplus.service.workflow.hook.engine;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.pojo.dto.workflow.hook.HookContext;
+import com.adminplus.pojo.dto.workflow.hook.HookResult;
+import com.adminplus.pojo.dto.workflow.hook.HttpConfig;
+import com.adminplus.pojo.entity.WorkflowHookAttemptEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.pojo.entity.WorkflowNodeHookEntity;
+import com.adminplus.repository.WorkflowHookAttemptRepository;
+import com.adminplus.repository.WorkflowInstanceRepository;
+import com.adminplus.repository.WorkflowNodeHookRepository;
+import com.adminplus.repository.WorkflowNodeRepository;
+import com.adminplus.service.workflow.hook.HookExecutor;
+import com.adminplus.service.workflow.hook.WorkflowHookLogWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * HookExecutionEngine 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HookExecutionEngine Unit Tests")
+class HookExecutionEngineTest {
+
+    private static final String URL = "http://hooks.example.com/notify";
+    private static final String ENDPOINT = "http:http://hooks.example.com:-1";
+
+    @Mock
+    private WorkflowHookAttemptRepository attemptRepository;
+
+    @Mock
+    private WorkflowNodeHookRepository hookRepository;
+
+    @Mock
+    private WorkflowInstanceRepository instanceRepository;
+
+    @Mock
+    private WorkflowNodeRepository nodeRepository;
+
+    @Mock
+    private WorkflowHookLogWriter logWriter;
+
+    @Mock
+    private HookExecutor httpExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HookExecutionEngine engine;
+    private WorkflowNodeHookEntity hook;
+    private WorkflowInstanceEntity instance;
+    private HookContext context;
+    private HttpConfig config;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getWorkflowHook().setCircuitFailureThreshold(2);
+        appProperties.getWorkflowHook().setCircuitOpenMs(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(httpExecutor.getType()).thenReturn("http");
+        lenient().when(httpExecutor.isBlocking()).thenReturn(true);
+        lenient().when(httpExecutor.endpoint(any())).thenReturn(ENDPOINT);
+
+        engine = new HookExecutionEngine(attemptRepository, hookRepository, instanceRepository, nodeRepository,
+                logWriter, List.of(httpExecutor), JsonMapper.builder().build(), appProperties, meterRegistry);
+
+        hook = new WorkflowNodeHookEntity();
+        hook.setId("hook-001");
+        hook.setHookPoint("POST_APPROVE");
+        hook.setExecutorType("http");
+        hook.setExecutorConfig("{\"url\":\"" + URL + "\",\"method\":\"POST\"}");
+        hook.setRetryCount(2);
+        hook.setRetryInterval(10);
+
+        instance = new WorkflowInstanceEntity();
+        instance.setId("instance-001");
+        context = new HookContext(instance, null, Map.of("amount", 200), "APPROVE", "user-001", "Test User", Map.of());
+        config = new HttpConfig(URL, "POST", null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Nested
+    @DisplayName("execute Tests")
+    class ExecuteTests {
+
+        @Test
+        @DisplayName("should retry without sleeping and report retry attempts")
+        void shouldRetryUntilSuccess() {
+            // Given
+            when(httpExecutor.execute(any(), any()))
+                .thenReturn(HookResult.fail("FAILED", "失败"))
+                .thenReturn(HookResult.fail("FAILED", "失败"))
+                .thenReturn(HookResult.ok());
+
+            // When
+            HookResult result = engine.execute(hook, httpExecutor, config, context);
+
+            // Then
+            assertThat(result.success()).isTrue();
+            assertThat(result.retryAttempts()).isEqualTo(2);
+            verify(httpExecutor, times(3)).execute(any(), any());
+            assertThat(meterRegistry.get("workflow.hook.execution").tag("executor", "http").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should time out blocking executors")
+        void shouldTimeOutBlockingExecutor() {
+            // Given
+            hook.setRetryCount(0);
+            hook.setTimeoutMs(50);
+            when(httpExecutor.execute(any(), any())).thenAnswer(invocation -> {
+                Thread.sleep(5_000);
+                return HookResult.ok();
+            });
+
+            // When
+            HookResult result = engine.execute(hook, httpExecutor, config, context);
+
+            // Then
+            assertThat(result.success()).isFalse();
+            assertThat(result.code()).isEqualTo(HookExecutionEngine.TIMEOUT);
+            assertThat(result.executionTime()).isLessThan(5_000);
+        }
+
+        @Test
+        @DisplayName("should open the circuit after consecutive endpoint failures")
+        void shouldOpenCircuitAfterConsecutiveFailures() {
+            // Given
+            hook.setRetryCount(0);
+            when(httpExecutor.execute(any(), any())).thenReturn(HookResult.fail("HTTP_ERROR", "HTTP 503"));
+
+            // When
+            engine.execute(hook, httpExecutor, config, context);
+            engine.execute(hook, httpExecutor, config, context);
+            HookResult result = engine.execute(hook, httpExecutor, config, context);
+
+            // Then
+            assertThat(result.code()).isEqualTo(EndpointGuard.CIRCUIT_OPEN);
+            verify(httpExecutor, times(2)).execute(any(), any());
+            assertThat(meterRegistry.get("workflow.hook.rejections").tag("reason", "circuit_open")
+                .counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not count business failures towards the circuit")
+        void shouldIgnoreBusinessFailuresForCircuit() {
+            // Given
+            hook.setRetryCount(0);
+            when(httpExecutor.execute(any(), any())).thenReturn(HookResult.fail("VALIDATION_FAILED", "金额超限"));
+
+            // When
+            for (int i = 0; i < 3; i++) {
+                engine.execute(hook, httpExecutor, config, context);
+            }
+
+            // Then
+            verify(httpExecutor, times(3)).execute(any(), any());
+        }
+
+        @Test
+        @DisplayName("should not guard in-process executors with the circuit breaker")
+        void shouldNotGuardInProcessExecutors() {
+            // Given
+            hook.setRetryCount(0);
+            when(httpExecutor.isBlocking()).thenReturn(false);
+            when(httpExecutor.execute(any(), any())).thenReturn(HookResult.fail("EXECUTION_ERROR", "表达式错误"));
+
+            // When
+            for (int i = 0; i < 3; i++) {
+                engine.execute(hook, httpExecutor, config, context);
+            }
+
+            // Then
+            verify(httpExecutor, times(3)).execute(any(), any());
+            verify(httpExecutor, never()).endpoint(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("async Tests")
+    class AsyncTests {
+
+        private WorkflowHookAttemptEntity attempt;
+
+        @BeforeEach
+        void setUp() {
+            attempt = new WorkflowHookAttemptEntity();
+            attempt.setId("attempt-001");
+            attempt.setHookId("hook-001");
+            attempt.setExecutorType("http");
+            attempt.setInstanceId("instance-001");
+            attempt.setFormData("{\"amount\":200}");
+            attempt.setNextAttemptTime(Instant.now());
+            attempt.setLeaseUntil(Instant.now().plusSeconds(300));
+            attempt.setCreateTime(Instant.now());
+
+            lenient().when(attemptRepository.findById("attempt-001")).thenReturn(Optional.of(attempt));
+            lenient().when(attemptRepository.renew(eq("attempt-001"), anyString(), any())).thenReturn(1);
+            lenient().when(hookRepository.findById("hook-001")).thenReturn(Optional.of(hook));
+            lenient().when(instanceRepository.findById("instance-001")).thenReturn(Optional.of(instance));
+        }
+
+        @Test
+        @DisplayName("should persist the attempt and queue it")
+        void shouldPersistSubmittedHook() {
+            // Given
+            when(attemptRepository.save(any(WorkflowHookAttemptEntity.class))).thenAnswer(invocation -> {
+                WorkflowHookAttemptEntity saved = invocation.getArgument(0);
+                saved.setId("attempt-002");
+                return saved;
+            });
+
+            // When
+            engine.submit(hook, context);
+
+            // Then
+            ArgumentCaptor<WorkflowHookAttemptEntity> captor = ArgumentCaptor.forClass(WorkflowHookAttemptEntity.class);
+            verify(attemptRepository).save(captor.capture());
+            assertThat(captor.getValue().getInstanceId()).isEqualTo("instance-001");
+            assertThat(captor.getValue().getFormData()).contains("\"amount\":200");
+            assertThat(meterRegistry.get("workflow.hook.queue.depth").tag("executor", "http").gauge().value())
+                .isEqualTo(1);
+            verify(httpExecutor, never()).execute(any(), any());
+        }
+
+        @Test
+        @DisplayName("should reschedule a failed attempt while retries remain")
+        void shouldRescheduleFailedAttempt() {
+            // Given
+            when(httpExecutor.execute(any(), any())).thenReturn(HookResult.fail("FAILED", "失败"));
+            when(attemptRepository.reschedule(eq("attempt-001"), anyString(), anyInt(), any(), any(), any()))
+                .thenReturn(1);
+
+            // When
+            engine.run("attempt-001");
+
+            // Then
+            verify(attemptRepository).reschedule(eq("attempt-001"), anyString(), eq(1), any(), any(), eq("失败"));
+            verify(attemptRepository, never()).deleteAttempt(any());
+            verifyNoInteractions(logWriter);
+        }
+
+        @Test
+        @DisplayName("should delete the attempt and write the log when retries are exhausted")
+        void shouldFinishWhenRetriesExhausted() {
+            // Given
+            attempt.setAttempts(2);
+            when(httpExecutor.execute(any(), any())).thenReturn(HookResult.fail("FAILED", "失败"));
+
+            // When
+            engine.run("attempt-001");
+
+            // Then
+            verify(attemptRepository).deleteAttempt("attempt-001");
+            ArgumentCaptor<HookResult> result = ArgumentCaptor.forClass(HookResult.class);
+            ArgumentCaptor<HookContext> restored = ArgumentCaptor.forClass(HookContext.class);
+            verify(logWriter).write(eq(hook), eq("POST_APPROVE"), eq("hook_table"), eq("http"), any(),
+                result.capture(), restored.capture(), eq(true));
+            assertThat(result.getValue().retryAttempts()).isEqualTo(2);
+            assertThat(restored.getValue().formData()).containsEntry("amount", 200);
+        }
+
+        @Test
+        @DisplayName("should skip attempts claimed by another node")
+        void shouldSkipAttemptOwnedElsewhere() {
+            // Given
+            when(attemptRepository.renew(eq("attempt-001"), anyString(), any())).thenReturn(0);
+
+            // When
+            engine.run("attempt-001");
+
+            // Then
+            verify(httpExecutor, never()).execute(any(), any());
+            verifyNoInteractions(logWriter);
+        }
+
+        @Test
+        @DisplayName("should claim attempts whose lease has expired")
+        void shouldRecoverExpiredAttempts() {
+            // Given
+            attempt.setLeaseUntil(Instant.now().minusSeconds(1));
+            when(attemptRepository.findLeaseExpired(any(), any())).thenReturn(List.of(attempt));
+            when(attemptRepository.claim(eq("attempt-001"), anyString(), any(), any())).thenReturn(1);
+
+            // When
+            int claimed = engine.recover();
+
+            // Then
+            assertThat(claimed).isEqualTo(1);
+            assertThat(meterRegistry.get("workflow.hook.queue.depth").tag("executor", "http").gauge().value())
+                .isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("EndpointGuard Tests")
+    class EndpointGuardTests {
+
+        private final AtomicLong clock = new AtomicLong(1_000);
+
+        @Test
+        @DisplayName("should reject calls beyond the concurrency limit")
+        void shouldRejectWhenBulkheadFull() {
+            // Given
+            EndpointGuard guard = new EndpointGuard(1, 5, 30_000, clock::get);
+            EndpointGuard.Permit first = guard.acquire("a");
+
+            // When
+            EndpointGuard.Permit second = guard.acquire("a");
+            EndpointGuard.Permit other = guard.acquire("b");
+
+            // Then
+            assertThat(first.admitted()).isTrue();
+            assertThat(second.rejection()).isEqualTo(EndpointGuard.BULKHEAD_FULL);
+            assertThat(other.admitted()).isTrue();
+            first.release(true);
+            assertThat(guard.acquire("a").admitted()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should allow a single trial call after the open period")
+        void shouldHalfOpenAfterOpenPeriod() {
+            // Given
+            EndpointGuard guard = new EndpointGuard(10, 1, 30_000, clock::get);
+            guard.acquire("a").release(false);
+            assertThat(guard.acquire("a").rejection()).isEqualTo(EndpointGuard.CIRCUIT_OPEN);
+            assertThat(guard.retryAfterMillis("a")).isEqualTo(30_000);
+
+            // When
+            clock.addAndGet(30_000);
+            EndpointGuard.Permit trial = guard.acquire("a");
+            EndpointGuard.Permit concurrent = guard.acquire("a");
+
+            // Then
+            assertThat(trial.admitted()).isTrue();
+            assertThat(concurrent.rejection()).isEqualTo(EndpointGuard.CIRCUIT_OPEN);
+            trial.release(true);
+            assertThat(guard.acquire("a").admitted()).isTrue();
+            assertThat(guard.retryAfterMillis("a")).isZero();
+        }
+    }
+}
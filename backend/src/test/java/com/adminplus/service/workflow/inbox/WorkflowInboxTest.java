@@ -0,0 +1,306 @@
+package com.adminplus.service.workflow.inbox;
+
+import com.adminplus.common.exception.BizException;
+import com.adminplus.enums.WorkflowStatus;
+import com.adminplus.pojo.entity.WorkflowApprovalEntity;
+import com.adminplus.pojo.entity.WorkflowInboxEntity;
+import com.adminplus.pojo.entity.WorkflowInstanceEntity;
+import com.adminplus.repository.WorkflowApprovalRepository;
+import com.adminplus.repository.WorkflowInboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowInbox 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkflowInbox Unit Tests")
+class WorkflowInboxTest {
+
+    private static final Instant SUBMIT_TIME = Instant.parse("2026-10-18T08:00:00.123456Z");
+
+    @Mock
+    private WorkflowInboxRepository inboxRepository;
+
+    @Mock
+    private WorkflowApprovalRepository approvalRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private WorkflowInbox inbox;
+    private WorkflowInstanceEntity instance;
+
+    @BeforeEach
+    void setUp() {
+        inbox = new WorkflowInbox(inboxRepository, approvalRepository, transactionTemplate);
+
+        instance = new WorkflowInstanceEntity();
+        instance.setId("inst-001");
+        instance.setStatus(WorkflowStatus.RUNNING.getCode());
+        instance.setSubmitTime(SUBMIT_TIME);
+    }
+
+    private static WorkflowApprovalEntity pending(String approverId) {
+        WorkflowApprovalEntity approval = new WorkflowApprovalEntity();
+        approval.setInstanceId("inst-001");
+        approval.setApproverId(approverId);
+        return approval;
+    }
+
+    private static WorkflowInboxEntity entry(String userId, boolean read) {
+        WorkflowInboxEntity entry = new WorkflowInboxEntity();
+        entry.setUserId(userId);
+        entry.setInstanceId("inst-001");
+        entry.setSubmitTime(SUBMIT_TIME);
+        entry.setIsRead(read);
+        return entry;
+    }
+
+    @Nested
+    @DisplayName("refresh Tests")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("should add new approvers and drop resolved ones with one statement per table")
+        void refresh_ShouldSyncEntriesAndCounters() {
+            // Given
+            when(approvalRepository.findByInstanceIdAndApprovalStatusAndDeletedFalse("inst-001", "pending"))
+                    .thenReturn(List.of(pending("u3"), pending("u2"), pending("u3"), pending("u4")));
+            when(inboxRepository.findByInstanceId("inst-001")).thenReturn(List.of(entry("u1", true), entry("u2", false)));
+            when(inboxRepository.deleteEntries(aryEq(new String[]{"inst-001"}), aryEq(new String[]{"u1"})))
+                    .thenReturn(List.<Object[]>of(new Object[]{"u1", true}));
+            when(inboxRepository.insertEntries(any(String[].class), aryEq(new String[]{"u3", "u4"}),
+                    aryEq(new String[]{"inst-001", "inst-001"}),
+                    aryEq(new String[]{SUBMIT_TIME.toString(), SUBMIT_TIME.toString()})))
+                    .thenReturn(List.of("u3", "u4"));
+
+            // When
+            inbox.refresh(instance);
+
+            // Then
+            verify(inboxRepository).adjustCounters(any(String[].class), aryEq(new String[]{"u1", "u3", "u4"}),
+                    aryEq(new Long[]{-1L, 1L, 1L}), aryEq(new Long[]{0L, 1L, 1L}));
+            verify(inboxRepository, times(1)).deleteEntries(any(), any());
+            verify(inboxRepository, times(1)).insertEntries(any(), any(), any(), any());
+            verify(inboxRepository, never()).updateSubmitTime(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("should clear every entry once the instance leaves running")
+        void refresh_WhenFinished_ShouldRemoveAll() {
+            // Given
+            instance.setStatus(WorkflowStatus.CANCELLED.getCode());
+            when(inboxRepository.findByInstanceId("inst-001")).thenReturn(List.of(entry("u1", false)));
+            when(inboxRepository.deleteEntries(aryEq(new String[]{"inst-001"}), aryEq(new String[]{"u1"})))
+                    .thenReturn(List.<Object[]>of(new Object[]{"u1", false}));
+
+            // When
+            inbox.refresh(instance);
+
+            // Then
+            verify(approvalRepository, never()).findByInstanceIdAndApprovalStatusAndDeletedFalse(anyString(), anyString());
+            verify(inboxRepository).adjustCounters(any(String[].class), aryEq(new String[]{"u1"}),
+                    aryEq(new Long[]{-1L}), aryEq(new Long[]{-1L}));
+            verify(inboxRepository, never()).insertEntries(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should take the read flag from the deleted row, not the earlier snapshot")
+        void refresh_WhenMarkedReadConcurrently_ShouldNotDecrementUnreadTwice() {
+            // Given
+            instance.setStatus(WorkflowStatus.CANCELLED.getCode());
+            when(inboxRepository.findByInstanceId("inst-001")).thenReturn(List.of(entry("u1", false)));
+            // 查询条目之后、删除之前，另一个事务已标记已读并扣减未读数
+            when(inboxRepository.deleteEntries(any(), any())).thenReturn(List.<Object[]>of(new Object[]{"u1", true}));
+
+            // When
+            inbox.refresh(instance);
+
+            // Then
+            verify(inboxRepository).adjustCounters(any(String[].class), aryEq(new String[]{"u1"}),
+                    aryEq(new Long[]{-1L}), aryEq(new Long[]{0L}));
+        }
+
+        @Test
+        @DisplayName("should leave counters alone when the entry was already deleted")
+        void refresh_WhenEntryAlreadyDeleted_ShouldNotAdjustCounter() {
+            // Given
+            instance.setStatus(WorkflowStatus.CANCELLED.getCode());
+            when(inboxRepository.findByInstanceId("inst-001")).thenReturn(List.of(entry("u1", false)));
+            when(inboxRepository.deleteEntries(any(), any())).thenReturn(List.of());
+
+            // When
+            inbox.refresh(instance);
+
+            // Then
+            verify(inboxRepository, never()).adjustCounters(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should merge every instance of a bulk refresh into one statement per table")
+        void refreshAll_ShouldIssueOneStatementPerTable() {
+            // Given
+            WorkflowInstanceEntity other = new WorkflowInstanceEntity();
+            other.setId("inst-002");
+            other.setStatus(WorkflowStatus.RUNNING.getCode());
+            other.setSubmitTime(SUBMIT_TIME);
+            WorkflowApprovalEntity otherPending = pending("u1");
+            otherPending.setInstanceId("inst-002");
+            when(approvalRepository.findByInstanceIdInAndApprovalStatusAndDeletedFalse(List.of("inst-001", "inst-002"), "pending"))
+                    .thenReturn(List.of(pending("u2"), otherPending));
+            when(inboxRepository.findByInstanceIdIn(List.of("inst-001", "inst-002"))).thenReturn(List.of(entry("u1", false)));
+            when(inboxRepository.deleteEntries(aryEq(new String[]{"inst-001"}), aryEq(new String[]{"u1"})))
+                    .thenReturn(List.<Object[]>of(new Object[]{"u1", false}));
+            when(inboxRepository.insertEntries(any(String[].class), aryEq(new String[]{"u2", "u1"}),
+                    aryEq(new String[]{"inst-001", "inst-002"}), any(String[].class)))
+                    .thenReturn(List.of("u2", "u1"));
+
+            // When
+            inbox.refreshAll(List.of(instance, other));
+
+            // Then
+            verify(inboxRepository).adjustCounters(any(String[].class), aryEq(new String[]{"u2"}),
+                    aryEq(new Long[]{1L}), aryEq(new Long[]{1L}));
+            verify(inboxRepository, times(1)).adjustCounters(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should move retained entries when the instance is resubmitted")
+        void refresh_WhenResubmitted_ShouldUpdateSubmitTime() {
+            // Given
+            Instant resubmitted = SUBMIT_TIME.plusSeconds(60);
+            instance.setSubmitTime(resubmitted);
+            when(approvalRepository.findByInstanceIdAndApprovalStatusAndDeletedFalse("inst-001", "pending"))
+                    .thenReturn(List.of(pending("u1")));
+            when(inboxRepository.findByInstanceId("inst-001")).thenReturn(List.of(entry("u1", true)));
+
+            // When
+            inbox.refresh(instance);
+
+            // Then
+            verify(inboxRepository).updateSubmitTime("inst-001", resubmitted);
+            verify(inboxRepository, never()).adjustCounters(any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("page Tests")
+    class PageTests {
+
+        @Test
+        @DisplayName("should return a cursor that resumes after the last row")
+        void page_ShouldReturnResumableCursor() {
+            // Given
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{"b-3", "inst-3", SUBMIT_TIME.plusSeconds(2)});
+            rows.add(new Object[]{"b-2", "inst-2", SUBMIT_TIME.plusSeconds(1)});
+            rows.add(new Object[]{"b-1", "inst-1", SUBMIT_TIME});
+            when(inboxRepository.findFirstPage("u1", 3)).thenReturn(rows);
+            when(inboxRepository.findPageAfter("u1", SUBMIT_TIME.plusSeconds(1), "b-2", 3))
+                    .thenReturn(List.<Object[]>of(new Object[]{"b-1", "inst-1", SUBMIT_TIME}));
+
+            // When
+            WorkflowInbox.Page first = inbox.page("u1", null, 2);
+            WorkflowInbox.Page second = inbox.page("u1", first.nextCursor(), 2);
+
+            // Then
+            assertThat(first.instanceIds()).containsExactly("inst-3", "inst-2");
+            assertThat(first.nextCursor()).isNotNull();
+            assertThat(second.instanceIds()).containsExactly("inst-1");
+            assertThat(second.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void page_WithMalformedCursor_ShouldThrow() {
+            // When & Then
+            assertThatThrownBy(() -> inbox.page("u1", "not-a-cursor", 20))
+                    .isInstanceOf(BizException.class)
+                    .hasMessageContaining("游标");
+            verifyNoInteractions(inboxRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile Tests")
+    class ReconcileTests {
+
+        @BeforeEach
+        void setUp() {
+            when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                    invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        }
+
+        @Test
+        @DisplayName("should rebuild entries and counters while holding the advisory lock")
+        void reconcile_WhenLockAcquired_ShouldRebuild() {
+            // Given
+            when(inboxRepository.tryLockReconcile()).thenReturn(true);
+            when(inboxRepository.deleteStaleEntries()).thenReturn(2);
+            when(inboxRepository.insertMissingEntries()).thenReturn(3);
+
+            // When
+            int rows = inbox.reconcile();
+
+            // Then
+            assertThat(rows).isEqualTo(5);
+            var inOrder = inOrder(inboxRepository);
+            inOrder.verify(inboxRepository).tryLockReconcile();
+            inOrder.verify(inboxRepository).lockForReconcile();
+            inOrder.verify(inboxRepository).deleteAllCounters();
+            inOrder.verify(inboxRepository).rebuildCounters();
+        }
+
+        @Test
+        @DisplayName("should skip without locking tables when another node is reconciling")
+        void reconcile_WhenLockHeldElsewhere_ShouldSkip() {
+            // Given
+            when(inboxRepository.tryLockReconcile()).thenReturn(false);
+
+            // When
+            int rows = inbox.reconcile();
+
+            // Then
+            assertThat(rows).isEqualTo(-1);
+            verify(inboxRepository, never()).lockForReconcile();
+            verify(inboxRepository, never()).deleteAllCounters();
+        }
+    }
+
+    @Test
+    @DisplayName("should decrement unread only when the entry was unread")
+    void markRead_ShouldAdjustUnreadOnce() {
+        // Given
+        when(inboxRepository.markRead("u1", "inst-001")).thenReturn(1, 0);
+
+        // When
+        inbox.markRead("u1", "inst-001");
+        inbox.markRead("u1", "inst-001");
+
+        // Then
+        verify(inboxRepository, times(1)).adjustCounter(anyString(), eq("u1"), eq(0L), eq(-1L));
+    }
+}
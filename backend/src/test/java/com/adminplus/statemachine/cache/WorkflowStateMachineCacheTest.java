@@ -0,0 +1,144 @@
+package com.adminplus.statemachine.cache;
+
+import com.adminplus.common.properties.AppProperties;
+import com.adminplus.statemachine.enums.WorkflowEvent;
+import com.adminplus.statemachine.enums.WorkflowState;
+import com.adminplus.statemachine.persist.WorkflowStateMachinePersister;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.statemachine.StateMachine;
+import org.springframework.statemachine.config.StateMachineFactory;
+import org.springframework.statemachine.state.State;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowStateMachineCache 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkflowStateMachineCache Unit Tests")
+class WorkflowStateMachineCacheTest {
+
+    @Mock
+    private StateMachineFactory<WorkflowState, WorkflowEvent> stateMachineFactory;
+
+    @Mock
+    private WorkflowStateMachinePersister persister;
+
+    @Mock
+    private StateMachine<WorkflowState, WorkflowEvent> cachedMachine;
+
+    @Mock
+    private StateMachine<WorkflowState, WorkflowEvent> restoredMachine;
+
+    @Mock
+    private State<WorkflowState, WorkflowEvent> state;
+
+    private WorkflowStateMachineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WorkflowStateMachineCache(stateMachineFactory, persister, new AppProperties(),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void givenState(WorkflowState id) {
+        when(cachedMachine.getState()).thenReturn(state);
+        when(state.getId()).thenReturn(id);
+    }
+
+    @Test
+    @DisplayName("should reuse cached machine when snapshot matches")
+    void acquire_WhenSnapshotMatches_ShouldReuse() throws Exception {
+        // Given
+        givenState(WorkflowState.RUNNING);
+        cache.release("inst-001", cachedMachine, "snapshot-1");
+
+        // When
+        StateMachine<WorkflowState, WorkflowEvent> sm = cache.acquire("inst-001", "snapshot-1");
+
+        // Then
+        assertThat(sm).isSameAs(cachedMachine);
+        verifyNoInteractions(stateMachineFactory, persister);
+        // 借出后从缓存移除，同一实例不会被两个调用方同时使用
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should restore from database when snapshot is stale")
+    void acquire_WhenSnapshotStale_ShouldRestore() throws Exception {
+        // Given
+        givenState(WorkflowState.RUNNING);
+        cache.release("inst-001", cachedMachine, "snapshot-1");
+        when(stateMachineFactory.getStateMachine("inst-001")).thenReturn(restoredMachine);
+
+        // When
+        StateMachine<WorkflowState, WorkflowEvent> sm = cache.acquire("inst-001", "snapshot-2");
+
+        // Then
+        assertThat(sm).isSameAs(restoredMachine);
+        verify(persister).restore(restoredMachine, "inst-001");
+    }
+
+    @Test
+    @DisplayName("should restore from database on cache miss")
+    void acquire_WhenMissing_ShouldRestore() throws Exception {
+        // Given
+        when(stateMachineFactory.getStateMachine("inst-001")).thenReturn(restoredMachine);
+
+        // When
+        StateMachine<WorkflowState, WorkflowEvent> sm = cache.acquire("inst-001", null);
+
+        // Then
+        assertThat(sm).isSameAs(restoredMachine);
+        verify(persister).restore(restoredMachine, "inst-001");
+    }
+
+    @Test
+    @DisplayName("should not cache machines in final states")
+    void release_WhenFinal_ShouldNotCache() {
+        // Given
+        givenState(WorkflowState.REJECTED);
+
+        // When
+        cache.release("inst-001", cachedMachine, "snapshot-1");
+
+        // Then
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should cache only after the transaction commits")
+    void release_InTransaction_ShouldDeferUntilCommit() {
+        // Given
+        givenState(WorkflowState.RUNNING);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.release("inst-001", cachedMachine, "snapshot-1");
+
+        // Then
+        assertThat(cache.size()).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
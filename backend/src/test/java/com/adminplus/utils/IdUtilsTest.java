@@ -70,4 +70,17 @@ class IdUtilsTest {
         // Then
         assertThat(ids).hasSize(count);
     }
+
+    @Test
+    void nextIds_ShouldGenerateIncreasingUniqueIds() {
+        // When
+        long[] ids = IdUtils.nextIds(5000);
+
+        // Then
+        assertThat(ids).hasSize(5000);
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+        assertThat(IdUtils.nextId()).isGreaterThan(ids[ids.length - 1]);
+    }
 }
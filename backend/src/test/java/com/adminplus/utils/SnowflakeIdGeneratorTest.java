@@ -0,0 +1,191 @@
+package com.adminplus.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SnowflakeIdGenerator 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("SnowflakeIdGenerator Unit Tests")
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.START_TIMESTAMP + 100_000;
+
+    private static long timestampOf(long id) {
+        return id >>> (SnowflakeIdGenerator.WORKER_ID_BITS + SnowflakeIdGenerator.SEQUENCE_BITS);
+    }
+
+    private static long workerOf(long id) {
+        return (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & (SnowflakeIdGenerator.MAX_WORKER_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("should encode the worker id")
+    void nextId_ShouldEncodeWorkerId() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023, 10, () -> NOW, 0L);
+
+        // When
+        long id = generator.nextId();
+
+        // Then
+        assertThat(workerOf(id)).isEqualTo(1023);
+        assertThat(timestampOf(id)).isEqualTo(100_000);
+    }
+
+    @Test
+    @DisplayName("should reject worker ids outside 0 ~ 1023")
+    void constructor_InvalidWorkerId_ShouldThrow() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should generate unique increasing ids across threads")
+    void nextId_Concurrent_ShouldBeUnique() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    long last = 0;
+                    for (int i = 0; i < 20_000; i++) {
+                        long id = generator.nextId();
+                        assertThat(id).isGreaterThan(last);
+                        last = id;
+                        ids.add(id);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Nested
+    @DisplayName("clock drift Tests")
+    class ClockDriftTests {
+
+        @Test
+        @DisplayName("should keep issuing ids when the clock moves back within tolerance")
+        void nextId_SmallBackwardJump_ShouldContinue() {
+            // Given
+            AtomicLong clock = new AtomicLong(NOW);
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10, clock::get, 0L);
+            long before = generator.nextId();
+
+            // When
+            clock.addAndGet(-5);
+            long after = generator.nextId();
+
+            // Then
+            assertThat(after).isGreaterThan(before);
+            assertThat(timestampOf(after)).isEqualTo(timestampOf(before));
+        }
+
+        @Test
+        @DisplayName("should refuse to issue ids when the clock moves back beyond tolerance")
+        void nextId_LargeBackwardJump_ShouldThrow() {
+            // Given
+            AtomicLong clock = new AtomicLong(NOW);
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10, clock::get, 0L);
+            generator.nextId();
+
+            // When
+            clock.addAndGet(-11);
+
+            // Then
+            assertThatThrownBy(generator::nextId)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Clock moved backwards");
+        }
+
+        @Test
+        @DisplayName("should borrow following milliseconds when the sequence is exhausted")
+        void nextId_SequenceExhausted_ShouldCarryIntoNextMillisecond() {
+            // Given
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10, () -> NOW, 0L);
+
+            // When
+            long[] ids = generator.nextIds(4096 * 3);
+
+            // Then
+            assertThat(timestampOf(ids[0])).isEqualTo(100_000);
+            assertThat(timestampOf(ids[ids.length - 1])).isEqualTo(100_002);
+        }
+    }
+
+    @Nested
+    @DisplayName("nextIds Tests")
+    class NextIdsTests {
+
+        @Test
+        @DisplayName("should return consecutive unique ids")
+        void nextIds_ShouldReturnIncreasingIds() {
+            // Given
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, 10);
+
+            // When
+            long[] ids = generator.nextIds(10_000);
+            long next = generator.nextId();
+
+            // Then
+            Set<Long> unique = new HashSet<>();
+            for (int i = 0; i < ids.length; i++) {
+                unique.add(ids[i]);
+                if (i > 0) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+            }
+            assertThat(unique).hasSize(10_000);
+            assertThat(next).isGreaterThan(ids[ids.length - 1]);
+        }
+
+        @Test
+        @DisplayName("should return an empty array for zero")
+        void nextIds_Zero_ShouldReturnEmpty() {
+            assertThat(new SnowflakeIdGenerator(7, 10).nextIds(0)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep ids increasing after switching worker id")
+    void withWorkerId_ShouldContinueFromPreviousState() {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10, () -> NOW, 0L);
+        long before = generator.nextIds(100)[99];
+
+        // When
+        long after = generator.withWorkerId(0, 10).nextId();
+
+        // Then
+        assertThat(workerOf(after)).isZero();
+        assertThat(after & 4095).isEqualTo((before & 4095) + 1);
+    }
+}
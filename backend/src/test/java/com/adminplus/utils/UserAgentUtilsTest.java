@@ -0,0 +1,39 @@
+package com.adminplus.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UserAgentUtils 测试类
+ *
+ * @author AdminPlus
+ * @since 2026-10-18
+ */
+@DisplayName("UserAgentUtils Unit Tests")
+class UserAgentUtilsTest {
+
+    private static final String CHROME_WINDOWS = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) "
+            + "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+    private static final String EDGE_WINDOWS = CHROME_WINDOWS + " Edg/120.0.0.0";
+    private static final String SAFARI_IPHONE = "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) "
+            + "AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.0 Mobile/15E148 Safari/604.1";
+
+    @Test
+    @DisplayName("should detect browser with Chromium-based precedence")
+    void parseBrowser_ShouldDetectCommonBrowsers() {
+        assertThat(UserAgentUtils.parseBrowser(CHROME_WINDOWS)).isEqualTo("Chrome");
+        assertThat(UserAgentUtils.parseBrowser(EDGE_WINDOWS)).isEqualTo("Edge");
+        assertThat(UserAgentUtils.parseBrowser(SAFARI_IPHONE)).isEqualTo("Safari");
+        assertThat(UserAgentUtils.parseBrowser(null)).isEqualTo("Unknown");
+    }
+
+    @Test
+    @DisplayName("should detect operating system")
+    void parseOs_ShouldDetectCommonSystems() {
+        assertThat(UserAgentUtils.parseOs(CHROME_WINDOWS)).isEqualTo("Windows");
+        assertThat(UserAgentUtils.parseOs(SAFARI_IPHONE)).isEqualTo("iOS");
+        assertThat(UserAgentUtils.parseOs("curl/8.0")).isEqualTo("Unknown");
+    }
+}
@@ -151,6 +151,32 @@ class XssUtilsTest {
             assertFalse(sanitized.contains("javascript:"), "应该移除 javascript: 协议");
         }
 
+        @Test
+        @DisplayName("应移除嵌套拼接的危险片段")
+        void shouldRemoveNestedFragments() {
+            assertFalse(XssUtils.sanitize("<scr<scriptipt>alert(1)").toLowerCase().contains("<script"),
+                    "移除内层标签后拼出的 <script 也应被移除");
+            assertFalse(XssUtils.sanitize("jajavascript:vascript:alert(1)").contains("javascript:"),
+                    "移除内层协议后拼出的 javascript: 也应被移除");
+            assertFalse(XssUtils.sanitize("<div ononclick=click=\"x\">").contains("onclick="),
+                    "移除内层事件后拼出的 onclick= 也应被移除");
+        }
+
+        @Test
+        @DisplayName("与改造前的正则实现结果一致")
+        void shouldMatchRegexBehaviour() {
+            assertEquals("<img src=x \"alert(1)\">", XssUtils.sanitize("<img src=x onerror=\"alert(1)\">"));
+            assertEquals("<a href=\"alert(1)\">x</a>", XssUtils.sanitize("<a href=\"JavaScript:alert(1)\">x</a>"));
+            assertEquals("on=1 one two", XssUtils.sanitize("  on=1 one two  "));
+        }
+
+        @Test
+        @DisplayName("无危险片段时应返回原字符串")
+        void shouldReturnSameInstanceForCleanInput() {
+            String input = "这是一段普通的审批意见，同意报销。<p>进度 80%</p> online";
+            assertSame(input, XssUtils.sanitize(input));
+        }
+
         @Test
         @DisplayName("应处理 null 返回 null")
         void shouldReturnNullForNull() {